@@ -17,6 +17,7 @@ import org.openrewrite.ExecutionContext;
 import org.openrewrite.Option;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
+import org.openrewrite.Validated;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.JavaTemplate;
 import org.openrewrite.java.TypeMatcher;
@@ -43,6 +44,9 @@ import lombok.Value;
  * - A method template string that can be dynamically populated with contextual information
  * such as variable names, types, and their owning class name.
  * - Optional import types that the generated code may need.
+ * - Optional template variants, each a fully qualified type and a template separated by <code>=</code>, of which
+ * the first one whose type matches the (inherited) type of the variable is used instead of the method template.
+ * This allows, for example, a typed unmodifiable view per collection type instead of a copy of the collection.
  * <p>
  * Features:
  * - Dynamic generation of methods based on a customizable template.
@@ -87,6 +91,14 @@ public class AddMethodToVariableDeclarationConditionally extends Recipe {
             example = "java.util.Collection")
     String fullyQualifiedType;
 
+    @Option(displayName = "Template variants",
+            description = "Templates that replace the method template for variables of a given (inherited) type, " +
+                    "formatted as the fully qualified type, `=` and the template. The first matching variant is used.",
+            required = false,
+            example = "java.util.List=@Programmatic public List<$varGType$> get$varNameC$() { return Collections.unmodifiableList($varName$); }")
+    @Nullable
+    String[] templateVariants;
+
     @Option(displayName = "Maybe import types",
             description = "When the template introduces new types, specify them in this list",
             required = false,
@@ -98,11 +110,13 @@ public class AddMethodToVariableDeclarationConditionally extends Recipe {
             @NonNull @JsonProperty("regularExpression") String regularExpression,
             @NonNull @JsonProperty("methodTemplateString") String methodTemplateString,
             @Nullable @JsonProperty("fullyQualifiedType") String fullyQualifiedType,
+            @Nullable @JsonProperty("templateVariants") String[] templateVariants,
             @Nullable @JsonProperty("maybeImportTypes") String... maybeImportTypes
     ) {
         this.regularExpression = regularExpression;
         this.methodTemplateString = methodTemplateString;
         this.fullyQualifiedType = fullyQualifiedType;
+        this.templateVariants = templateVariants;
         this.maybeImportTypes = maybeImportTypes;
     }
 
@@ -116,6 +130,18 @@ public class AddMethodToVariableDeclarationConditionally extends Recipe {
         return "Adds method after variable declaration if it has an annotation that matches the regular expression.";
     }
 
+    @Override
+    public Validated<Object> validate() {
+        Validated<Object> validated = super.validate();
+        if (templateVariants != null) {
+            for (String variant : templateVariants) {
+                validated = validated.and(Validated.test("templateVariants",
+                        "expected a fully qualified type, '=' and a template", variant, v -> v.indexOf('=') > 0));
+            }
+        }
+        return validated;
+    }
+
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
         return new AddMethodToVariableDeclarationConditionallyVisitor();
@@ -143,7 +169,7 @@ public class AddMethodToVariableDeclarationConditionally extends Recipe {
                         .orElse(Objects.requireNonNull(mv.getTypeAsFullyQualified()).getFullyQualifiedName());
                 String varGType = varGTypeFq.substring(varGTypeFq.lastIndexOf('.') + 1);
                 String className = classDecl.getSimpleName();
-                String template = replaceWithVariables(methodTemplateString, varName, varNameC, varGType, varGTypeFq, className);
+                String template = replaceWithVariables(templateOf(mv), varName, varNameC, varGType, varGTypeFq, className);
 
                 // Add imports
                 final var jTemplate = JavaTemplate.builder(template);
@@ -185,6 +211,22 @@ public class AddMethodToVariableDeclarationConditionally extends Recipe {
             return classDecl;
         }
 
+        /**
+         * @return the template of the first variant that matches the type of the variable, or else the method template
+         */
+        protected String templateOf(J.VariableDeclarations mv) {
+            if (templateVariants != null) {
+                for (String variant : templateVariants) {
+                    int separator = variant.indexOf('=');
+                    // Malformed variants are reported by validate()
+                    if (separator > 0 && new TypeMatcher(variant.substring(0, separator).trim(), true).matches(mv.getTypeExpression())) {
+                        return variant.substring(separator + 1);
+                    }
+                }
+            }
+            return methodTemplateString;
+        }
+
         private static String replaceWithVariables(String input, String varName, String varNameC, String varGType, String varGTypeFq, String className) {
             return StringUtils.replaceEach(input,
                     new String[]{"$varName$", "$varNameC$", "$varGType$", "$varGTypeFq$", "$className$"},
@@ -8,6 +8,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -123,17 +124,8 @@ public class CopyAnnotationAttributeFromSubclassToParentClass extends ScanningRe
                     }
 
                     // Collect the names of all super classes and interfaces.
-                    JavaType.FullyQualified currentFq = cd.getType();
-                    while (currentFq != null) {
-                        JavaType.FullyQualified supertype = currentFq.getSupertype();
-                        for (JavaType.FullyQualified i : currentFq.getInterfaces()) {
-                            acc.childrenByParent.computeIfAbsent(i, v -> new HashSet<>()).add(currentFq);
-                        }
-                        if (supertype != null && !"java.lang.Object".equals(supertype.getFullyQualifiedName())) {
-                            acc.childrenByParent.computeIfAbsent(supertype, v -> new HashSet<>()).add(currentFq);
-                        }
-                        currentFq = supertype;
-                    }
+                    collectHierarchy(cd.getType(), (parent, child) ->
+                            acc.childrenByParent.computeIfAbsent(parent, v -> new HashSet<>()).add(child));
                 }
                 return cd;
             }
@@ -217,6 +209,29 @@ public class CopyAnnotationAttributeFromSubclassToParentClass extends ScanningRe
         };
     }
 
+    /**
+     * Reports every parent and child pair of the type hierarchy of the given type, the parents are the super classes
+     * other than <code>Object</code> and the interfaces.
+     *
+     * @param type     the type to start from, may be null
+     * @param consumer receives the parent and child of every pair
+     */
+    public static void collectHierarchy(
+            JavaType.@Nullable FullyQualified type,
+            BiConsumer<JavaType.FullyQualified, JavaType.FullyQualified> consumer) {
+        JavaType.FullyQualified currentFq = type;
+        while (currentFq != null) {
+            JavaType.FullyQualified supertype = currentFq.getSupertype();
+            for (JavaType.FullyQualified i : currentFq.getInterfaces()) {
+                consumer.accept(i, currentFq);
+            }
+            if (supertype != null && !"java.lang.Object".equals(supertype.getFullyQualifiedName())) {
+                consumer.accept(supertype, currentFq);
+            }
+            currentFq = supertype;
+        }
+    }
+
     @Data
     class Accumulator {
         final Map<JavaType.FullyQualified, Set<JavaType.FullyQualified>> childrenByParent = new HashMap<>();
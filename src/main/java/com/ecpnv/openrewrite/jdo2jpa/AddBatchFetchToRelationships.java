@@ -0,0 +1,249 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+import org.openrewrite.Preconditions;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.StringUtils;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+import org.openrewrite.properties.tree.Properties;
+
+import com.ecpnv.openrewrite.util.RewriteUtils;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+/**
+ * Adds the EclipseLink <code>@BatchFetch(BatchFetchType.IN)</code> annotation to the relationship fields of an entity,
+ * so a table of parent rows loads the related rows of all parents with one select per relationship, instead of one
+ * select per parent.
+ * <p>
+ * The migration adheres to the following rules:
+ * <ul>
+ * <li> Only fields of classes annotated with <code>@Entity</code> or <code>@PersistenceCapable</code> and annotated
+ * with <code>@OneToMany</code>, <code>@ManyToMany</code>, <code>@OneToOne</code> or <code>@ManyToOne</code> are
+ * annotated, hence it must run after <code>@Persistent</code> is migrated.
+ * <li> Fields that already have a <code>@BatchFetch</code> annotation are skipped.
+ * <li> Without a policy file all entities are annotated. With a policy file only the entities for which the most
+ * specific entry, the fully qualified class name or else the nearest enclosing package, is enabled are annotated.
+ * <li> A policy entry is a batch size, <code>true</code> for the default size or <code>false</code> to disable
+ * batch fetching:
+ * <pre>
+ * org.example.asset=256
+ * org.example.asset.AssetHistory=false
+ * org.example.party.Party=true
+ * </pre>
+ * <li> The policy file is one of the source files of the run, the properties file whose source path ends with the
+ * path of the option, so it is an input of the run like the entities are. When there is no such file nothing is
+ * annotated, which makes batch fetching opt-in in composite recipes.
+ * </ul>
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class AddBatchFetchToRelationships extends ScanningRecipe<AddBatchFetchToRelationships.Accumulator> {
+
+    public static final String TARGET_TYPE_NAME = Constants.EclipseLink.BATCH_FETCH_ANNOTATION_NAME;
+    public static final String TARGET_TYPE = Constants.EclipseLink.BATCH_FETCH_ANNOTATION_FULL;
+    public static final String TARGET_ANNOTATION_TYPE = "@" + TARGET_TYPE;
+
+    // EclipseLink is not on the classpath of the recipe, hence the templates are attributed with these stubs
+    private static final String[] ECLIPSELINK_STUBS = {
+            "package org.eclipse.persistence.annotations; public enum BatchFetchType { JOIN, EXISTS, IN }",
+            """
+            package org.eclipse.persistence.annotations;
+            @java.lang.annotation.Target({java.lang.annotation.ElementType.METHOD, java.lang.annotation.ElementType.FIELD})
+            @java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)
+            public @interface BatchFetch {
+                BatchFetchType value() default BatchFetchType.JOIN;
+                int size() default -1;
+            }
+            """};
+
+    @Option(displayName = "Policy file",
+            description = "Optional properties file that maps packages and fully qualified entity names to a batch " +
+                    "size, `true` for the default size or `false`, found among the source files by the end of its " +
+                    "path. When absent all entities are annotated.",
+            required = false,
+            example = "jdo2jpa-batch-fetch.properties")
+    @Nullable
+    String policyFile;
+
+    @Option(displayName = "Default batch size",
+            description = "The batch size of entities without a size in the policy file. When absent the size of " +
+                    "EclipseLink applies.",
+            required = false,
+            example = "256")
+    @Nullable
+    Integer defaultSize;
+
+    @JsonCreator
+    public AddBatchFetchToRelationships(
+            @Nullable @JsonProperty("policyFile") String policyFile,
+            @Nullable @JsonProperty("defaultSize") Integer defaultSize) {
+        this.policyFile = policyFile;
+        this.defaultSize = defaultSize;
+    }
+
+    @Override
+    public @NotNull String getDisplayName() {
+        return "Add `" + TARGET_ANNOTATION_TYPE + "` to the relationships of entities";
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return "Adds the EclipseLink `" + TARGET_ANNOTATION_TYPE + "(BatchFetchType.IN)` annotation to the " +
+                "relationship fields of the entities selected by a per-package or per-entity policy file.";
+    }
+
+    @Override
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        Accumulator acc = new Accumulator();
+        acc.enabled = StringUtils.isBlank(policyFile);
+        return acc;
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        if (StringUtils.isBlank(policyFile)) {
+            return TreeVisitor.noop();
+        }
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof Properties.File file && file.getSourcePath().endsWith(Path.of(policyFile))) {
+                    file.getContent().stream()
+                            .filter(Properties.Entry.class::isInstance)
+                            .map(Properties.Entry.class::cast)
+                            .forEach(entry -> acc.policy.put(entry.getKey().trim(),
+                                    parsePolicy(file.getSourcePath(), entry.getKey(), entry.getValue().getText().trim())));
+                }
+                return tree;
+            }
+        };
+    }
+
+    @Override
+    public @NotNull TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+        if (!acc.enabled && acc.policy.isEmpty()) {
+            return TreeVisitor.noop();
+        }
+        return Preconditions.check(Preconditions.or(
+                        new UsesType<>(Constants.Jdo.PERSISTENCE_CAPABLE_ANNOTATION_FULL, false),
+                        new UsesType<>(Constants.Jpa.ENTITY_ANNOTATION_FULL, false)),
+                new JavaIsoVisitor<ExecutionContext>() {
+                    @Override
+                    public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, ExecutionContext ctx) {
+                        J.VariableDeclarations mv = super.visitVariableDeclarations(multiVariable, ctx);
+                        // Exit if var part of method, not a relationship or already batch fetched
+                        if (RewriteUtils.isMethodOwnerOfVar(mv) || !RewriteUtils.isRelationship(mv) || hasBatchFetch(mv)) {
+                            return mv;
+                        }
+                        // Exit if owner is not an entity or is not selected by the policy
+                        J.ClassDeclaration owner = RewriteUtils.findParentClass(getCursor());
+                        if (owner == null || owner.getType() == null
+                                || (RewriteUtils.findLeadingAnnotations(owner, Constants.Jpa.ENTITY_ANNOTATION_FULL).isEmpty()
+                                && RewriteUtils.findLeadingAnnotations(owner, Constants.Jdo.PERSISTENCE_CAPABLE_ANNOTATION_FULL).isEmpty())) {
+                            return mv;
+                        }
+                        Optional<Policy> policy = acc.policyOf(owner.getType());
+                        if (policy.isEmpty()) {
+                            return mv;
+                        }
+                        Integer size = Optional.ofNullable(policy.get().size).orElse(defaultSize);
+                        StringBuilder template = new StringBuilder("@").append(TARGET_TYPE_NAME).append("(");
+                        if (size == null) {
+                            template.append(Constants.EclipseLink.BATCH_FETCH_TYPE_NAME).append(".IN");
+                        } else {
+                            template.append("value = ").append(Constants.EclipseLink.BATCH_FETCH_TYPE_NAME)
+                                    .append(".IN, size = ").append(size);
+                        }
+                        template.append(")");
+                        maybeAddImport(TARGET_TYPE);
+                        maybeAddImport(Constants.EclipseLink.BATCH_FETCH_TYPE_FULL);
+                        return JavaTemplate.builder(template.toString())
+                                .javaParser(JavaParser.fromJavaVersion().dependsOn(ECLIPSELINK_STUBS))
+                                .imports(TARGET_TYPE, Constants.EclipseLink.BATCH_FETCH_TYPE_FULL)
+                                .build()
+                                .apply(getCursor(), mv.getCoordinates().addAnnotation(Comparator.comparing(J.Annotation::getSimpleName)));
+                    }
+                });
+    }
+
+    static boolean hasBatchFetch(J.VariableDeclarations multiVariable) {
+        // The annotation type is unknown when EclipseLink is not on the classpath of the parser
+        return multiVariable.getLeadingAnnotations().stream()
+                .anyMatch(annotation -> TypeUtils.isOfClassType(annotation.getType(), TARGET_TYPE)
+                        || TARGET_TYPE_NAME.equals(annotation.getSimpleName()));
+    }
+
+    private static Policy parsePolicy(Path file, String name, String value) {
+        if ("true".equalsIgnoreCase(value)) {
+            return new Policy(true, null);
+        }
+        if ("false".equalsIgnoreCase(value)) {
+            return new Policy(false, null);
+        }
+        try {
+            int size = Integer.parseInt(value);
+            return size > 0 ? new Policy(true, size) : new Policy(false, null);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid batch fetch policy '" + value + "' for " + name + " in " + file +
+                    ", expected a batch size, true or false", e);
+        }
+    }
+
+    /**
+     * The batch fetch policy of an entity or package.
+     */
+    @Value
+    static class Policy {
+        boolean enabled;
+        @Nullable
+        Integer size;
+    }
+
+    @Data
+    public static class Accumulator {
+        boolean enabled;
+        Map<String, Policy> policy = new HashMap<>();
+
+        /**
+         * @return the policy of the most specific entry for the given type when it is enabled, or the default policy
+         * when no policy file is used
+         */
+        Optional<Policy> policyOf(JavaType.FullyQualified type) {
+            String name = type.getFullyQualifiedName().replace('$', '.');
+            while (!name.isEmpty()) {
+                Policy found = policy.get(name);
+                if (found != null) {
+                    return found.enabled ? Optional.of(found) : Optional.empty();
+                }
+                int dot = name.lastIndexOf('.');
+                name = dot < 0 ? "" : name.substring(0, dot);
+            }
+            return enabled ? Optional.of(new Policy(true, null)) : Optional.empty();
+        }
+    }
+}
@@ -1,40 +1,65 @@
 package com.ecpnv.openrewrite.jdo2jpa;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import static java.util.Collections.emptyList;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.jspecify.annotations.Nullable;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.NlsRewrite;
+import org.openrewrite.Option;
 import org.openrewrite.ScanningRecipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
 import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.StringUtils;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.JavaTemplate;
 import org.openrewrite.java.search.FindAnnotations;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.Space;
+import org.openrewrite.xml.XmlParser;
 
 import com.ecpnv.openrewrite.util.JavaParserFactory;
 
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
 /**
  * A recipe that adds a {@link org.springframework.boot.autoconfigure.domain.EntityScan} looking for entities and when
  * it finds a {@link org.springframework.context.annotation.Configuration} with a
  * {@link org.springframework.context.annotation.ComponentScan} and adds the package names of the found entites for the
  * entity scan path.
  * <p>
+ * The package names are compacted, as an entity scan includes the subpackages: packages below another package are
+ * dropped and sibling packages are collapsed into their ancestor when at least the compaction threshold of the
+ * packages below that ancestor contain entities. Existing packages of the entity scan are merged with the found ones.
+ * <p>
+ * Alternatively, when a persistence.xml path is given, no entity scan is added but a <code>persistence.xml</code> is
+ * generated that lists every entity and mapped superclass found and excludes the unlisted classes, so the application
+ * skips the discovery of entities at startup. The <code>persistence.xml</code> is not generated when it already
+ * exists. Optionally it enables the EclipseLink static weaving, which requires the entities to be woven at build time.
  *
  * @author Wouter Veltmaat @ Open Circle Solutions
  */
-public class AddEntityScanAnnotationConditionally extends ScanningRecipe<Set<String>> {
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class AddEntityScanAnnotationConditionally extends ScanningRecipe<AddEntityScanAnnotationConditionally.Accumulator> {
 
     private static final String COMPONENT_SCAN_CLASS_NAME = "ComponentScan";
     private static final String COMPONENT_SCAN_FULL_CLASS = "org.springframework.context.annotation." + COMPONENT_SCAN_CLASS_NAME;
@@ -43,8 +68,53 @@ public class AddEntityScanAnnotationConditionally extends ScanningRecipe<Set<Str
     private static final String ENTITY_SCAN_FULL_CLASS = "org.springframework.boot.autoconfigure.domain." + ENTITY_SCAN_CLASS_NAME;
     private static final String ENTITY_SCAN_FULL_ANNOTATION = "@" + ENTITY_SCAN_FULL_CLASS;
 
-    @JsonCreator
+    public static final String DEFAULT_PERSISTENCE_UNIT_NAME = "default";
+    public static final double DEFAULT_COMPACTION_THRESHOLD = 1.0;
+
+    @Option(displayName = "persistence.xml path",
+            description = "When given, a persistence.xml listing the entities is generated instead of adding an entity scan.",
+            required = false,
+            example = "src/main/resources/META-INF/persistence.xml")
+    @Nullable
+    String persistenceXml;
+
+    @Option(displayName = "Persistence unit name",
+            description = "The name of the persistence unit of the generated persistence.xml. The default is `" +
+                    DEFAULT_PERSISTENCE_UNIT_NAME + "`.",
+            required = false,
+            example = "default")
+    @Nullable
+    String persistenceUnitName;
+
+    @Option(displayName = "Static weaving",
+            description = "Whether the generated persistence.xml enables the EclipseLink static weaving. The default is false.",
+            required = false)
+    @Nullable
+    Boolean staticWeaving;
+
+    @Option(displayName = "Compaction threshold",
+            description = "The minimal fraction of the packages below an ancestor package that must contain entities to " +
+                    "scan the ancestor instead of its packages. The default is " + DEFAULT_COMPACTION_THRESHOLD +
+                    ", so only ancestors without other packages are scanned.",
+            required = false,
+            example = "0.8")
+    @Nullable
+    Double compactionThreshold;
+
     public AddEntityScanAnnotationConditionally() {
+        this(null, null, null, null);
+    }
+
+    @JsonCreator
+    public AddEntityScanAnnotationConditionally(
+            @Nullable @JsonProperty("persistenceXml") String persistenceXml,
+            @Nullable @JsonProperty("persistenceUnitName") String persistenceUnitName,
+            @Nullable @JsonProperty("staticWeaving") Boolean staticWeaving,
+            @Nullable @JsonProperty("compactionThreshold") Double compactionThreshold) {
+        this.persistenceXml = persistenceXml;
+        this.persistenceUnitName = persistenceUnitName;
+        this.staticWeaving = staticWeaving;
+        this.compactionThreshold = compactionThreshold;
     }
 
     @Override
@@ -54,45 +124,105 @@ public class AddEntityScanAnnotationConditionally extends ScanningRecipe<Set<Str
 
     @Override
     public @NlsRewrite.Description String getDescription() {
-        return "Add Entity Scan Annotation when class is annotated with @ComponentScan.";
+        return "Add Entity Scan Annotation when class is annotated with @ComponentScan, or generate a persistence.xml " +
+                "listing the entities.";
     }
 
     @Override
-    public Set<String> getInitialValue(ExecutionContext ctx) {
-        return new HashSet<>();
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        return new Accumulator();
     }
 
     @Override
-    public TreeVisitor<?, ExecutionContext> getScanner(Set<String> packageNames) {
-        return new JavaIsoVisitor<>() {
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        JavaIsoVisitor<ExecutionContext> javaScanner = new JavaIsoVisitor<>() {
             @Override
             public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext executionContext) {
                 J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, executionContext);
-                if (CollectionUtils.isNotEmpty(FindAnnotations.find(cd, Constants.Jdo.PERSISTENCE_CAPABLE_ANNOTATION_FULL)) ||
-                        CollectionUtils.isNotEmpty(FindAnnotations.find(cd, Constants.Jpa.ENTITY_ANNOTATION_FULL))) {
-                    packageNames.add(cd.getType().getPackageName());
+                if (cd.getType() != null) {
+                    acc.allPackageNames.add(cd.getType().getPackageName());
+                }
+                if (cd.getType() != null && (CollectionUtils.isNotEmpty(FindAnnotations.find(cd, Constants.Jdo.PERSISTENCE_CAPABLE_ANNOTATION_FULL)) ||
+                        CollectionUtils.isNotEmpty(FindAnnotations.find(cd, Constants.Jpa.ENTITY_ANNOTATION_FULL)))) {
+                    acc.packageNames.add(cd.getType().getPackageName());
+                    acc.classNames.add(cd.getType().getFullyQualifiedName());
+                } else if (cd.getType() != null && CollectionUtils.isNotEmpty(
+                        FindAnnotations.find(cd, Constants.Jpa.MAPPED_SUPERCLASS_ANNOTATION_FULL))) {
+                    acc.classNames.add(cd.getType().getFullyQualifiedName());
                 }
                 return cd;
             }
         };
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof SourceFile sourceFile && isPersistenceXml(sourceFile)) {
+                    acc.persistenceXmlExists = true;
+                } else if (tree instanceof J.CompilationUnit) {
+                    javaScanner.visit(tree, ctx);
+                }
+                return tree;
+            }
+        };
     }
 
     @Override
-    public TreeVisitor<?, ExecutionContext> getVisitor(final Set<String> packageNames) {
+    public Collection<? extends SourceFile> generate(Accumulator acc, ExecutionContext ctx) {
+        if (StringUtils.isBlank(persistenceXml) || acc.persistenceXmlExists || acc.classNames.isEmpty()) {
+            return List.of();
+        }
+        return new XmlParser().parse(toPersistenceXml(acc))
+                .map(sourceFile -> sourceFile.<SourceFile>withSourcePath(Path.of(persistenceXml)))
+                .collect(Collectors.toList());
+    }
+
+    boolean isPersistenceXml(SourceFile sourceFile) {
+        return !StringUtils.isBlank(persistenceXml) && Path.of(persistenceXml).equals(sourceFile.getSourcePath());
+    }
+
+    String toPersistenceXml(Accumulator acc) {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<persistence xmlns=\"http://xmlns.jcp.org/xml/ns/persistence\"\n")
+                .append("             xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n")
+                .append("             xsi:schemaLocation=\"http://xmlns.jcp.org/xml/ns/persistence ")
+                .append("http://xmlns.jcp.org/xml/ns/persistence/persistence_2_2.xsd\"\n")
+                .append("             version=\"2.2\">\n")
+                .append("    <persistence-unit name=\"")
+                .append(StringUtils.isBlank(persistenceUnitName) ? DEFAULT_PERSISTENCE_UNIT_NAME : persistenceUnitName)
+                .append("\">\n")
+                .append("        <provider>").append(Constants.EclipseLink.PERSISTENCE_PROVIDER).append("</provider>\n");
+        acc.classNames.forEach(className -> xml.append("        <class>").append(className).append("</class>\n"));
+        xml.append("        <exclude-unlisted-classes>true</exclude-unlisted-classes>\n");
+        if (Boolean.TRUE.equals(staticWeaving)) {
+            xml.append("        <properties>\n")
+                    .append("            <property name=\"").append(Constants.EclipseLink.WEAVING_PROPERTY)
+                    .append("\" value=\"static\"/>\n")
+                    .append("        </properties>\n");
+        }
+        return xml.append("    </persistence-unit>\n").append("</persistence>\n").toString();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(final Accumulator acc) {
+        if (!StringUtils.isBlank(persistenceXml)) {
+            // the persistence.xml lists the entities, so no entity scan is needed
+            return TreeVisitor.noop();
+        }
         return new JavaIsoVisitor<>() {
 
             @Override
             public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
 
                 final J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
-                if (CollectionUtils.isNotEmpty(packageNames)) {
+                if (CollectionUtils.isNotEmpty(acc.packageNames)) {
                     final List<J.Annotation> annotations = cd.getLeadingAnnotations();
                     final Set<J.Annotation> componentScanAnnotations = FindAnnotations.find(cd, COMPONENT_SCAN_ANNOTATION);
 
                     J.Annotation entityScanAnnotation = getEntityScanAnnotation(annotations);
                     if (CollectionUtils.isNotEmpty(componentScanAnnotations)) {
                         if (entityScanAnnotation == null) {
-                            final String packages = packageNames.stream()
+                            final String packages = compact(acc.packageNames, acc.allPackageNames).stream()
                                     .map(name -> "\"%s\"".formatted(name))
                                     .collect(Collectors.joining(","));
                             final String template = ENTITY_SCAN_FULL_ANNOTATION + "({%s})".formatted(packages);
@@ -102,18 +232,17 @@ public class AddEntityScanAnnotationConditionally extends ScanningRecipe<Set<Str
                                     .imports(ENTITY_SCAN_FULL_CLASS)
                                     .build()
                                     .apply(getCursor(), cd.getCoordinates().addAnnotation(Comparator.comparing(J.Annotation::getSimpleName)));
-                        } else if (entityScanAnnotation != null && entityScanAnnotation.getArguments().getFirst() instanceof J.NewArray newArray &&
-                                newArray.getInitializer().stream()
-                                        .filter(J.Literal.class::isInstance)
-                                        .map(J.Literal.class::cast)
-                                        .noneMatch(literal -> packageNames.contains(literal.getValue()))) {
-
-                            List<String> mergedPackages = new ArrayList<>();
-                            newArray.getInitializer().stream()
+                        } else if (entityScanAnnotation.getArguments().getFirst() instanceof J.NewArray newArray) {
+                            final Set<String> existingPackages = newArray.getInitializer().stream()
                                     .filter(J.Literal.class::isInstance)
-                                    .map(J.Literal.class::cast)
-                                    .forEach(literal -> mergedPackages.add(literal.getValue().toString()));
-                            mergedPackages.addAll(packageNames);
+                                    .map(literal -> String.valueOf(((J.Literal) literal).getValue()))
+                                    .collect(Collectors.toCollection(LinkedHashSet::new));
+                            final Set<String> packageNames = new TreeSet<>(existingPackages);
+                            packageNames.addAll(acc.packageNames);
+                            final Set<String> mergedPackages = compact(packageNames, acc.allPackageNames);
+                            if (mergedPackages.equals(existingPackages)) {
+                                return cd;
+                            }
                             final String packages = mergedPackages.stream()
                                     .map(name -> "\n\"%s\"".formatted(name))
                                     .collect(Collectors.joining(","));
@@ -156,4 +285,64 @@ public class AddEntityScanAnnotationConditionally extends ScanningRecipe<Set<Str
             }
         };
     }
-}
\ No newline at end of file
+
+    /**
+     * @return the minimal sorted set of packages that covers the given packages, given all packages of the sources
+     */
+    Set<String> compact(Set<String> packageNames, Set<String> allPackageNames) {
+        double threshold = compactionThreshold == null ? DEFAULT_COMPACTION_THRESHOLD : compactionThreshold;
+        Set<String> compacted = new TreeSet<>(packageNames);
+        // the deepest ancestors are collapsed first
+        List<String> ancestors = packageNames.stream()
+                .flatMap(packageName -> ancestors(packageName).stream())
+                .distinct()
+                .sorted(Comparator.comparingInt((String ancestor) -> ancestor.split("\\.").length).reversed()
+                        .thenComparing(Comparator.naturalOrder()))
+                .toList();
+        for (String ancestor : ancestors) {
+            List<String> covered = compacted.stream().filter(packageName -> isWithin(packageName, ancestor)).toList();
+            if (covered.size() < 2) {
+                continue;
+            }
+            Set<String> packages = new HashSet<>(covered);
+            allPackageNames.stream().filter(packageName -> isWithin(packageName, ancestor)).forEach(packages::add);
+            long entityPackages = packages.stream()
+                    .filter(packageName -> covered.stream().anyMatch(c -> isWithin(packageName, c)))
+                    .count();
+            if ((double) entityPackages / packages.size() >= threshold) {
+                covered.forEach(compacted::remove);
+                compacted.add(ancestor);
+            }
+        }
+        // an entity scan includes the subpackages
+        compacted.removeIf(packageName -> compacted.stream()
+                .anyMatch(other -> !other.equals(packageName) && isWithin(packageName, other)));
+        return compacted;
+    }
+
+    /**
+     * @return the ancestors of the given package with at least two segments
+     */
+    static List<String> ancestors(String packageName) {
+        List<String> ancestors = new ArrayList<>();
+        for (int i = packageName.lastIndexOf('.'); i > 0; i = packageName.lastIndexOf('.', i - 1)) {
+            String ancestor = packageName.substring(0, i);
+            if (ancestor.contains(".")) {
+                ancestors.add(ancestor);
+            }
+        }
+        return ancestors;
+    }
+
+    static boolean isWithin(String packageName, String ancestor) {
+        return packageName.equals(ancestor) || packageName.startsWith(ancestor + ".");
+    }
+
+    @Data
+    public static class Accumulator {
+        final Set<String> allPackageNames = new TreeSet<>();
+        final Set<String> packageNames = new TreeSet<>();
+        final Set<String> classNames = new TreeSet<>();
+        boolean persistenceXmlExists;
+    }
+}
@@ -0,0 +1,172 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+import org.openrewrite.Preconditions;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.StringUtils;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+
+import com.ecpnv.openrewrite.util.RewriteUtils;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+/**
+ * Adds an index on the discriminator column to the <code>@Table</code> of the root of every hierarchy in which a class
+ * has a JDO <code>@Discriminator(indexed = "true")</code>, because JPA has no indexed attribute on the discriminator.
+ * <p>
+ * The migration adheres to the following rules:
+ * <ul>
+ * <li> The root is the topmost entity of the hierarchy, mapped superclasses do not own the discriminator column.
+ * <li> The index is added to the <code>indexes</code> of an existing <code>@Table</code>, or a <code>@Table</code>
+ * is added when the root has none. The index is named like <code>Party_discriminator_IDX</code>.
+ * <li> No index is added when the table already has an index of only the discriminator column, for example one that
+ * is migrated from a JDO <code>@Index</code>.
+ * </ul>
+ * It must run after the indexes are migrated and before the indexed attribute of the discriminator is removed.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class AddIndexForIndexedDiscriminator extends ScanningRecipe<AddIndexForIndexedDiscriminator.Accumulator> {
+
+    @Option(displayName = "Discriminator column name",
+            description = "The name of the discriminator column. The default is `discriminator`.",
+            required = false,
+            example = "discriminator")
+    @Nullable
+    String columnName;
+
+    @JsonCreator
+    public AddIndexForIndexedDiscriminator(@Nullable @JsonProperty("columnName") String columnName) {
+        this.columnName = columnName;
+    }
+
+    @Override
+    public @NotNull String getDisplayName() {
+        return "Add an index for indexed JDO discriminators";
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return "Adds an `@Index` on the discriminator column to the `@Table` of the root entity of every hierarchy " +
+                "with a JDO `@Discriminator(indexed = \"true\")`.";
+    }
+
+    @Override
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        return new Accumulator();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        return new JavaIsoVisitor<>() {
+            @Override
+            public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+                J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
+                if (cd.getType() == null || !RewriteUtils.isEntity(cd)) {
+                    return cd;
+                }
+                String name = cd.getType().getFullyQualifiedName();
+                JavaType.FullyQualified supertype = cd.getType().getSupertype();
+                acc.supertypes.put(name, supertype == null ? null : supertype.getFullyQualifiedName());
+                boolean indexed = RewriteUtils.findLeadingAnnotations(cd, Constants.Jdo.DISCRIMINATOR_ANNOTATION_FULL).stream()
+                        .anyMatch(annotation -> RewriteUtils.findArgumentValueAsString(annotation, Constants.Jdo.DISCRIMINATOR_ARGUMENT_INDEXED)
+                                .map(value -> "true".equalsIgnoreCase(value.replace("\"", "").trim()))
+                                .orElse(false));
+                if (indexed) {
+                    acc.indexed.add(name);
+                }
+                return cd;
+            }
+        };
+    }
+
+    @Override
+    public @NotNull TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+        Set<String> roots = new HashSet<>();
+        acc.indexed.forEach(name -> roots.add(acc.rootOf(name)));
+        if (roots.isEmpty()) {
+            return TreeVisitor.noop();
+        }
+        String column = StringUtils.isBlank(columnName) ? Constants.Jpa.DISCRIMINATOR_COLUMN_DEFAULT_NAME : columnName;
+        return Preconditions.check(Preconditions.or(
+                        new UsesType<>(Constants.Jdo.PERSISTENCE_CAPABLE_ANNOTATION_FULL, false),
+                        new UsesType<>(Constants.Jpa.ENTITY_ANNOTATION_FULL, false)),
+                new JavaIsoVisitor<ExecutionContext>() {
+                    @Override
+                    public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+                        J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
+                        if (cd.getType() == null || !roots.contains(cd.getType().getFullyQualifiedName())) {
+                            return cd;
+                        }
+                        Optional<J.Annotation> table = RewriteUtils.findLeadingAnnotations(cd, Constants.Jpa.TABLE_ANNOTATION_FULL).stream()
+                                .findFirst();
+                        if (table.isPresent() && RewriteUtils.arrayElements(table.get(), Constants.Jpa.TABLE_ARGUMENT_INDEXES).stream()
+                                .anyMatch(element -> isIndexOf(element, column))) {
+                            return cd;
+                        }
+                        maybeAddImport(Constants.Jpa.TABLE_ANNOTATION_FULL);
+                        maybeAddImport(Constants.Jpa.INDEX_ANNOTATION_FULL);
+                        String index = "@" + Constants.Jpa.INDEX_ANNOTATION_NAME + "(name = \"" + cd.getSimpleName() +
+                                "_" + column + "_IDX\", " + Constants.Jpa.INDEX_ANNOTATION_COLUMN_LIST_ATTRIBUTE +
+                                " = \"" + column + "\")";
+                        return RewriteUtils.addIndexes(cd, List.of(index), getCursor(), ctx);
+                    }
+                });
+    }
+
+    /**
+     * @return true when the element is an index of only the given column
+     */
+    static boolean isIndexOf(Expression element, String column) {
+        if (!(element instanceof J.Annotation annotation)
+                || !(TypeUtils.isOfClassType(annotation.getType(), Constants.Jpa.INDEX_ANNOTATION_FULL)
+                || Constants.Jpa.INDEX_ANNOTATION_NAME.equals(annotation.getSimpleName()))) {
+            return false;
+        }
+        return RewriteUtils.findArgumentValueAsString(annotation, Constants.Jpa.INDEX_ANNOTATION_COLUMN_LIST_ATTRIBUTE)
+                .map(value -> value.replace("\"", "").trim().equalsIgnoreCase(column))
+                .orElse(false);
+    }
+
+    @Data
+    public static class Accumulator {
+        Map<String, String> supertypes = new HashMap<>();
+        Set<String> indexed = new HashSet<>();
+
+        /**
+         * @return the topmost entity of the hierarchy of the given entity
+         */
+        String rootOf(String name) {
+            Set<String> visited = new HashSet<>();
+            String root = name;
+            for (String supertype = supertypes.get(root); supertype != null && supertypes.containsKey(supertype)
+                    && visited.add(supertype); supertype = supertypes.get(supertype)) {
+                root = supertype;
+            }
+            return root;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+
+import com.ecpnv.openrewrite.util.RewriteUtils;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+/**
+ * Adds an index on every foreign key column of an entity to its <code>@Table</code>, because JPA does not create
+ * indexes for join columns, while the DataNucleus schema generation did. Without them a join on the foreign key scans
+ * the table.
+ * <p>
+ * The migration adheres to the following rules:
+ * <ul>
+ * <li> The foreign key columns are the names of the <code>@JoinColumn</code> annotations of the <code>@ManyToOne</code>
+ * and owning <code>@OneToOne</code> fields of the entity, hence it must run after <code>@Persistent</code> is
+ * migrated. Join columns without a name are skipped, as their default name depends on the referenced primary key.
+ * <li> A column is skipped when it is the leading column of an index of the table or of a unique constraint, for
+ * example one that is migrated from a JDO <code>@Index</code> or <code>@Unique</code>, or when the field is part of
+ * the primary key.
+ * <li> The index is added to the <code>indexes</code> of an existing <code>@Table</code>, or a <code>@Table</code>
+ * is added when the entity has none.
+ * </ul>
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class AddIndexForJoinColumns extends Recipe {
+
+    @Override
+    public @NotNull String getDisplayName() {
+        return "Add an index for the foreign key columns of entities";
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return "Adds an `@Index` to the `@Table` of an entity for every `@JoinColumn` of a to-one relationship that " +
+                "is not the leading column of an existing index or unique constraint.";
+    }
+
+    @Override
+    public @NotNull TreeVisitor<?, ExecutionContext> getVisitor() {
+        return Preconditions.check(new UsesType<>(Constants.Jpa.JOIN_COLUMN_ANNOTATION_FULL, false),
+                new JavaIsoVisitor<ExecutionContext>() {
+                    @Override
+                    public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+                        J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
+                        if (cd.getType() == null || !RewriteUtils.isEntity(cd)) {
+                            return cd;
+                        }
+                        Set<String> covered = new HashSet<>();
+                        RewriteUtils.findLeadingAnnotations(cd, Constants.Jpa.TABLE_ANNOTATION_FULL).stream()
+                                .findFirst()
+                                .ifPresent(table -> covered.addAll(leadingColumns(table)));
+                        List<String> indexes = new ArrayList<>();
+                        for (String column : joinColumns(cd)) {
+                            if (covered.add(column.toLowerCase(Locale.ROOT))) {
+                                indexes.add("@" + Constants.Jpa.INDEX_ANNOTATION_NAME + "(" +
+                                        Constants.Jpa.INDEX_ANNOTATION_COLUMN_LIST_ATTRIBUTE + " = \"" + column + "\")");
+                            }
+                        }
+                        if (indexes.isEmpty()) {
+                            return cd;
+                        }
+                        maybeAddImport(Constants.Jpa.TABLE_ANNOTATION_FULL);
+                        maybeAddImport(Constants.Jpa.INDEX_ANNOTATION_FULL);
+                        return RewriteUtils.addIndexes(cd, indexes, getCursor(), ctx);
+                    }
+                });
+    }
+
+    /**
+     * @return the names of the join columns of the to-one relationships declared by the entity, in order of
+     * declaration
+     */
+    static Set<String> joinColumns(J.ClassDeclaration cd) {
+        Set<String> columns = new LinkedHashSet<>();
+        cd.getBody().getStatements().stream()
+                .filter(J.VariableDeclarations.class::isInstance)
+                .map(J.VariableDeclarations.class::cast)
+                .filter(AddIndexForJoinColumns::isOwningToOne)
+                .filter(vd -> RewriteUtils.findLeadingAnnotations(vd, Constants.Jpa.ID_ANNOTATION_FULL).isEmpty())
+                .flatMap(vd -> RewriteUtils.findLeadingAnnotations(vd, Constants.Jpa.JOIN_COLUMN_ANNOTATION_FULL).stream())
+                .map(joinColumn -> stringValue(joinColumn, Constants.Jpa.JOIN_COLUMN_ARGUMENT_NAME))
+                .forEach(name -> {
+                    if (name != null && !name.isBlank()) {
+                        columns.add(name.trim());
+                    }
+                });
+        return columns;
+    }
+
+    /**
+     * @return the lower case leading columns of the indexes and unique constraints of the table
+     */
+    static Set<String> leadingColumns(J.Annotation table) {
+        Set<String> columns = new HashSet<>();
+        for (Expression index : RewriteUtils.arrayElements(table, Constants.Jpa.TABLE_ARGUMENT_INDEXES)) {
+            if (index instanceof J.Annotation annotation) {
+                Optional.ofNullable(stringValue(annotation, Constants.Jpa.INDEX_ANNOTATION_COLUMN_LIST_ATTRIBUTE))
+                        .map(columnList -> columnList.split(",")[0].trim().split("\\s+")[0])
+                        .ifPresent(column -> columns.add(column.toLowerCase(Locale.ROOT)));
+            }
+        }
+        for (Expression constraint : RewriteUtils.arrayElements(table, Constants.Jpa.TABLE_ARGUMENT_UNIQUE_CONSTRAINTS)) {
+            if (constraint instanceof J.Annotation annotation) {
+                RewriteUtils.arrayElements(annotation, Constants.Jpa.UNIQUE_CONSTRAINT_ARGUMENT_COLUMN_NAMES).stream()
+                        .findFirst()
+                        .filter(J.Literal.class::isInstance)
+                        .map(column -> String.valueOf(((J.Literal) column).getValue()).trim())
+                        .ifPresent(column -> columns.add(column.toLowerCase(Locale.ROOT)));
+            }
+        }
+        return columns;
+    }
+
+    private static boolean isOwningToOne(J.VariableDeclarations vd) {
+        if (!RewriteUtils.findLeadingAnnotations(vd, Constants.Jpa.MANY_TO_ONE_ANNOTATION_FULL).isEmpty()) {
+            return true;
+        }
+        return RewriteUtils.findLeadingAnnotations(vd, Constants.Jpa.ONE_TO_ONE_ANNOTATION_FULL).stream()
+                .anyMatch(oneToOne -> RewriteUtils.findArgument(oneToOne, Constants.Jpa.ONE_TO_MANY_ARGUMENT_MAPPED_BY).isEmpty());
+    }
+
+    /**
+     * @return the value of the attribute when it is a string literal
+     */
+    private static @Nullable String stringValue(J.Annotation annotation, String attributeName) {
+        return RewriteUtils.findArgumentValue(annotation, attributeName)
+                .filter(J.Literal.class::isInstance)
+                .map(literal -> ((J.Literal) literal).getValue())
+                .filter(String.class::isInstance)
+                .map(String.class::cast)
+                .orElse(null);
+    }
+}
@@ -0,0 +1,231 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.StringUtils;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+import org.openrewrite.properties.AddProperty;
+import org.openrewrite.properties.PropertiesParser;
+import org.openrewrite.properties.tree.Properties;
+import org.openrewrite.text.PlainText;
+
+import com.ecpnv.openrewrite.util.JavaParserFactory;
+import com.ecpnv.openrewrite.util.RewriteUtils;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+/**
+ * Adds <code>@Basic(fetch = FetchType.LAZY)</code> to the large or explicitly lazy basic fields of entities, so their
+ * payload is only loaded when the field is accessed instead of with every entity.
+ * <p>
+ * The migration adheres to the following rules:
+ * <ul>
+ * <li> A field is lazy when it has a <code>@Lob</code>, a JDO <code>@Column(jdbcType = "CLOB")</code> or
+ * <code>@Column(jdbcType = "BLOB")</code>, or a JDO <code>@Persistent(defaultFetchGroup = "false")</code>, hence it
+ * must run before the <code>jdbcType</code> and <code>defaultFetchGroup</code> attributes are removed.
+ * <li> Only basic fields are made lazy: primitives, arrays of primitives, enums and the value types of the
+ * <code>java</code> and Joda-Time packages. Relationships and collections are left alone.
+ * <li> Fields that already have a <code>@Basic</code> annotation are skipped.
+ * <li> EclipseLink only loads basic fields lazily when the entities are woven with fetch groups. When a weaving
+ * properties file is given, the weaving properties are added to it, or it is generated, when a field is made lazy.
+ * Existing weaving properties, for example <code>eclipselink.weaving=static</code>, are kept.
+ * </ul>
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class AddLazyBasicFetch extends ScanningRecipe<AddLazyBasicFetch.Accumulator> {
+
+    public static final String TARGET_TYPE_NAME = Constants.Jpa.BASIC_ANNOTATION_NAME;
+    public static final String TARGET_TYPE = Constants.Jpa.BASIC_ANNOTATION_FULL;
+    public static final String TARGET_ANNOTATION_TYPE = "@" + TARGET_TYPE;
+    public static final List<String> LOB_JDBC_TYPES = List.of("CLOB", "BLOB");
+
+    @Option(displayName = "Weaving properties file",
+            description = "Optional properties file to which the EclipseLink weaving properties needed for lazy basic " +
+                    "fields are added. It is generated when it does not exist.",
+            required = false,
+            example = "src/main/resources/application.properties")
+    @Nullable
+    String weavingProperties;
+
+    @JsonCreator
+    public AddLazyBasicFetch(@Nullable @JsonProperty("weavingProperties") String weavingProperties) {
+        this.weavingProperties = weavingProperties;
+    }
+
+    @Override
+    public @NotNull String getDisplayName() {
+        return "Add `" + TARGET_ANNOTATION_TYPE + "(fetch = FetchType.LAZY)` to large basic fields";
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return "Adds `" + TARGET_ANNOTATION_TYPE + "(fetch = FetchType.LAZY)` to the CLOB, BLOB and `@Lob` fields and " +
+                "the fields outside of the default fetch group of entities, and optionally the EclipseLink weaving " +
+                "properties needed to load them lazily.";
+    }
+
+    @Override
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        return new Accumulator();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        JavaIsoVisitor<ExecutionContext> javaScanner = new JavaIsoVisitor<>() {
+            @Override
+            public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, ExecutionContext ctx) {
+                J.VariableDeclarations mv = super.visitVariableDeclarations(multiVariable, ctx);
+                if (!acc.lazy && isLazyBasic(mv, RewriteUtils.findParentClass(getCursor()))) {
+                    acc.lazy = true;
+                }
+                return mv;
+            }
+        };
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof SourceFile sourceFile && isWeavingProperties(sourceFile)) {
+                    acc.weavingPropertiesExists = true;
+                } else if (tree instanceof J.CompilationUnit && !acc.lazy) {
+                    javaScanner.visit(tree, ctx);
+                }
+                return tree;
+            }
+        };
+    }
+
+    @Override
+    public Collection<? extends SourceFile> generate(Accumulator acc, ExecutionContext ctx) {
+        if (StringUtils.isBlank(weavingProperties) || !acc.lazy || acc.weavingPropertiesExists) {
+            return List.of();
+        }
+        return PropertiesParser.builder().build()
+                .parse(Constants.EclipseLink.WEAVING_PROPERTY + "=true\n" +
+                        Constants.EclipseLink.WEAVING_FETCH_GROUPS_PROPERTY + "=true\n")
+                .map(sourceFile -> sourceFile.<SourceFile>withSourcePath(Path.of(weavingProperties)))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public @NotNull TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+        if (!acc.lazy) {
+            return TreeVisitor.noop();
+        }
+        JavaIsoVisitor<ExecutionContext> javaVisitor = new JavaIsoVisitor<>() {
+            @Override
+            public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, ExecutionContext ctx) {
+                J.VariableDeclarations mv = super.visitVariableDeclarations(multiVariable, ctx);
+                if (!isLazyBasic(mv, RewriteUtils.findParentClass(getCursor()))) {
+                    return mv;
+                }
+                maybeAddImport(TARGET_TYPE);
+                maybeAddImport(Constants.Jpa.FETCH_TYPE_FULL);
+                return JavaTemplate.builder("@" + TARGET_TYPE_NAME + "(fetch = " + Constants.Jpa.FETCH_TYPE_NAME + ".LAZY)")
+                        .javaParser(JavaParserFactory.create(ctx))
+                        .imports(TARGET_TYPE, Constants.Jpa.FETCH_TYPE_FULL)
+                        .build()
+                        .apply(getCursor(), mv.getCoordinates().addAnnotation(Comparator.comparing(J.Annotation::getSimpleName)));
+            }
+        };
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof Properties.File file && isWeavingProperties(file)) {
+                    Tree t = new AddProperty(Constants.EclipseLink.WEAVING_PROPERTY, "true", null, null)
+                            .getVisitor().visit(file, ctx);
+                    return new AddProperty(Constants.EclipseLink.WEAVING_FETCH_GROUPS_PROPERTY, "true", null, null)
+                            .getVisitor().visit(t, ctx);
+                }
+                if (tree instanceof J.CompilationUnit) {
+                    return javaVisitor.visit(tree, ctx);
+                }
+                return tree;
+            }
+        };
+    }
+
+    boolean isWeavingProperties(SourceFile sourceFile) {
+        return !StringUtils.isBlank(weavingProperties)
+                && (sourceFile instanceof Properties.File || sourceFile instanceof PlainText)
+                && Path.of(weavingProperties).equals(sourceFile.getSourcePath());
+    }
+
+    /**
+     * @return true when the field of the given entity is a basic field that must be loaded lazily
+     */
+    static boolean isLazyBasic(J.VariableDeclarations multiVariable, J.@Nullable ClassDeclaration owner) {
+        if (owner == null || !RewriteUtils.isEntity(owner)
+                || !owner.getBody().getStatements().contains(multiVariable)
+                || !isBasicType(multiVariable.getType())
+                || !RewriteUtils.findLeadingAnnotations(multiVariable, TARGET_TYPE).isEmpty()
+                || RewriteUtils.isRelationship(multiVariable)) {
+            return false;
+        }
+        if (!RewriteUtils.findLeadingAnnotations(multiVariable, Constants.Jpa.LOB_ANNOTATION_FULL).isEmpty()) {
+            return true;
+        }
+        boolean lob = RewriteUtils.findLeadingAnnotations(multiVariable, Constants.Jdo.COLUMN_ANNOTATION_FULL).stream()
+                .anyMatch(column -> RewriteUtils.findArgumentValueAsString(column, Constants.Jdo.COLUMN_ARGUMENT_JDBC_TYPE)
+                        .map(value -> LOB_JDBC_TYPES.contains(value.replace("\"", "").trim().toUpperCase()))
+                        .orElse(false));
+        return lob || RewriteUtils.findLeadingAnnotations(multiVariable, Constants.Jdo.PERSISTENT_ANNOTATION_FULL).stream()
+                .anyMatch(persistent -> RewriteUtils.findArgumentValueAsString(persistent, Constants.Jdo.PERSISTENT_ARGUMENT_DEFAULT_FETCH_GROUP)
+                        .map(value -> "false".equalsIgnoreCase(value.replace("\"", "").trim()))
+                        .orElse(false));
+    }
+
+    /**
+     * @return true for primitives, arrays of primitives, enums and the value types of the java and Joda-Time packages
+     */
+    static boolean isBasicType(@Nullable JavaType type) {
+        if (type instanceof JavaType.Primitive) {
+            return true;
+        }
+        if (type instanceof JavaType.Array array) {
+            return array.getElemType() instanceof JavaType.Primitive
+                    || TypeUtils.isOfClassType(array.getElemType(), "java.lang.Byte")
+                    || TypeUtils.isOfClassType(array.getElemType(), "java.lang.Character");
+        }
+        JavaType.FullyQualified fullyQualified = TypeUtils.asFullyQualified(type);
+        if (fullyQualified == null) {
+            return false;
+        }
+        if (fullyQualified.getKind() == JavaType.FullyQualified.Kind.Enum) {
+            return true;
+        }
+        String name = fullyQualified.getFullyQualifiedName();
+        return (name.startsWith("java.") || name.startsWith("org.joda.time."))
+                && !TypeUtils.isAssignableTo("java.util.Collection", fullyQualified)
+                && !TypeUtils.isAssignableTo("java.util.Map", fullyQualified);
+    }
+
+    @Data
+    public static class Accumulator {
+        boolean lazy;
+        boolean weavingPropertiesExists;
+    }
+}
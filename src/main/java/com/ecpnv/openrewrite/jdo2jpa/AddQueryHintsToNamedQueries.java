@@ -0,0 +1,199 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+import org.openrewrite.Preconditions;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.TypeUtils;
+
+import com.ecpnv.openrewrite.util.RewriteUtils;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+/**
+ * Replaces the attributes of a migrated JDO query that carry its caching and loading behavior with the equivalent
+ * JPA and EclipseLink query hints, instead of dropping them.
+ * <p>
+ * The migration adheres to the following rules:
+ * <ul>
+ * <li> <code>unmodifiable = "true"</code> becomes the hint <code>eclipselink.read-only</code>, so the results are
+ * not registered in the persistence context.
+ * <li> <code>fetchPlan = "list"</code> becomes the hint <code>javax.persistence.fetchgraph</code> with the named
+ * entity graph of the fetch plan, see {@link ReplaceFetchGroupsWithNamedEntityGraphs}.
+ * <li> The DataNucleus extensions <code>datanucleus.query.resultCacheType</code> and
+ * <code>datanucleus.query.results.cached</code> become the EclipseLink query results cache hints, and
+ * <code>datanucleus.query.fetchSize</code> the hint <code>eclipselink.jdbc.fetch-size</code>. Other extensions are
+ * tagged with the {@link Constants.Jpa#MIGRATION_COMMENT}.
+ * <li> The converted attributes are removed, <code>unique</code> has no equivalent and is left to be removed.
+ * </ul>
+ * Hence, it must run after <code>@Query</code> is changed into <code>@NamedQuery</code>.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class AddQueryHintsToNamedQueries extends Recipe {
+
+    public static final String ARGUMENT_UNMODIFIABLE = "unmodifiable";
+    public static final String ARGUMENT_FETCH_PLAN = "fetchPlan";
+    public static final String ARGUMENT_EXTENSIONS = "extensions";
+    public static final String READ_ONLY_HINT = "eclipselink.read-only";
+    public static final String FETCH_GRAPH_HINT = "javax.persistence.fetchgraph";
+    public static final String QUERY_RESULTS_CACHE_HINT = "eclipselink.query-results-cache";
+    public static final String QUERY_RESULTS_CACHE_TYPE_HINT = "eclipselink.query-results-cache.type";
+    public static final String FETCH_SIZE_HINT = "eclipselink.jdbc.fetch-size";
+    private static final Set<String> CONVERTED_ARGUMENTS = Set.of(ARGUMENT_UNMODIFIABLE, ARGUMENT_FETCH_PLAN,
+            ARGUMENT_EXTENSIONS);
+
+    @Option(displayName = "Prefix graph names with the entity name",
+            description = "When true, the default, then the name of the fetch graph is the simple name of the entity, " +
+                    "a dot and the name of the fetch plan, as generated by `ReplaceFetchGroupsWithNamedEntityGraphs`.",
+            required = false,
+            example = "false")
+    @Nullable
+    Boolean prefixEntityName;
+
+    @JsonCreator
+    public AddQueryHintsToNamedQueries(@Nullable @JsonProperty("prefixEntityName") Boolean prefixEntityName) {
+        this.prefixEntityName = prefixEntityName;
+    }
+
+    @Override
+    public @NotNull String getDisplayName() {
+        return "Add query hints for the JDO query attributes of `@NamedQuery`";
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return "Replaces the `unmodifiable`, `fetchPlan` and `extensions` attributes of a migrated JDO query with the " +
+                "read-only, fetch graph and query results cache hints.";
+    }
+
+    @Override
+    public @NotNull TreeVisitor<?, ExecutionContext> getVisitor() {
+        return Preconditions.check(new UsesType<>(Constants.Jpa.NAMED_QUERY_ANNOTATION_FULL, false), new JavaIsoVisitor<>() {
+            @Override
+            public J.Annotation visitAnnotation(J.Annotation annotation, ExecutionContext ctx) {
+                J.Annotation a = super.visitAnnotation(annotation, ctx);
+                if (!TypeUtils.isOfClassType(a.getType(), Constants.Jpa.NAMED_QUERY_ANNOTATION_FULL)
+                        || CONVERTED_ARGUMENTS.stream().noneMatch(name ->
+                        RewriteUtils.findArgumentAssignment(a, name).isPresent())) {
+                    return a;
+                }
+                Map<String, String> hints = new LinkedHashMap<>();
+                List<String> unsupported = new ArrayList<>();
+                RewriteUtils.findArgumentAssignment(a, ARGUMENT_UNMODIFIABLE)
+                        .map(argument -> value(argument.getAssignment()))
+                        .filter("true"::equalsIgnoreCase)
+                        .ifPresent(value -> hints.put(READ_ONLY_HINT, "true"));
+                String fetchPlan = RewriteUtils.findArgumentAssignment(a, ARGUMENT_FETCH_PLAN)
+                        .map(argument -> value(argument.getAssignment()))
+                        .orElse(null);
+                if (fetchPlan != null && !fetchPlan.isBlank()) {
+                    J.ClassDeclaration cd = getCursor().firstEnclosing(J.ClassDeclaration.class);
+                    hints.put(FETCH_GRAPH_HINT, Boolean.FALSE.equals(prefixEntityName) || cd == null
+                            ? fetchPlan : cd.getSimpleName() + "." + fetchPlan);
+                }
+                RewriteUtils.findArgumentAssignment(a, ARGUMENT_EXTENSIONS)
+                        .map(argument -> elements(argument.getAssignment()))
+                        .orElse(List.of())
+                        .forEach(extension -> {
+                            String key = RewriteUtils.findArgumentAssignment(extension, Constants.Jdo.EXTENSION_ARGUMENT_KEY)
+                                    .map(argument -> value(argument.getAssignment()))
+                                    .orElse(null);
+                            String value = RewriteUtils.findArgumentAssignment(extension, Constants.Jdo.EXTENSION_ARGUMENT_VALUE)
+                                    .map(argument -> value(argument.getAssignment()))
+                                    .orElse(null);
+                            if (key != null && value != null && !addExtensionHints(key, value, hints)) {
+                                unsupported.add(key + "=" + value);
+                            }
+                        });
+
+                J.Annotation result = a.withArguments(ListUtils.map(a.getArguments(), argument ->
+                        argument instanceof J.Assignment assignment
+                                && CONVERTED_ARGUMENTS.contains(assignment.getVariable().toString()) ? null : argument));
+                maybeRemoveImport(Constants.Jdo.BASE_PACKAGE + "Extension");
+                if (!hints.isEmpty()) {
+                    maybeAddImport(Constants.Jpa.QUERY_HINT_ANNOTATION_FULL);
+                    result = ReplaceJdoqlWithJpql.addQueryHints(result, hints, getCursor().getParentOrThrow(), ctx);
+                }
+                if (!unsupported.isEmpty()) {
+                    result = ReplaceJdoqlWithJpql.tag(result, "query extensions " + String.join(", ", unsupported));
+                }
+                return result;
+            }
+        });
+    }
+
+    /**
+     * Adds the hints of a DataNucleus query extension.
+     *
+     * @return false when the extension has no equivalent
+     */
+    static boolean addExtensionHints(String key, String value, Map<String, String> hints) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        switch (key.trim().toLowerCase(Locale.ROOT)) {
+            case "datanucleus.query.resultcachetype" -> {
+                if ("none".equals(v)) {
+                    hints.put(QUERY_RESULTS_CACHE_HINT, "false");
+                    return true;
+                }
+                String cacheType = switch (v) {
+                    case "weak" -> "Weak";
+                    case "soft" -> "Soft";
+                    case "strong" -> "Full";
+                    default -> null;
+                };
+                if (cacheType == null) {
+                    return false;
+                }
+                hints.put(QUERY_RESULTS_CACHE_HINT, "true");
+                hints.put(QUERY_RESULTS_CACHE_TYPE_HINT, cacheType);
+            }
+            case "datanucleus.query.results.cached" ->
+                    hints.putIfAbsent(QUERY_RESULTS_CACHE_HINT, String.valueOf(Boolean.parseBoolean(v)));
+            case "datanucleus.query.fetchsize", "datanucleus.rdbms.query.fetchsize" -> hints.put(FETCH_SIZE_HINT, v);
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the elements of an array, or the expression itself when it is not an array
+     */
+    private static List<J.Annotation> elements(Expression expression) {
+        List<Expression> elements = expression instanceof J.NewArray newArray
+                ? newArray.getInitializer() == null ? List.of() : newArray.getInitializer()
+                : List.of(expression);
+        return elements.stream()
+                .filter(J.Annotation.class::isInstance)
+                .map(J.Annotation.class::cast)
+                .toList();
+    }
+
+    private static @Nullable String value(Expression expression) {
+        return expression instanceof J.Literal literal && literal.getValue() != null
+                ? literal.getValue().toString() : null;
+    }
+}
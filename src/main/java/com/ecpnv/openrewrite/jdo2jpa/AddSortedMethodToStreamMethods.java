@@ -1,6 +1,13 @@
 package com.ecpnv.openrewrite.jdo2jpa;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
@@ -8,27 +15,55 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 
 import org.jetbrains.annotations.NotNull;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 import org.openrewrite.Cursor;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.NlsRewrite;
 import org.openrewrite.Option;
 import org.openrewrite.Preconditions;
-import org.openrewrite.Recipe;
+import org.openrewrite.ScanningRecipe;
 import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.StringUtils;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.JavaTemplate;
 import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.tree.Expression;
 import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
 import org.openrewrite.java.tree.Space;
+import org.openrewrite.java.tree.Statement;
+import org.openrewrite.java.tree.TypeUtils;
 
+import com.ecpnv.openrewrite.util.JavaParserFactory;
+import com.ecpnv.openrewrite.util.RewriteUtils;
+
+import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.Value;
 
+/**
+ * Adds <code>.sorted()</code> to the streams returned by stream methods, because JPA does not keep the order of a
+ * JDO sorted collection.
+ * <p>
+ * With <code>useOrderBy</code> the database sorts the collection instead, when a stream method streams a
+ * <code>@OneToMany(mappedBy)</code> list field of its class:
+ * <ul>
+ * <li> The field gets an <code>@OrderBy</code> with the ordering of a DataNucleus <code>list-ordering</code>
+ * extension of its <code>@Order</code> or <code>@Element</code>, or else with the properties the
+ * <code>compareTo</code> method of the element type compares, either as the property list of
+ * <code>ObjectContracts.compare(this, other, "name,date")</code> or as the getters of a
+ * <code>Comparator.comparing(..).thenComparing(..)</code> chain.
+ * <li> A field that already has an <code>@OrderBy</code> is left as it is.
+ * <li> Sets are not ordered by JPA, hence only lists are ordered by the database.
+ * <li> Stream methods of which no ordering can be derived keep the in-memory <code>.sorted()</code>.
+ * </ul>
+ */
 @Value
 @EqualsAndHashCode(callSuper = false)
-public class AddSortedMethodToStreamMethods extends Recipe {
+public class AddSortedMethodToStreamMethods extends ScanningRecipe<AddSortedMethodToStreamMethods.Accumulator> {
 
     public static final Pattern STREAM = Pattern.compile("java.util.stream.Stream");
+    public static final String ORDERED_FIELDS = "ORDERED_FIELDS";
 
     @Option(displayName = "Annotation type",
             description = "The fully qualified name of the annotation to filter on.",
@@ -36,9 +71,24 @@ public class AddSortedMethodToStreamMethods extends Recipe {
     @NonNull
     String annotationType;
 
+    @Option(displayName = "Use @OrderBy",
+            description = "Order `@OneToMany(mappedBy)` list fields in the database with `@OrderBy` instead of " +
+                    "sorting their streams in memory, when an ordering can be derived. The default is false.",
+            required = false,
+            example = "true")
+    @Nullable
+    Boolean useOrderBy;
+
+    public AddSortedMethodToStreamMethods(@NonNull String annotationType) {
+        this(annotationType, null);
+    }
+
     @JsonCreator
-    public AddSortedMethodToStreamMethods(@NonNull @JsonProperty("annotationType") String annotationType) {
+    public AddSortedMethodToStreamMethods(
+            @NonNull @JsonProperty("annotationType") String annotationType,
+            @Nullable @JsonProperty("useOrderBy") Boolean useOrderBy) {
         this.annotationType = annotationType;
+        this.useOrderBy = useOrderBy;
     }
 
     @Override
@@ -48,21 +98,80 @@ public class AddSortedMethodToStreamMethods extends Recipe {
 
     @Override
     public @NlsRewrite.Description @NotNull String getDescription() {
-        return "Add sorted method to stream methods with given annotation.";
+        return "Add sorted method to stream methods with given annotation, or optionally `@OrderBy` to the " +
+                "collection field they stream.";
+    }
+
+    @Override
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        return new Accumulator();
     }
 
     @Override
-    public @NotNull TreeVisitor<?, ExecutionContext> getVisitor() {
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        if (!Boolean.TRUE.equals(useOrderBy)) {
+            return TreeVisitor.noop();
+        }
+        return new JavaIsoVisitor<>() {
+            @Override
+            public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
+                J.MethodDeclaration md = super.visitMethodDeclaration(method, ctx);
+                J.ClassDeclaration owner = getCursor().firstEnclosing(J.ClassDeclaration.class);
+                if ("compareTo".equals(md.getSimpleName()) && md.getParameters().size() == 1 && md.getBody() != null
+                        && owner != null && owner.getType() != null) {
+                    naturalOrderOf(md.getBody())
+                            .ifPresent(orderBy -> acc.naturalOrders.put(owner.getType().getFullyQualifiedName(), orderBy));
+                }
+                return md;
+            }
+        };
+    }
+
+    @Override
+    public @NotNull TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
         return Preconditions.check(new UsesType<>(annotationType, false), new JavaIsoVisitor<>() {
 
+            @Override
+            public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+                if (Boolean.TRUE.equals(useOrderBy)) {
+                    getCursor().putMessage(ORDERED_FIELDS, orderedFields(classDecl, acc, getCursor()));
+                }
+                return super.visitClassDeclaration(classDecl, ctx);
+            }
+
+            @Override
+            public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, ExecutionContext ctx) {
+                J.VariableDeclarations mv = super.visitVariableDeclarations(multiVariable, ctx);
+                Map<String, String> orderedFields = getCursor().getNearestMessage(ORDERED_FIELDS);
+                if (orderedFields == null || RewriteUtils.isMethodOwnerOfVar(mv) || mv.getVariables().size() != 1
+                        || StringUtils.isBlank(orderedFields.get(mv.getVariables().get(0).getSimpleName()))) {
+                    return mv;
+                }
+                String orderBy = orderedFields.get(mv.getVariables().get(0).getSimpleName());
+                // The list ordering is replaced by the order by, an order column would otherwise be created
+                mv = mv.withLeadingAnnotations(mv.getLeadingAnnotations().stream()
+                        .filter(annotation -> !(isOrder(annotation) && annotation.getArguments() != null
+                                && annotation.getArguments().size() == 1
+                                && RewriteUtils.findExtension(annotation, Constants.Jdo.EXTENSION_KEY_LIST_ORDERING).isPresent()))
+                        .toList());
+                maybeRemoveImport(Constants.Jdo.ORDER_ANNOTATION_FULL);
+                maybeRemoveImport(Constants.Jdo.BASE_PACKAGE + "Extension");
+                maybeRemoveImport(Constants.Jpa.ORDER_COLUMN_ANNOTATION_FULL);
+                maybeAddImport(Constants.Jpa.ORDER_BY_ANNOTATION_FULL);
+                return JavaTemplate.builder("@" + Constants.Jpa.ORDER_BY_ANNOTATION_NAME + "(\"" + orderBy + "\")")
+                        .javaParser(JavaParserFactory.create(ctx))
+                        .imports(Constants.Jpa.ORDER_BY_ANNOTATION_FULL)
+                        .build()
+                        .apply(updateCursor(mv), mv.getCoordinates().addAnnotation(Comparator.comparing(J.Annotation::getSimpleName)));
+            }
+
             @Override
             public J.@NotNull MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
-                if (method.getMethodType() != null && method.getBody() != null &&
-                        method.getMethodType().getReturnType().isAssignableFrom(STREAM) &&
-                        method.getBody().getStatements().getFirst() instanceof J.Return oldReturn &&
-                        oldReturn.getExpression() instanceof J.MethodInvocation oldMethodInvocation &&
-                        !(oldMethodInvocation.getName().getSimpleName().equals("sorted") ||
-                                oldMethodInvocation.print(getCursor()).contains("sorted"))) {
+                Map<String, String> orderedFields = getCursor().getNearestMessage(ORDERED_FIELDS);
+                if (isUnsortedStreamMethod(method, getCursor())
+                        && (orderedFields == null || findStreamedField(method, orderedFields.keySet()).isEmpty())) {
+                    J.Return oldReturn = (J.Return) method.getBody().getStatements().getFirst();
+                    J.MethodInvocation oldMethodInvocation = (J.MethodInvocation) oldReturn.getExpression();
                     /*
                         Uses a template to create a new J.MethodInvocation instance that can be placed into the LST hierarchy.
                      */
@@ -83,4 +192,154 @@ public class AddSortedMethodToStreamMethods extends Recipe {
             }
         });
     }
+
+    static boolean isUnsortedStreamMethod(J.MethodDeclaration method, Cursor cursor) {
+        return method.getMethodType() != null && method.getBody() != null &&
+                method.getMethodType().getReturnType().isAssignableFrom(STREAM) &&
+                method.getBody().getStatements().getFirst() instanceof J.Return oldReturn &&
+                oldReturn.getExpression() instanceof J.MethodInvocation oldMethodInvocation &&
+                !(oldMethodInvocation.getName().getSimpleName().equals("sorted") ||
+                        oldMethodInvocation.print(cursor).contains("sorted"));
+    }
+
+    /**
+     * @return the order by of every field that is ordered by the database instead of by its stream methods, empty
+     * when the field already has an order by
+     */
+    static Map<String, String> orderedFields(J.ClassDeclaration classDecl, Accumulator acc, Cursor cursor) {
+        Map<String, J.VariableDeclarations> fields = new HashMap<>();
+        for (Statement statement : classDecl.getBody().getStatements()) {
+            if (statement instanceof J.VariableDeclarations mv && mv.getVariables().size() == 1) {
+                fields.put(mv.getVariables().get(0).getSimpleName(), mv);
+            }
+        }
+        Map<String, String> orderedFields = new LinkedHashMap<>();
+        for (Statement statement : classDecl.getBody().getStatements()) {
+            if (statement instanceof J.MethodDeclaration method && isUnsortedStreamMethod(method, cursor)) {
+                findStreamedField(method, fields.keySet())
+                        .ifPresent(name -> orderByOf(fields.get(name), acc)
+                                .ifPresent(orderBy -> orderedFields.put(name, orderBy)));
+            }
+        }
+        return orderedFields;
+    }
+
+    /**
+     * @return the name of the first field, or getter of a field, of the given names the stream method refers to
+     */
+    static Optional<String> findStreamedField(J.MethodDeclaration method, Set<String> names) {
+        List<String> found = new ArrayList<>();
+        new JavaIsoVisitor<List<String>>() {
+            @Override
+            public J.Identifier visitIdentifier(J.Identifier identifier, List<String> found) {
+                if (identifier.getFieldType() != null && names.contains(identifier.getSimpleName())) {
+                    found.add(identifier.getSimpleName());
+                }
+                return identifier;
+            }
+
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, List<String> found) {
+                String name = method.getSimpleName();
+                if (name.startsWith("get") && name.length() > 3
+                        && (method.getSelect() == null || "this".equals(method.getSelect().toString()))) {
+                    String field = Character.toLowerCase(name.charAt(3)) + name.substring(4);
+                    if (names.contains(field)) {
+                        found.add(field);
+                    }
+                }
+                return super.visitMethodInvocation(method, found);
+            }
+        }.visit(method.getBody(), found);
+        return found.stream().findFirst();
+    }
+
+    /**
+     * @return the order by of a one to many list field, empty when it already has one, or nothing when no ordering
+     * can be derived
+     */
+    static Optional<String> orderByOf(J.VariableDeclarations field, Accumulator acc) {
+        boolean mappedBy = RewriteUtils.findLeadingAnnotations(field, Constants.Jpa.ONE_TO_MANY_ANNOTATION_FULL).stream()
+                .anyMatch(annotation -> RewriteUtils.findArgument(annotation, Constants.Jpa.ONE_TO_MANY_ARGUMENT_MAPPED_BY).isPresent());
+        if (!mappedBy || !TypeUtils.isAssignableTo("java.util.List", field.getType())) {
+            return Optional.empty();
+        }
+        if (!RewriteUtils.findLeadingAnnotations(field, Constants.Jpa.ORDER_BY_ANNOTATION_FULL).isEmpty()) {
+            return Optional.of("");
+        }
+        Optional<String> listOrdering = field.getLeadingAnnotations().stream()
+                .filter(annotation -> isOrder(annotation)
+                        || TypeUtils.isOfClassType(annotation.getType(), Constants.Jdo.ELEMENT_ANNOTATION_FULL))
+                .map(annotation -> RewriteUtils.findExtension(annotation, Constants.Jdo.EXTENSION_KEY_LIST_ORDERING))
+                .flatMap(Optional::stream)
+                .findFirst();
+        if (listOrdering.isPresent()) {
+            return Optional.of(listOrdering.get()
+                    .replace("this.", "")
+                    .replaceAll("(?i)\\bascending\\b", "ASC")
+                    .replaceAll("(?i)\\bdescending\\b", "DESC")
+                    .trim());
+        }
+        if (field.getType() instanceof JavaType.Parameterized parameterized
+                && parameterized.getTypeParameters().size() == 1
+                && TypeUtils.asFullyQualified(parameterized.getTypeParameters().get(0)) instanceof JavaType.FullyQualified element) {
+            return Optional.ofNullable(acc.naturalOrders.get(element.getFullyQualifiedName()));
+        }
+        return Optional.empty();
+    }
+
+    static boolean isOrder(J.Annotation annotation) {
+        return TypeUtils.isOfClassType(annotation.getType(), Constants.Jdo.ORDER_ANNOTATION_FULL)
+                || TypeUtils.isOfClassType(annotation.getType(), Constants.Jpa.ORDER_COLUMN_ANNOTATION_FULL);
+    }
+
+    /**
+     * @return the properties compared by a compareTo method as order by, or nothing when they cannot be derived
+     */
+    static Optional<String> naturalOrderOf(J.Block body) {
+        List<String> properties = new ArrayList<>();
+        boolean[] derivable = {true};
+        new JavaIsoVisitor<Integer>() {
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, Integer p) {
+                String name = method.getSimpleName();
+                List<Expression> arguments = method.getArguments();
+                if ("compare".equals(name) && arguments.size() == 3
+                        && arguments.get(2) instanceof J.Literal literal && literal.getValue() instanceof String value) {
+                    // ObjectContracts.compare(this, other, "name,date")
+                    for (String property : value.split(",")) {
+                        if (!property.isBlank()) {
+                            properties.add(property.trim());
+                        }
+                    }
+                } else if (name.startsWith("comparing") || name.startsWith("thenComparing")) {
+                    if (!(arguments.get(0) instanceof J.MemberReference) || arguments.size() > 1) {
+                        derivable[0] = false;
+                    }
+                } else if ("reversed".equals(name) || "reverseOrder".equals(name)) {
+                    derivable[0] = false;
+                }
+                return super.visitMethodInvocation(method, p);
+            }
+
+            @Override
+            public J.MemberReference visitMemberReference(J.MemberReference memberRef, Integer p) {
+                String name = memberRef.getReference().getSimpleName();
+                if (name.startsWith("get") && name.length() > 3) {
+                    properties.add(Character.toLowerCase(name.charAt(3)) + name.substring(4));
+                } else if (name.startsWith("is") && name.length() > 2) {
+                    properties.add(Character.toLowerCase(name.charAt(2)) + name.substring(3));
+                } else {
+                    derivable[0] = false;
+                }
+                return memberRef;
+            }
+        }.visit(body, 0);
+        return derivable[0] && !properties.isEmpty() ? Optional.of(String.join(", ", properties)) : Optional.empty();
+    }
+
+    @Data
+    public static class Accumulator {
+        Map<String, String> naturalOrders = new HashMap<>();
+    }
 }
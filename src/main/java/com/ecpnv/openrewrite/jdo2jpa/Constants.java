@@ -18,13 +18,34 @@ public final class Constants {
         public static final String COLUMN_ANNOTATION_NAME = "Column";
         public static final String COLUMN_ANNOTATION_FULL = BASE_PACKAGE + COLUMN_ANNOTATION_NAME;
         public final static String COLUMN_ARGUMENT_ALLOWS_NULL = "allowsNull";
+        public static final String COLUMN_ARGUMENT_JDBC_TYPE = "jdbcType";
         public static final String ARGUMENT_NAME = "name";
+        public static final String DATASTORE_IDENTITY_ANNOTATION_NAME = "DatastoreIdentity";
+        public static final String DATASTORE_IDENTITY_ANNOTATION_FULL = BASE_PACKAGE + DATASTORE_IDENTITY_ANNOTATION_NAME;
+        public static final String DATASTORE_IDENTITY_ARGUMENT_COLUMN = "column";
+        public static final String DATASTORE_IDENTITY_ARGUMENT_STRATEGY = "strategy";
         public static final String DISCRIMINATOR_ANNOTATION_NAME = "Discriminator";
         public static final String DISCRIMINATOR_ANNOTATION_FULL = BASE_PACKAGE + DISCRIMINATOR_ANNOTATION_NAME;
+        public static final String DISCRIMINATOR_ARGUMENT_INDEXED = "indexed";
         public static final String DISCRIMINATOR_STRATEGY_ANNOTATION_NAME = "DiscriminatorStrategy";
         public static final String DISCRIMINATOR_STRATEGY_ANNOTATION_FULL = BASE_PACKAGE + DISCRIMINATOR_STRATEGY_ANNOTATION_NAME;
         public static final String ELEMENT_ANNOTATION_NAME = "Element";
         public static final String ELEMENT_ANNOTATION_FULL = BASE_PACKAGE + ELEMENT_ANNOTATION_NAME;
+        public static final String FETCH_GROUP_ANNOTATION_NAME = "FetchGroup";
+        public static final String FETCH_GROUP_ANNOTATION_FULL = BASE_PACKAGE + FETCH_GROUP_ANNOTATION_NAME;
+        public static final String FETCH_GROUPS_ANNOTATION_NAME = "FetchGroups";
+        public static final String FETCH_GROUPS_ANNOTATION_FULL = BASE_PACKAGE + FETCH_GROUPS_ANNOTATION_NAME;
+        public static final String FETCH_GROUP_ARGUMENT_MEMBERS = "members";
+        public static final String FETCH_GROUP_ARGUMENT_FETCH_GROUPS = "fetchGroups";
+        public static final String FETCH_PLAN_ANNOTATION_NAME = "FetchPlan";
+        public static final String FETCH_PLAN_ANNOTATION_FULL = BASE_PACKAGE + FETCH_PLAN_ANNOTATION_NAME;
+        public static final String FETCH_PLANS_ANNOTATION_NAME = "FetchPlans";
+        public static final String FETCH_PLANS_ANNOTATION_FULL = BASE_PACKAGE + FETCH_PLANS_ANNOTATION_NAME;
+        public static final String ID_GENERATOR_STRATEGY_FULL = BASE_PACKAGE + "IdGeneratorStrategy";
+        public static final String ID_GENERATOR_STRATEGY_IDENTITY = "IDENTITY";
+        public static final String ID_GENERATOR_STRATEGY_INCREMENT = "INCREMENT";
+        public static final String ID_GENERATOR_STRATEGY_NATIVE = "NATIVE";
+        public static final String ID_GENERATOR_STRATEGY_SEQUENCE = "SEQUENCE";
         public static final String INDEX_ANNOTATION_NAME = "Index";
         public static final String INDEX_ANNOTATION_FULL = BASE_PACKAGE + INDEX_ANNOTATION_NAME;
         public static final String INHERITANCE_ANNOTATION_NAME = "Inheritance";
@@ -35,6 +56,8 @@ public final class Constants {
         public static final String JOIN_ARGUMENT_COLUMN = "column";
         public static final String NON_PERSISTENT_NAME = "NotPersistent";
         public static final String NON_PERSISTENT_FULL = BASE_PACKAGE + NON_PERSISTENT_NAME;
+        public static final String ORDER_ANNOTATION_NAME = "Order";
+        public static final String ORDER_ANNOTATION_FULL = BASE_PACKAGE + ORDER_ANNOTATION_NAME;
         public static final String PERSISTENCE_CAPABLE_ANNOTATION_NAME = "PersistenceCapable";
         public static final String PERSISTENCE_CAPABLE_ANNOTATION_FULL = BASE_PACKAGE + PERSISTENCE_CAPABLE_ANNOTATION_NAME;
         public static final String PERSISTENT_ANNOTATION_NAME = "Persistent";
@@ -42,6 +65,27 @@ public final class Constants {
         public static final String PERSISTENT_ARGUMENT_DEPENDENT_ELEMENT = "dependentElement";
         public static final String PERSISTENT_ARGUMENT_DEFAULT_FETCH_GROUP = "defaultFetchGroup";
         public static final String PERSISTENT_ARGUMENT_TABLE = "table";
+        public static final String PERSISTENT_ARGUMENT_VALUE_STRATEGY = "valueStrategy";
+        public static final String PERSISTENT_ARGUMENT_SEQUENCE = "sequence";
+        public static final String PRIMARY_KEY_ANNOTATION_NAME = "PrimaryKey";
+        public static final String PRIMARY_KEY_ANNOTATION_FULL = BASE_PACKAGE + PRIMARY_KEY_ANNOTATION_NAME;
+        public static final String SEQUENCE_ANNOTATION_NAME = "Sequence";
+        public static final String SEQUENCE_ANNOTATION_FULL = BASE_PACKAGE + SEQUENCE_ANNOTATION_NAME;
+        public static final String SEQUENCE_ARGUMENT_DATASTORE_SEQUENCE = "datastoreSequence";
+        public static final String SEQUENCE_ARGUMENT_INITIAL_VALUE = "initialValue";
+        public static final String SEQUENCE_ARGUMENT_ALLOCATION_SIZE = "allocationSize";
+        public static final String VERSION_ANNOTATION_NAME = "Version";
+        public static final String VERSION_ANNOTATION_FULL = BASE_PACKAGE + VERSION_ANNOTATION_NAME;
+        public static final String VERSION_ARGUMENT_STRATEGY = "strategy";
+        public static final String VERSION_ARGUMENT_COLUMN = "column";
+        public static final String VERSION_ARGUMENT_EXTENSIONS = "extensions";
+        public static final String VERSION_STRATEGY_VERSION_NUMBER = "VERSION_NUMBER";
+        public static final String VERSION_STRATEGY_DATE_TIME = "DATE_TIME";
+        public static final String VERSION_STRATEGY_NONE = "NONE";
+        public static final String EXTENSION_ARGUMENT_KEY = "key";
+        public static final String EXTENSION_ARGUMENT_VALUE = "value";
+        public static final String EXTENSION_KEY_FIELD_NAME = "field-name";
+        public static final String EXTENSION_KEY_LIST_ORDERING = "list-ordering";
     }
 
     public static class Jpa {
@@ -51,19 +95,40 @@ public final class Constants {
         public static final String CLASS_PATH = "jakarta.persistence-api";
         public static final String BASE_PACKAGE = "javax.persistence.";
 
+        public static final String BASIC_ANNOTATION_NAME = "Basic";
+        public static final String BASIC_ANNOTATION_FULL = BASE_PACKAGE + BASIC_ANNOTATION_NAME;
         public static final String COLUMN_ANNOTATION_NAME = "Column";
         public static final String COLUMN_ANNOTATION_FULL = BASE_PACKAGE + COLUMN_ANNOTATION_NAME;
+        public static final String DISCRIMINATOR_COLUMN_ANNOTATION_NAME = "DiscriminatorColumn";
+        public static final String DISCRIMINATOR_COLUMN_ANNOTATION_FULL = BASE_PACKAGE + DISCRIMINATOR_COLUMN_ANNOTATION_NAME;
+        public static final String DISCRIMINATOR_COLUMN_DEFAULT_NAME = "discriminator";
+        public static final String DISCRIMINATOR_TYPE_NAME = "DiscriminatorType";
+        public static final String DISCRIMINATOR_TYPE_FULL = BASE_PACKAGE + DISCRIMINATOR_TYPE_NAME;
         public static final String DISCRIMINATOR_VALUE_ANNOTATION_NAME = "DiscriminatorValue";
         public static final String DISCRIMINATOR_VALUE_ANNOTATION_FULL = BASE_PACKAGE + DISCRIMINATOR_VALUE_ANNOTATION_NAME;
+        public static final String GENERATED_VALUE_ANNOTATION_NAME = "GeneratedValue";
+        public static final String GENERATED_VALUE_ANNOTATION_FULL = BASE_PACKAGE + GENERATED_VALUE_ANNOTATION_NAME;
+        public static final String GENERATION_TYPE_NAME = "GenerationType";
+        public static final String GENERATION_TYPE_FULL = BASE_PACKAGE + GENERATION_TYPE_NAME;
         public static final String ENTITY_ANNOTATION_NAME = "Entity";
         public static final String ENTITY_ANNOTATION_FULL = BASE_PACKAGE + ENTITY_ANNOTATION_NAME;
+        public static final String ID_ANNOTATION_NAME = "Id";
+        public static final String ID_ANNOTATION_FULL = BASE_PACKAGE + ID_ANNOTATION_NAME;
         public static final String INDEX_ANNOTATION_NAME = "Index";
         public static final String INDEX_ANNOTATION_FULL = BASE_PACKAGE + INDEX_ANNOTATION_NAME;
         public static final String INDEX_ANNOTATION_COLUMN_LIST_ATTRIBUTE = "columnList";
+        public static final String INDEX_ANNOTATION_UNIQUE_ATTRIBUTE = "unique";
+        public static final String INDEX_ANNOTATION_NAME_ATTRIBUTE = "name";
         public static final String INHERITANCE_ANNOTATION_NAME = "Inheritance";
         public static final String INHERITANCE_ANNOTATION_FULL = BASE_PACKAGE + INHERITANCE_ANNOTATION_NAME;
+        public static final String INHERITANCE_ARGUMENT_STRATEGY = "strategy";
+        public static final String INHERITANCE_TYPE_NAME = "InheritanceType";
+        public static final String INHERITANCE_TYPE_FULL = BASE_PACKAGE + INHERITANCE_TYPE_NAME;
+        public static final String INHERITANCE_TYPE_JOINED = "JOINED";
+        public static final String INHERITANCE_TYPE_SINGLE_TABLE = "SINGLE_TABLE";
         public static final String JOIN_COLUMN_ANNOTATION_NAME = "JoinColumn";
         public static final String JOIN_COLUMN_ANNOTATION_FULL = BASE_PACKAGE + JOIN_COLUMN_ANNOTATION_NAME;
+        public static final String JOIN_COLUMN_ARGUMENT_NAME = "name";
         public static final String JOIN_TABLE_ANNOTATION_NAME = "JoinTable";
         public static final String JOIN_TABLE_ANNOTATION_FULL = BASE_PACKAGE + JOIN_TABLE_ANNOTATION_NAME;
         public static final String ONE_TO_ONE_ANNOTATION_NAME = "OneToOne";
@@ -71,25 +136,81 @@ public final class Constants {
         public static final String ONE_TO_MANY_ANNOTATION_NAME = "OneToMany";
         public static final String ONE_TO_MANY_ANNOTATION_FULL = BASE_PACKAGE + ONE_TO_MANY_ANNOTATION_NAME;
         public static final String ONE_TO_MANY_ARGUMENT_MAPPED_BY = "mappedBy";
+        public static final String NAMED_ATTRIBUTE_NODE_ANNOTATION_NAME = "NamedAttributeNode";
+        public static final String NAMED_ATTRIBUTE_NODE_ANNOTATION_FULL = BASE_PACKAGE + NAMED_ATTRIBUTE_NODE_ANNOTATION_NAME;
+        public static final String NAMED_ENTITY_GRAPH_ANNOTATION_NAME = "NamedEntityGraph";
+        public static final String NAMED_ENTITY_GRAPH_ANNOTATION_FULL = BASE_PACKAGE + NAMED_ENTITY_GRAPH_ANNOTATION_NAME;
+        public static final String NAMED_ENTITY_GRAPHS_ANNOTATION_NAME = "NamedEntityGraphs";
+        public static final String NAMED_ENTITY_GRAPHS_ANNOTATION_FULL = BASE_PACKAGE + NAMED_ENTITY_GRAPHS_ANNOTATION_NAME;
+        public static final String NAMED_SUBGRAPH_ANNOTATION_NAME = "NamedSubgraph";
+        public static final String NAMED_SUBGRAPH_ANNOTATION_FULL = BASE_PACKAGE + NAMED_SUBGRAPH_ANNOTATION_NAME;
+        public static final String NAMED_QUERY_ANNOTATION_NAME = "NamedQuery";
+        public static final String NAMED_QUERY_ANNOTATION_FULL = BASE_PACKAGE + NAMED_QUERY_ANNOTATION_NAME;
+        public static final String NAMED_QUERY_ARGUMENT_QUERY = "query";
+        public static final String NAMED_QUERY_ARGUMENT_HINTS = "hints";
+        public static final String LOB_ANNOTATION_NAME = "Lob";
+        public static final String LOB_ANNOTATION_FULL = BASE_PACKAGE + LOB_ANNOTATION_NAME;
+        public static final String MAPPED_SUPERCLASS_ANNOTATION_NAME = "MappedSuperclass";
+        public static final String MAPPED_SUPERCLASS_ANNOTATION_FULL = BASE_PACKAGE + MAPPED_SUPERCLASS_ANNOTATION_NAME;
+        public static final String MANY_TO_MANY_ANNOTATION_NAME = "ManyToMany";
+        public static final String MANY_TO_MANY_ANNOTATION_FULL = BASE_PACKAGE + MANY_TO_MANY_ANNOTATION_NAME;
         public static final String MANY_TO_ONE_ANNOTATION_NAME = "ManyToOne";
         public static final String MANY_TO_ONE_ANNOTATION_FULL = BASE_PACKAGE + MANY_TO_ONE_ANNOTATION_NAME;
+        public static final String ORDER_BY_ANNOTATION_NAME = "OrderBy";
+        public static final String ORDER_BY_ANNOTATION_FULL = BASE_PACKAGE + ORDER_BY_ANNOTATION_NAME;
+        public static final String ORDER_COLUMN_ANNOTATION_NAME = "OrderColumn";
+        public static final String ORDER_COLUMN_ANNOTATION_FULL = BASE_PACKAGE + ORDER_COLUMN_ANNOTATION_NAME;
+        public static final String QUERY_HINT_ANNOTATION_NAME = "QueryHint";
+        public static final String QUERY_HINT_ANNOTATION_FULL = BASE_PACKAGE + QUERY_HINT_ANNOTATION_NAME;
+        public static final String SEQUENCE_GENERATOR_ANNOTATION_NAME = "SequenceGenerator";
+        public static final String SEQUENCE_GENERATOR_ANNOTATION_FULL = BASE_PACKAGE + SEQUENCE_GENERATOR_ANNOTATION_NAME;
         public static final String TABLE_ANNOTATION_NAME = "Table";
         public static final String TABLE_ANNOTATION_FULL = BASE_PACKAGE + TABLE_ANNOTATION_NAME;
         public static final String TABLE_ARGUMENT_SCHEMA = "schema";
         public final static String TABLE_ARGUMENT_TABLE = "table";
         public static final String TABLE_ARGUMENT_UNIQUE_CONSTRAINTS = "uniqueConstraints";
         public static final String TABLE_ARGUMENT_INDEXES = "indexes";
+        public static final String TABLE_GENERATOR_ANNOTATION_NAME = "TableGenerator";
+        public static final String TABLE_GENERATOR_ANNOTATION_FULL = BASE_PACKAGE + TABLE_GENERATOR_ANNOTATION_NAME;
         public static final String TRANSIENT_ANNOTATION_NAME = "Transient";
         public static final String TRANSIENT_ANNOTATION_FULL = BASE_PACKAGE + TRANSIENT_ANNOTATION_NAME;
         public static final String UNIQUE_CONSTRAINT_ANNOTATION_NAME = "UniqueConstraint";
         public static final String UNIQUE_CONSTRAINT_ANNOTATION_FULL = BASE_PACKAGE + UNIQUE_CONSTRAINT_ANNOTATION_NAME;
+        public static final String UNIQUE_CONSTRAINT_ARGUMENT_COLUMN_NAMES = "columnNames";
+        public static final String VERSION_ANNOTATION_NAME = "Version";
+        public static final String VERSION_ANNOTATION_FULL = BASE_PACKAGE + VERSION_ANNOTATION_NAME;
 
+        public static final String ENTITY_MANAGER_FULL = BASE_PACKAGE + "EntityManager";
         public static final String CASCADE_TYPE_FULL = BASE_PACKAGE + "CascadeType";
-        public static final String FETCH_TYPE_FULL = BASE_PACKAGE + "FetchType";
+        public static final String FETCH_TYPE_NAME = "FetchType";
+        public static final String FETCH_TYPE_FULL = BASE_PACKAGE + FETCH_TYPE_NAME;
+        public static final String FETCH_TYPE_EAGER = "EAGER";
+        public static final String FETCH_TYPE_LAZY = "LAZY";
+        public static final String RELATIONSHIP_ARGUMENT_FETCH = "fetch";
+        public static final String RELATIONSHIP_ARGUMENT_CASCADE = "cascade";
+        public static final String RELATIONSHIP_ARGUMENT_TARGET_ENTITY = "targetEntity";
 
         public static final String MIGRATION_COMMENT = "TODO: manually migrate to JPA";
     }
 
+    public static class EclipseLink {
+        private EclipseLink() {
+        }
+
+        public static final String BASE_PACKAGE = "org.eclipse.persistence.annotations.";
+
+        public static final String BATCH_FETCH_ANNOTATION_NAME = "BatchFetch";
+        public static final String BATCH_FETCH_ANNOTATION_FULL = BASE_PACKAGE + BATCH_FETCH_ANNOTATION_NAME;
+        public static final String BATCH_FETCH_TYPE_NAME = "BatchFetchType";
+        public static final String BATCH_FETCH_TYPE_FULL = BASE_PACKAGE + BATCH_FETCH_TYPE_NAME;
+
+        public static final String PERSISTENCE_PROVIDER = "org.eclipse.persistence.jpa.PersistenceProvider";
+        public static final String WEAVING_PROPERTY = "eclipselink.weaving";
+        public static final String WEAVING_FETCH_GROUPS_PROPERTY = "eclipselink.weaving.fetchgroups";
+        public static final String JDBC_FIRST_RESULT_HINT = "eclipselink.jdbc.first-result";
+        public static final String JDBC_MAX_ROWS_HINT = "eclipselink.jdbc.max-rows";
+    }
+
     public static final String LOMBOK_CLASS_PATH = "lombok";
     public static final String SPRING_CONTEXT_CLASS_PATH = "spring-context";
     public static final String SPRING_BOOT_AUTOCONFIGURATION_CLASS_PATH = "spring-boot-autoconfigure";
@@ -1,16 +1,36 @@
 package com.ecpnv.openrewrite.jdo2jpa;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.jspecify.annotations.Nullable;
 import org.openrewrite.Cursor;
 import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
 import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.internal.StringUtils;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.tree.Expression;
 import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TextComment;
+import org.openrewrite.marker.Markers;
 
 import com.ecpnv.openrewrite.java.AddOrUpdateAnnotationAttribute;
 import com.ecpnv.openrewrite.java.CopyNonInheritedAnnotations;
+import com.ecpnv.openrewrite.util.JavaParserFactory;
 import com.ecpnv.openrewrite.util.RewriteUtils;
 
 import lombok.EqualsAndHashCode;
@@ -29,6 +49,8 @@ import lombok.Value;
  * - Scanning parent types for the `javax.jdo.annotations.Discriminator` annotation.
  * - Adding the annotation to the current class if it is not already present.
  * - Processing the transferred annotation to ensure attributes are adjusted as needed.
+ * - Optionally collecting the discriminator values of every hierarchy, to add a `@DiscriminatorColumn` to the root
+ * with a length that fits the longest value, or with an integer type and generated values.
  * <p>
  * This class simplifies the specific use case of handling the `Discriminator` annotation while leveraging
  * the general mechanisms provided by `CopyNonInheritedAnnotations`.
@@ -37,15 +59,157 @@ import lombok.Value;
 @EqualsAndHashCode(callSuper = false)
 public class CopyDiscriminatorFromParent extends CopyNonInheritedAnnotations {
 
+    @Option(displayName = "Discriminator column name",
+            description = "The name of the discriminator column added to the root of a hierarchy. The default is " +
+                    "`discriminator`.",
+            required = false,
+            example = "discriminator")
+    @Nullable
+    String columnName;
+
+    @Option(displayName = "Compact length",
+            description = "When true, then the discriminator column of a hierarchy gets the length of its longest " +
+                    "discriminator value. The default is false.",
+            required = false,
+            example = "true")
+    @Nullable
+    Boolean compactLength;
+
+    @Option(displayName = "Integer values",
+            description = "When true, then the discriminator column of a hierarchy is an integer and the " +
+                    "discriminator values are numbered, the map of old values is added as a comment to the root. The " +
+                    "default is false.",
+            required = false,
+            example = "true")
+    @Nullable
+    Boolean integerValues;
+
     public CopyDiscriminatorFromParent() {
+        this(null, null, null);
+    }
+
+    @JsonCreator
+    public CopyDiscriminatorFromParent(
+            @Nullable @JsonProperty("columnName") String columnName,
+            @Nullable @JsonProperty("compactLength") Boolean compactLength,
+            @Nullable @JsonProperty("integerValues") Boolean integerValues) {
         super(Set.of(Constants.Jdo.DISCRIMINATOR_ANNOTATION_FULL));
+        this.columnName = columnName;
+        this.compactLength = compactLength;
+        this.integerValues = integerValues;
+    }
+
+    @Override
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        return new DiscriminatorAccumulator();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        TreeVisitor<?, ExecutionContext> annotationScanner = super.getScanner(acc);
+        if (!isSizing()) {
+            return annotationScanner;
+        }
+        DiscriminatorAccumulator hierarchies = (DiscriminatorAccumulator) acc;
+        return new JavaIsoVisitor<>() {
+            @Override
+            public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+                annotationScanner.visit(cu, ctx);
+                return super.visitCompilationUnit(cu, ctx);
+            }
+
+            @Override
+            public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+                J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
+                if (cd.getType() == null) {
+                    return cd;
+                }
+                Optional<J.Annotation> discriminator = RewriteUtils
+                        .findLeadingAnnotations(cd, Constants.Jdo.DISCRIMINATOR_ANNOTATION_FULL).stream()
+                        .findFirst();
+                // Subclasses without annotations are recorded as well, because they get the copied discriminator
+                boolean persistent = discriminator.isPresent()
+                        || !RewriteUtils.findLeadingAnnotations(cd, Constants.Jdo.PERSISTENCE_CAPABLE_ANNOTATION_FULL).isEmpty()
+                        || !RewriteUtils.findLeadingAnnotations(cd, Constants.Jpa.ENTITY_ANNOTATION_FULL).isEmpty();
+                JavaType.FullyQualified supertype = cd.getType().getSupertype();
+                hierarchies.classes.put(cd.getType().getFullyQualifiedName(), new ClassInfo(
+                        supertype == null ? null : supertype.getFullyQualifiedName(),
+                        persistent,
+                        discriminator.isPresent(),
+                        discriminator.map(CopyDiscriminatorFromParent::valueOf).orElse(null),
+                        discriminator.isPresent() && !isLiteralOrAbsent(discriminator.get()),
+                        cd.hasModifier(J.Modifier.Type.Abstract)));
+                return cd;
+            }
+        };
     }
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+        if (acc.getParentAnnotationsByType().isEmpty()) {
+            return TreeVisitor.noop();
+        }
+        Map<String, Hierarchy> hierarchies = isSizing()
+                ? ((DiscriminatorAccumulator) acc).hierarchies()
+                : Map.of();
 
         return new CopyAnnoVisitor(acc.getParentAnnotationsByType()) {
 
+            @Override
+            public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+                J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
+                if (cd.getType() == null || hierarchies.isEmpty()) {
+                    return cd;
+                }
+                String classFqn = cd.getType().getFullyQualifiedName();
+                // Number the discriminator values
+                if (Boolean.TRUE.equals(integerValues)) {
+                    Optional<J.Annotation> discriminator = RewriteUtils
+                            .findLeadingAnnotations(cd, Constants.Jdo.DISCRIMINATOR_ANNOTATION_FULL).stream()
+                            .findFirst();
+                    Optional<Integer> number = hierarchies.values().stream()
+                            .map(hierarchy -> hierarchy.numbers.get(classFqn))
+                            .filter(n -> n != null)
+                            .findFirst();
+                    if (discriminator.isPresent() && number.isPresent()) {
+                        cd = withDiscriminatorValue(cd, discriminator.get(), String.valueOf(number.get()), ctx);
+                    }
+                }
+                // Add the discriminator column to the root
+                Hierarchy hierarchy = hierarchies.get(classFqn);
+                if (hierarchy == null || !RewriteUtils.findLeadingAnnotations(cd, Constants.Jpa.DISCRIMINATOR_COLUMN_ANNOTATION_FULL).isEmpty()) {
+                    return cd;
+                }
+                String column = StringUtils.isBlank(columnName) ? Constants.Jpa.DISCRIMINATOR_COLUMN_DEFAULT_NAME : columnName;
+                StringBuilder template = new StringBuilder("@")
+                        .append(Constants.Jpa.DISCRIMINATOR_COLUMN_ANNOTATION_NAME)
+                        .append("(name = \"").append(column).append("\", ");
+                if (Boolean.TRUE.equals(integerValues)) {
+                    template.append("discriminatorType = ").append(Constants.Jpa.DISCRIMINATOR_TYPE_NAME).append(".INTEGER)");
+                    maybeAddImport(Constants.Jpa.DISCRIMINATOR_TYPE_FULL);
+                } else {
+                    template.append("length = ").append(hierarchy.length).append(")");
+                }
+                maybeAddImport(Constants.Jpa.DISCRIMINATOR_COLUMN_ANNOTATION_FULL);
+                cd = JavaTemplate.builder(template.toString())
+                        .javaParser(JavaParserFactory.create(ctx))
+                        .imports(Constants.Jpa.DISCRIMINATOR_COLUMN_ANNOTATION_FULL, Constants.Jpa.DISCRIMINATOR_TYPE_FULL)
+                        .build()
+                        .apply(updateCursor(cd), cd.getCoordinates().addAnnotation(Comparator.comparing(J.Annotation::getSimpleName)));
+                if (Boolean.TRUE.equals(integerValues)) {
+                    // The existing rows must be migrated with the map of old to new values
+                    StringBuilder comment = new StringBuilder(" Discriminator values, the former value is the value in existing rows:");
+                    String whitespace = cd.getPrefix().getWhitespace();
+                    String indent = whitespace.substring(whitespace.lastIndexOf('\n') + 1);
+                    hierarchy.numbers.forEach((name, number) -> comment.append("\n").append(indent).append(" * ")
+                            .append(number).append(" = ").append(hierarchy.values.get(name)));
+                    comment.append("\n").append(indent).append(" ");
+                    cd = cd.withPrefix(cd.getPrefix().withComments(ListUtils.concat(cd.getPrefix().getComments(),
+                            new TextComment(true, comment.toString(), "\n" + indent, Markers.EMPTY))));
+                }
+                return cd;
+            }
+
             @Override
             protected J.ClassDeclaration processExistingAnnotation(J.ClassDeclaration classDeclaration, J.Annotation annotation, ExecutionContext ctx) {
                 if (classDeclaration.getType() != null) {
@@ -66,13 +230,18 @@ public class CopyDiscriminatorFromParent extends CopyNonInheritedAnnotations {
             protected J.ClassDeclaration processAddedAnnotation(
                     J.ClassDeclaration classDeclaration, J.Annotation annotation, ExecutionContext ctx) {
                 // When no discriminator value exist then strategy is class name, hence the class name has to be added explicitly for JPA
+                return withDiscriminatorValue(classDeclaration, annotation, classDeclaration.getType().getFullyQualifiedName(), ctx);
+            }
+
+            private J.ClassDeclaration withDiscriminatorValue(
+                    J.ClassDeclaration classDeclaration, J.Annotation annotation, String value, ExecutionContext ctx) {
                 J.Annotation newAnno = (J.Annotation) new AddOrUpdateAnnotationAttribute(
                         Constants.Jdo.DISCRIMINATOR_ANNOTATION_FULL, false,
-                        null, classDeclaration.getType().getFullyQualifiedName(), "null",
+                        null, value, "null",
                         AddOrUpdateAnnotationAttribute.Operation.BOTH, null, null)
                         .getAddOrUpdateAnnotationAttributeVisitor().visit(annotation, ctx,
                         new Cursor(getCursor().getParent(), classDeclaration)); //hack to create a cursor containing an actual annotation
-                if (newAnno == null) {
+                if (newAnno == null || newAnno == annotation) {
                     return classDeclaration;
                 }
                 var annos = new ArrayList<>(classDeclaration.getLeadingAnnotations());
@@ -83,4 +252,78 @@ public class CopyDiscriminatorFromParent extends CopyNonInheritedAnnotations {
         };
     }
 
+    private boolean isSizing() {
+        return Boolean.TRUE.equals(compactLength) || Boolean.TRUE.equals(integerValues);
+    }
+
+    /**
+     * @return the literal discriminator value, or null when absent or not a literal
+     */
+    static @Nullable String valueOf(J.Annotation annotation) {
+        Optional<J> argument = RewriteUtils.findArgument(annotation, null);
+        Expression value = argument
+                .map(a -> a instanceof J.Assignment assignment ? assignment.getAssignment() : (Expression) a)
+                .orElse(null);
+        return value instanceof J.Literal literal && literal.getValue() != null ? literal.getValue().toString() : null;
+    }
+
+    static boolean isLiteralOrAbsent(J.Annotation annotation) {
+        return RewriteUtils.findArgument(annotation, null).isEmpty() || valueOf(annotation) != null;
+    }
+
+    /**
+     * A persistent class as seen by the scanner.
+     */
+    record ClassInfo(@Nullable String supertype, boolean persistent, boolean discriminated, @Nullable String value,
+                     boolean unknownValue, boolean isAbstract) {
+    }
+
+    /**
+     * The discriminator values of the concrete classes of a hierarchy, their numbers and the length of the longest.
+     */
+    record Hierarchy(Map<String, String> values, Map<String, Integer> numbers, int length) {
+    }
+
+    static class DiscriminatorAccumulator extends Accumulator {
+        final Map<String, ClassInfo> classes = new HashMap<>();
+
+        String rootOf(String name) {
+            Set<String> visited = new HashSet<>();
+            String root = name;
+            for (String supertype = classes.get(root).supertype(); supertype != null && classes.containsKey(supertype)
+                    && classes.get(supertype).persistent() && visited.add(supertype);
+                 supertype = classes.get(supertype).supertype()) {
+                root = supertype;
+            }
+            return root;
+        }
+
+        /**
+         * @return the hierarchies with a discriminator of which all values are known, by the name of the root
+         */
+        Map<String, Hierarchy> hierarchies() {
+            Map<String, List<String>> members = new HashMap<>();
+            classes.keySet().forEach(name -> members.computeIfAbsent(rootOf(name), k -> new ArrayList<>()).add(name));
+            Map<String, Hierarchy> hierarchies = new HashMap<>();
+            members.forEach((root, names) -> {
+                if (names.stream().noneMatch(name -> classes.get(name).discriminated())
+                        || names.stream().anyMatch(name -> classes.get(name).unknownValue())) {
+                    return;
+                }
+                // Classes without a discriminator value get their class name, like the copied discriminators
+                Map<String, String> values = new TreeMap<>();
+                names.stream()
+                        .filter(name -> !classes.get(name).isAbstract())
+                        .forEach(name -> values.put(name, Optional.ofNullable(classes.get(name).value()).orElse(name)));
+                if (values.isEmpty()) {
+                    return;
+                }
+                Map<String, Integer> numbers = new TreeMap<>();
+                values.keySet().forEach(name -> numbers.put(name, numbers.size() + 1));
+                int length = values.values().stream().mapToInt(String::length).max().orElse(0);
+                hierarchies.put(root, new Hierarchy(values, numbers, length));
+            });
+            return hierarchies;
+        }
+    }
 }
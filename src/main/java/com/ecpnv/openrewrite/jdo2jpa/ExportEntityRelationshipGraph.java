@@ -0,0 +1,530 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.StringUtils;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+import org.openrewrite.marker.Markers;
+import org.openrewrite.text.PlainText;
+
+import com.ecpnv.openrewrite.util.RewriteUtils;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+/**
+ * Exports the relationship graph of the entities as a Graphviz DOT file and a JSON file, and reports the cycles of
+ * eager relationships and the chains of eager relationships that are longer than the maximum eager depth. Loading an
+ * entity loads all entities that are reachable by eager relationships, hence these are the relationships to make lazy.
+ * <p>
+ * The graph adheres to the following rules:
+ * <ul>
+ * <li> The nodes are the classes annotated with <code>@Entity</code> or <code>@PersistenceCapable</code>, the edges
+ * are their fields annotated with <code>@OneToMany</code>, <code>@ManyToMany</code>, <code>@OneToOne</code> or
+ * <code>@ManyToOne</code> to another entity, hence it must run after <code>@Persistent</code> is migrated.
+ * <li> The target of a collection or array is its element type, of a map its value type, unless the relationship has
+ * a <code>targetEntity</code>.
+ * <li> Without a <code>fetch</code> the JPA default applies: <code>EAGER</code> for to-one and <code>LAZY</code> for
+ * to-many relationships.
+ * <li> The relationships of a <code>@MappedSuperclass</code> are edges of its entity subclasses, and an entity also
+ * loads the eager relationships of its entity superclasses.
+ * <li> In the DOT file eager relationships are red and the relationships of an eager cycle are bold.
+ * </ul>
+ * An existing export is updated.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class ExportEntityRelationshipGraph extends ScanningRecipe<ExportEntityRelationshipGraph.Accumulator> {
+
+    public static final String DEFAULT_DOT_PATH = "jdo2jpa-entity-graph.dot";
+    public static final String DEFAULT_JSON_PATH = "jdo2jpa-entity-graph.json";
+    public static final int DEFAULT_MAX_EAGER_DEPTH = 3;
+
+    @Option(displayName = "DOT path",
+            description = "The path of the Graphviz DOT file relative to the root of the project. The default is `" +
+                    DEFAULT_DOT_PATH + "`.",
+            required = false,
+            example = "entities.dot")
+    @Nullable
+    String dotPath;
+
+    @Option(displayName = "JSON path",
+            description = "The path of the JSON file relative to the root of the project. The default is `" +
+                    DEFAULT_JSON_PATH + "`.",
+            required = false,
+            example = "entities.json")
+    @Nullable
+    String jsonPath;
+
+    @Option(displayName = "Maximum eager depth",
+            description = "The number of consecutive eager relationships up to which a chain is acceptable. The " +
+                    "default is " + DEFAULT_MAX_EAGER_DEPTH + ".",
+            required = false,
+            example = "2")
+    @Nullable
+    Integer maxEagerDepth;
+
+    @JsonCreator
+    public ExportEntityRelationshipGraph(
+            @Nullable @JsonProperty("dotPath") String dotPath,
+            @Nullable @JsonProperty("jsonPath") String jsonPath,
+            @Nullable @JsonProperty("maxEagerDepth") Integer maxEagerDepth) {
+        this.dotPath = dotPath;
+        this.jsonPath = jsonPath;
+        this.maxEagerDepth = maxEagerDepth;
+    }
+
+    @Override
+    public @NotNull String getDisplayName() {
+        return "Export the entity relationship graph with its eager cycles and chains";
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return "Exports the entities and their relationships, with fetch type and cascade, as DOT and JSON, and " +
+                "reports the cycles of eager relationships and the chains of eager relationships longer than the " +
+                "maximum eager depth.";
+    }
+
+    @Override
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        return new Accumulator();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        Path dot = path(dotPath, DEFAULT_DOT_PATH);
+        Path json = path(jsonPath, DEFAULT_JSON_PATH);
+        JavaIsoVisitor<ExecutionContext> classScanner = new JavaIsoVisitor<>() {
+            @Override
+            public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+                J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
+                if (cd.getType() == null) {
+                    return cd;
+                }
+                String name = cd.getType().getFullyQualifiedName();
+                if (!RewriteUtils.findLeadingAnnotations(cd, Constants.Jpa.MAPPED_SUPERCLASS_ANNOTATION_FULL).isEmpty()) {
+                    acc.mappedSuperclasses.add(name);
+                } else if (RewriteUtils.isEntity(cd)) {
+                    acc.entities.add(name);
+                } else {
+                    return cd;
+                }
+                if (cd.getType().getSupertype() != null) {
+                    acc.supertypes.put(name, cd.getType().getSupertype().getFullyQualifiedName());
+                }
+                cd.getBody().getStatements().stream()
+                        .filter(J.VariableDeclarations.class::isInstance)
+                        .map(J.VariableDeclarations.class::cast)
+                        .filter(vd -> !vd.hasModifier(J.Modifier.Type.Static))
+                        .forEach(vd -> acc.relationships.addAll(relationshipsOf(name, vd)));
+                return cd;
+            }
+        };
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof SourceFile sourceFile) {
+                    acc.dotExists |= dot.equals(sourceFile.getSourcePath());
+                    acc.jsonExists |= json.equals(sourceFile.getSourcePath());
+                }
+                if (tree instanceof J.CompilationUnit) {
+                    classScanner.visit(tree, ctx);
+                }
+                return tree;
+            }
+        };
+    }
+
+    @Override
+    public Collection<? extends SourceFile> generate(Accumulator acc, ExecutionContext ctx) {
+        EntityGraph graph = graph(acc);
+        if (graph.entities().isEmpty()) {
+            return List.of();
+        }
+        List<SourceFile> generated = new ArrayList<>();
+        if (!acc.dotExists) {
+            generated.add(plainText(path(dotPath, DEFAULT_DOT_PATH), dot(graph)));
+        }
+        if (!acc.jsonExists) {
+            generated.add(plainText(path(jsonPath, DEFAULT_JSON_PATH), json(graph)));
+        }
+        return generated;
+    }
+
+    @Override
+    public @NotNull TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+        EntityGraph graph = graph(acc);
+        if (graph.entities().isEmpty()) {
+            return TreeVisitor.noop();
+        }
+        Map<Path, String> exports = Map.of(
+                path(dotPath, DEFAULT_DOT_PATH), dot(graph),
+                path(jsonPath, DEFAULT_JSON_PATH), json(graph));
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof PlainText plainText && exports.containsKey(plainText.getSourcePath())
+                        && !exports.get(plainText.getSourcePath()).equals(plainText.getText())) {
+                    return plainText.withText(exports.get(plainText.getSourcePath()));
+                }
+                return tree;
+            }
+        };
+    }
+
+    /**
+     * @return the graph of the scanned entities with its eager cycles and the eager chains longer than the maximum
+     * eager depth
+     */
+    EntityGraph graph(Accumulator acc) {
+        if (acc.graph != null) {
+            return acc.graph;
+        }
+        int maxDepth = maxEagerDepth != null ? maxEagerDepth : DEFAULT_MAX_EAGER_DEPTH;
+        Map<String, List<Relationship>> declared = new HashMap<>();
+        acc.relationships.forEach(relationship ->
+                declared.computeIfAbsent(relationship.source(), k -> new ArrayList<>()).add(relationship));
+        // The edges of an entity are its own relationships and those of the mapped superclasses it extends
+        List<Relationship> relationships = new ArrayList<>();
+        for (String entity : acc.entities) {
+            relationships.addAll(declared.getOrDefault(entity, List.of()));
+            Set<String> visited = new HashSet<>();
+            for (String parent = acc.supertypes.get(entity); parent != null && acc.mappedSuperclasses.contains(parent)
+                    && visited.add(parent); parent = acc.supertypes.get(parent)) {
+                declared.getOrDefault(parent, List.of()).forEach(relationship ->
+                        relationships.add(relationship.withSource(entity)));
+            }
+        }
+        relationships.removeIf(relationship -> !acc.entities.contains(relationship.target()));
+        relationships.sort(Comparator.comparing(Relationship::source).thenComparing(Relationship::field));
+        // An entity loads the eager relationships of its entity superclasses as well
+        Map<String, List<Relationship>> eager = new HashMap<>();
+        for (String entity : acc.entities) {
+            Set<String> lineage = new HashSet<>();
+            String type = entity;
+            while (type != null && acc.entities.contains(type) && lineage.add(type)) {
+                type = acc.supertypes.get(type);
+            }
+            eager.put(entity, relationships.stream()
+                    .filter(relationship -> relationship.isEager() && lineage.contains(relationship.source()))
+                    .toList());
+        }
+        List<String> entities = new ArrayList<>(new TreeSet<>(acc.entities));
+        Map<String, Integer> components = new EagerComponents(entities, eager).components;
+        acc.graph = new EntityGraph(entities, relationships, eagerCycles(entities, eager, components),
+                eagerChains(entities, eager, components, maxDepth));
+        return acc.graph;
+    }
+
+    /**
+     * @return the eager cycles, which are the strongly connected components of the eager relationships with more
+     * than one entity or with a relationship of an entity to itself
+     */
+    static List<EagerCycle> eagerCycles(List<String> entities, Map<String, List<Relationship>> eager,
+                                        Map<String, Integer> components) {
+        Map<Integer, TreeSet<String>> members = new HashMap<>();
+        Map<Integer, TreeSet<String>> edges = new HashMap<>();
+        for (String entity : entities) {
+            int component = components.get(entity);
+            members.computeIfAbsent(component, k -> new TreeSet<>()).add(entity);
+            eager.get(entity).stream()
+                    .filter(relationship -> components.get(relationship.target()) == component)
+                    .forEach(relationship -> edges.computeIfAbsent(component, k -> new TreeSet<>())
+                            .add(relationship.source() + "." + relationship.field()));
+        }
+        return members.entrySet().stream()
+                .filter(entry -> edges.containsKey(entry.getKey()))
+                .map(entry -> new EagerCycle(List.copyOf(entry.getValue()), List.copyOf(edges.get(entry.getKey()))))
+                .sorted(Comparator.comparing(cycle -> cycle.entities().get(0)))
+                .toList();
+    }
+
+    /**
+     * @return the longest eager chain of every entity that is deeper than the maximum depth and not itself reached
+     * by an eager relationship, where the relationships within an eager cycle do not count as they are reported as
+     * cycle
+     */
+    static List<EagerChain> eagerChains(List<String> entities, Map<String, List<Relationship>> eager,
+                                        Map<String, Integer> components, int maxDepth) {
+        Map<String, Integer> depths = new HashMap<>();
+        Map<String, Relationship> next = new HashMap<>();
+        Set<String> reached = new HashSet<>();
+        for (String entity : entities) {
+            depth(entity, eager, components, depths, next);
+            eager.get(entity).stream()
+                    .filter(relationship -> !components.get(relationship.target()).equals(components.get(entity)))
+                    .forEach(relationship -> reached.add(relationship.target()));
+        }
+        List<EagerChain> chains = new ArrayList<>();
+        for (String entity : entities) {
+            if (depths.get(entity) <= maxDepth || reached.contains(entity)) {
+                continue;
+            }
+            List<String> path = new ArrayList<>();
+            for (Relationship step = next.get(entity); step != null; step = next.get(step.target())) {
+                path.add(step.source() + "." + step.field());
+            }
+            chains.add(new EagerChain(entity, depths.get(entity), path));
+        }
+        return chains;
+    }
+
+    private static int depth(String entity, Map<String, List<Relationship>> eager, Map<String, Integer> components,
+                             Map<String, Integer> depths, Map<String, Relationship> next) {
+        Integer known = depths.get(entity);
+        if (known != null) {
+            return known;
+        }
+        int depth = 0;
+        // Without the relationships within a component the eager relationships are acyclic
+        for (Relationship relationship : eager.get(entity)) {
+            if (!components.get(relationship.target()).equals(components.get(entity))) {
+                int targetDepth = depth(relationship.target(), eager, components, depths, next) + 1;
+                if (targetDepth > depth) {
+                    depth = targetDepth;
+                    next.put(entity, relationship);
+                }
+            }
+        }
+        depths.put(entity, depth);
+        return depth;
+    }
+
+    String dot(EntityGraph graph) {
+        Set<String> cycleEdges = new HashSet<>();
+        graph.eagerCycles().forEach(cycle -> cycleEdges.addAll(cycle.relationships()));
+        StringBuilder dot = new StringBuilder("digraph entities {\n")
+                .append("    node [shape=box];\n");
+        graph.entities().forEach(entity -> dot.append("    \"").append(entity).append("\" [label=\"")
+                .append(entity.substring(entity.lastIndexOf('.') + 1)).append("\"];\n"));
+        graph.relationships().forEach(relationship -> {
+            dot.append("    \"").append(relationship.source()).append("\" -> \"").append(relationship.target())
+                    .append("\" [label=\"").append(relationship.field()).append("\\n").append(relationship.type())
+                    .append(" ").append(relationship.fetch());
+            if (!relationship.cascade().isEmpty()) {
+                dot.append("\\ncascade ").append(String.join(", ", relationship.cascade()));
+            }
+            dot.append("\"");
+            if (relationship.isEager()) {
+                dot.append(", color=red");
+            }
+            if (cycleEdges.contains(relationship.source() + "." + relationship.field())) {
+                dot.append(", style=bold");
+            }
+            dot.append("];\n");
+        });
+        return dot.append("}\n").toString();
+    }
+
+    String json(EntityGraph graph) {
+        try {
+            return new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(graph) + "\n";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to write the entity relationship graph", e);
+        }
+    }
+
+    private static PlainText plainText(Path path, String text) {
+        return PlainText.builder()
+                .id(Tree.randomId())
+                .sourcePath(path)
+                .markers(Markers.EMPTY)
+                .text(text)
+                .build();
+    }
+
+    private static Path path(@Nullable String path, String defaultPath) {
+        return Path.of(StringUtils.isBlank(path) ? defaultPath : path);
+    }
+
+    /**
+     * @return a relationship per variable of the field when it is annotated as relationship and its target is known
+     */
+    static List<Relationship> relationshipsOf(String owner, J.VariableDeclarations vd) {
+        for (String type : RewriteUtils.RELATIONSHIP_TYPES) {
+            List<J.Annotation> annotations = RewriteUtils.findLeadingAnnotations(vd, type);
+            if (annotations.isEmpty()) {
+                continue;
+            }
+            J.Annotation annotation = annotations.get(0);
+            String target = targetOf(annotation, vd.getType());
+            if (target == null) {
+                return List.of();
+            }
+            String kind = type.substring(type.lastIndexOf('.') + 1);
+            boolean toOne = type.equals(Constants.Jpa.ONE_TO_ONE_ANNOTATION_FULL)
+                    || type.equals(Constants.Jpa.MANY_TO_ONE_ANNOTATION_FULL);
+            String fetch = RewriteUtils.findArgument(annotation, Constants.Jpa.RELATIONSHIP_ARGUMENT_FETCH)
+                    .map(ExportEntityRelationshipGraph::enumConstantOf)
+                    .orElse(toOne ? Constants.Jpa.FETCH_TYPE_EAGER : Constants.Jpa.FETCH_TYPE_LAZY);
+            List<String> cascade = new ArrayList<>();
+            RewriteUtils.findArgument(annotation, Constants.Jpa.RELATIONSHIP_ARGUMENT_CASCADE).ifPresent(argument -> {
+                J value = argument instanceof J.Assignment assignment ? assignment.getAssignment() : argument;
+                if (value instanceof J.NewArray array && array.getInitializer() != null) {
+                    array.getInitializer().stream()
+                            .filter(element -> !(element instanceof J.Empty))
+                            .forEach(element -> cascade.add(enumConstantOf(element)));
+                } else {
+                    cascade.add(enumConstantOf(value));
+                }
+            });
+            String mappedBy = RewriteUtils.findArgument(annotation, Constants.Jpa.ONE_TO_MANY_ARGUMENT_MAPPED_BY)
+                    .map(RewriteUtils::valueOf)
+                    .orElse(null);
+            return vd.getVariables().stream()
+                    .map(variable -> new Relationship(owner, variable.getSimpleName(), target, kind, fetch,
+                            List.copyOf(cascade), mappedBy))
+                    .toList();
+        }
+        return List.of();
+    }
+
+    /**
+     * @return the fully qualified name of the target entity of the relationship, or null when unknown
+     */
+    static @Nullable String targetOf(J.Annotation annotation, @Nullable JavaType fieldType) {
+        JavaType target = RewriteUtils.findArgument(annotation, Constants.Jpa.RELATIONSHIP_ARGUMENT_TARGET_ENTITY)
+                .map(argument -> argument instanceof J.Assignment assignment ? assignment.getAssignment() : argument)
+                .filter(J.FieldAccess.class::isInstance)
+                .map(value -> ((J.FieldAccess) value).getTarget().getType())
+                .orElse(null);
+        if (target == null && fieldType instanceof JavaType.Array array) {
+            target = array.getElemType();
+        } else if (target == null && fieldType instanceof JavaType.Parameterized parameterized
+                && !parameterized.getTypeParameters().isEmpty()) {
+            List<JavaType> parameters = parameterized.getTypeParameters();
+            if (TypeUtils.isAssignableTo("java.util.Map", parameterized)) {
+                target = parameters.get(parameters.size() - 1);
+            } else if (TypeUtils.isAssignableTo("java.util.Collection", parameterized)) {
+                target = parameters.get(0);
+            }
+        } else if (target == null) {
+            target = fieldType;
+        }
+        JavaType.FullyQualified fullyQualified = TypeUtils.asFullyQualified(target);
+        return fullyQualified == null ? null : fullyQualified.getFullyQualifiedName();
+    }
+
+    private static String enumConstantOf(J value) {
+        String name = RewriteUtils.valueOf(value);
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * The strongly connected components of the eager relationships, by Tarjan's algorithm.
+     */
+    static class EagerComponents {
+        final Map<String, Integer> components = new HashMap<>();
+        private final Map<String, List<Relationship>> eager;
+        private final Map<String, Integer> index = new HashMap<>();
+        private final Map<String, Integer> lowLink = new HashMap<>();
+        private final List<String> stack = new ArrayList<>();
+        private final Set<String> onStack = new HashSet<>();
+        private int count;
+
+        EagerComponents(List<String> entities, Map<String, List<Relationship>> eager) {
+            this.eager = eager;
+            entities.stream().filter(entity -> !index.containsKey(entity)).forEach(this::connect);
+        }
+
+        private void connect(String entity) {
+            index.put(entity, count);
+            lowLink.put(entity, count++);
+            stack.add(entity);
+            onStack.add(entity);
+            for (Relationship relationship : eager.get(entity)) {
+                String target = relationship.target();
+                if (!index.containsKey(target)) {
+                    connect(target);
+                    lowLink.put(entity, Math.min(lowLink.get(entity), lowLink.get(target)));
+                } else if (onStack.contains(target)) {
+                    lowLink.put(entity, Math.min(lowLink.get(entity), index.get(target)));
+                }
+            }
+            if (lowLink.get(entity).equals(index.get(entity))) {
+                int component = index.get(entity);
+                String member;
+                do {
+                    member = stack.remove(stack.size() - 1);
+                    onStack.remove(member);
+                    components.put(member, component);
+                } while (!member.equals(entity));
+            }
+        }
+    }
+
+    /**
+     * The entities, their relationships, the eager cycles and the too long eager chains.
+     */
+    public record EntityGraph(List<String> entities, List<Relationship> relationships, List<EagerCycle> eagerCycles,
+                              List<EagerChain> eagerChains) {
+    }
+
+    /**
+     * A relationship field of an entity.
+     */
+    public record Relationship(String source, String field, String target, String type, String fetch,
+                               List<String> cascade, @Nullable String mappedBy) {
+
+        boolean isEager() {
+            return Constants.Jpa.FETCH_TYPE_EAGER.equals(fetch);
+        }
+
+        Relationship withSource(String source) {
+            return new Relationship(source, field, target, type, fetch, cascade, mappedBy);
+        }
+    }
+
+    /**
+     * Entities that load each other by eager relationships, with these relationships as <code>Entity.field</code>.
+     */
+    public record EagerCycle(List<String> entities, List<String> relationships) {
+    }
+
+    /**
+     * The longest chain of eager relationships from an entity, as <code>Entity.field</code>.
+     */
+    public record EagerChain(String entity, int depth, List<String> relationships) {
+    }
+
+    @Data
+    public static class Accumulator {
+        Set<String> entities = new HashSet<>();
+        Set<String> mappedSuperclasses = new HashSet<>();
+        Map<String, String> supertypes = new HashMap<>();
+        Set<Relationship> relationships = new HashSet<>();
+        boolean dotExists;
+        boolean jsonExists;
+        @Nullable
+        EntityGraph graph;
+    }
+}
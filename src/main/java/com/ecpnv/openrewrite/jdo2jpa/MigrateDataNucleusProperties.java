@@ -0,0 +1,333 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+import org.openrewrite.Recipe;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.properties.AddPropertyComment;
+import org.openrewrite.properties.tree.Properties;
+import org.openrewrite.yaml.DeleteProperty;
+import org.openrewrite.yaml.MergeYaml;
+import org.openrewrite.yaml.YamlIsoVisitor;
+import org.openrewrite.yaml.tree.Yaml;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+/**
+ * Migrates the DataNucleus settings of properties and YAML configuration files to their EclipseLink or JPA
+ * equivalents, so the connection pool, cache, fetch size and batch tuning survives the migration.
+ * <p>
+ * The migration adheres to the following rules:
+ * <ul>
+ * <li> Every key with a <code>datanucleus.</code> segment is migrated, whatever prefix precedes it, for example
+ * <code>isis.persistence.jdo-datanucleus.impl.datanucleus.rdbms.statementBatchLimit</code>. DataNucleus keys are
+ * case-insensitive. Logger names, like <code>logging.level.org.datanucleus.store.rdbms</code> or
+ * <code>log4j.category.DataNucleus.JDO</code>, are not DataNucleus keys.
+ * <li> The migrated key gets the property prefix instead of the DataNucleus prefix. Without a property prefix the keys
+ * of a Spring Boot configuration file, like <code>application.yml</code>, get <code>spring.jpa.properties.</code>, as
+ * Spring Boot only passes those to the JPA provider, and the keys of other files get no prefix.
+ * <li> <code>rdbms.statementBatchLimit</code> becomes <code>eclipselink.jdbc.batch-writing=JDBC</code> with
+ * <code>eclipselink.jdbc.batch-writing.size</code>, or <code>eclipselink.jdbc.batch-writing=None</code> when it is 0.
+ * <li> <code>cache.level2.type</code> becomes <code>eclipselink.cache.shared.default</code>, false for
+ * <code>none</code> and true otherwise.
+ * <li> <code>query.fetchSize</code> becomes <code>eclipselink.jdbc.fetch-size</code>, <code>query.timeout</code>
+ * <code>javax.persistence.query.timeout</code>, and the pool sizes of <code>connectionPool</code> the sizes of
+ * <code>eclipselink.connection-pool.default</code>.
+ * <li> The connection settings become the <code>spring.datasource</code> settings in a Spring Boot configuration
+ * file, and the <code>javax.persistence.jdbc</code> settings otherwise. <code>schema.autoCreateAll</code> becomes
+ * <code>eclipselink.ddl-generation</code>.
+ * <li> Other DataNucleus keys are commented out with the {@link Constants.Jpa#MIGRATION_COMMENT}. In a YAML file the
+ * comment is placed where the key was and names the key with its full path, like
+ * <code># datanucleus.Multithreaded: true</code>.
+ * </ul>
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class MigrateDataNucleusProperties extends Recipe {
+
+    public static final Pattern DATANUCLEUS_KEY = Pattern.compile("(?:^|\\.)datanucleus\\.(.+)$", Pattern.CASE_INSENSITIVE);
+    public static final Pattern LOGGER_KEY = Pattern.compile(
+            "^(?:logging|log4j2?|logger|appender)\\.|(?:^|\\.)org\\.datanucleus\\.|\\.level$", Pattern.CASE_INSENSITIVE);
+    public static final Pattern SPRING_CONFIG_FILE = Pattern.compile("(?:application|bootstrap)(?:-[^.]+)?\\.(?:properties|ya?ml)");
+    public static final String SPRING_PROPERTY_PREFIX = "spring.jpa.properties.";
+    public static final Map<String, String> SPRING_DATASOURCE_KEYS = Map.of(
+            "connectionurl", "spring.datasource.url",
+            "connectiondrivername", "spring.datasource.driver-class-name",
+            "connectionusername", "spring.datasource.username",
+            "connectionpassword", "spring.datasource.password");
+
+    @Option(displayName = "Property prefix",
+            description = "The prefix of the migrated keys. The default is `spring.jpa.properties.` for Spring Boot " +
+                    "configuration files and no prefix for other files.",
+            required = false,
+            example = "spring.jpa.properties.")
+    @Nullable
+    String propertyPrefix;
+
+    @JsonCreator
+    public MigrateDataNucleusProperties(@Nullable @JsonProperty("propertyPrefix") String propertyPrefix) {
+        this.propertyPrefix = propertyPrefix;
+    }
+
+    @Override
+    public @NotNull String getDisplayName() {
+        return "Migrate DataNucleus properties to EclipseLink";
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return "Maps the DataNucleus keys of properties and YAML files to their EclipseLink equivalents, such as " +
+                "`eclipselink.jdbc.batch-writing.size`, `eclipselink.cache.shared.default` and " +
+                "`eclipselink.jdbc.fetch-size`, and comments out the keys that have no equivalent.";
+    }
+
+    @Override
+    public @NotNull TreeVisitor<?, ExecutionContext> getVisitor() {
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof Properties.File file) {
+                    return migrateProperties(file, ctx);
+                }
+                if (tree instanceof Yaml.Documents documents) {
+                    return migrateYaml(documents, ctx);
+                }
+                return tree;
+            }
+        };
+    }
+
+    Tree migrateProperties(Properties.File file, ExecutionContext ctx) {
+        boolean springConfig = isSpringConfig(file.getSourcePath());
+        Set<String> keys = file.getContent().stream()
+                .filter(Properties.Entry.class::isInstance)
+                .map(entry -> ((Properties.Entry) entry).getKey())
+                .collect(Collectors.toSet());
+        List<String> unmapped = new ArrayList<>();
+        boolean changed = false;
+        List<Properties.Content> content = new ArrayList<>();
+        for (Properties.Content c : file.getContent()) {
+            if (!(c instanceof Properties.Entry entry) || !isDataNucleusKey(entry.getKey())) {
+                content.add(c);
+                continue;
+            }
+            Map<String, String> migrated = migrate(entry.getKey(), entry.getValue().getText(), springConfig);
+            if (migrated.isEmpty()) {
+                unmapped.add(entry.getKey());
+                content.add(c);
+                continue;
+            }
+            // Replace the entry in place, keys that are already set are kept
+            changed = true;
+            boolean first = true;
+            for (Map.Entry<String, String> property : migrated.entrySet()) {
+                if (keys.add(property.getKey())) {
+                    content.add(entry
+                            .withId(first ? entry.getId() : Tree.randomId())
+                            .withPrefix(first || !entry.getPrefix().isEmpty() ? entry.getPrefix() : "\n")
+                            .withKey(property.getKey())
+                            .withValue(entry.getValue().withText(property.getValue())));
+                    first = false;
+                }
+            }
+        }
+        Tree t = changed ? file.withContent(content) : file;
+        for (String key : unmapped) {
+            t = new AddPropertyComment(key, " " + Constants.Jpa.MIGRATION_COMMENT, true).getVisitor().visit(t, ctx);
+        }
+        return Objects.requireNonNull(t);
+    }
+
+    Tree migrateYaml(Yaml.Documents documents, ExecutionContext ctx) {
+        boolean springConfig = isSpringConfig(documents.getSourcePath());
+        Map<String, String> entries = new LinkedHashMap<>();
+        new YamlIsoVisitor<Map<String, String>>() {
+            @Override
+            public Yaml.Mapping.Entry visitMappingEntry(Yaml.Mapping.Entry entry, Map<String, String> entries) {
+                if (entry.getValue() instanceof Yaml.Scalar scalar) {
+                    List<String> path = new ArrayList<>();
+                    getCursor().getPathAsStream()
+                            .filter(Yaml.Mapping.Entry.class::isInstance)
+                            .map(Yaml.Mapping.Entry.class::cast)
+                            .forEach(e -> path.addFirst(e.getKey().getValue()));
+                    entries.put(String.join(".", path), scalar.getValue());
+                }
+                return super.visitMappingEntry(entry, entries);
+            }
+        }.visit(documents, entries);
+        Tree t = documents;
+        Set<String> unmapped = new HashSet<>();
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            if (!isDataNucleusKey(entry.getKey())) {
+                continue;
+            }
+            Map<String, String> migrated = migrate(entry.getKey(), entry.getValue(), springConfig);
+            if (migrated.isEmpty()) {
+                unmapped.add(entry.getKey());
+                continue;
+            }
+            t = new DeleteProperty(entry.getKey(), null, null, null).getVisitor().visit(t, ctx);
+            for (Map.Entry<String, String> property : migrated.entrySet()) {
+                t = new MergeYaml("$", property.getKey() + ": " + property.getValue(), true, null, null, null, null, null)
+                        .getVisitor().visit(t, ctx);
+            }
+        }
+        if (unmapped.isEmpty() || !(t instanceof Yaml.Documents migratedDocuments)) {
+            return Objects.requireNonNull(t);
+        }
+        // The keys without equivalent are commented out last, so a parent of which all keys are commented out is
+        // replaced by the comment instead of being deleted together with the comment
+        return migratedDocuments.withDocuments(ListUtils.map(migratedDocuments.getDocuments(), document -> {
+            if (!(document.getBlock() instanceof Yaml.Mapping mapping)) {
+                return document;
+            }
+            StringBuilder trailing = new StringBuilder();
+            Yaml.Mapping commented = commentOut(mapping, "", unmapped, trailing);
+            return commented == mapping ? document : document.withBlock(commented)
+                    .withEnd(document.getEnd().withPrefix(trailing + document.getEnd().getPrefix()));
+        }));
+    }
+
+    /**
+     * Replaces the entries of which all keys are in the given keys with a {@link Constants.Jpa#MIGRATION_COMMENT}
+     * and the keys with their full path and value, at the position of the entry.
+     *
+     * @param path     the path of the mapping
+     * @param trailing receives the comments of the last entries, which precede whatever follows the mapping
+     * @return the mapping with the entries commented out, or the same mapping when nothing is commented out
+     */
+    static Yaml.Mapping commentOut(Yaml.Mapping mapping, String path, Set<String> keys, StringBuilder trailing) {
+        StringBuilder pending = new StringBuilder();
+        boolean changed = false;
+        List<Yaml.Mapping.Entry> entries = new ArrayList<>();
+        for (Yaml.Mapping.Entry entry : mapping.getEntries()) {
+            String entryPath = path.isEmpty() ? entry.getKey().getValue() : path + "." + entry.getKey().getValue();
+            List<String> lines = commentLines(entry.getValue(), entryPath, keys);
+            if (lines != null) {
+                String indent = entry.getPrefix().substring(entry.getPrefix().lastIndexOf('\n') + 1);
+                pending.append(entry.getPrefix()).append("# ").append(Constants.Jpa.MIGRATION_COMMENT);
+                lines.forEach(line -> pending.append('\n').append(indent).append("# ").append(line));
+                changed = true;
+                continue;
+            }
+            Yaml.Mapping.Entry e = entry;
+            if (!pending.isEmpty()) {
+                e = e.withPrefix(pending + e.getPrefix());
+                pending.setLength(0);
+            }
+            if (e.getValue() instanceof Yaml.Mapping child) {
+                Yaml.Mapping commented = commentOut(child, entryPath, keys, pending);
+                if (commented != child) {
+                    e = e.withValue(commented);
+                    changed = true;
+                }
+            }
+            entries.add(e);
+        }
+        trailing.append(pending);
+        return changed ? mapping.withEntries(entries) : mapping;
+    }
+
+    /**
+     * @return the keys with their full path and value of a value that only consists of the given keys, or null when
+     * it has another key
+     */
+    private static @Nullable List<String> commentLines(Yaml.Block value, String path, Set<String> keys) {
+        if (value instanceof Yaml.Scalar scalar) {
+            return keys.contains(path) ? List.of(path + ": " + scalar.getValue()) : null;
+        }
+        if (!(value instanceof Yaml.Mapping mapping) || mapping.getEntries().isEmpty()) {
+            return null;
+        }
+        List<String> lines = new ArrayList<>();
+        for (Yaml.Mapping.Entry entry : mapping.getEntries()) {
+            List<String> entryLines = commentLines(entry.getValue(), path + "." + entry.getKey().getValue(), keys);
+            if (entryLines == null) {
+                return null;
+            }
+            lines.addAll(entryLines);
+        }
+        return lines;
+    }
+
+    static boolean isDataNucleusKey(String key) {
+        return DATANUCLEUS_KEY.matcher(key).find() && !LOGGER_KEY.matcher(key).find();
+    }
+
+    static boolean isSpringConfig(Path sourcePath) {
+        return SPRING_CONFIG_FILE.matcher(sourcePath.getFileName().toString()).matches();
+    }
+
+    /**
+     * @param springConfig whether the key is of a Spring Boot configuration file
+     * @return the EclipseLink or JPA properties of a DataNucleus property, empty when it has no equivalent
+     */
+    Map<String, String> migrate(String key, String value, boolean springConfig) {
+        Matcher matcher = DATANUCLEUS_KEY.matcher(key);
+        if (!isDataNucleusKey(key) || !matcher.find()) {
+            return Map.of();
+        }
+        String name = matcher.group(1).toLowerCase(Locale.ROOT);
+        String v = value.trim();
+        if (springConfig && SPRING_DATASOURCE_KEYS.containsKey(name)) {
+            // Spring Boot configures the data source itself, it does not pass the JPA connection settings
+            return Map.of(SPRING_DATASOURCE_KEYS.get(name), v);
+        }
+        Map<String, String> properties = new LinkedHashMap<>();
+        switch (name) {
+            case "rdbms.statementbatchlimit" -> {
+                if ("0".equals(v)) {
+                    properties.put("eclipselink.jdbc.batch-writing", "None");
+                } else {
+                    properties.put("eclipselink.jdbc.batch-writing", "JDBC");
+                    if (!v.startsWith("-")) {
+                        properties.put("eclipselink.jdbc.batch-writing.size", v);
+                    }
+                }
+            }
+            case "cache.level2.type" ->
+                    properties.put("eclipselink.cache.shared.default", String.valueOf(!"none".equalsIgnoreCase(v)));
+            case "query.fetchsize", "rdbms.query.fetchsize" -> properties.put("eclipselink.jdbc.fetch-size", v);
+            case "query.timeout", "datastorereadtimeout" -> properties.put("javax.persistence.query.timeout", v);
+            case "connectionpool.maxpoolsize" -> properties.put("eclipselink.connection-pool.default.max", v);
+            case "connectionpool.minpoolsize" -> properties.put("eclipselink.connection-pool.default.min", v);
+            case "connectionpool.initialpoolsize" -> properties.put("eclipselink.connection-pool.default.initial", v);
+            case "connectionurl" -> properties.put("javax.persistence.jdbc.url", v);
+            case "connectiondrivername" -> properties.put("javax.persistence.jdbc.driver", v);
+            case "connectionusername" -> properties.put("javax.persistence.jdbc.user", v);
+            case "connectionpassword" -> properties.put("javax.persistence.jdbc.password", v);
+            case "schema.autocreateall" -> properties.put("eclipselink.ddl-generation",
+                    "true".equalsIgnoreCase(v) ? "create-or-extend-tables" : "none");
+            default -> {
+                return Map.of();
+            }
+        }
+        String prefix = propertyPrefix != null ? propertyPrefix : springConfig ? SPRING_PROPERTY_PREFIX : "";
+        Map<String, String> prefixed = new LinkedHashMap<>();
+        properties.forEach((k, val) -> prefixed.put(prefix + k, val));
+        return prefixed;
+    }
+}
@@ -0,0 +1,376 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.StringUtils;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.TypeUtils;
+import org.openrewrite.marker.Markers;
+import org.openrewrite.text.PlainText;
+
+import com.ecpnv.openrewrite.java.CopyAnnotationAttributeFromSubclassToParentClass;
+import com.ecpnv.openrewrite.util.JavaParserFactory;
+import com.ecpnv.openrewrite.util.RewriteUtils;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+/**
+ * Recommends the JPA inheritance strategy of every entity hierarchy, SINGLE_TABLE or JOINED, from the depth of the
+ * hierarchy, the number of subclasses and the number of fields of the subclasses, and writes the recommendations to
+ * a Markdown report, or a JSON report when the report path ends with <code>.json</code>.
+ * <p>
+ * The recommendation adheres to the following rules:
+ * <ul>
+ * <li> A polymorphic load of a JOINED hierarchy joins a table per level, hence SINGLE_TABLE is recommended when the
+ * hierarchy is deeper than the maximum joined depth or has more subclasses than the maximum joined subclasses.
+ * <li> A SINGLE_TABLE hierarchy has a nullable column for every field of every subclass, hence JOINED is recommended
+ * when the subclasses together have more fields than the maximum single table fields.
+ * </ul>
+ * When applied, the <code>@Inheritance(strategy = InheritanceType.JOINED)</code> of the roots for which SINGLE_TABLE is
+ * recommended is replaced, explicitly mapped hierarchies are left as they are. The tables of the subclasses must then
+ * be merged into the table of the root, and the report shows the applied strategy. It must run after the JDO inheritance is migrated.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class RecommendInheritanceStrategy extends ScanningRecipe<RecommendInheritanceStrategy.Accumulator> {
+
+    public static final String DEFAULT_REPORT_PATH = "jdo2jpa-inheritance-report.md";
+    public static final int DEFAULT_MAX_JOINED_DEPTH = 2;
+    public static final int DEFAULT_MAX_JOINED_SUBCLASSES = 5;
+    public static final int DEFAULT_MAX_SINGLE_TABLE_FIELDS = 50;
+
+    @Option(displayName = "Report path",
+            description = "The path of the report relative to the root of the project, a JSON report when it ends " +
+                    "with `.json` and otherwise a Markdown report. The default is `" + DEFAULT_REPORT_PATH + "`.",
+            required = false,
+            example = "jdo2jpa-inheritance-report.json")
+    @Nullable
+    String reportPath;
+
+    @Option(displayName = "Maximum joined depth",
+            description = "The number of levels below the root up to which JOINED is acceptable. The default is " +
+                    DEFAULT_MAX_JOINED_DEPTH + ".",
+            required = false,
+            example = "2")
+    @Nullable
+    Integer maxJoinedDepth;
+
+    @Option(displayName = "Maximum joined subclasses",
+            description = "The number of subclasses up to which JOINED is acceptable. The default is " +
+                    DEFAULT_MAX_JOINED_SUBCLASSES + ".",
+            required = false,
+            example = "5")
+    @Nullable
+    Integer maxJoinedSubclasses;
+
+    @Option(displayName = "Maximum single table fields",
+            description = "The number of fields of all subclasses together up to which SINGLE_TABLE is acceptable. " +
+                    "The default is " + DEFAULT_MAX_SINGLE_TABLE_FIELDS + ".",
+            required = false,
+            example = "50")
+    @Nullable
+    Integer maxSingleTableFields;
+
+    @Option(displayName = "Apply",
+            description = "When true, then JOINED hierarchies for which SINGLE_TABLE is recommended are changed to " +
+                    "SINGLE_TABLE. The default is false, which only reports.",
+            required = false,
+            example = "true")
+    @Nullable
+    Boolean apply;
+
+    @JsonCreator
+    public RecommendInheritanceStrategy(
+            @Nullable @JsonProperty("reportPath") String reportPath,
+            @Nullable @JsonProperty("maxJoinedDepth") Integer maxJoinedDepth,
+            @Nullable @JsonProperty("maxJoinedSubclasses") Integer maxJoinedSubclasses,
+            @Nullable @JsonProperty("maxSingleTableFields") Integer maxSingleTableFields,
+            @Nullable @JsonProperty("apply") Boolean apply) {
+        this.reportPath = reportPath;
+        this.maxJoinedDepth = maxJoinedDepth;
+        this.maxJoinedSubclasses = maxJoinedSubclasses;
+        this.maxSingleTableFields = maxSingleTableFields;
+        this.apply = apply;
+    }
+
+    @Override
+    public @NotNull String getDisplayName() {
+        return "Recommend SINGLE_TABLE or JOINED inheritance per entity hierarchy";
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return "Reports the depth, subclasses and subclass fields of every entity hierarchy with a recommended " +
+                "inheritance strategy, and optionally applies SINGLE_TABLE to deep or wide JOINED hierarchies.";
+    }
+
+    @Override
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        return new Accumulator();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        Path report = reportPath();
+        JavaIsoVisitor<ExecutionContext> classScanner = new JavaIsoVisitor<>() {
+            @Override
+            public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+                J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
+                if (cd.getType() == null || !RewriteUtils.isEntity(cd)) {
+                    return cd;
+                }
+                String name = cd.getType().getFullyQualifiedName();
+                acc.entities.add(name);
+                acc.fieldCounts.put(name, countFields(cd));
+                // Only the super classes, as entities do not inherit from interfaces
+                CopyAnnotationAttributeFromSubclassToParentClass.collectHierarchy(cd.getType(), (parent, child) -> {
+                    if (child.getSupertype() != null
+                            && child.getSupertype().getFullyQualifiedName().equals(parent.getFullyQualifiedName())) {
+                        acc.parents.put(child.getFullyQualifiedName(), parent.getFullyQualifiedName());
+                    }
+                });
+                RewriteUtils.findLeadingAnnotations(cd, Constants.Jpa.INHERITANCE_ANNOTATION_FULL).stream()
+                        .findFirst()
+                        .ifPresent(inheritance -> acc.strategies.put(name, strategyOf(inheritance)));
+                return cd;
+            }
+        };
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof SourceFile sourceFile && report.equals(sourceFile.getSourcePath())) {
+                    acc.reportExists = true;
+                }
+                if (tree instanceof J.CompilationUnit) {
+                    classScanner.visit(tree, ctx);
+                }
+                return tree;
+            }
+        };
+    }
+
+    @Override
+    public Collection<? extends SourceFile> generate(Accumulator acc, ExecutionContext ctx) {
+        List<Hierarchy> hierarchies = hierarchies(acc);
+        if (acc.reportExists || hierarchies.isEmpty()) {
+            return List.of();
+        }
+        return List.of(PlainText.builder()
+                .id(Tree.randomId())
+                .sourcePath(reportPath())
+                .markers(Markers.EMPTY)
+                .text(report(hierarchies))
+                .build());
+    }
+
+    @Override
+    public @NotNull TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+        List<Hierarchy> hierarchies = hierarchies(acc);
+        if (hierarchies.isEmpty()) {
+            return TreeVisitor.noop();
+        }
+        Path report = reportPath();
+        String text = report(hierarchies);
+        Set<String> singleTableRoots = new HashSet<>();
+        if (Boolean.TRUE.equals(apply)) {
+            hierarchies.stream()
+                    .filter(hierarchy -> Constants.Jpa.INHERITANCE_TYPE_JOINED.equals(acc.strategies.get(hierarchy.root()))
+                            && Constants.Jpa.INHERITANCE_TYPE_SINGLE_TABLE.equals(hierarchy.recommendation()))
+                    .forEach(hierarchy -> singleTableRoots.add(hierarchy.root()));
+        }
+        JavaIsoVisitor<ExecutionContext> applyVisitor = new JavaIsoVisitor<>() {
+            @Override
+            public J.Annotation visitAnnotation(J.Annotation annotation, ExecutionContext ctx) {
+                J.Annotation a = super.visitAnnotation(annotation, ctx);
+                if (!(getCursor().getParentTreeCursor().getValue() instanceof J.ClassDeclaration cd)
+                        || cd.getType() == null || !singleTableRoots.contains(cd.getType().getFullyQualifiedName())
+                        || !TypeUtils.isOfClassType(a.getType(), Constants.Jpa.INHERITANCE_ANNOTATION_FULL)) {
+                    return a;
+                }
+                // Fully qualified like the migrated inheritance annotations
+                return JavaTemplate.builder("@" + Constants.Jpa.INHERITANCE_ANNOTATION_FULL + "(strategy = " +
+                                Constants.Jpa.INHERITANCE_TYPE_FULL + "." + Constants.Jpa.INHERITANCE_TYPE_SINGLE_TABLE + ")")
+                        .javaParser(JavaParserFactory.create(ctx))
+                        .build()
+                        .apply(getCursor(), a.getCoordinates().replace());
+            }
+        };
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof PlainText plainText && report.equals(plainText.getSourcePath())
+                        && !text.equals(plainText.getText())) {
+                    return plainText.withText(text);
+                }
+                if (tree instanceof J.CompilationUnit && !singleTableRoots.isEmpty()) {
+                    return applyVisitor.visit(tree, ctx);
+                }
+                return tree;
+            }
+        };
+    }
+
+    /**
+     * @return the hierarchies with at least one subclass, ordered by the name of the root
+     */
+    List<Hierarchy> hierarchies(Accumulator acc) {
+        if (acc.hierarchies != null) {
+            return acc.hierarchies;
+        }
+        int joinedDepth = maxJoinedDepth != null ? maxJoinedDepth : DEFAULT_MAX_JOINED_DEPTH;
+        int joinedSubclasses = maxJoinedSubclasses != null ? maxJoinedSubclasses : DEFAULT_MAX_JOINED_SUBCLASSES;
+        int singleTableFields = maxSingleTableFields != null ? maxSingleTableFields : DEFAULT_MAX_SINGLE_TABLE_FIELDS;
+        // The depth of every subclass by its root
+        Map<String, Map<String, Integer>> subclassesByRoot = new TreeMap<>();
+        for (String entity : acc.entities) {
+            int depth = 0;
+            String root = entity;
+            Set<String> visited = new HashSet<>();
+            for (String parent = acc.parents.get(root); parent != null && acc.entities.contains(parent)
+                    && visited.add(parent); parent = acc.parents.get(parent)) {
+                root = parent;
+                depth++;
+            }
+            if (depth > 0) {
+                subclassesByRoot.computeIfAbsent(root, k -> new TreeMap<>()).put(entity, depth);
+            }
+        }
+        List<Hierarchy> hierarchies = new ArrayList<>();
+        subclassesByRoot.forEach((root, depths) -> {
+            List<Subclass> subclasses = new ArrayList<>();
+            depths.forEach((name, depth) -> subclasses.add(new Subclass(name, depth, acc.fieldCounts.getOrDefault(name, 0))));
+            int depth = depths.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+            int fields = subclasses.stream().mapToInt(Subclass::fields).sum();
+            // Without an inheritance annotation JPA uses a single table
+            String strategy = acc.strategies.getOrDefault(root, Constants.Jpa.INHERITANCE_TYPE_SINGLE_TABLE);
+            String recommendation;
+            String reason;
+            if (depth <= joinedDepth && subclasses.size() <= joinedSubclasses) {
+                recommendation = Constants.Jpa.INHERITANCE_TYPE_JOINED;
+                reason = "a polymorphic load joins at most " + (depth + 1) + " tables";
+            } else if (fields > singleTableFields) {
+                recommendation = Constants.Jpa.INHERITANCE_TYPE_JOINED;
+                reason = "the " + fields + " fields of the subclasses exceed the " + singleTableFields +
+                        " nullable columns of a single table";
+            } else {
+                recommendation = Constants.Jpa.INHERITANCE_TYPE_SINGLE_TABLE;
+                reason = "a polymorphic load would join " + (depth > joinedDepth ? "up to " + (depth + 1) : subclasses.size() + 1) +
+                        " tables, while the " + fields + " fields of the subclasses fit in a single table";
+                if (Boolean.TRUE.equals(apply) && Constants.Jpa.INHERITANCE_TYPE_JOINED.equals(acc.strategies.get(root))) {
+                    // Report the strategy as applied, so that a next cycle produces the same report
+                    strategy = recommendation;
+                }
+            }
+            hierarchies.add(new Hierarchy(root, strategy, depth, subclasses.size(), fields, recommendation, reason, subclasses));
+        });
+        acc.hierarchies = hierarchies;
+        return hierarchies;
+    }
+
+    String report(List<Hierarchy> hierarchies) {
+        if (reportPath().toString().endsWith(".json")) {
+            try {
+                return new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(hierarchies) + "\n";
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to write the inheritance report", e);
+            }
+        }
+        StringBuilder report = new StringBuilder("# Inheritance strategy report\n\n")
+                .append("| Root | Strategy | Depth | Subclasses | Subclass fields | Recommendation | Reason |\n")
+                .append("|---|---|---|---|---|---|---|\n");
+        hierarchies.forEach(hierarchy -> report.append("| ").append(hierarchy.root())
+                .append(" | ").append(hierarchy.strategy())
+                .append(" | ").append(hierarchy.depth())
+                .append(" | ").append(hierarchy.subclassCount())
+                .append(" | ").append(hierarchy.subclassFields())
+                .append(" | ").append(hierarchy.recommendation())
+                .append(" | ").append(hierarchy.reason())
+                .append(" |\n"));
+        hierarchies.forEach(hierarchy -> {
+            report.append("\n## ").append(hierarchy.root()).append("\n\n")
+                    .append("| Subclass | Depth | Fields |\n")
+                    .append("|---|---|---|\n");
+            hierarchy.subclasses().forEach(subclass -> report.append("| ").append(subclass.name())
+                    .append(" | ").append(subclass.depth())
+                    .append(" | ").append(subclass.fields())
+                    .append(" |\n"));
+        });
+        return report.toString();
+    }
+
+    private Path reportPath() {
+        return Path.of(StringUtils.isBlank(reportPath) ? DEFAULT_REPORT_PATH : reportPath);
+    }
+
+    /**
+     * @return the number of persistent fields declared by the class
+     */
+    static int countFields(J.ClassDeclaration cd) {
+        return cd.getBody().getStatements().stream()
+                .filter(J.VariableDeclarations.class::isInstance)
+                .map(J.VariableDeclarations.class::cast)
+                .filter(vd -> !vd.hasModifier(J.Modifier.Type.Static) && !vd.hasModifier(J.Modifier.Type.Transient))
+                .filter(vd -> RewriteUtils.findLeadingAnnotations(vd, Constants.Jpa.TRANSIENT_ANNOTATION_FULL).isEmpty()
+                        && RewriteUtils.findLeadingAnnotations(vd, Constants.Jdo.NON_PERSISTENT_FULL).isEmpty())
+                .mapToInt(vd -> vd.getVariables().size())
+                .sum();
+    }
+
+    static String strategyOf(J.Annotation inheritance) {
+        return RewriteUtils.findArgument(inheritance, Constants.Jpa.INHERITANCE_ARGUMENT_STRATEGY)
+                .map(RewriteUtils::valueOf)
+                .map(value -> value.substring(value.lastIndexOf('.') + 1))
+                .orElse(Constants.Jpa.INHERITANCE_TYPE_SINGLE_TABLE);
+    }
+
+    /**
+     * The metrics and recommendation of an entity hierarchy.
+     */
+    public record Hierarchy(String root, String strategy, int depth, int subclassCount, int subclassFields,
+                            String recommendation, String reason, List<Subclass> subclasses) {
+    }
+
+    /**
+     * A subclass of an entity hierarchy with its depth below the root and its own persistent fields.
+     */
+    public record Subclass(String name, int depth, int fields) {
+    }
+
+    @Data
+    public static class Accumulator {
+        Set<String> entities = new HashSet<>();
+        Map<String, String> parents = new HashMap<>();
+        Map<String, Integer> fieldCounts = new HashMap<>();
+        Map<String, String> strategies = new HashMap<>();
+        boolean reportExists;
+        @Nullable
+        List<Hierarchy> hierarchies;
+    }
+}
@@ -0,0 +1,273 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+import org.openrewrite.Preconditions;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.TypeUtils;
+
+import com.ecpnv.openrewrite.jdo2jpa.table.RedundantIndexes;
+import com.ecpnv.openrewrite.util.RewriteUtils;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+/**
+ * Removes the indexes and unique constraints of a <code>@Table</code> that are redundant, because every index slows
+ * down the writes of the table, and reports what was removed in a data table. The migrated JDO
+ * <code>@Index</code> and <code>@Unique</code> annotations of fields and classes easily duplicate each other.
+ * <p>
+ * The migration adheres to the following rules:
+ * <ul>
+ * <li> An index with the same columns in the same order as a unique constraint is removed, as the database creates
+ * a unique index for the constraint.
+ * <li> Of the indexes with the same columns in the same order, the first unique index, or else the first index, is
+ * kept. Of the unique constraints with the same columns, in any order, the first is kept.
+ * <li> When prefixes are removed, a non unique index whose columns are the leading columns of another index or of a
+ * unique constraint is removed, as that index serves the same lookups.
+ * <li> A non unique index with a name is only removed when named indexes are removed, as the name may be referred to
+ * by query hints or database scripts.
+ * <li> Columns are compared case-insensitive, ascending order is the default, and indexes or constraints with
+ * columns that are not string literals are left alone.
+ * </ul>
+ * It must run after the indexes and unique constraints are moved to the <code>@Table</code>.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class RemoveRedundantIndexes extends Recipe {
+
+    static final String DUPLICATE_OF = "duplicate of";
+    static final String PREFIX_OF = "prefix of";
+
+    transient RedundantIndexes report = new RedundantIndexes(this);
+
+    @Option(displayName = "Remove prefixes",
+            description = "When true, then non unique indexes whose columns are the leading columns of another index " +
+                    "or unique constraint are removed as well. The default is false.",
+            required = false,
+            example = "true")
+    @Nullable
+    Boolean removePrefixes;
+
+    @Option(displayName = "Remove named indexes",
+            description = "When true, then redundant non unique indexes with a name are removed as well. The default " +
+                    "is false.",
+            required = false,
+            example = "true")
+    @Nullable
+    Boolean removeNamedIndexes;
+
+    @JsonCreator
+    public RemoveRedundantIndexes(@Nullable @JsonProperty("removePrefixes") Boolean removePrefixes,
+                                  @Nullable @JsonProperty("removeNamedIndexes") Boolean removeNamedIndexes) {
+        this.removePrefixes = removePrefixes;
+        this.removeNamedIndexes = removeNamedIndexes;
+    }
+
+    @Override
+    public @NotNull String getDisplayName() {
+        return "Remove redundant indexes and unique constraints";
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return "Removes the duplicate indexes and unique constraints of a `@Table`, and optionally the indexes that " +
+                "are a prefix of another index or unique constraint, and reports what was removed.";
+    }
+
+    @Override
+    public @NotNull TreeVisitor<?, ExecutionContext> getVisitor() {
+        return Preconditions.check(new UsesType<>(Constants.Jpa.TABLE_ANNOTATION_FULL, false),
+                new JavaIsoVisitor<ExecutionContext>() {
+                    @Override
+                    public J.Annotation visitAnnotation(J.Annotation annotation, ExecutionContext ctx) {
+                        J.Annotation a = super.visitAnnotation(annotation, ctx);
+                        if (!(getCursor().getParentTreeCursor().getValue() instanceof J.ClassDeclaration cd)
+                                || cd.getType() == null
+                                || !TypeUtils.isOfClassType(a.getType(), Constants.Jpa.TABLE_ANNOTATION_FULL)) {
+                            return a;
+                        }
+                        List<Redundant> redundant = redundant(a, Boolean.TRUE.equals(removePrefixes),
+                                Boolean.TRUE.equals(removeNamedIndexes));
+                        if (redundant.isEmpty()) {
+                            return a;
+                        }
+                        Set<UUID> ids = new HashSet<>();
+                        redundant.forEach(r -> {
+                            ids.add(r.removed().getId());
+                            report.insertRow(ctx, new RedundantIndexes.Row(cd.getType().getFullyQualifiedName(),
+                                    print(r.removed()), r.reason(), print(r.by())));
+                        });
+                        maybeRemoveImport(Constants.Jpa.INDEX_ANNOTATION_FULL);
+                        return a.withArguments(mapKeepingPrefix(a.getArguments(), argument -> {
+                            if (!(argument instanceof J.Assignment assignment)) {
+                                return argument;
+                            }
+                            if (assignment.getAssignment() instanceof J.NewArray array && array.getInitializer() != null) {
+                                List<Expression> elements = mapKeepingPrefix(array.getInitializer(),
+                                        element -> ids.contains(element.getId()) ? null : element);
+                                return elements.stream().allMatch(J.Empty.class::isInstance)
+                                        ? null
+                                        : assignment.withAssignment(array.withInitializer(elements));
+                            }
+                            return ids.contains(assignment.getAssignment().getId()) ? null : assignment;
+                        }));
+                    }
+                });
+    }
+
+    /**
+     * @return the redundant indexes and unique constraints of the table, with the reason
+     */
+    static List<Redundant> redundant(J.Annotation table, boolean removePrefixes, boolean removeNamedIndexes) {
+        List<Entry> constraints = new ArrayList<>();
+        for (Expression element : RewriteUtils.arrayElements(table, Constants.Jpa.TABLE_ARGUMENT_UNIQUE_CONSTRAINTS)) {
+            if (element instanceof J.Annotation annotation) {
+                List<String> columns = constraintColumns(annotation);
+                if (columns != null) {
+                    constraints.add(new Entry(annotation, columns, true, true));
+                }
+            }
+        }
+        List<Entry> indexes = new ArrayList<>();
+        for (Expression element : RewriteUtils.arrayElements(table, Constants.Jpa.TABLE_ARGUMENT_INDEXES)) {
+            if (element instanceof J.Annotation annotation) {
+                List<String> columns = indexColumns(annotation);
+                if (columns != null) {
+                    boolean unique = RewriteUtils.findArgumentAsBoolean(annotation,
+                            Constants.Jpa.INDEX_ANNOTATION_UNIQUE_ATTRIBUTE).orElse(false);
+                    boolean named = RewriteUtils.findArgument(annotation, Constants.Jpa.INDEX_ANNOTATION_NAME_ATTRIBUTE)
+                            .isPresent();
+                    indexes.add(new Entry(annotation, columns, unique, unique || !named || removeNamedIndexes));
+                }
+            }
+        }
+        List<Redundant> redundant = new ArrayList<>();
+        List<Entry> kept = new ArrayList<>();
+        for (Entry constraint : constraints) {
+            kept.stream()
+                    .filter(k -> new HashSet<>(k.columns()).equals(new HashSet<>(constraint.columns())))
+                    .findFirst()
+                    .ifPresentOrElse(k -> redundant.add(new Redundant(constraint.annotation(), DUPLICATE_OF, k.annotation())),
+                            () -> kept.add(constraint));
+        }
+        for (Entry index : indexes) {
+            kept.stream()
+                    .filter(k -> index.removable() && k.columns().equals(index.columns()) && (k.unique() || !index.unique()))
+                    .findFirst()
+                    .ifPresentOrElse(k -> redundant.add(new Redundant(index.annotation(), DUPLICATE_OF, k.annotation())),
+                            () -> {
+                                // A unique index replaces the non unique indexes with the same columns that are kept
+                                kept.removeIf(k -> {
+                                    if (k.removable() && k.columns().equals(index.columns()) && !k.unique()) {
+                                        redundant.add(new Redundant(k.annotation(), DUPLICATE_OF, index.annotation()));
+                                        return true;
+                                    }
+                                    return false;
+                                });
+                                kept.add(index);
+                            });
+        }
+        if (removePrefixes) {
+            for (Entry index : List.copyOf(kept)) {
+                if (index.unique() || !index.removable()) {
+                    continue;
+                }
+                kept.stream()
+                        .filter(k -> k.columns().size() > index.columns().size()
+                                && k.columns().subList(0, index.columns().size()).equals(index.columns()))
+                        .findFirst()
+                        .ifPresent(k -> {
+                            redundant.add(new Redundant(index.annotation(), PREFIX_OF, k.annotation()));
+                            kept.remove(index);
+                        });
+            }
+        }
+        return redundant;
+    }
+
+    /**
+     * @return the normalized columns of the column list of the index, or null when it is not a literal
+     */
+    static @Nullable List<String> indexColumns(J.Annotation index) {
+        Object columnList = RewriteUtils.findArgumentValue(index, Constants.Jpa.INDEX_ANNOTATION_COLUMN_LIST_ATTRIBUTE)
+                .filter(J.Literal.class::isInstance)
+                .map(literal -> ((J.Literal) literal).getValue())
+                .orElse(null);
+        if (!(columnList instanceof String list) || list.isBlank()) {
+            return null;
+        }
+        List<String> columns = new ArrayList<>();
+        for (String column : list.split(",")) {
+            String normalized = column.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+            columns.add(normalized.endsWith(" asc") ? normalized.substring(0, normalized.length() - 4) : normalized);
+        }
+        return columns;
+    }
+
+    /**
+     * @return the normalized column names of the unique constraint, or null when one is not a literal
+     */
+    static @Nullable List<String> constraintColumns(J.Annotation constraint) {
+        List<String> columns = new ArrayList<>();
+        for (Expression column : RewriteUtils.arrayElements(constraint, Constants.Jpa.UNIQUE_CONSTRAINT_ARGUMENT_COLUMN_NAMES)) {
+            if (!(column instanceof J.Literal literal) || !(literal.getValue() instanceof String name)) {
+                return null;
+            }
+            columns.add(name.trim().toLowerCase(Locale.ROOT));
+        }
+        return columns.isEmpty() ? null : columns;
+    }
+
+    private static String print(J.Annotation annotation) {
+        return annotation.toString().trim();
+    }
+
+    /**
+     * @return the elements mapped by the function, without those mapped to null, where the first remaining element
+     * takes the prefix of the first element
+     */
+    private static <T extends J> List<T> mapKeepingPrefix(List<T> elements, Function<T, @Nullable T> mapper) {
+        List<T> result = new ArrayList<>();
+        for (T element : elements) {
+            T mapped = mapper.apply(element);
+            if (mapped != null) {
+                result.add(result.isEmpty() && !elements.isEmpty() ? mapped.withPrefix(elements.get(0).getPrefix()) : mapped);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * An index or unique constraint with its normalized columns, and whether it may be removed when it is redundant.
+     */
+    record Entry(J.Annotation annotation, List<String> columns, boolean unique, boolean removable) {
+    }
+
+    /**
+     * A redundant index or unique constraint, with the reason and the index or unique constraint that makes it
+     * redundant.
+     */
+    record Redundant(J.Annotation removed, String reason, J.Annotation by) {
+    }
+}
@@ -0,0 +1,407 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+import org.openrewrite.Preconditions;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.java.AnnotationMatcher;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.RemoveAnnotationVisitor;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.Statement;
+import org.openrewrite.java.tree.TextComment;
+import org.openrewrite.java.tree.TypeUtils;
+import org.openrewrite.marker.Markers;
+
+import com.ecpnv.openrewrite.util.JavaParserFactory;
+import com.ecpnv.openrewrite.util.RewriteUtils;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+/**
+ * Replaces the JDO fetch groups and fetch plans of an entity with JPA named entity graphs, so the tuned loading plans
+ * of the application survive the migration.
+ * <p>
+ * The migration adheres to the following rules:
+ * <ul>
+ * <li> <code>@FetchGroup(name = "detail", members = {@Persistent(name = "items")})</code> becomes
+ * <code>@NamedEntityGraph(name = "Order.detail", attributeNodes = {@NamedAttributeNode("items")})</code>, the name
+ * of the graph is prefixed with the entity name as JPA graph names are unique per persistence unit, while JDO fetch
+ * group names are unique per class.
+ * <li> <code>@FetchGroups</code> becomes <code>@NamedEntityGraphs</code>.
+ * <li> The fetch groups a fetch group includes with <code>fetchGroups</code> are merged into its attribute nodes.
+ * <li> <code>@FetchPlan(name = "list", fetchGroups = {"a", "b"})</code> becomes a named entity graph with the
+ * attribute nodes of the fetch groups <code>a</code> and <code>b</code>.
+ * <li> Nested members like <code>items.product</code>, and members whose type has a fetch group with the same name,
+ * which JDO applies when that fetch group is active, become subgraphs. Recursion stops at a type that is already in
+ * the path.
+ * <li> A class with a fetch group, fetch plan or member that is not named by a literal, like a constant, is kept and
+ * tagged with the {@link Constants.Jpa#MIGRATION_COMMENT}, as its fetch groups can not be migrated completely.
+ * </ul>
+ * The fetch groups of all entities are collected in the scanning phase to be able to create the subgraphs.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class ReplaceFetchGroupsWithNamedEntityGraphs extends ScanningRecipe<ReplaceFetchGroupsWithNamedEntityGraphs.Accumulator> {
+
+    private static final List<String> SOURCE_TYPES = List.of(
+            Constants.Jdo.FETCH_GROUPS_ANNOTATION_FULL, Constants.Jdo.FETCH_GROUP_ANNOTATION_FULL,
+            Constants.Jdo.FETCH_PLANS_ANNOTATION_FULL, Constants.Jdo.FETCH_PLAN_ANNOTATION_FULL);
+
+    @Option(displayName = "Prefix graph names with the entity name",
+            description = "When true, the default, then the name of a graph is the simple name of the entity, a dot " +
+                    "and the name of the fetch group, otherwise the name of the fetch group.",
+            required = false,
+            example = "false")
+    @Nullable
+    Boolean prefixEntityName;
+
+    @JsonCreator
+    public ReplaceFetchGroupsWithNamedEntityGraphs(@Nullable @JsonProperty("prefixEntityName") Boolean prefixEntityName) {
+        this.prefixEntityName = prefixEntityName;
+    }
+
+    @Override
+    public @NotNull String getDisplayName() {
+        return "Replace JDO `@FetchGroup` and `@FetchPlan` with JPA `@NamedEntityGraph`";
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return "Replaces the fetch groups and fetch plans of a JDO entity with named entity graphs, including " +
+                "subgraphs for nested members and for members whose type has a fetch group with the same name.";
+    }
+
+    @Override
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        return new Accumulator();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        return Preconditions.check(usesFetchAnnotation(), new JavaIsoVisitor<>() {
+            @Override
+            public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+                J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
+                if (cd.getType() != null && !findFetchAnnotations(cd).isEmpty()) {
+                    String type = cd.getType().getFullyQualifiedName();
+                    acc.getGraphsByType().put(type, collectGraphs(cd));
+                    acc.getFieldTypesByType().put(type, collectFieldTypes(cd));
+                }
+                return cd;
+            }
+        });
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+        return Preconditions.check(usesFetchAnnotation(), new JavaIsoVisitor<>() {
+            @Override
+            public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+                J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
+                List<J.Annotation> fetchAnnotations = findFetchAnnotations(cd);
+                if (cd.getType() == null || fetchAnnotations.isEmpty()) {
+                    return cd;
+                }
+                if (!hasLiteralNames(cd)) {
+                    // A fetch group that is named by a constant would get lost, so the class is migrated manually
+                    if (RewriteUtils.commentsContains(cd.getPrefix().getComments(), Constants.Jpa.MIGRATION_COMMENT)) {
+                        return cd;
+                    }
+                    String whitespace = cd.getPrefix().getWhitespace();
+                    String indent = whitespace.substring(whitespace.lastIndexOf('\n') + 1);
+                    return cd.withPrefix(cd.getPrefix().withComments(ListUtils.concat(cd.getPrefix().getComments(),
+                            new TextComment(false, " " + Constants.Jpa.MIGRATION_COMMENT + ": fetch group names " +
+                                    "that are not literals", "\n" + indent, Markers.EMPTY))));
+                }
+                String type = cd.getType().getFullyQualifiedName();
+                Map<String, Set<String>> graphs = acc.getGraphsByType().get(type);
+                if (graphs == null) {
+                    graphs = collectGraphs(cd);
+                }
+                if (graphs.isEmpty()) {
+                    return cd;
+                }
+                List<String> templates = new ArrayList<>();
+                String simpleName = cd.getSimpleName();
+                graphs.forEach((name, members) -> templates.add(toNamedEntityGraph(acc, type, simpleName, name, members)));
+
+                SOURCE_TYPES.forEach(this::maybeRemoveImport);
+                maybeRemoveImport(Constants.Jdo.PERSISTENT_ANNOTATION_FULL);
+                maybeAddImport(Constants.Jpa.NAMED_ATTRIBUTE_NODE_ANNOTATION_FULL);
+                maybeAddImport(Constants.Jpa.NAMED_SUBGRAPH_ANNOTATION_FULL);
+                maybeAddImport(Constants.Jpa.NAMED_ENTITY_GRAPH_ANNOTATION_FULL);
+                String template = templates.get(0);
+                if (templates.size() > 1) {
+                    maybeAddImport(Constants.Jpa.NAMED_ENTITY_GRAPHS_ANNOTATION_FULL);
+                    template = "@" + Constants.Jpa.NAMED_ENTITY_GRAPHS_ANNOTATION_NAME + "({\n        " +
+                            String.join(",\n        ", templates) + "})";
+                }
+                // Replace the first fetch annotation with the graphs and remove the others
+                cd = JavaTemplate.builder(template)
+                        .javaParser(JavaParserFactory.create(ctx))
+                        .imports(Constants.Jpa.NAMED_ENTITY_GRAPHS_ANNOTATION_FULL,
+                                Constants.Jpa.NAMED_ENTITY_GRAPH_ANNOTATION_FULL,
+                                Constants.Jpa.NAMED_ATTRIBUTE_NODE_ANNOTATION_FULL,
+                                Constants.Jpa.NAMED_SUBGRAPH_ANNOTATION_FULL)
+                        .build()
+                        .apply(updateCursor(cd), fetchAnnotations.get(0).getCoordinates().replace());
+                for (String sourceType : SOURCE_TYPES) {
+                    cd = (J.ClassDeclaration) new RemoveAnnotationVisitor(new AnnotationMatcher("@" + sourceType))
+                            .visitNonNull(cd, ctx, getCursor().getParentOrThrow());
+                }
+                return cd;
+            }
+        });
+    }
+
+    private String toNamedEntityGraph(Accumulator acc, String type, String simpleName, String name, Set<String> members) {
+        Node root = new Node("", type);
+        members.forEach(member -> root.add(acc, member));
+        Set<String> path = new HashSet<>();
+        path.add(type);
+        root.children.values().forEach(child -> child.expand(acc, name, path));
+
+        String graphName = Boolean.FALSE.equals(prefixEntityName) ? name : simpleName + "." + name;
+        StringBuilder template = new StringBuilder("@")
+                .append(Constants.Jpa.NAMED_ENTITY_GRAPH_ANNOTATION_NAME)
+                .append("(name = \"").append(graphName).append("\"");
+        if (!root.children.isEmpty()) {
+            template.append(", attributeNodes = ").append(root.attributeNodes());
+        }
+        List<Node> subgraphs = new ArrayList<>();
+        root.children.values().forEach(child -> child.collectSubgraphs(subgraphs));
+        if (!subgraphs.isEmpty()) {
+            template.append(", subgraphs = {").append(subgraphs.stream()
+                    .map(subgraph -> "@" + Constants.Jpa.NAMED_SUBGRAPH_ANNOTATION_NAME + "(name = \"" +
+                            subgraph.path + "\", attributeNodes = " + subgraph.attributeNodes() + ")")
+                    .collect(Collectors.joining(", "))).append("}");
+        }
+        return template.append(")").toString();
+    }
+
+    private static UsesType<ExecutionContext> usesFetchAnnotation() {
+        return new UsesType<>(Constants.Jdo.BASE_PACKAGE + "Fetch*", false);
+    }
+
+    static List<J.Annotation> findFetchAnnotations(J.ClassDeclaration cd) {
+        return cd.getLeadingAnnotations().stream()
+                .filter(annotation -> SOURCE_TYPES.stream().anyMatch(type -> TypeUtils.isOfClassType(annotation.getType(), type)))
+                .toList();
+    }
+
+    /**
+     * @return true when the names of all fetch groups, fetch plans and their members are literals, so none of them is
+     * lost by {@link #collectGraphs(J.ClassDeclaration)}
+     */
+    static boolean hasLiteralNames(J.ClassDeclaration cd) {
+        for (J.Annotation annotation : findFetchAnnotations(cd)) {
+            for (J.Annotation fetch : unwrap(annotation)) {
+                if (literal(RewriteUtils.findArgument(fetch, Constants.Jdo.ARGUMENT_NAME).orElse(null)) == null
+                        || elements(fetch, Constants.Jdo.FETCH_GROUP_ARGUMENT_FETCH_GROUPS).stream()
+                        .anyMatch(group -> literal(group) == null)
+                        || elements(fetch, Constants.Jdo.FETCH_GROUP_ARGUMENT_MEMBERS).stream()
+                        .anyMatch(member -> !(member instanceof J.Annotation memberAnnotation) || literal(
+                                RewriteUtils.findArgument(memberAnnotation, Constants.Jdo.ARGUMENT_NAME).orElse(null)) == null)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the members of the fetch groups and fetch plans of the class by their name, in order of declaration
+     */
+    static Map<String, Set<String>> collectGraphs(J.ClassDeclaration cd) {
+        Map<String, Set<String>> groups = new LinkedHashMap<>();
+        Map<String, List<String>> includes = new LinkedHashMap<>();
+        Map<String, List<String>> plans = new LinkedHashMap<>();
+        for (J.Annotation annotation : findFetchAnnotations(cd)) {
+            for (J.Annotation fetch : unwrap(annotation)) {
+                String name = literal(RewriteUtils.findArgument(fetch, Constants.Jdo.ARGUMENT_NAME).orElse(null));
+                if (name == null) {
+                    continue;
+                }
+                List<String> fetchGroups = elements(fetch, Constants.Jdo.FETCH_GROUP_ARGUMENT_FETCH_GROUPS).stream()
+                        .map(ReplaceFetchGroupsWithNamedEntityGraphs::literal)
+                        .filter(group -> group != null)
+                        .toList();
+                if (TypeUtils.isOfClassType(fetch.getType(), Constants.Jdo.FETCH_PLAN_ANNOTATION_FULL)) {
+                    plans.put(name, fetchGroups);
+                    continue;
+                }
+                Set<String> members = groups.computeIfAbsent(name, n -> new LinkedHashSet<>());
+                elements(fetch, Constants.Jdo.FETCH_GROUP_ARGUMENT_MEMBERS).stream()
+                        .filter(J.Annotation.class::isInstance)
+                        .map(member -> literal(RewriteUtils.findArgument((J.Annotation) member, Constants.Jdo.ARGUMENT_NAME)
+                                .orElse(null)))
+                        .filter(member -> member != null)
+                        .forEach(members::add);
+                includes.put(name, fetchGroups);
+            }
+        }
+        Map<String, Set<String>> graphs = new LinkedHashMap<>();
+        groups.keySet().forEach(name -> graphs.put(name, resolve(name, groups, includes, new HashSet<>())));
+        plans.forEach((name, planGroups) -> {
+            Set<String> members = new LinkedHashSet<>();
+            planGroups.forEach(group -> members.addAll(resolve(group, groups, includes, new HashSet<>())));
+            graphs.put(name, members);
+        });
+        return graphs;
+    }
+
+    private static Set<String> resolve(String group, Map<String, Set<String>> groups, Map<String, List<String>> includes,
+                                       Set<String> resolving) {
+        Set<String> members = new LinkedHashSet<>(groups.getOrDefault(group, Set.of()));
+        if (resolving.add(group)) {
+            includes.getOrDefault(group, List.of())
+                    .forEach(include -> members.addAll(resolve(include, groups, includes, resolving)));
+        }
+        return members;
+    }
+
+    /**
+     * @return the types of the fields of the class by field name, for a collection or map the type of its elements
+     */
+    static Map<String, String> collectFieldTypes(J.ClassDeclaration cd) {
+        Map<String, String> fieldTypes = new HashMap<>();
+        for (Statement statement : cd.getBody().getStatements()) {
+            if (statement instanceof J.VariableDeclarations mv) {
+                JavaType type = mv.getType();
+                if (type instanceof JavaType.Parameterized parameterized && !parameterized.getTypeParameters().isEmpty()) {
+                    List<JavaType> typeParameters = parameterized.getTypeParameters();
+                    type = typeParameters.get(typeParameters.size() - 1);
+                }
+                JavaType.FullyQualified fullyQualified = TypeUtils.asFullyQualified(type);
+                if (fullyQualified != null) {
+                    mv.getVariables().forEach(variable ->
+                            fieldTypes.put(variable.getSimpleName(), fullyQualified.getFullyQualifiedName()));
+                }
+            }
+        }
+        return fieldTypes;
+    }
+
+    private static List<J.Annotation> unwrap(J.Annotation annotation) {
+        if (TypeUtils.isOfClassType(annotation.getType(), Constants.Jdo.FETCH_GROUPS_ANNOTATION_FULL)
+                || TypeUtils.isOfClassType(annotation.getType(), Constants.Jdo.FETCH_PLANS_ANNOTATION_FULL)) {
+            return elements(annotation, "value").stream()
+                    .filter(J.Annotation.class::isInstance)
+                    .map(J.Annotation.class::cast)
+                    .toList();
+        }
+        return List.of(annotation);
+    }
+
+    /**
+     * @return the elements of an array argument, or the argument itself when it is not an array
+     */
+    private static List<Expression> elements(J.Annotation annotation, String argumentName) {
+        Optional<J> argument = RewriteUtils.findArgument(annotation, argumentName);
+        J value = argument.map(a -> a instanceof J.Assignment assignment ? assignment.getAssignment() : a).orElse(null);
+        if (value instanceof J.NewArray newArray) {
+            return newArray.getInitializer() == null ? List.of() : newArray.getInitializer().stream()
+                    .filter(element -> !(element instanceof J.Empty))
+                    .toList();
+        }
+        return value instanceof Expression expression ? List.of(expression) : List.of();
+    }
+
+    private static @Nullable String literal(@Nullable J j) {
+        J value = j instanceof J.Assignment assignment ? assignment.getAssignment() : j;
+        return value instanceof J.Literal literal && literal.getValue() instanceof String string ? string : null;
+    }
+
+    /**
+     * An attribute node of a graph, with its own attribute nodes when it has a subgraph.
+     */
+    private static class Node {
+        final String path;
+        final @Nullable String type;
+        final Map<String, Node> children = new LinkedHashMap<>();
+
+        Node(String path, @Nullable String type) {
+            this.path = path;
+            this.type = type;
+        }
+
+        void add(Accumulator acc, String member) {
+            int dot = member.indexOf('.');
+            String name = dot < 0 ? member : member.substring(0, dot);
+            Node child = children.computeIfAbsent(name, n -> new Node(path.isEmpty() ? n : path + "." + n,
+                    type == null ? null : acc.getFieldTypesByType().getOrDefault(type, Map.of()).get(n)));
+            if (dot >= 0) {
+                child.add(acc, member.substring(dot + 1));
+            }
+        }
+
+        /**
+         * Add the members of the fetch group with the same name of the type of this node, as JDO does when the fetch
+         * group is active.
+         */
+        void expand(Accumulator acc, String group, Set<String> path) {
+            if (type == null || !path.add(type)) {
+                return;
+            }
+            acc.getGraphsByType().getOrDefault(type, Map.of()).getOrDefault(group, Set.of())
+                    .forEach(member -> add(acc, member));
+            children.values().forEach(child -> child.expand(acc, group, path));
+            path.remove(type);
+        }
+
+        void collectSubgraphs(List<Node> subgraphs) {
+            if (!children.isEmpty()) {
+                subgraphs.add(this);
+                children.values().forEach(child -> child.collectSubgraphs(subgraphs));
+            }
+        }
+
+        String attributeNodes() {
+            return children.values().stream()
+                    .map(child -> "@" + Constants.Jpa.NAMED_ATTRIBUTE_NODE_ANNOTATION_NAME + (child.children.isEmpty()
+                            ? "(\"" + child.path.substring(child.path.lastIndexOf('.') + 1) + "\")"
+                            : "(value = \"" + child.path.substring(child.path.lastIndexOf('.') + 1) +
+                            "\", subgraph = \"" + child.path + "\")"))
+                    .collect(Collectors.joining(", ", "{", "}"));
+        }
+    }
+
+    @Data
+    public static class Accumulator {
+        /**
+         * The members of the fetch groups and plans by their name by the type that declares them.
+         */
+        Map<String, Map<String, Set<String>>> graphsByType = new HashMap<>();
+        /**
+         * The field types by field name by the type that declares them.
+         */
+        Map<String, Map<String, String>> fieldTypesByType = new HashMap<>();
+    }
+}
@@ -0,0 +1,611 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+import org.openrewrite.Preconditions;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.internal.StringUtils;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.search.UsesMethod;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.Space;
+import org.openrewrite.java.tree.Statement;
+import org.openrewrite.java.tree.TypeUtils;
+
+import com.ecpnv.openrewrite.jdo2jpa.query.JdoqlQuery;
+import com.ecpnv.openrewrite.jdo2jpa.query.JdoqlTranslator;
+import com.ecpnv.openrewrite.jdo2jpa.query.JpqlQuery;
+import com.ecpnv.openrewrite.util.JavaParserFactory;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+/**
+ * Replaces the execution of a JDO query, created by a <code>PersistenceManager</code> and configured with the JDO
+ * query API, with a JPA query of the <code>EntityManager</code>, so the paging and the tuning of the query keep
+ * running in the database.
+ * <p>
+ * The migration adheres to the following rules:
+ * <ul>
+ * <li> Both a fluent chain, like <code>pm.newQuery(Person.class).filter("age &gt; :min").executeList()</code>, and a
+ * query variable that is configured by the statements before its execution, are replaced. The declaration and the
+ * statements of a query variable are removed, hence the variable may not be used by other statements.
+ * <li> The candidate class, filter, parameters, variables, imports, grouping, result and ordering are combined into
+ * a single-string JDOQL query, that is translated to JPQL, see {@link JdoqlTranslator}. A query with a class literal
+ * as candidate becomes a typed query, <code>em.createQuery(jpql, Person.class)</code>, and a named query becomes
+ * <code>em.createNamedQuery(name, Person.class)</code>.
+ * <li> The parameter values, of <code>setParameters</code> or <code>execute</code>, are bound to the declared
+ * parameters, or else the implicit parameters in order of appearance.
+ * <li> The range becomes <code>setFirstResult</code> and <code>setMaxResults</code>, the fetch size of the fetch
+ * plan the <code>eclipselink.jdbc.fetch-size</code> hint and the read timeout the
+ * <code>javax.persistence.query.timeout</code> hint. Ignoring the cache becomes the flush mode
+ * <code>COMMIT</code>, so uncommitted changes are not flushed to evaluate the query, like JDO does.
+ * <li> A list result becomes <code>getResultList()</code>, a unique result the first result or null, as in JDO.
+ * <li> The <code>PersistenceManager</code> expression is replaced with the <code>EntityManager</code> expression of
+ * the option, like <code>em</code> or <code>getEntityManager()</code>, and every call of the JPA query is on its own
+ * line. Without the option the JDO query is kept and tagged with the {@link Constants.Jpa#MIGRATION_COMMENT}.
+ * <li> A query API call without a JPA equivalent, like <code>executeWithMap</code>, is tagged with the
+ * {@link Constants.Jpa#MIGRATION_COMMENT} and the reason.
+ * </ul>
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class ReplaceJdoQueryApiWithEntityManager extends Recipe {
+
+    public static final String PERSISTENCE_MANAGER_FULL = "javax.jdo.PersistenceManager";
+    public static final String QUERY_FULL = "javax.jdo.Query";
+    public static final String FETCH_PLAN_FULL = "javax.jdo.FetchPlan";
+    public static final String ENTITY_MANAGER_FULL = Constants.Jpa.BASE_PACKAGE + "EntityManager";
+    public static final String FLUSH_MODE_TYPE_FULL = Constants.Jpa.BASE_PACKAGE + "FlushModeType";
+    public static final String QUERY_TIMEOUT_HINT = "javax.persistence.query.timeout";
+
+    static final MethodMatcher NEW_QUERY = new MethodMatcher(PERSISTENCE_MANAGER_FULL + " newQuery(..)");
+    static final MethodMatcher NEW_NAMED_QUERY = new MethodMatcher(PERSISTENCE_MANAGER_FULL + " newNamedQuery(..)");
+    static final MethodMatcher QUERY_METHOD = new MethodMatcher(QUERY_FULL + " *(..)");
+    static final MethodMatcher FETCH_PLAN_METHOD = new MethodMatcher(FETCH_PLAN_FULL + " *(..)");
+    private static final String REMOVED_STATEMENTS = "REMOVED_STATEMENTS";
+
+    @Option(displayName = "EntityManager",
+            description = "The Java expression of the `EntityManager` that replaces the `PersistenceManager`, " +
+                    "resolved in the class of the query. When absent the JDO queries are only tagged.",
+            required = false,
+            example = "em")
+    @Nullable
+    String entityManager;
+
+    @JsonCreator
+    public ReplaceJdoQueryApiWithEntityManager(@Nullable @JsonProperty("entityManager") String entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public @NotNull String getDisplayName() {
+        return "Replace the JDO query API with JPA queries";
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return "Replaces JDO queries created by `PersistenceManager.newQuery` and configured with the JDO query API " +
+                "with `EntityManager.createQuery(jpql, Type.class)`, including the parameters, range, fetch size " +
+                "and cache settings.";
+    }
+
+    @Override
+    public @NotNull TreeVisitor<?, ExecutionContext> getVisitor() {
+        return Preconditions.check(Preconditions.or(new UsesMethod<>(NEW_QUERY), new UsesMethod<>(NEW_NAMED_QUERY)),
+                new JavaIsoVisitor<>() {
+
+                    @Override
+                    public J.Block visitBlock(J.Block block, ExecutionContext ctx) {
+                        J.Block b = super.visitBlock(block, ctx);
+                        Set<UUID> removed = getCursor().pollMessage(REMOVED_STATEMENTS);
+                        return removed == null ? b : b.withStatements(ListUtils.map(b.getStatements(),
+                                statement -> removed.contains(statement.getId()) ? null : statement));
+                    }
+
+                    @Override
+                    public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+                        J.MethodInvocation m = super.visitMethodInvocation(method, ctx);
+                        if (!QUERY_METHOD.matches(m) || !m.getSimpleName().startsWith("execute")) {
+                            return m;
+                        }
+                        Set<UUID> removed = new HashSet<>();
+                        QueryChain chain;
+                        try {
+                            chain = collect(m, removed);
+                            if (chain == null) {
+                                return m;
+                            }
+                            chain.build(StringUtils.isBlank(entityManager) ? null : entityManager(ctx));
+                        } catch (IllegalArgumentException e) {
+                            return ReplaceJdoqlWithJpql.tag(m, "JDO query " + e.getMessage());
+                        }
+                        if (StringUtils.isBlank(entityManager)) {
+                            return ReplaceJdoqlWithJpql.tag(m, "JDO query, replace it with a JPA query of the EntityManager");
+                        }
+                        if (!removed.isEmpty()) {
+                            getCursor().dropParentUntil(J.Block.class::isInstance)
+                                    .computeMessageIfAbsent(REMOVED_STATEMENTS, k -> new HashSet<UUID>())
+                                    .addAll(removed);
+                        }
+                        maybeRemoveImport(QUERY_FULL);
+                        maybeRemoveImport(PERSISTENCE_MANAGER_FULL);
+                        if (chain.template.indexOf("FlushModeType") >= 0) {
+                            maybeAddImport(FLUSH_MODE_TYPE_FULL);
+                        }
+                        J.MethodInvocation query = JavaTemplate.builder(chain.template.toString())
+                                .javaParser(JavaParserFactory.create(ctx))
+                                .imports(FLUSH_MODE_TYPE_FULL)
+                                .build()
+                                .apply(getCursor(), m.getCoordinates().replace(), chain.parameters.toArray());
+                        return autoFormat(query, ctx, getCursor().getParentOrThrow());
+                    }
+
+                    /**
+                     * @return the expression of the entity manager, attributed in the class of the query
+                     */
+                    private Expression entityManager(ExecutionContext ctx) {
+                        J.MethodInvocation m = getCursor().getValue();
+                        Expression manager = JavaTemplate.builder(entityManager)
+                                .contextSensitive()
+                                .javaParser(JavaParserFactory.create(ctx))
+                                .build()
+                                .apply(getCursor(), m.getCoordinates().replace());
+                        // the template attributes the variable and the method, but not the type of the expression
+                        if (manager instanceof J.Identifier identifier && identifier.getFieldType() != null) {
+                            manager = identifier.withType(identifier.getFieldType().getType());
+                        } else if (manager instanceof J.MethodInvocation invocation && invocation.getSelect() == null) {
+                            J.ClassDeclaration classDeclaration = getCursor().firstEnclosing(J.ClassDeclaration.class);
+                            JavaType.Method method = classDeclaration == null ? null
+                                    : findMethod(classDeclaration.getType(), invocation.getSimpleName());
+                            if (method != null) {
+                                manager = invocation.withMethodType(method).withName(invocation.getName().withType(method));
+                            }
+                        }
+                        if (!TypeUtils.isAssignableTo(ENTITY_MANAGER_FULL, manager.getType())) {
+                            throw new IllegalArgumentException("'" + entityManager + "' is not an EntityManager");
+                        }
+                        return manager.withPrefix(Space.EMPTY);
+                    }
+
+                    /**
+                     * @return the query chain that ends with the execution, or null when the query is not created in
+                     * the chain or by the declaration of a local variable in the same block
+                     */
+                    private @Nullable QueryChain collect(J.MethodInvocation execution, Set<UUID> removed) {
+                        List<J.MethodInvocation> calls = new ArrayList<>();
+                        Expression root = flatten(execution.getSelect(), calls);
+                        if (root instanceof J.MethodInvocation newQuery && isNewQuery(newQuery)) {
+                            return new QueryChain(newQuery, calls, execution);
+                        }
+                        if (!(root instanceof J.Identifier variable) || variable.getFieldType() == null) {
+                            return null;
+                        }
+                        Cursor blockCursor = getCursor().dropParentUntil(p -> p instanceof J.Block || p == Cursor.ROOT_VALUE);
+                        if (!(blockCursor.getValue() instanceof J.Block block)) {
+                            return null;
+                        }
+                        Cursor statementCursor = getCursor();
+                        while (statementCursor.getParentTreeCursor().getValue() != block) {
+                            statementCursor = statementCursor.getParentTreeCursor();
+                        }
+                        List<Statement> statements = block.getStatements();
+                        int execute = statements.indexOf((Statement) statementCursor.getValue());
+                        String name = variable.getSimpleName();
+                        int declaration = -1;
+                        J.MethodInvocation newQuery = null;
+                        List<J.MethodInvocation> configuration = new ArrayList<>();
+                        for (int i = execute - 1; i >= 0 && newQuery == null; i--) {
+                            if (statements.get(i) instanceof J.VariableDeclarations vd && vd.getVariables().size() == 1
+                                    && vd.getVariables().get(0).getSimpleName().equals(name)) {
+                                Expression initializer = vd.getVariables().get(0).getInitializer();
+                                if (!(flatten(initializer, configuration) instanceof J.MethodInvocation n) || !isNewQuery(n)) {
+                                    return null;
+                                }
+                                declaration = i;
+                                newQuery = n;
+                            }
+                        }
+                        if (newQuery == null) {
+                            return null;
+                        }
+                        removed.add(statements.get(declaration).getId());
+                        for (int i = declaration + 1; i < statements.size(); i++) {
+                            Statement statement = statements.get(i);
+                            int references = references(statement, name);
+                            if (i == execute) {
+                                if (references != 1) {
+                                    throw new IllegalArgumentException("variable '" + name + "' is used more than once");
+                                }
+                            } else if (i > execute && references > 0) {
+                                throw new IllegalArgumentException("variable '" + name + "' is used after its execution");
+                            } else if (i < execute && references > 0) {
+                                if (!(statement instanceof J.MethodInvocation call)
+                                        || !(flatten(call, configuration) instanceof J.Identifier target)
+                                        || !target.getSimpleName().equals(name) || references != 1) {
+                                    throw new IllegalArgumentException("variable '" + name + "' is used by other statements");
+                                }
+                                removed.add(statement.getId());
+                            }
+                        }
+                        configuration.addAll(calls);
+                        return new QueryChain(newQuery, configuration, execution);
+                    }
+                });
+    }
+
+    /**
+     * Collects the calls of the JDO query and fetch plan API of a chain in order of execution.
+     *
+     * @return the expression the chain starts with
+     */
+    static @Nullable Expression flatten(@Nullable Expression expression, List<J.MethodInvocation> calls) {
+        List<J.MethodInvocation> chain = new ArrayList<>();
+        Expression e = unwrap(expression);
+        while (e instanceof J.MethodInvocation call && (QUERY_METHOD.matches(call) || FETCH_PLAN_METHOD.matches(call))) {
+            chain.addFirst(call);
+            e = unwrap(call.getSelect());
+        }
+        calls.addAll(chain);
+        return e;
+    }
+
+    static @Nullable Expression unwrap(@Nullable Expression expression) {
+        if (expression instanceof J.TypeCast typeCast) {
+            return unwrap(typeCast.getExpression());
+        }
+        if (expression instanceof J.Parentheses<?> parentheses && parentheses.getTree() instanceof Expression tree) {
+            return unwrap(tree);
+        }
+        return expression;
+    }
+
+    /**
+     * @return the method without parameters with the given name, of the type or its supertypes
+     */
+    static JavaType.@Nullable Method findMethod(JavaType.@Nullable FullyQualified type, String name) {
+        if (type == null) {
+            return null;
+        }
+        for (JavaType.Method method : type.getMethods()) {
+            if (method.getName().equals(name) && method.getParameterTypes().isEmpty()) {
+                return method;
+            }
+        }
+        JavaType.Method method = findMethod(type.getSupertype(), name);
+        for (Iterator<JavaType.FullyQualified> interfaces = type.getInterfaces().iterator();
+             method == null && interfaces.hasNext(); ) {
+            method = findMethod(interfaces.next(), name);
+        }
+        return method;
+    }
+
+    static boolean isNewQuery(J.MethodInvocation method) {
+        return NEW_QUERY.matches(method) || NEW_NAMED_QUERY.matches(method);
+    }
+
+    static int references(J tree, String name) {
+        AtomicInteger count = new AtomicInteger();
+        new JavaIsoVisitor<AtomicInteger>() {
+            @Override
+            public J.Identifier visitIdentifier(J.Identifier identifier, AtomicInteger count) {
+                if (identifier.getFieldType() != null && identifier.getSimpleName().equals(name)) {
+                    count.incrementAndGet();
+                }
+                return identifier;
+            }
+        }.visit(tree, count);
+        return count.get();
+    }
+
+    /**
+     * The configuration of a JDO query and the template of the JPA query that replaces it.
+     */
+    static class QueryChain {
+        final StringBuilder template = new StringBuilder();
+        final List<Object> parameters = new ArrayList<>();
+
+        @Nullable Expression candidateClass;
+        @Nullable Expression resultClass;
+        @Nullable String namedQuery;
+        @Nullable String singleString;
+        @Nullable String filter;
+        @Nullable String ordering;
+        @Nullable String declaredParameters;
+        @Nullable String variables;
+        @Nullable String imports;
+        @Nullable String grouping;
+        @Nullable String result;
+        boolean unique;
+        List<Expression> parameterValues = List.of();
+        @Nullable Expression rangeStart;
+        @Nullable Expression rangeEnd;
+        @Nullable Expression ignoreCache;
+        @Nullable Expression fetchSize;
+        @Nullable Expression timeout;
+
+        QueryChain(J.MethodInvocation newQuery, List<J.MethodInvocation> calls, J.MethodInvocation execution) {
+            if (newQuery.getSelect() == null) {
+                throw new IllegalArgumentException("a query without persistence manager is not supported");
+            }
+            List<Expression> arguments = arguments(newQuery);
+            if (NEW_NAMED_QUERY.matches(newQuery)) {
+                if (arguments.size() != 2) {
+                    throw new IllegalArgumentException("newNamedQuery without class is not supported");
+                }
+                candidateClass = classLiteral(arguments.get(0));
+                namedQuery = literal(arguments.get(1), "newNamedQuery");
+            } else if (arguments.size() == 1 && TypeUtils.isString(arguments.get(0).getType())) {
+                singleString = literal(arguments.get(0), "newQuery");
+            } else if (arguments.size() == 1 || arguments.size() == 2 && TypeUtils.isString(arguments.get(1).getType())) {
+                candidateClass = classLiteral(arguments.get(0));
+                filter = arguments.size() == 2 ? literal(arguments.get(1), "newQuery") : null;
+            } else if (!arguments.isEmpty()) {
+                throw new IllegalArgumentException("newQuery with these arguments is not supported");
+            }
+            calls.forEach(this::configure);
+            execute(execution);
+        }
+
+        void configure(J.MethodInvocation call) {
+            String name = call.getSimpleName();
+            List<Expression> arguments = arguments(call);
+            if (FETCH_PLAN_METHOD.matches(call)) {
+                if (!"setFetchSize".equals(name)) {
+                    throw new IllegalArgumentException("method 'FetchPlan." + name + "' is not supported");
+                }
+                fetchSize = arguments.get(0);
+                return;
+            }
+            switch (name) {
+                case "getFetchPlan" -> {
+                    // the fetch plan is configured by the next call
+                }
+                case "setClass" -> candidateClass = classLiteral(arguments.get(0));
+                case "filter", "setFilter" -> filter = literal(arguments.get(0), name);
+                case "orderBy", "setOrdering" -> ordering = literal(arguments.get(0), name);
+                case "parameters", "declareParameters" -> declaredParameters = literal(arguments.get(0), name);
+                case "variables", "declareVariables" -> variables = literal(arguments.get(0), name);
+                case "imports", "declareImports" -> imports = literal(arguments.get(0), name);
+                case "setGrouping" -> grouping = literal(arguments.get(0), name);
+                case "result", "setResult" -> result = literal(arguments.get(0), name);
+                case "setUnique" -> {
+                    if (!(arguments.get(0) instanceof J.Literal literal) || !(literal.getValue() instanceof Boolean value)) {
+                        throw new IllegalArgumentException("setUnique without a literal is not supported");
+                    }
+                    unique = value;
+                }
+                case "range", "setRange" -> {
+                    if (arguments.size() != 2) {
+                        throw new IllegalArgumentException("a range as string is not supported");
+                    }
+                    rangeStart = arguments.get(0);
+                    rangeEnd = arguments.get(1);
+                }
+                case "ignoreCache", "setIgnoreCache" -> ignoreCache = arguments.get(0);
+                case "datastoreReadTimeoutMillis", "setDatastoreReadTimeoutMillis" -> timeout = arguments.get(0);
+                case "setParameters" -> parameterValues = arguments;
+                default -> throw new IllegalArgumentException("method '" + name + "' is not supported");
+            }
+        }
+
+        void execute(J.MethodInvocation execution) {
+            String name = execution.getSimpleName();
+            List<Expression> arguments = arguments(execution);
+            switch (name) {
+                case "executeList" -> {
+                }
+                case "executeUnique" -> unique = true;
+                case "executeResultList", "executeResultUnique" -> {
+                    unique |= "executeResultUnique".equals(name);
+                    if (!arguments.isEmpty()) {
+                        resultClass = classLiteral(arguments.get(0));
+                    }
+                }
+                case "execute", "executeWithArray" -> {
+                    if (!arguments.isEmpty()) {
+                        if (!parameterValues.isEmpty()) {
+                            throw new IllegalArgumentException("parameters of both setParameters and " + name +
+                                    " are not supported");
+                        }
+                        parameterValues = arguments;
+                    }
+                }
+                default -> throw new IllegalArgumentException("method '" + name + "' is not supported");
+            }
+        }
+
+        /**
+         * Creates the template of the JPA query, with its parameters.
+         *
+         * @param entityManager the expression of the entity manager, or null to only validate the query
+         */
+        void build(@Nullable Expression entityManager) {
+            template.append("#{any(" + ENTITY_MANAGER_FULL + ")}");
+            parameters.add(entityManager);
+            List<String> names = List.of();
+            String firstResult = null;
+            String maxRows = null;
+            if (namedQuery != null) {
+                if (filter != null || ordering != null || declaredParameters != null || variables != null
+                        || imports != null || grouping != null || result != null) {
+                    throw new IllegalArgumentException("a named query with a filter, ordering or result is not supported");
+                }
+                if (!parameterValues.isEmpty()) {
+                    throw new IllegalArgumentException("positional parameters of a named query are not supported");
+                }
+                template.append(".createNamedQuery(\"").append(escape(namedQuery)).append("\", #{any(java.lang.Class)})");
+                parameters.add(candidateClass);
+            } else {
+                String jdoql = jdoql();
+                JdoqlQuery query = JdoqlTranslator.parse(jdoql);
+                if (query.delete()) {
+                    throw new IllegalArgumentException("a DELETE query is not supported");
+                }
+                JpqlQuery jpql = JdoqlTranslator.translate(jdoql, null);
+                unique |= query.unique();
+                names = JdoqlTranslator.parameterNames(query);
+                firstResult = jpql.firstResult();
+                maxRows = jpql.maxRows();
+                Expression type = resultClass != null ? resultClass : query.result().isEmpty() ? candidateClass : null;
+                template.append(".createQuery(\"").append(escape(jpql.query())).append('"');
+                if (type != null) {
+                    template.append(", #{any(java.lang.Class)}");
+                    parameters.add(type);
+                }
+                template.append(')');
+            }
+            if (parameterValues.size() != names.size()) {
+                throw new IllegalArgumentException("the number of parameter values does not match the parameters");
+            }
+            for (int i = 0; i < names.size(); i++) {
+                String name = names.get(i);
+                template.append("\n.setParameter(").append(name.chars().allMatch(Character::isDigit) ? name : "\"" + name + "\"")
+                        .append(", #{any()})");
+                parameters.add(parameterValues.get(i));
+            }
+            if (rangeStart != null && rangeEnd != null) {
+                if (firstResult != null) {
+                    throw new IllegalArgumentException("both a RANGE and setRange are not supported");
+                }
+                range(number(rangeStart), number(rangeEnd));
+            } else if (firstResult != null && maxRows != null) {
+                range(Long.valueOf(firstResult), Long.valueOf(maxRows));
+            }
+            if (fetchSize != null) {
+                template.append("\n.setHint(\"").append(AddQueryHintsToNamedQueries.FETCH_SIZE_HINT).append("\", #{any()})");
+                parameters.add(fetchSize);
+            }
+            if (timeout != null) {
+                template.append("\n.setHint(\"").append(QUERY_TIMEOUT_HINT).append("\", #{any()})");
+                parameters.add(timeout);
+            }
+            if (ignoreCache instanceof J.Literal literal && literal.getValue() instanceof Boolean value) {
+                if (value) {
+                    template.append("\n.setFlushMode(FlushModeType.COMMIT)");
+                }
+            } else if (ignoreCache != null) {
+                template.append("\n.setFlushMode(#{any(boolean)} ? FlushModeType.COMMIT : FlushModeType.AUTO)");
+                parameters.add(ignoreCache);
+            }
+            template.append(unique ? "\n.getResultStream().findFirst().orElse(null)" : "\n.getResultList()");
+        }
+
+        /**
+         * Appends the first result and the maximum results of a range, given as numbers when they are literals.
+         */
+        void range(@Nullable Long start, @Nullable Long end) {
+            if (start == null) {
+                template.append("\n.setFirstResult((int) #{any(long)})");
+                parameters.add(rangeStart);
+            } else if (start != 0) {
+                template.append("\n.setFirstResult(").append(start).append(')');
+            }
+            if (end != null && start != null) {
+                if (end != Long.MAX_VALUE) {
+                    template.append("\n.setMaxResults(").append(end - start).append(')');
+                }
+            } else if (start != null && start == 0) {
+                template.append("\n.setMaxResults((int) #{any(long)})");
+                parameters.add(rangeEnd);
+            } else {
+                template.append("\n.setMaxResults((int) (#{any(long)} - #{any(long)}))");
+                parameters.add(rangeEnd);
+                parameters.add(rangeStart);
+            }
+        }
+
+        /**
+         * @return the single-string JDOQL query of the configuration
+         */
+        String jdoql() {
+            if (singleString != null) {
+                if (filter != null || ordering != null || declaredParameters != null || variables != null
+                        || imports != null || grouping != null || result != null) {
+                    throw new IllegalArgumentException("a single-string query with a filter, ordering or result " +
+                            "is not supported");
+                }
+                return singleString;
+            }
+            if (candidateClass == null) {
+                throw new IllegalArgumentException("a query without candidate class is not supported");
+            }
+            JavaType.FullyQualified type = TypeUtils.asFullyQualified(((J.FieldAccess) candidateClass).getTarget().getType());
+            if (type == null) {
+                throw new IllegalArgumentException("the type of the candidate class is unknown");
+            }
+            StringBuilder jdoql = new StringBuilder("SELECT ");
+            if (unique) {
+                jdoql.append("UNIQUE ");
+            }
+            if (result != null) {
+                jdoql.append(result).append(' ');
+            }
+            jdoql.append("FROM ").append(type.getFullyQualifiedName());
+            append(jdoql, "WHERE", filter);
+            append(jdoql, "VARIABLES", variables);
+            append(jdoql, "PARAMETERS", declaredParameters);
+            append(jdoql, "", imports);
+            append(jdoql, "GROUP BY", grouping);
+            append(jdoql, "ORDER BY", ordering);
+            return jdoql.toString();
+        }
+
+        private static void append(StringBuilder jdoql, String clause, @Nullable String value) {
+            if (value != null && !value.isBlank()) {
+                jdoql.append(clause.isEmpty() ? " " : " " + clause + " ").append(value.trim());
+            }
+        }
+
+        private static List<Expression> arguments(J.MethodInvocation method) {
+            return method.getArguments().stream()
+                    .filter(argument -> !(argument instanceof J.Empty))
+                    .toList();
+        }
+
+        private static J.FieldAccess classLiteral(Expression expression) {
+            if (expression instanceof J.FieldAccess fieldAccess && "class".equals(fieldAccess.getSimpleName())) {
+                return fieldAccess;
+            }
+            throw new IllegalArgumentException("a class that is not a class literal is not supported");
+        }
+
+        private static String literal(Expression expression, String method) {
+            String value = ReplaceJdoqlWithJpql.concatenatedLiteral(expression);
+            if (value == null) {
+                throw new IllegalArgumentException(method + " without a literal is not supported");
+            }
+            return value;
+        }
+
+        private static @Nullable Long number(Expression expression) {
+            return expression instanceof J.Literal literal && literal.getValue() instanceof Number number
+                    ? number.longValue() : null;
+        }
+
+        private static String escape(String value) {
+            return value.replace("\\", "\\\\").replace("\"", "\\\"");
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Preconditions;
+import org.openrewrite.Recipe;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.Space;
+import org.openrewrite.java.tree.TextComment;
+import org.openrewrite.java.tree.TypeUtils;
+import org.openrewrite.marker.Markers;
+
+import com.ecpnv.openrewrite.jdo2jpa.query.JdoqlTranslator;
+import com.ecpnv.openrewrite.jdo2jpa.query.JpqlQuery;
+import com.ecpnv.openrewrite.util.JavaParserFactory;
+import com.ecpnv.openrewrite.util.RewriteUtils;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+/**
+ * Translates the JDOQL queries of <code>@NamedQuery</code> annotations and of the string queries passed to
+ * <code>EntityManager.createQuery</code> to JPQL, so the migrated queries run on JPA instead of failing when the
+ * persistence unit is deployed.
+ * <p>
+ * The migration adheres to the following rules:
+ * <ul>
+ * <li> Only queries that are a literal, or a concatenation of literals, and that are JDOQL and not already JPQL are
+ * translated, see {@link JdoqlTranslator}. Hence, it must run after <code>@Query</code> is migrated.
+ * <li> The candidate of a named query without a <code>FROM</code> clause is the class it is defined on, and of a
+ * string query the result class passed to <code>createQuery</code>.
+ * <li> JPQL has no range, the range of a named query becomes the EclipseLink
+ * <code>eclipselink.jdbc.first-result</code> and <code>eclipselink.jdbc.max-rows</code> query hints.
+ * <li> A query that cannot be translated is kept and tagged with the {@link Constants.Jpa#MIGRATION_COMMENT} and
+ * the reason.
+ * </ul>
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class ReplaceJdoqlWithJpql extends Recipe {
+
+    private static final MethodMatcher CREATE_QUERY =
+            new MethodMatcher(Constants.Jpa.ENTITY_MANAGER_FULL + " createQuery(java.lang.String, ..)");
+
+    @Override
+    public @NotNull String getDisplayName() {
+        return "Replace JDOQL queries with JPQL";
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return "Translates the JDOQL queries of `@NamedQuery` annotations and `EntityManager.createQuery` calls to " +
+                "JPQL, and tags the queries that cannot be translated.";
+    }
+
+    @Override
+    public @NotNull TreeVisitor<?, ExecutionContext> getVisitor() {
+        return Preconditions.check(Preconditions.or(
+                new UsesType<>(Constants.Jpa.NAMED_QUERY_ANNOTATION_FULL, false),
+                new UsesType<>(Constants.Jpa.ENTITY_MANAGER_FULL, false)), new JavaIsoVisitor<>() {
+
+            @Override
+            public J.Annotation visitAnnotation(J.Annotation annotation, ExecutionContext ctx) {
+                J.Annotation a = super.visitAnnotation(annotation, ctx);
+                if (!TypeUtils.isOfClassType(a.getType(), Constants.Jpa.NAMED_QUERY_ANNOTATION_FULL)) {
+                    return a;
+                }
+                J.Assignment argument = RewriteUtils.findArgumentAssignment(a, Constants.Jpa.NAMED_QUERY_ARGUMENT_QUERY)
+                        .orElse(null);
+                String jdoql = argument == null ? null : concatenatedLiteral(argument.getAssignment());
+                if (jdoql == null || !JdoqlTranslator.isJdoql(jdoql)) {
+                    return a;
+                }
+                J.ClassDeclaration cd = getCursor().firstEnclosing(J.ClassDeclaration.class);
+                JpqlQuery jpql;
+                try {
+                    jpql = JdoqlTranslator.translate(jdoql, cd == null ? null : cd.getSimpleName());
+                } catch (IllegalArgumentException e) {
+                    return a.withArguments(ListUtils.map(a.getArguments(), arg -> arg == argument
+                            ? argument.withAssignment(tag(argument.getAssignment(), "JDOQL " + e.getMessage())) : arg));
+                }
+                J.Annotation translated = a.withArguments(ListUtils.map(a.getArguments(), arg -> arg == argument
+                        ? argument.withAssignment(literal(argument.getAssignment(), jpql.query())) : arg));
+                Map<String, String> hints = new LinkedHashMap<>();
+                if (jpql.firstResult() != null) {
+                    hints.put(Constants.EclipseLink.JDBC_FIRST_RESULT_HINT, jpql.firstResult());
+                }
+                if (jpql.maxRows() != null) {
+                    hints.put(Constants.EclipseLink.JDBC_MAX_ROWS_HINT, jpql.maxRows());
+                }
+                if (hints.isEmpty()) {
+                    return translated;
+                }
+                maybeAddImport(Constants.Jpa.QUERY_HINT_ANNOTATION_FULL);
+                return addQueryHints(translated, hints, getCursor().getParentOrThrow(), ctx);
+            }
+
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+                J.MethodInvocation m = super.visitMethodInvocation(method, ctx);
+                if (!CREATE_QUERY.matches(m)) {
+                    return m;
+                }
+                Expression query = m.getArguments().get(0);
+                String jdoql = concatenatedLiteral(query);
+                if (jdoql == null || !JdoqlTranslator.isJdoql(jdoql)) {
+                    return m;
+                }
+                String candidate = null;
+                if (m.getArguments().size() > 1 && m.getArguments().get(1) instanceof J.FieldAccess fieldAccess
+                        && "class".equals(fieldAccess.getSimpleName())) {
+                    JavaType.FullyQualified type = TypeUtils.asFullyQualified(fieldAccess.getTarget().getType());
+                    candidate = type == null ? null : type.getClassName();
+                }
+                Expression replacement;
+                try {
+                    JpqlQuery jpql = JdoqlTranslator.translate(jdoql, candidate);
+                    if (jpql.firstResult() != null || jpql.maxRows() != null) {
+                        throw new IllegalArgumentException("a RANGE of a string query is not supported");
+                    }
+                    replacement = literal(query, jpql.query());
+                } catch (IllegalArgumentException e) {
+                    replacement = tag(query, "JDOQL " + e.getMessage());
+                }
+                Expression r = replacement;
+                return m.withArguments(ListUtils.mapFirst(m.getArguments(), arg -> r));
+            }
+        });
+    }
+
+    /**
+     * Adds the given hints to the hints of a <code>@NamedQuery</code> or <code>@NamedNativeQuery</code>. A hint that
+     * already exists is replaced.
+     *
+     * @param annotation the named query
+     * @param hints      the values of the hints by their name
+     * @param parent     the cursor of the parent of the named query
+     * @return the named query with the hints
+     */
+    public static J.Annotation addQueryHints(J.Annotation annotation, Map<String, String> hints, Cursor parent,
+                                             ExecutionContext ctx) {
+        Cursor cursor = new Cursor(parent, annotation);
+        J.Assignment existing = RewriteUtils.findArgumentAssignment(annotation, Constants.Jpa.NAMED_QUERY_ARGUMENT_HINTS)
+                .orElse(null);
+        List<String> queryHints = new ArrayList<>();
+        if (existing != null) {
+            Expression value = existing.getAssignment();
+            List<Expression> elements = value instanceof J.NewArray newArray && newArray.getInitializer() != null
+                    ? newArray.getInitializer() : List.of(value);
+            elements.stream()
+                    .filter(element -> !(element instanceof J.Empty))
+                    .filter(element -> !(element instanceof J.Annotation hint) || !hints.containsKey(
+                            RewriteUtils.findArgumentAssignment(hint, Constants.Jdo.ARGUMENT_NAME)
+                                    .map(name -> concatenatedLiteral(name.getAssignment()))
+                                    .orElse(null)))
+                    .forEach(element -> queryHints.add(element.printTrimmed(cursor)));
+        }
+        hints.forEach((name, value) -> queryHints.add("@" + Constants.Jpa.QUERY_HINT_ANNOTATION_NAME + "(name = \"" +
+                name + "\", value = \"" + value + "\")"));
+        // Only the hints are generated, so the other arguments are kept as they are
+        J.Annotation generated = JavaTemplate.builder("@" + Constants.Jpa.NAMED_QUERY_ANNOTATION_NAME +
+                        "(name = \"\", query = \"\", " + Constants.Jpa.NAMED_QUERY_ARGUMENT_HINTS + " = " +
+                        queryHints.stream().collect(Collectors.joining(", ", "{", "}")) + ")")
+                .javaParser(JavaParserFactory.create(ctx))
+                .imports(Constants.Jpa.NAMED_QUERY_ANNOTATION_FULL, Constants.Jpa.QUERY_HINT_ANNOTATION_FULL)
+                .build()
+                .apply(cursor, annotation.getCoordinates().replace());
+        J.Assignment generatedHints = RewriteUtils.findArgumentAssignment(generated,
+                Constants.Jpa.NAMED_QUERY_ARGUMENT_HINTS).orElseThrow();
+        if (existing != null) {
+            return annotation.withArguments(ListUtils.map(annotation.getArguments(), argument -> argument == existing
+                    ? existing.withAssignment(generatedHints.getAssignment().withPrefix(existing.getAssignment().getPrefix()))
+                    : argument));
+        }
+        return annotation.withArguments(ListUtils.concat(annotation.getArguments(),
+                generatedHints.withPrefix(Space.SINGLE_SPACE)));
+    }
+
+    /**
+     * @return the value of a string literal or of a concatenation of string literals, otherwise null
+     */
+    static @Nullable String concatenatedLiteral(Expression expression) {
+        if (expression instanceof J.Literal literal) {
+            return literal.getValue() instanceof String value ? value : null;
+        }
+        if (expression instanceof J.Binary binary && binary.getOperator() == J.Binary.Type.Addition) {
+            String left = concatenatedLiteral(binary.getLeft());
+            String right = concatenatedLiteral(binary.getRight());
+            return left == null || right == null ? null : left + right;
+        }
+        if (expression instanceof J.Parentheses<?> parentheses && parentheses.getTree() instanceof Expression tree) {
+            return concatenatedLiteral(tree);
+        }
+        return null;
+    }
+
+    static J.Literal literal(Expression expression, String value) {
+        String source = "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+        if (expression instanceof J.Literal literal) {
+            return literal.withValue(value).withValueSource(source);
+        }
+        return new J.Literal(Tree.randomId(), expression.getPrefix(), Markers.EMPTY, value, source,
+                null, JavaType.Primitive.String);
+    }
+
+    /**
+     * @return the expression with a block comment with the {@link Constants.Jpa#MIGRATION_COMMENT} and the reason,
+     * unless it already has one
+     */
+    static <T extends Expression> T tag(T expression, String reason) {
+        String text = " " + Constants.Jpa.MIGRATION_COMMENT + ": " + reason + " ";
+        Space prefix = expression.getPrefix();
+        if (RewriteUtils.commentsContains(prefix.getComments(), Constants.Jpa.MIGRATION_COMMENT)) {
+            return expression;
+        }
+        return expression.withPrefix(prefix.withComments(ListUtils.concat(prefix.getComments(),
+                new TextComment(true, text.replace("*/", "* /"), " ", Markers.EMPTY))));
+    }
+}
@@ -0,0 +1,430 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+import org.openrewrite.Preconditions;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.java.AnnotationMatcher;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.RemoveAnnotationVisitor;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TextComment;
+import org.openrewrite.java.tree.TypeUtils;
+import org.openrewrite.marker.Markers;
+
+import com.ecpnv.openrewrite.util.JavaParserFactory;
+import com.ecpnv.openrewrite.util.RewriteUtils;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+/**
+ * Replaces the JDO value strategies of identity fields, and the datastore identity of classes without an identity
+ * field, with the JPA <code>@GeneratedValue</code> annotation and a sequence or table generator.
+ * <p>
+ * The migration adheres to the following rules:
+ * <ul>
+ * <li> <code>@Persistent(valueStrategy = IdGeneratorStrategy.X, sequence = "s")</code> on a field gets a
+ * <code>@GeneratedValue</code>, the value strategy and sequence attributes are removed from <code>@Persistent</code>.
+ * <li> <code>@DatastoreIdentity(strategy = IdGeneratorStrategy.X, column = "c")</code> on a class that does not
+ * inherit an identity field, from a superclass with a JPA <code>@Id</code> field or one of the configured base classes
+ * like <code>EntityAbstract</code>, becomes a <code>Long id</code> field annotated with <code>@Id</code>,
+ * <code>@GeneratedValue</code> and <code>@Column(name = "c")</code>, with the DataNucleus default column
+ * <code>TABLE_ID</code> when no column is given.
+ * <li> <code>SEQUENCE</code> becomes a <code>@SequenceGenerator</code> with the datastore sequence, initial value and
+ * allocation size of the <code>@Sequence</code> with the same name, which may be declared on any class and is
+ * removed.
+ * <li> <code>INCREMENT</code> becomes a <code>@TableGenerator</code> on the <code>SEQUENCE_TABLE</code> of
+ * DataNucleus with the fully qualified class name as key, so the generated values continue where DataNucleus left.
+ * <li> <code>IDENTITY</code> and <code>NATIVE</code> become the <code>IDENTITY</code> and <code>AUTO</code> generation
+ * types, or a <code>@SequenceGenerator</code> named <code>Entity_SEQ</code> when sequences are preferred, since
+ * identity columns prevent JDBC insert batching.
+ * <li> The UUID strategies have no JPA equivalent and are left untouched.
+ * <li> A value strategy of a field that is not a primary key is kept and tagged with the
+ * {@link Constants.Jpa#MIGRATION_COMMENT}, as JPA only generates the values of identity fields.
+ * </ul>
+ * The allocation size of the generators is the allocation size of the <code>@Sequence</code> or else the configured
+ * one, which must match the increment of a database sequence.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class ReplaceValueStrategyWithGeneratedValue extends ScanningRecipe<ReplaceValueStrategyWithGeneratedValue.Accumulator> {
+
+    public static final String SEQUENCE_TABLE = "SEQUENCE_TABLE";
+    public static final String SEQUENCE_TABLE_NAME_COLUMN = "SEQUENCE_NAME";
+    public static final String SEQUENCE_TABLE_VALUE_COLUMN = "NEXT_VAL";
+    public static final String DEFAULT_ID_FIELD_NAME = "id";
+
+    @Option(displayName = "Allocation size",
+            description = "The allocation size of generators without a JDO allocation size. When absent the JPA " +
+                    "default of 50 applies.",
+            required = false,
+            example = "100")
+    @Nullable
+    Integer allocationSize;
+
+    @Option(displayName = "Prefer sequences",
+            description = "When true, then the IDENTITY and NATIVE strategies become a sequence, so EclipseLink can " +
+                    "batch inserts.",
+            required = false,
+            example = "true")
+    @Nullable
+    Boolean preferSequence;
+
+    @Option(displayName = "Identity base classes",
+            description = "Comma separated fully qualified names of base classes that already declare an identity " +
+                    "field, of which the subclasses do not get an identity field.",
+            required = false,
+            example = "org.estatio.base.prod.dom.EntityAbstract")
+    @Nullable
+    String identityBaseClasses;
+
+    @JsonCreator
+    public ReplaceValueStrategyWithGeneratedValue(
+            @Nullable @JsonProperty("allocationSize") Integer allocationSize,
+            @Nullable @JsonProperty("preferSequence") Boolean preferSequence,
+            @Nullable @JsonProperty("identityBaseClasses") String identityBaseClasses) {
+        this.allocationSize = allocationSize;
+        this.preferSequence = preferSequence;
+        this.identityBaseClasses = identityBaseClasses;
+    }
+
+    @Override
+    public @NotNull String getDisplayName() {
+        return "Replace JDO value strategies and datastore identities with `@GeneratedValue`";
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return "Replaces `@Persistent(valueStrategy = ...)`, `@DatastoreIdentity` and `@Sequence` with " +
+                "`@GeneratedValue` and a `@SequenceGenerator` or `@TableGenerator`.";
+    }
+
+    @Override
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        Accumulator acc = new Accumulator();
+        if (identityBaseClasses != null) {
+            for (String name : identityBaseClasses.split(",")) {
+                if (!name.isBlank()) {
+                    acc.identityTypes.add(name.trim());
+                }
+            }
+        }
+        return acc;
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        return Preconditions.check(new UsesType<>(Constants.Jdo.SEQUENCE_ANNOTATION_FULL, false),
+                new JavaIsoVisitor<ExecutionContext>() {
+                    @Override
+                    public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+                        J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
+                        RewriteUtils.findLeadingAnnotations(cd, "@" + Constants.Jdo.SEQUENCE_ANNOTATION_FULL)
+                                .forEach(sequence -> RewriteUtils.findArgument(sequence, Constants.Jdo.ARGUMENT_NAME)
+                                        .map(RewriteUtils::valueOf)
+                                        .ifPresent(name -> acc.sequences.put(name, new SequenceDefinition(
+                                                argument(sequence, Constants.Jdo.SEQUENCE_ARGUMENT_DATASTORE_SEQUENCE),
+                                                argument(sequence, Constants.Jdo.SEQUENCE_ARGUMENT_INITIAL_VALUE),
+                                                argument(sequence, Constants.Jdo.SEQUENCE_ARGUMENT_ALLOCATION_SIZE)))));
+                        return cd;
+                    }
+                });
+    }
+
+    @Override
+    public @NotNull TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+        return Preconditions.check(Preconditions.or(
+                        new UsesType<>(Constants.Jdo.ID_GENERATOR_STRATEGY_FULL, false),
+                        new UsesType<>(Constants.Jdo.SEQUENCE_ANNOTATION_FULL, false)),
+                new JavaIsoVisitor<ExecutionContext>() {
+                    @Override
+                    public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+                        J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
+                        if (!RewriteUtils.findLeadingAnnotations(cd, "@" + Constants.Jdo.SEQUENCE_ANNOTATION_FULL).isEmpty()) {
+                            cd = (J.ClassDeclaration) new RemoveAnnotationVisitor(new AnnotationMatcher("@" + Constants.Jdo.SEQUENCE_ANNOTATION_FULL))
+                                    .visitNonNull(cd, ctx, getCursor().getParentOrThrow());
+                            maybeRemoveImport(Constants.Jdo.SEQUENCE_ANNOTATION_FULL);
+                            maybeRemoveImport(Constants.Jdo.BASE_PACKAGE + "SequenceStrategy");
+                        }
+                        Optional<J.Annotation> datastoreIdentity = RewriteUtils
+                                .findLeadingAnnotations(cd, "@" + Constants.Jdo.DATASTORE_IDENTITY_ANNOTATION_FULL).stream()
+                                .findFirst();
+                        if (datastoreIdentity.isEmpty() || cd.getType() == null || inheritsIdentity(acc, cd) || hasIdentityField(cd)) {
+                            return cd;
+                        }
+                        String simpleName = cd.getSimpleName();
+                        String fullyQualifiedName = cd.getType().getFullyQualifiedName();
+                        Optional<List<String>> generation = strategy(datastoreIdentity.get())
+                                .flatMap(strategy -> generation(acc, strategy,
+                                        RewriteUtils.findArgument(datastoreIdentity.get(), Constants.Jdo.PERSISTENT_ARGUMENT_SEQUENCE)
+                                                .map(RewriteUtils::valueOf).orElse(null),
+                                        simpleName, fullyQualifiedName));
+                        if (generation.isEmpty()) {
+                            return cd;
+                        }
+                        cd = (J.ClassDeclaration) new RemoveAnnotationVisitor(new AnnotationMatcher("@" + Constants.Jdo.DATASTORE_IDENTITY_ANNOTATION_FULL))
+                                .visitNonNull(cd, ctx, getCursor().getParentOrThrow());
+                        maybeRemoveImport(Constants.Jdo.DATASTORE_IDENTITY_ANNOTATION_FULL);
+                        maybeRemoveImport(Constants.Jdo.ID_GENERATOR_STRATEGY_FULL);
+
+                        String column = RewriteUtils.findArgument(datastoreIdentity.get(), Constants.Jdo.DATASTORE_IDENTITY_ARGUMENT_COLUMN)
+                                .map(RewriteUtils::valueOf)
+                                .orElseGet(() -> defaultIdentityColumn(classDecl));
+                        // The JDO @Column is migrated later, until then the JPA one is fully qualified
+                        boolean importsJdoColumn = RewriteUtils.importsType(getCursor(), Constants.Jdo.COLUMN_ANNOTATION_FULL);
+                        if (!importsJdoColumn) {
+                            maybeAddImport(Constants.Jpa.COLUMN_ANNOTATION_FULL);
+                        }
+                        maybeAddImport(Constants.Jpa.ID_ANNOTATION_FULL);
+                        addGenerationImports(generation.get());
+                        String template = "@" + Constants.Jpa.ID_ANNOTATION_NAME + "\n" +
+                                String.join("\n", generation.get()) + "\n" +
+                                "@" + (importsJdoColumn ? Constants.Jpa.COLUMN_ANNOTATION_FULL : Constants.Jpa.COLUMN_ANNOTATION_NAME) +
+                                "(name = \"" + column + "\")\n" +
+                                "private Long " + DEFAULT_ID_FIELD_NAME + ";";
+                        return JavaTemplate.builder(template)
+                                .javaParser(JavaParserFactory.create(ctx))
+                                .imports(Constants.Jpa.ID_ANNOTATION_FULL, Constants.Jpa.COLUMN_ANNOTATION_FULL,
+                                        Constants.Jpa.GENERATED_VALUE_ANNOTATION_FULL, Constants.Jpa.GENERATION_TYPE_FULL,
+                                        Constants.Jpa.SEQUENCE_GENERATOR_ANNOTATION_FULL, Constants.Jpa.TABLE_GENERATOR_ANNOTATION_FULL)
+                                .build()
+                                .apply(updateCursor(cd), cd.getBody().getCoordinates().firstStatement());
+                    }
+
+                    @Override
+                    public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, ExecutionContext ctx) {
+                        J.VariableDeclarations mv = super.visitVariableDeclarations(multiVariable, ctx);
+                        J.ClassDeclaration owner = RewriteUtils.findParentClass(getCursor());
+                        Optional<J.Annotation> persistent = RewriteUtils
+                                .findLeadingAnnotations(mv, "@" + Constants.Jdo.PERSISTENT_ANNOTATION_FULL).stream()
+                                .findFirst();
+                        if (owner == null || owner.getType() == null || persistent.isEmpty()
+                                || RewriteUtils.isMethodOwnerOfVar(mv)
+                                || !RewriteUtils.findLeadingAnnotations(mv, "@" + Constants.Jpa.GENERATED_VALUE_ANNOTATION_FULL).isEmpty()) {
+                            return mv;
+                        }
+                        Optional<String> strategy = RewriteUtils
+                                .findArgument(persistent.get(), Constants.Jdo.PERSISTENT_ARGUMENT_VALUE_STRATEGY)
+                                .map(RewriteUtils::valueOf)
+                                .map(value -> value.substring(value.lastIndexOf('.') + 1));
+                        Optional<List<String>> generation = strategy
+                                .flatMap(s -> generation(acc, s,
+                                        RewriteUtils.findArgument(persistent.get(), Constants.Jdo.PERSISTENT_ARGUMENT_SEQUENCE)
+                                                .map(RewriteUtils::valueOf).orElse(null),
+                                        owner.getSimpleName(), owner.getType().getFullyQualifiedName()));
+                        if (generation.isEmpty()) {
+                            return mv;
+                        }
+                        if (!hasIdentityField(mv)) {
+                            // JPA only generates the values of identity fields
+                            if (RewriteUtils.commentsContains(mv.getPrefix().getComments(), Constants.Jpa.MIGRATION_COMMENT)) {
+                                return mv;
+                            }
+                            String whitespace = mv.getPrefix().getWhitespace();
+                            String indent = whitespace.substring(whitespace.lastIndexOf('\n') + 1);
+                            return mv.withPrefix(mv.getPrefix().withComments(ListUtils.concat(mv.getPrefix().getComments(),
+                                    new TextComment(false, " " + Constants.Jpa.MIGRATION_COMMENT + ": value strategy " +
+                                            strategy.get() + " of a field that is not a primary key", "\n" + indent,
+                                            Markers.EMPTY))));
+                        }
+
+                        // Remove the value strategy and sequence, and @Persistent when nothing else is left
+                        List<Expression> arguments = new ArrayList<>(persistent.get().getArguments());
+                        arguments.removeIf(argument -> argument instanceof J.Assignment assignment
+                                && (Constants.Jdo.PERSISTENT_ARGUMENT_VALUE_STRATEGY.equals(assignment.getVariable().toString())
+                                || Constants.Jdo.PERSISTENT_ARGUMENT_SEQUENCE.equals(assignment.getVariable().toString())));
+                        J.Annotation persistentAnno = persistent.get();
+                        if (arguments.isEmpty()) {
+                            mv = (J.VariableDeclarations) new RemoveAnnotationVisitor(new AnnotationMatcher("@" + Constants.Jdo.PERSISTENT_ANNOTATION_FULL))
+                                    .visitNonNull(mv, ctx, getCursor().getParentOrThrow());
+                            maybeRemoveImport(Constants.Jdo.PERSISTENT_ANNOTATION_FULL);
+                        } else {
+                            // Keep the whitespace before the first remaining argument like it was before the first one
+                            arguments.set(0, arguments.get(0).withPrefix(persistentAnno.getArguments().get(0).getPrefix()));
+                            mv = mv.withLeadingAnnotations(mv.getLeadingAnnotations().stream()
+                                    .map(a -> a.getId().equals(persistentAnno.getId()) ? a.withArguments(arguments) : a)
+                                    .toList());
+                        }
+                        maybeRemoveImport(Constants.Jdo.ID_GENERATOR_STRATEGY_FULL);
+                        addGenerationImports(generation.get());
+                        for (String annotation : generation.get()) {
+                            mv = JavaTemplate.builder(annotation)
+                                    .javaParser(JavaParserFactory.create(ctx))
+                                    .imports(Constants.Jpa.GENERATED_VALUE_ANNOTATION_FULL, Constants.Jpa.GENERATION_TYPE_FULL,
+                                            Constants.Jpa.SEQUENCE_GENERATOR_ANNOTATION_FULL, Constants.Jpa.TABLE_GENERATOR_ANNOTATION_FULL)
+                                    .build()
+                                    .apply(updateCursor(mv), mv.getCoordinates().addAnnotation(Comparator.comparing(J.Annotation::getSimpleName)));
+                        }
+                        return mv;
+                    }
+
+                    private void addGenerationImports(List<String> generation) {
+                        maybeAddImport(Constants.Jpa.GENERATED_VALUE_ANNOTATION_FULL);
+                        maybeAddImport(Constants.Jpa.GENERATION_TYPE_FULL);
+                        maybeAddImport(Constants.Jpa.SEQUENCE_GENERATOR_ANNOTATION_FULL);
+                        maybeAddImport(Constants.Jpa.TABLE_GENERATOR_ANNOTATION_FULL);
+                    }
+                });
+    }
+
+    /**
+     * @return the annotation templates of the generation of the given JDO strategy, or empty when there is no JPA
+     * equivalent
+     */
+    Optional<List<String>> generation(Accumulator acc, String strategy, @Nullable String sequence,
+                                      String simpleName, String fullyQualifiedName) {
+        boolean sequences = Boolean.TRUE.equals(preferSequence);
+        switch (strategy) {
+            case Constants.Jdo.ID_GENERATOR_STRATEGY_SEQUENCE:
+                return Optional.of(sequenceGeneration(acc, sequence != null ? sequence : simpleName + "_SEQ"));
+            case Constants.Jdo.ID_GENERATOR_STRATEGY_IDENTITY:
+                return Optional.of(sequences
+                        ? sequenceGeneration(acc, simpleName + "_SEQ")
+                        : List.of(generatedValue("IDENTITY", null)));
+            case Constants.Jdo.ID_GENERATOR_STRATEGY_NATIVE:
+                return Optional.of(sequences
+                        ? sequenceGeneration(acc, simpleName + "_SEQ")
+                        : List.of(generatedValue("AUTO", null)));
+            case Constants.Jdo.ID_GENERATOR_STRATEGY_INCREMENT:
+                String generator = simpleName + "_GEN";
+                return Optional.of(List.of(
+                        generatedValue("TABLE", generator),
+                        "@" + Constants.Jpa.TABLE_GENERATOR_ANNOTATION_NAME + "(name = \"" + generator + "\", table = \"" +
+                                SEQUENCE_TABLE + "\", pkColumnName = \"" + SEQUENCE_TABLE_NAME_COLUMN +
+                                "\", valueColumnName = \"" + SEQUENCE_TABLE_VALUE_COLUMN + "\", pkColumnValue = \"" +
+                                fullyQualifiedName + "\"" + allocation(null) + ")"));
+            default:
+                return Optional.empty();
+        }
+    }
+
+    private List<String> sequenceGeneration(Accumulator acc, String name) {
+        SequenceDefinition definition = acc.sequences.getOrDefault(name, new SequenceDefinition(null, null, null));
+        StringBuilder generator = new StringBuilder("@")
+                .append(Constants.Jpa.SEQUENCE_GENERATOR_ANNOTATION_NAME)
+                .append("(name = \"").append(name)
+                .append("\", sequenceName = \"")
+                .append(definition.datastoreSequence != null ? definition.datastoreSequence : name)
+                .append("\"");
+        if (definition.initialValue != null) {
+            generator.append(", initialValue = ").append(definition.initialValue);
+        }
+        generator.append(allocation(definition.allocationSize)).append(")");
+        return List.of(generatedValue("SEQUENCE", name), generator.toString());
+    }
+
+    private String allocation(@Nullable String jdoAllocationSize) {
+        if (jdoAllocationSize != null) {
+            return ", allocationSize = " + jdoAllocationSize;
+        }
+        return allocationSize != null ? ", allocationSize = " + allocationSize : "";
+    }
+
+    private static String generatedValue(String generationType, @Nullable String generator) {
+        return "@" + Constants.Jpa.GENERATED_VALUE_ANNOTATION_NAME + "(strategy = " + Constants.Jpa.GENERATION_TYPE_NAME +
+                "." + generationType + (generator != null ? ", generator = \"" + generator + "\"" : "") + ")";
+    }
+
+    private static Optional<String> strategy(J.Annotation annotation) {
+        return RewriteUtils.findArgument(annotation, Constants.Jdo.DATASTORE_IDENTITY_ARGUMENT_STRATEGY)
+                .map(RewriteUtils::valueOf)
+                .map(value -> value.substring(value.lastIndexOf('.') + 1))
+                // DataNucleus uses NATIVE by default
+                .or(() -> Optional.of(Constants.Jdo.ID_GENERATOR_STRATEGY_NATIVE));
+    }
+
+    private static @Nullable String argument(J.Annotation annotation, String name) {
+        return RewriteUtils.findArgument(annotation, name).map(RewriteUtils::valueOf).orElse(null);
+    }
+
+    /**
+     * @return the DataNucleus default column of a datastore identity, the table name followed by <code>_ID</code>
+     */
+    static String defaultIdentityColumn(J.ClassDeclaration cd) {
+        String table = RewriteUtils.findLeadingAnnotations(cd, "@" + Constants.Jdo.PERSISTENCE_CAPABLE_ANNOTATION_FULL).stream()
+                .findFirst()
+                .flatMap(annotation -> RewriteUtils.findArgument(annotation, Constants.Jpa.TABLE_ARGUMENT_TABLE))
+                .map(RewriteUtils::valueOf)
+                .orElse(cd.getSimpleName());
+        return table.toUpperCase() + "_ID";
+    }
+
+    /**
+     * @return true when one of the supertypes has a JPA identity field or is one of the configured base classes
+     */
+    static boolean inheritsIdentity(Accumulator acc, J.ClassDeclaration cd) {
+        // The extends clause may have been added by an earlier recipe without updating the type of the class
+        JavaType.FullyQualified superclass = cd.getExtends() != null
+                ? TypeUtils.asFullyQualified(cd.getExtends().getType())
+                : cd.getType() != null ? cd.getType().getSupertype() : null;
+        Set<String> visited = new HashSet<>();
+        for (JavaType.FullyQualified supertype = superclass; supertype != null
+                && visited.add(supertype.getFullyQualifiedName()); supertype = supertype.getSupertype()) {
+            if (acc.identityTypes.contains(supertype.getFullyQualifiedName())) {
+                return true;
+            }
+            if (supertype.getMembers().stream().anyMatch(member -> member.getAnnotations().stream()
+                    .anyMatch(a -> TypeUtils.isOfClassType(a, Constants.Jpa.ID_ANNOTATION_FULL)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean hasIdentityField(J.ClassDeclaration cd) {
+        return cd.getBody().getStatements().stream()
+                .filter(J.VariableDeclarations.class::isInstance)
+                .anyMatch(statement -> hasIdentityField((J.VariableDeclarations) statement));
+    }
+
+    /**
+     * @return true when the field is annotated with the JPA <code>@Id</code> or the JDO <code>@PrimaryKey</code>
+     */
+    static boolean hasIdentityField(J.VariableDeclarations mv) {
+        return !RewriteUtils.findLeadingAnnotations(mv, "@" + Constants.Jpa.ID_ANNOTATION_FULL).isEmpty()
+                || !RewriteUtils.findLeadingAnnotations(mv, "@" + Constants.Jdo.PRIMARY_KEY_ANNOTATION_FULL).isEmpty();
+    }
+
+    /**
+     * A JDO <code>@Sequence</code>.
+     */
+    @Value
+    static class SequenceDefinition {
+        @Nullable
+        String datastoreSequence;
+        @Nullable
+        String initialValue;
+        @Nullable
+        String allocationSize;
+    }
+
+    @Data
+    public static class Accumulator {
+        Map<String, SequenceDefinition> sequences = new HashMap<>();
+        Set<String> identityTypes = new HashSet<>();
+    }
+}
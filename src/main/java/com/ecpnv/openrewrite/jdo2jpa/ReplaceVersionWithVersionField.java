@@ -0,0 +1,283 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+import org.openrewrite.Preconditions;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.java.AnnotationMatcher;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.RemoveAnnotationVisitor;
+import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TextComment;
+import org.openrewrite.java.tree.TypeUtils;
+import org.openrewrite.marker.Markers;
+
+import com.ecpnv.openrewrite.util.JavaParserFactory;
+import com.ecpnv.openrewrite.util.RewriteUtils;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+/**
+ * Replaces the class level JDO <code>@Version</code> annotation with a field annotated with the JPA
+ * <code>@Version</code> annotation, so the entity keeps its optimistic locking.
+ * <p>
+ * The migration adheres to the following rules:
+ * <ul>
+ * <li> <code>@Version(strategy = VersionStrategy.VERSION_NUMBER, column = "VERSION")</code> becomes a
+ * <code>long</code> field and <code>strategy = VersionStrategy.DATE_TIME</code> becomes a
+ * <code>java.sql.Timestamp</code> field, annotated with <code>@Version</code> and, when a column is given,
+ * <code>@Column(name = "VERSION")</code>. Without a strategy the version is a number, like DataNucleus does.
+ * <li> When the DataNucleus extension <code>field-name</code> refers to an existing field, or the class already
+ * declares a <code>version</code> field, that field is annotated with <code>@Version</code> instead.
+ * <li> The strategy <code>NONE</code> is removed, other strategies can not be mapped to JPA and are replaced by a
+ * comment.
+ * <li> Entities that inherit a version, from a superclass with a JPA <code>@Version</code> field, from a superclass
+ * with a JDO <code>@Version</code> annotation or from one of the configured base classes like
+ * <code>EntityAbstract</code>, only lose their JDO annotation.
+ * </ul>
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class ReplaceVersionWithVersionField extends ScanningRecipe<ReplaceVersionWithVersionField.Accumulator> {
+
+    public static final String SOURCE_ANNOTATION_TYPE = "@" + Constants.Jdo.VERSION_ANNOTATION_FULL;
+    public static final String TARGET_ANNOTATION_TYPE = "@" + Constants.Jpa.VERSION_ANNOTATION_FULL;
+    public static final String DEFAULT_FIELD_NAME = "version";
+
+    @Option(displayName = "Versioned base classes",
+            description = "Comma separated fully qualified names of base classes that already declare a version " +
+                    "field, of which the subclasses do not get a version field.",
+            required = false,
+            example = "org.estatio.base.prod.dom.EntityAbstract")
+    @Nullable
+    String versionedBaseClasses;
+
+    @JsonCreator
+    public ReplaceVersionWithVersionField(@Nullable @JsonProperty("versionedBaseClasses") String versionedBaseClasses) {
+        this.versionedBaseClasses = versionedBaseClasses;
+    }
+
+    @Override
+    public @NotNull String getDisplayName() {
+        return "Replace the class annotation `" + SOURCE_ANNOTATION_TYPE + "` with a `" + TARGET_ANNOTATION_TYPE +
+                "` field";
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return "Replaces the JDO class annotation `" + SOURCE_ANNOTATION_TYPE + "` with a version field annotated " +
+                "with `" + TARGET_ANNOTATION_TYPE + "`, unless the entity inherits a version.";
+    }
+
+    @Override
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        Accumulator acc = new Accumulator();
+        if (versionedBaseClasses != null) {
+            for (String name : versionedBaseClasses.split(",")) {
+                if (!name.isBlank()) {
+                    acc.versionedTypes.add(name.trim());
+                }
+            }
+        }
+        return acc;
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        return Preconditions.check(new UsesType<>(Constants.Jdo.VERSION_ANNOTATION_FULL, false),
+                new JavaIsoVisitor<ExecutionContext>() {
+                    @Override
+                    public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+                        J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
+                        if (cd.getType() != null && !RewriteUtils.findLeadingAnnotations(cd, SOURCE_ANNOTATION_TYPE).isEmpty()) {
+                            acc.versionedTypes.add(cd.getType().getFullyQualifiedName());
+                        }
+                        return cd;
+                    }
+                });
+    }
+
+    @Override
+    public @NotNull TreeVisitor<?, ExecutionContext> getVisitor(Accumulator acc) {
+        return Preconditions.check(new UsesType<>(Constants.Jdo.VERSION_ANNOTATION_FULL, false),
+                new JavaIsoVisitor<ExecutionContext>() {
+                    @Override
+                    public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+                        J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
+                        Optional<J.Annotation> versionAnno = RewriteUtils.findLeadingAnnotations(cd, SOURCE_ANNOTATION_TYPE)
+                                .stream().findFirst();
+                        if (versionAnno.isEmpty()) {
+                            return cd;
+                        }
+                        J.Annotation annotation = versionAnno.get();
+                        // The JDO annotation is removed first, as its simple name equals the one of the JPA annotation
+                        cd = (J.ClassDeclaration) new RemoveAnnotationVisitor(new AnnotationMatcher(SOURCE_ANNOTATION_TYPE))
+                                .visitNonNull(cd, ctx, getCursor().getParentOrThrow());
+                        maybeRemoveImport(Constants.Jdo.VERSION_ANNOTATION_FULL);
+                        maybeRemoveImport(Constants.Jdo.BASE_PACKAGE + "VersionStrategy");
+                        maybeRemoveImport(Constants.Jdo.BASE_PACKAGE + "Extension");
+                        if (inheritsVersion(acc, cd) || hasVersionField(cd)) {
+                            return cd;
+                        }
+
+                        String strategy = RewriteUtils.findArgument(annotation, Constants.Jdo.VERSION_ARGUMENT_STRATEGY)
+                                .map(RewriteUtils::valueOf)
+                                .map(value -> value.substring(value.lastIndexOf('.') + 1))
+                                .orElse(Constants.Jdo.VERSION_STRATEGY_VERSION_NUMBER);
+                        if (Constants.Jdo.VERSION_STRATEGY_NONE.equals(strategy)) {
+                            return cd;
+                        }
+                        if (!Constants.Jdo.VERSION_STRATEGY_VERSION_NUMBER.equals(strategy)
+                                && !Constants.Jdo.VERSION_STRATEGY_DATE_TIME.equals(strategy)) {
+                            // Like STATE_IMAGE, which has no JPA equivalent
+                            String whitespace = cd.getPrefix().getWhitespace();
+                            String indent = whitespace.substring(whitespace.lastIndexOf('\n') + 1);
+                            return cd.withPrefix(cd.getPrefix().withComments(ListUtils.concat(cd.getPrefix().getComments(),
+                                    new TextComment(false, " " + Constants.Jpa.MIGRATION_COMMENT + ": version strategy " +
+                                            strategy, "\n" + indent, Markers.EMPTY))));
+                        }
+
+                        // Annotate the field the DataNucleus extension refers to, or the existing version field
+                        Optional<String> fieldName = findFieldNameExtension(annotation);
+                        if (fieldName.isEmpty() && hasField(cd, DEFAULT_FIELD_NAME)) {
+                            fieldName = Optional.of(DEFAULT_FIELD_NAME);
+                        }
+                        if (fieldName.isPresent()) {
+                            if (cd.getType() != null) {
+                                // After the JDO import is removed, as the template can not resolve the JPA annotation
+                                // while it is imported
+                                doAfterVisit(new AnnotateFieldVisitor(cd.getType().getFullyQualifiedName(), fieldName.get()));
+                            }
+                            return cd;
+                        }
+
+                        boolean dateTime = Constants.Jdo.VERSION_STRATEGY_DATE_TIME.equals(strategy);
+                        StringBuilder template = new StringBuilder("@")
+                                .append(Constants.Jpa.VERSION_ANNOTATION_NAME)
+                                .append("\n");
+                        RewriteUtils.findArgument(annotation, Constants.Jdo.VERSION_ARGUMENT_COLUMN)
+                                .map(RewriteUtils::valueOf)
+                                .ifPresent(column -> {
+                                    // The JDO @Column is migrated later, until then the JPA one is fully qualified
+                                    boolean importsJdoColumn = RewriteUtils.importsType(getCursor(), Constants.Jdo.COLUMN_ANNOTATION_FULL);
+                                    template.append("@")
+                                            .append(importsJdoColumn ? Constants.Jpa.COLUMN_ANNOTATION_FULL : Constants.Jpa.COLUMN_ANNOTATION_NAME)
+                                            .append("(name = \"")
+                                            .append(column)
+                                            .append("\")\n");
+                                    if (!importsJdoColumn) {
+                                        maybeAddImport(Constants.Jpa.COLUMN_ANNOTATION_FULL);
+                                    }
+                                });
+                        template.append("private ")
+                                .append(dateTime ? "Timestamp" : "long")
+                                .append(" ")
+                                .append(DEFAULT_FIELD_NAME)
+                                .append(";");
+                        maybeAddImport(Constants.Jpa.VERSION_ANNOTATION_FULL);
+                        if (dateTime) {
+                            maybeAddImport("java.sql.Timestamp");
+                        }
+                        return JavaTemplate.builder(template.toString())
+                                .javaParser(JavaParserFactory.create(ctx))
+                                .imports(Constants.Jpa.VERSION_ANNOTATION_FULL, Constants.Jpa.COLUMN_ANNOTATION_FULL,
+                                        "java.sql.Timestamp")
+                                .build()
+                                .apply(updateCursor(cd), cd.getBody().getCoordinates().firstStatement());
+                    }
+                });
+    }
+
+    /**
+     * Annotates a field of a class with the JPA <code>@Version</code> annotation.
+     */
+    @Value
+    @EqualsAndHashCode(callSuper = false)
+    static class AnnotateFieldVisitor extends JavaIsoVisitor<ExecutionContext> {
+        String classType;
+        String fieldName;
+
+        @Override
+        public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, ExecutionContext ctx) {
+            J.VariableDeclarations vd = super.visitVariableDeclarations(multiVariable, ctx);
+            // Only the fields of the class itself
+            J.ClassDeclaration owner = getCursor().firstEnclosing(J.ClassDeclaration.class);
+            if (owner == null || owner.getType() == null || !classType.equals(owner.getType().getFullyQualifiedName())
+                    || RewriteUtils.isMethodOwnerOfVar(vd)
+                    || vd.getVariables().stream().noneMatch(v -> v.getSimpleName().equals(fieldName))
+                    || !RewriteUtils.findLeadingAnnotations(vd, TARGET_ANNOTATION_TYPE).isEmpty()) {
+                return vd;
+            }
+            maybeAddImport(Constants.Jpa.VERSION_ANNOTATION_FULL);
+            return JavaTemplate.builder("@" + Constants.Jpa.VERSION_ANNOTATION_NAME)
+                    .javaParser(JavaParserFactory.create(ctx))
+                    .imports(Constants.Jpa.VERSION_ANNOTATION_FULL)
+                    .build()
+                    .apply(getCursor(), vd.getCoordinates().addAnnotation(Comparator.comparing(J.Annotation::getSimpleName)));
+        }
+    }
+
+    /**
+     * @return true when one of the supertypes is versioned by a JPA version field, a JDO version annotation or is
+     * one of the configured versioned base classes
+     */
+    static boolean inheritsVersion(Accumulator acc, J.ClassDeclaration cd) {
+        // The extends clause may have been added by an earlier recipe without updating the type of the class
+        JavaType.FullyQualified superclass = cd.getExtends() != null
+                ? TypeUtils.asFullyQualified(cd.getExtends().getType())
+                : cd.getType() != null ? cd.getType().getSupertype() : null;
+        Set<String> visited = new HashSet<>();
+        for (JavaType.FullyQualified supertype = superclass; supertype != null
+                && visited.add(supertype.getFullyQualifiedName()); supertype = supertype.getSupertype()) {
+            if (acc.versionedTypes.contains(supertype.getFullyQualifiedName())) {
+                return true;
+            }
+            if (supertype.getMembers().stream().anyMatch(member -> member.getAnnotations().stream()
+                    .anyMatch(a -> TypeUtils.isOfClassType(a, Constants.Jpa.VERSION_ANNOTATION_FULL)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean hasVersionField(J.ClassDeclaration cd) {
+        return cd.getBody().getStatements().stream()
+                .filter(J.VariableDeclarations.class::isInstance)
+                .anyMatch(statement -> !RewriteUtils.findLeadingAnnotations(statement, TARGET_ANNOTATION_TYPE).isEmpty());
+    }
+
+    static boolean hasField(J.ClassDeclaration cd, String name) {
+        return cd.getBody().getStatements().stream()
+                .filter(J.VariableDeclarations.class::isInstance)
+                .map(J.VariableDeclarations.class::cast)
+                .anyMatch(vd -> vd.getVariables().stream().anyMatch(v -> v.getSimpleName().equals(name)));
+    }
+
+    static Optional<String> findFieldNameExtension(J.Annotation annotation) {
+        return RewriteUtils.findExtension(annotation, Constants.Jdo.EXTENSION_KEY_FIELD_NAME);
+    }
+
+    @Data
+    public static class Accumulator {
+        Set<String> versionedTypes = new HashSet<>();
+    }
+}
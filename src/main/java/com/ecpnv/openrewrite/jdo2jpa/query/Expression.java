@@ -0,0 +1,52 @@
+package com.ecpnv.openrewrite.jdo2jpa.query;
+
+import java.util.List;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The expressions of a parsed JDOQL query, as they appear in its result, filter, grouping and ordering.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+public sealed interface Expression {
+
+    /**
+     * A string, character, number, boolean or null literal with its unescaped value.
+     */
+    record Literal(Kind kind, String value) implements Expression {
+
+        public enum Kind {
+            STRING, NUMBER, BOOLEAN, NULL
+        }
+    }
+
+    /**
+     * A field, variable, parameter or class reference, like <code>this.owner.name</code>.
+     */
+    record Name(List<String> path) implements Expression {
+
+        public String first() {
+            return path.getFirst();
+        }
+    }
+
+    /**
+     * An implicit parameter, like <code>:name</code> or <code>?1</code>.
+     */
+    record Parameter(String name) implements Expression {
+    }
+
+    record Unary(String operator, Expression operand) implements Expression {
+    }
+
+    record Binary(Expression left, String operator, Expression right) implements Expression {
+    }
+
+    /**
+     * A method call on a target, like <code>name.startsWith(:prefix)</code>, or a function without a target, like
+     * <code>count(this)</code>.
+     */
+    record MethodCall(@Nullable Expression target, String name, List<Expression> arguments) implements Expression {
+    }
+}
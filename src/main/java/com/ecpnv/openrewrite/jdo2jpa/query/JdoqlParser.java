@@ -0,0 +1,449 @@
+package com.ecpnv.openrewrite.jdo2jpa.query;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A recursive descent parser of single-string JDOQL queries:
+ * <pre>
+ * SELECT [UNIQUE] [DISTINCT] [result] [FROM candidate [EXCLUDE SUBCLASSES]] [WHERE filter]
+ * [VARIABLES declarations] [PARAMETERS declarations] [imports] [GROUP BY grouping [HAVING condition]]
+ * [ORDER BY ordering] [RANGE start, end]
+ * </pre>
+ * The keywords are case-insensitive. Constructs that have no JPQL equivalent, like <code>INTO</code> and casts, are
+ * rejected with an {@link IllegalArgumentException} that explains what is not supported.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+final class JdoqlParser {
+
+    static final Set<String> CLAUSES = Set.of("select", "unique", "into", "from", "exclude", "where", "variables",
+            "parameters", "import", "group", "having", "order", "range");
+    /**
+     * Keywords and operators that only occur in JPQL, so a query with them is not JDOQL.
+     */
+    static final Set<String> JPQL_ONLY = Set.of("=", "<>", "and", "or", "not", "join", "like", "member", "is", "in",
+            "between");
+
+    enum Type {
+        IDENTIFIER, NUMBER, STRING, PARAMETER, OPERATOR, END
+    }
+
+    record Token(Type type, String text) {
+
+        boolean is(String keyword) {
+            return type == Type.IDENTIFIER && text.equalsIgnoreCase(keyword);
+        }
+
+        boolean isOperator(String operator) {
+            return type == Type.OPERATOR && text.equals(operator);
+        }
+    }
+
+    private final List<Token> tokens;
+    private int position;
+
+    private JdoqlParser(List<Token> tokens) {
+        this.tokens = tokens;
+    }
+
+    static JdoqlQuery parse(String jdoql) {
+        return new JdoqlParser(tokenize(jdoql)).query();
+    }
+
+    /**
+     * @return true when the given query uses JPQL only operators or keywords, or an identification variable
+     */
+    static boolean isJpql(String query) {
+        List<Token> tokens;
+        try {
+            tokens = tokenize(query);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        for (int i = 0; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            if ((token.type == Type.OPERATOR || token.type == Type.IDENTIFIER)
+                    && JPQL_ONLY.contains(token.text.toLowerCase(Locale.ROOT))) {
+                return true;
+            }
+            // an identification variable follows the entity name
+            if (token.is("from") && tokens.get(i + 1).type == Type.IDENTIFIER) {
+                int j = i + 2;
+                while (tokens.get(j).isOperator(".") && tokens.get(j + 1).type == Type.IDENTIFIER) {
+                    j += 2;
+                }
+                Token next = tokens.get(j);
+                if ((next.type == Type.IDENTIFIER && !CLAUSES.contains(next.text.toLowerCase(Locale.ROOT)))
+                        || next.isOperator(",")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (Character.isJavaIdentifierStart(c)) {
+                int start = i;
+                // qualified names are split on the dots by the parser
+                while (i < text.length() && Character.isJavaIdentifierPart(text.charAt(i))) {
+                    i++;
+                }
+                tokens.add(new Token(Type.IDENTIFIER, text.substring(start, i)));
+            } else if (Character.isDigit(c) || (c == '.' && i + 1 < text.length() && Character.isDigit(text.charAt(i + 1)))) {
+                int start = i;
+                while (i < text.length() && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '.')) {
+                    i++;
+                }
+                tokens.add(new Token(Type.NUMBER, text.substring(start, i)));
+            } else if (c == '"' || c == '\'') {
+                StringBuilder value = new StringBuilder();
+                i++;
+                while (i < text.length() && text.charAt(i) != c) {
+                    if (text.charAt(i) == '\\' && i + 1 < text.length()) {
+                        i++;
+                    }
+                    value.append(text.charAt(i++));
+                }
+                if (i >= text.length()) {
+                    throw new IllegalArgumentException("unterminated string literal");
+                }
+                i++;
+                tokens.add(new Token(Type.STRING, value.toString()));
+            } else if ((c == ':' || c == '?') && i + 1 < text.length()
+                    && Character.isJavaIdentifierPart(text.charAt(i + 1))) {
+                int start = i++;
+                while (i < text.length() && Character.isJavaIdentifierPart(text.charAt(i))) {
+                    i++;
+                }
+                tokens.add(new Token(Type.PARAMETER, text.substring(start, i)));
+            } else {
+                String two = i + 1 < text.length() ? text.substring(i, i + 2) : "";
+                if (List.of("==", "!=", "<=", ">=", "&&", "||", "<>").contains(two)) {
+                    tokens.add(new Token(Type.OPERATOR, two));
+                    i += 2;
+                } else if ("=<>!&|+-*/%~(),.;".indexOf(c) >= 0) {
+                    tokens.add(new Token(Type.OPERATOR, String.valueOf(c)));
+                    i++;
+                } else {
+                    throw new IllegalArgumentException("unexpected character '" + c + "'");
+                }
+            }
+        }
+        tokens.add(new Token(Type.END, ""));
+        return tokens;
+    }
+
+    JdoqlQuery query() {
+        boolean delete = accept("delete");
+        if (!delete) {
+            expect("select");
+        }
+        boolean unique = accept("unique");
+        boolean distinct = false;
+        List<Expression> result = new ArrayList<>();
+        if (!delete && !atClause() && peek().type != Type.END) {
+            distinct = accept("distinct");
+            result.addAll(expressions());
+            if (peek().is("as")) {
+                throw new IllegalArgumentException("result aliases are not supported");
+            }
+        }
+        if (peek().is("into")) {
+            throw new IllegalArgumentException("INTO result classes are not supported");
+        }
+        String candidate = null;
+        boolean excludeSubclasses = false;
+        if (accept("from")) {
+            candidate = qualifiedName();
+            if (accept("exclude")) {
+                expect("subclasses");
+                excludeSubclasses = true;
+            }
+        } else if (delete) {
+            throw new IllegalArgumentException("DELETE without FROM is not supported");
+        }
+        Expression filter = accept("where") ? expression() : null;
+        Map<String, String> variables = new LinkedHashMap<>();
+        Map<String, String> parameters = new LinkedHashMap<>();
+        Map<String, String> imports = new LinkedHashMap<>();
+        List<Expression> grouping = new ArrayList<>();
+        Expression having = null;
+        List<JdoqlQuery.Ordering> ordering = new ArrayList<>();
+        String rangeStart = null;
+        String rangeEnd = null;
+        while (peek().type != Type.END) {
+            if (accept("variables")) {
+                declarations(variables, ";");
+            } else if (accept("parameters")) {
+                declarations(parameters, ",");
+            } else if (accept("import")) {
+                String name = qualifiedName();
+                imports.put(name.substring(name.lastIndexOf('.') + 1), name);
+                acceptOperator(";");
+            } else if (accept("group")) {
+                expect("by");
+                grouping.addAll(expressions());
+                if (accept("having")) {
+                    having = expression();
+                }
+            } else if (accept("order")) {
+                expect("by");
+                do {
+                    Expression expression = expression();
+                    boolean descending = accept("desc") || accept("descending");
+                    if (!descending && !accept("asc")) {
+                        accept("ascending");
+                    }
+                    ordering.add(new JdoqlQuery.Ordering(expression, descending));
+                } while (acceptOperator(","));
+            } else if (accept("range")) {
+                rangeStart = rangeBound();
+                if (!acceptOperator(",")) {
+                    accept("to");
+                }
+                rangeEnd = rangeBound();
+            } else {
+                throw new IllegalArgumentException("unexpected '" + peek().text + "'");
+            }
+        }
+        return new JdoqlQuery(delete, unique, distinct, result, candidate, excludeSubclasses, filter, variables,
+                parameters, imports, grouping, having, ordering, rangeStart, rangeEnd);
+    }
+
+    private void declarations(Map<String, String> declarations, String separator) {
+        do {
+            String type = qualifiedName();
+            if (acceptOperator("<")) {
+                throw new IllegalArgumentException("generic declarations are not supported");
+            }
+            declarations.put(identifier(), type);
+        } while (acceptOperator(separator) && peek().type == Type.IDENTIFIER && !atClause());
+    }
+
+    private String rangeBound() {
+        Token token = next();
+        if (token.type != Type.NUMBER && token.type != Type.PARAMETER) {
+            throw new IllegalArgumentException("unexpected range bound '" + token.text + "'");
+        }
+        return token.text;
+    }
+
+    private List<Expression> expressions() {
+        List<Expression> expressions = new ArrayList<>();
+        do {
+            expressions.add(expression());
+        } while (acceptOperator(","));
+        return expressions;
+    }
+
+    Expression expression() {
+        Expression left = and();
+        while (peek().isOperator("||") || peek().isOperator("|")) {
+            next();
+            left = new Expression.Binary(left, "||", and());
+        }
+        return left;
+    }
+
+    private Expression and() {
+        Expression left = equality();
+        while (peek().isOperator("&&") || peek().isOperator("&")) {
+            next();
+            left = new Expression.Binary(left, "&&", equality());
+        }
+        return left;
+    }
+
+    private Expression equality() {
+        Expression left = relational();
+        while (peek().isOperator("==") || peek().isOperator("!=")) {
+            left = new Expression.Binary(left, next().text, relational());
+        }
+        return left;
+    }
+
+    private Expression relational() {
+        Expression left = additive();
+        while (peek().isOperator("<") || peek().isOperator(">") || peek().isOperator("<=") || peek().isOperator(">=")) {
+            left = new Expression.Binary(left, next().text, additive());
+        }
+        if (peek().is("instanceof")) {
+            throw new IllegalArgumentException("instanceof is not supported");
+        }
+        return left;
+    }
+
+    private Expression additive() {
+        Expression left = multiplicative();
+        while (peek().isOperator("+") || peek().isOperator("-")) {
+            left = new Expression.Binary(left, next().text, multiplicative());
+        }
+        return left;
+    }
+
+    private Expression multiplicative() {
+        Expression left = unary();
+        while (peek().isOperator("*") || peek().isOperator("/") || peek().isOperator("%")) {
+            left = new Expression.Binary(left, next().text, unary());
+        }
+        return left;
+    }
+
+    private Expression unary() {
+        if (peek().isOperator("!") || peek().isOperator("-")) {
+            return new Expression.Unary(next().text, unary());
+        }
+        if (peek().isOperator("~")) {
+            throw new IllegalArgumentException("bitwise complement is not supported");
+        }
+        return postfix(primary());
+    }
+
+    private Expression primary() {
+        Token token = next();
+        switch (token.type) {
+            case STRING -> {
+                return new Expression.Literal(Expression.Literal.Kind.STRING, token.text);
+            }
+            case NUMBER -> {
+                return new Expression.Literal(Expression.Literal.Kind.NUMBER, token.text);
+            }
+            case PARAMETER -> {
+                return new Expression.Parameter(token.text);
+            }
+            case OPERATOR -> {
+                if (token.isOperator("(")) {
+                    if (peek().type == Type.IDENTIFIER && Character.isUpperCase(peek().text.charAt(0))
+                            && peekAt(1).isOperator(")")) {
+                        throw new IllegalArgumentException("casts are not supported");
+                    }
+                    Expression expression = expression();
+                    expectOperator(")");
+                    return expression;
+                }
+                throw new IllegalArgumentException("unexpected '" + token.text + "'");
+            }
+            case IDENTIFIER -> {
+                String lowerCase = token.text.toLowerCase(Locale.ROOT);
+                if ("true".equals(lowerCase) || "false".equals(lowerCase)) {
+                    return new Expression.Literal(Expression.Literal.Kind.BOOLEAN, lowerCase);
+                }
+                if ("null".equals(lowerCase)) {
+                    return new Expression.Literal(Expression.Literal.Kind.NULL, lowerCase);
+                }
+                if ("new".equals(token.text) || CLAUSES.contains(lowerCase)) {
+                    throw new IllegalArgumentException("unexpected '" + token.text + "'");
+                }
+                List<String> path = new ArrayList<>(List.of(token.text));
+                while (peek().isOperator(".") && peekAt(1).type == Type.IDENTIFIER) {
+                    next();
+                    path.add(next().text);
+                }
+                if (acceptOperator("(")) {
+                    String method = path.removeLast();
+                    return new Expression.MethodCall(path.isEmpty() ? null : new Expression.Name(path), method, arguments());
+                }
+                return new Expression.Name(path);
+            }
+            default -> throw new IllegalArgumentException("unexpected end of query");
+        }
+    }
+
+    private Expression postfix(Expression expression) {
+        while (peek().isOperator(".")) {
+            next();
+            String name = identifier();
+            if (!acceptOperator("(")) {
+                throw new IllegalArgumentException("field access on '" + name + "' of a method result is not supported");
+            }
+            expression = new Expression.MethodCall(expression, name, arguments());
+        }
+        return expression;
+    }
+
+    private List<Expression> arguments() {
+        List<Expression> arguments = new ArrayList<>();
+        if (!acceptOperator(")")) {
+            arguments.addAll(expressions());
+            expectOperator(")");
+        }
+        return arguments;
+    }
+
+    private String qualifiedName() {
+        StringBuilder name = new StringBuilder(identifier());
+        while (acceptOperator(".")) {
+            name.append('.').append(identifier());
+        }
+        return name.toString();
+    }
+
+    private String identifier() {
+        Token token = next();
+        if (token.type != Type.IDENTIFIER) {
+            throw new IllegalArgumentException("expected a name instead of '" + token.text + "'");
+        }
+        return token.text;
+    }
+
+    private boolean atClause() {
+        return peek().type == Type.IDENTIFIER && CLAUSES.contains(peek().text.toLowerCase(Locale.ROOT));
+    }
+
+    private Token peek() {
+        return tokens.get(position);
+    }
+
+    private Token peekAt(int offset) {
+        return tokens.get(Math.min(position + offset, tokens.size() - 1));
+    }
+
+    private Token next() {
+        Token token = tokens.get(position);
+        if (token.type != Type.END) {
+            position++;
+        }
+        return token;
+    }
+
+    private boolean accept(String keyword) {
+        if (peek().is(keyword)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean acceptOperator(String operator) {
+        if (peek().isOperator(operator)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String keyword) {
+        if (!accept(keyword)) {
+            throw new IllegalArgumentException("expected " + keyword.toUpperCase(Locale.ROOT) + " instead of '" +
+                    peek().text + "'");
+        }
+    }
+
+    private void expectOperator(String operator) {
+        if (!acceptOperator(operator)) {
+            throw new IllegalArgumentException("expected '" + operator + "' instead of '" + peek().text + "'");
+        }
+    }
+}
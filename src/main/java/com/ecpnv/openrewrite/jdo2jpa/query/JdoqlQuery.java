@@ -0,0 +1,47 @@
+package com.ecpnv.openrewrite.jdo2jpa.query;
+
+import java.util.List;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A parsed single-string JDOQL query.
+ *
+ * @param delete            true for a <code>DELETE FROM</code> query
+ * @param unique            true when the query returns a single result
+ * @param distinct          true when the result is distinct
+ * @param result            the result expressions, empty for the candidate itself
+ * @param candidate         the candidate class, null when it is implied by the class the query is defined on
+ * @param excludeSubclasses true when instances of subclasses of the candidate are excluded
+ * @param filter            the filter, null when there is none
+ * @param variables         the declared variables by name, with their type
+ * @param parameters        the declared parameters by name, with their type
+ * @param imports           the imported classes by simple name, with their fully qualified name
+ * @param grouping          the grouping expressions
+ * @param having            the condition on the groups, null when there is none
+ * @param ordering          the ordering
+ * @param rangeStart        the inclusive start of the range, null when there is none
+ * @param rangeEnd          the exclusive end of the range, null when there is none
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+public record JdoqlQuery(
+        boolean delete,
+        boolean unique,
+        boolean distinct,
+        List<Expression> result,
+        @Nullable String candidate,
+        boolean excludeSubclasses,
+        @Nullable Expression filter,
+        Map<String, String> variables,
+        Map<String, String> parameters,
+        Map<String, String> imports,
+        List<Expression> grouping,
+        @Nullable Expression having,
+        List<Ordering> ordering,
+        @Nullable String rangeStart,
+        @Nullable String rangeEnd) {
+
+    public record Ordering(Expression expression, boolean descending) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.ecpnv.openrewrite.jdo2jpa.query;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Translates single-string JDOQL queries to JPQL. A recipe visits the same query text in every cycle and often in
+ * more than one place, so the parsed queries, and the reasons why they could not be parsed, are cached by their text.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+public final class JdoqlTranslator {
+
+    static final int MAX_CACHE_SIZE = 10_000;
+    static final Map<String, Parsed> CACHE = new ConcurrentHashMap<>();
+
+    private JdoqlTranslator() {
+    }
+
+    /**
+     * @return true when the given query is a JDOQL and not a JPQL query
+     */
+    public static boolean isJdoql(String query) {
+        String q = query.trim().toUpperCase(Locale.ROOT);
+        return (q.startsWith("SELECT") || q.startsWith("DELETE")) && !JdoqlParser.isJpql(query);
+    }
+
+    /**
+     * @param jdoql          the JDOQL query
+     * @param candidateClass the class the query is defined on, used when the query has no FROM clause
+     * @return the JPQL query
+     * @throws IllegalArgumentException with the reason when the query cannot be translated
+     */
+    public static JpqlQuery translate(String jdoql, @Nullable String candidateClass) {
+        return new JpqlWriter(parse(jdoql), candidateClass).write();
+    }
+
+    /**
+     * @throws IllegalArgumentException with the reason when the query cannot be parsed
+     */
+    public static JdoqlQuery parse(String jdoql) {
+        Parsed parsed = CACHE.get(jdoql);
+        if (parsed == null) {
+            if (CACHE.size() >= MAX_CACHE_SIZE) {
+                CACHE.clear();
+            }
+            try {
+                parsed = new Parsed(JdoqlParser.parse(jdoql), null);
+            } catch (IllegalArgumentException e) {
+                parsed = new Parsed(null, e.getMessage());
+            }
+            CACHE.put(jdoql, parsed);
+        }
+        if (parsed.query() == null) {
+            throw new IllegalArgumentException(parsed.error());
+        }
+        return parsed.query();
+    }
+
+    /**
+     * @return the names of the parameters in the order in which positional values are bound to them: the declared
+     * parameters, or else the implicit parameters in order of appearance, without their <code>:</code> or
+     * <code>?</code> prefix
+     */
+    public static List<String> parameterNames(JdoqlQuery query) {
+        if (!query.parameters().isEmpty()) {
+            return List.copyOf(query.parameters().keySet());
+        }
+        Set<String> names = new LinkedHashSet<>();
+        List<Expression> expressions = new ArrayList<>(query.result());
+        if (query.filter() != null) {
+            expressions.add(query.filter());
+        }
+        expressions.addAll(query.grouping());
+        if (query.having() != null) {
+            expressions.add(query.having());
+        }
+        query.ordering().forEach(ordering -> expressions.add(ordering.expression()));
+        expressions.forEach(expression -> collectParameters(expression, names));
+        return List.copyOf(names);
+    }
+
+    private static void collectParameters(Expression expression, Set<String> names) {
+        switch (expression) {
+            case Expression.Parameter parameter -> names.add(parameter.name().substring(1));
+            case Expression.Unary unary -> collectParameters(unary.operand(), names);
+            case Expression.Binary binary -> {
+                collectParameters(binary.left(), names);
+                collectParameters(binary.right(), names);
+            }
+            case Expression.MethodCall call -> {
+                if (call.target() != null) {
+                    collectParameters(call.target(), names);
+                }
+                call.arguments().forEach(argument -> collectParameters(argument, names));
+            }
+            default -> {
+                // literals and names have no parameters
+            }
+        }
+    }
+
+    record Parsed(@Nullable JdoqlQuery query, @Nullable String error) {
+    }
+}
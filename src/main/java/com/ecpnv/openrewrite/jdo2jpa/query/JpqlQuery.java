@@ -0,0 +1,15 @@
+package com.ecpnv.openrewrite.jdo2jpa.query;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A JPQL query translated from JDOQL. JPQL has no range, so the range of the JDOQL query is kept as the first result
+ * and the maximum number of rows, counted from the first row, as used by the EclipseLink JDBC query hints.
+ *
+ * @param query       the JPQL text
+ * @param firstResult the first result of the range, null when there is none
+ * @param maxRows     the end of the range, null when there is none
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+public record JpqlQuery(String query, @Nullable String firstResult, @Nullable String maxRows) {
+}
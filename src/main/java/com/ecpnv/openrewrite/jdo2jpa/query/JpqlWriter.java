@@ -0,0 +1,340 @@
+package com.ecpnv.openrewrite.jdo2jpa.query;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Writes a parsed JDOQL query as JPQL:
+ * <ul>
+ * <li> The candidate gets an identification variable, the first letter of its name, and the fields, including
+ * <code>this</code>, are prefixed with it. Declared parameters become named parameters.
+ * <li> A variable bound by a <code>contains</code> of the top level conjunction of the filter becomes a join, other
+ * variables are added to the <code>FROM</code> clause.
+ * <li> The Java operators and methods become their JPQL equivalents, like <code>LIKE</code> for
+ * <code>startsWith</code>, <code>MEMBER OF</code> for <code>contains</code> and <code>LOWER</code> for
+ * <code>toLowerCase</code>, and <code>EXCLUDE SUBCLASSES</code> becomes a condition on the <code>TYPE</code>.
+ * <li> The range is not part of JPQL and is returned separately, only literal bounds are supported.
+ * </ul>
+ * Anything that has no JPQL equivalent is rejected with an {@link IllegalArgumentException}.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+final class JpqlWriter {
+
+    static final Set<String> AGGREGATES = Set.of("count", "sum", "avg", "min", "max");
+    static final Set<String> MATH_FUNCTIONS = Set.of("abs", "sqrt");
+
+    private static final int OR = 1;
+    private static final int AND = 2;
+    private static final int COMPARISON = 3;
+    private static final int ADDITIVE = 4;
+    private static final int MULTIPLICATIVE = 5;
+    private static final int UNARY = 6;
+    private static final int PRIMARY = 7;
+
+    private final JdoqlQuery query;
+    private final String entity;
+    private final String alias;
+    private final Map<String, String> joins = new LinkedHashMap<>();
+
+    JpqlWriter(JdoqlQuery query, @Nullable String defaultCandidate) {
+        this.query = query;
+        String candidate = query.candidate() != null ? query.candidate() : defaultCandidate;
+        if (candidate == null) {
+            throw new IllegalArgumentException("the candidate class is unknown");
+        }
+        this.entity = candidate.substring(candidate.lastIndexOf('.') + 1);
+        String alias = entity.substring(0, 1).toLowerCase(Locale.ROOT);
+        while (query.variables().containsKey(alias) || query.parameters().containsKey(alias)) {
+            alias = alias + alias.charAt(0);
+        }
+        this.alias = alias;
+    }
+
+    JpqlQuery write() {
+        List<String> conditions = new ArrayList<>();
+        if (query.filter() != null) {
+            for (Expression conjunct : conjuncts(query.filter())) {
+                if (conjunct instanceof Expression.MethodCall call && "contains".equals(call.name())
+                        && call.target() != null && call.arguments().size() == 1
+                        && call.arguments().getFirst() instanceof Expression.Name name && isVariable(name)
+                        && name.path().size() == 1 && !joins.containsKey(name.first())) {
+                    joins.put(name.first(), write(call.target(), PRIMARY));
+                } else {
+                    conditions.add(condition(conjunct, AND));
+                }
+            }
+        }
+        if (query.excludeSubclasses()) {
+            conditions.add("TYPE(" + alias + ") = " + entity);
+        }
+        StringBuilder jpql = new StringBuilder();
+        if (query.delete()) {
+            if (!query.variables().isEmpty()) {
+                throw new IllegalArgumentException("variables in a DELETE are not supported");
+            }
+            jpql.append("DELETE FROM ").append(entity).append(' ').append(alias);
+        } else {
+            jpql.append("SELECT ");
+            if (query.distinct()) {
+                jpql.append("DISTINCT ");
+            }
+            jpql.append(query.result().isEmpty() ? alias : query.result().stream()
+                    .map(expression -> write(expression, OR))
+                    .collect(Collectors.joining(", ")));
+            jpql.append(" FROM ").append(entity).append(' ').append(alias);
+            query.variables().forEach((name, type) -> {
+                if (!joins.containsKey(name)) {
+                    jpql.append(", ").append(type.substring(type.lastIndexOf('.') + 1)).append(' ').append(name);
+                }
+            });
+            // the joins follow the range variable declarations
+            joins.forEach((name, path) -> jpql.append(" JOIN ").append(path).append(' ').append(name));
+        }
+        if (!conditions.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        if (!query.grouping().isEmpty()) {
+            jpql.append(" GROUP BY ").append(query.grouping().stream()
+                    .map(expression -> write(expression, OR))
+                    .collect(Collectors.joining(", ")));
+        }
+        if (query.having() != null) {
+            jpql.append(" HAVING ").append(condition(query.having(), OR));
+        }
+        if (!query.ordering().isEmpty()) {
+            jpql.append(" ORDER BY ").append(query.ordering().stream()
+                    .map(ordering -> write(ordering.expression(), OR) + (ordering.descending() ? " DESC" : " ASC"))
+                    .collect(Collectors.joining(", ")));
+        }
+        String firstResult = null;
+        String maxRows = null;
+        if (query.rangeStart() != null || query.rangeEnd() != null) {
+            if (!isNumber(query.rangeStart()) || !isNumber(query.rangeEnd())) {
+                throw new IllegalArgumentException("a RANGE with parameters is not supported");
+            }
+            firstResult = query.rangeStart();
+            maxRows = query.rangeEnd();
+        }
+        return new JpqlQuery(jpql.toString(), firstResult, maxRows);
+    }
+
+    static List<Expression> conjuncts(Expression expression) {
+        if (expression instanceof Expression.Binary binary && "&&".equals(binary.operator())) {
+            List<Expression> conjuncts = new ArrayList<>(conjuncts(binary.left()));
+            conjuncts.addAll(conjuncts(binary.right()));
+            return conjuncts;
+        }
+        return List.of(expression);
+    }
+
+    /**
+     * @return the given expression as a JPQL condition, a boolean field or parameter is compared with TRUE
+     */
+    String condition(Expression expression, int precedence) {
+        if (expression instanceof Expression.Name || expression instanceof Expression.Parameter) {
+            return parenthesize(write(expression, PRIMARY) + " = TRUE", COMPARISON, precedence);
+        }
+        if (expression instanceof Expression.Unary unary && "!".equals(unary.operator())
+                && (unary.operand() instanceof Expression.Name || unary.operand() instanceof Expression.Parameter)) {
+            return parenthesize(write(unary.operand(), PRIMARY) + " = FALSE", COMPARISON, precedence);
+        }
+        return write(expression, precedence);
+    }
+
+    String write(Expression expression, int precedence) {
+        return switch (expression) {
+            case Expression.Literal literal -> literal(literal);
+            case Expression.Parameter parameter -> parameter.name();
+            case Expression.Name name -> name(name);
+            case Expression.Unary unary -> unary(unary, precedence);
+            case Expression.Binary binary -> binary(binary, precedence);
+            case Expression.MethodCall call -> call(call, precedence);
+        };
+    }
+
+    String literal(Expression.Literal literal) {
+        return switch (literal.kind()) {
+            case STRING -> "'" + literal.value().replace("'", "''") + "'";
+            case BOOLEAN, NULL -> literal.value().toUpperCase(Locale.ROOT);
+            case NUMBER -> literal.value();
+        };
+    }
+
+    String name(Expression.Name name) {
+        List<String> path = name.path();
+        String first = name.first();
+        if ("this".equals(first)) {
+            return path.size() == 1 ? alias : alias + "." + String.join(".", path.subList(1, path.size()));
+        }
+        if (query.parameters().containsKey(first)) {
+            if (path.size() > 1) {
+                throw new IllegalArgumentException("field access on parameter '" + first + "' is not supported");
+            }
+            return ":" + first;
+        }
+        if (isVariable(name)) {
+            return String.join(".", path);
+        }
+        if (Character.isUpperCase(first.charAt(0))) {
+            // a constant or enum value of an imported class
+            return query.imports().getOrDefault(first, first) +
+                    (path.size() > 1 ? "." + String.join(".", path.subList(1, path.size())) : "");
+        }
+        for (int i = 1; i < path.size() - 1; i++) {
+            if (Character.isUpperCase(path.get(i).charAt(0))) {
+                // a constant or enum value of a fully qualified class
+                return String.join(".", path);
+            }
+        }
+        return alias + "." + String.join(".", path);
+    }
+
+    String unary(Expression.Unary unary, int precedence) {
+        if ("-".equals(unary.operator())) {
+            return "-" + write(unary.operand(), UNARY);
+        }
+        if (unary.operand() instanceof Expression.MethodCall call && call.target() != null) {
+            if ("isEmpty".equals(call.name()) && call.arguments().isEmpty()) {
+                return parenthesize(write(call.target(), PRIMARY) + " IS NOT EMPTY", COMPARISON, precedence);
+            }
+            if ("contains".equals(call.name()) && call.arguments().size() == 1 && !isVariable(call.arguments().getFirst())) {
+                return parenthesize(write(call.arguments().getFirst(), PRIMARY) + " NOT MEMBER OF " +
+                        write(call.target(), PRIMARY), COMPARISON, precedence);
+            }
+        }
+        return parenthesize("NOT " + condition(unary.operand(), UNARY), UNARY, precedence);
+    }
+
+    String binary(Expression.Binary binary, int precedence) {
+        Expression left = binary.left();
+        Expression right = binary.right();
+        String operator = binary.operator();
+        if (("==".equals(operator) || "!=".equals(operator)) && (isNull(left) || isNull(right))) {
+            Expression operand = isNull(left) ? right : left;
+            return parenthesize(write(operand, PRIMARY) + ("==".equals(operator) ? " IS NULL" : " IS NOT NULL"),
+                    COMPARISON, precedence);
+        }
+        return switch (operator) {
+            case "||" -> parenthesize(condition(left, OR) + " OR " + condition(right, OR + 1), OR, precedence);
+            case "&&" -> parenthesize(condition(left, AND) + " AND " + condition(right, AND + 1), AND, precedence);
+            case "==", "!=", "<", ">", "<=", ">=" -> parenthesize(write(left, ADDITIVE) + " " +
+                    ("==".equals(operator) ? "=" : "!=".equals(operator) ? "<>" : operator) + " " +
+                    write(right, ADDITIVE), COMPARISON, precedence);
+            case "+" -> isString(left) || isString(right)
+                    ? "CONCAT(" + write(left, OR) + ", " + write(right, OR) + ")"
+                    : parenthesize(write(left, ADDITIVE) + " + " + write(right, ADDITIVE + 1), ADDITIVE, precedence);
+            case "-" -> parenthesize(write(left, ADDITIVE) + " - " + write(right, ADDITIVE + 1), ADDITIVE, precedence);
+            case "*", "/" -> parenthesize(write(left, MULTIPLICATIVE) + " " + operator + " " +
+                    write(right, MULTIPLICATIVE + 1), MULTIPLICATIVE, precedence);
+            case "%" -> "MOD(" + write(left, OR) + ", " + write(right, OR) + ")";
+            default -> throw new IllegalArgumentException("operator '" + operator + "' is not supported");
+        };
+    }
+
+    String call(Expression.MethodCall call, int precedence) {
+        String name = call.name();
+        List<Expression> arguments = call.arguments();
+        if (call.target() == null) {
+            if (AGGREGATES.contains(name.toLowerCase(Locale.ROOT)) && arguments.size() == 1) {
+                return name.toUpperCase(Locale.ROOT) + "(" + write(arguments.getFirst(), OR) + ")";
+            }
+            throw new IllegalArgumentException("function '" + name + "' is not supported");
+        }
+        if (call.target() instanceof Expression.Name target && target.path().equals(List.of("Math"))) {
+            if (MATH_FUNCTIONS.contains(name) && arguments.size() == 1) {
+                return name.toUpperCase(Locale.ROOT) + "(" + write(arguments.getFirst(), OR) + ")";
+            }
+            throw new IllegalArgumentException("method 'Math." + name + "' is not supported");
+        }
+        String target = write(call.target(), PRIMARY);
+        return switch (name + "/" + arguments.size()) {
+            case "contains/1" -> {
+                if (isVariable(arguments.getFirst())) {
+                    throw new IllegalArgumentException("contains of a variable outside of the top level conjunction " +
+                            "is not supported");
+                }
+                yield parenthesize(write(arguments.getFirst(), PRIMARY) + " MEMBER OF " + target, COMPARISON, precedence);
+            }
+            case "isEmpty/0" -> parenthesize(target + " IS EMPTY", COMPARISON, precedence);
+            case "size/0" -> "SIZE(" + target + ")";
+            case "startsWith/1" -> parenthesize(target + " LIKE " + like(arguments.getFirst(), "", "%"), COMPARISON, precedence);
+            case "endsWith/1" -> parenthesize(target + " LIKE " + like(arguments.getFirst(), "%", ""), COMPARISON, precedence);
+            case "matches/1" -> parenthesize(target + " LIKE " + matches(arguments.getFirst()), COMPARISON, precedence);
+            case "equals/1" -> parenthesize(target + " = " + write(arguments.getFirst(), ADDITIVE), COMPARISON, precedence);
+            case "toLowerCase/0" -> "LOWER(" + target + ")";
+            case "toUpperCase/0" -> "UPPER(" + target + ")";
+            case "trim/0" -> "TRIM(" + target + ")";
+            case "length/0" -> "LENGTH(" + target + ")";
+            case "indexOf/1" -> "(LOCATE(" + write(arguments.getFirst(), OR) + ", " + target + ") - 1)";
+            case "substring/1" -> "SUBSTRING(" + target + ", " + plusOne(arguments.getFirst()) + ")";
+            case "substring/2" -> "SUBSTRING(" + target + ", " + plusOne(arguments.getFirst()) + ", " +
+                    write(arguments.get(1), ADDITIVE) + " - " + write(arguments.getFirst(), ADDITIVE + 1) + ")";
+            default -> throw new IllegalArgumentException("method '" + name + "' is not supported");
+        };
+    }
+
+    /**
+     * @return the LIKE pattern for a literal or the concatenation with the wildcards for other expressions
+     */
+    String like(Expression expression, String prefix, String suffix) {
+        if (expression instanceof Expression.Literal literal && literal.kind() == Expression.Literal.Kind.STRING) {
+            if (literal.value().contains("%") || literal.value().contains("_")) {
+                throw new IllegalArgumentException("wildcards in '" + literal.value() + "' are not supported");
+            }
+            return literal(new Expression.Literal(literal.kind(), prefix + literal.value() + suffix));
+        }
+        String value = write(expression, OR);
+        if (!prefix.isEmpty()) {
+            value = "CONCAT('" + prefix + "', " + value + ")";
+        }
+        return suffix.isEmpty() ? value : "CONCAT(" + value + ", '" + suffix + "')";
+    }
+
+    /**
+     * @return the LIKE pattern of a literal regular expression that only uses <code>.</code> and <code>.*</code>
+     */
+    String matches(Expression expression) {
+        if (!(expression instanceof Expression.Literal literal) || literal.kind() != Expression.Literal.Kind.STRING
+                || literal.value().matches(".*[\\\\\\[\\](){}+?^$|%_].*")) {
+            throw new IllegalArgumentException("matches with a regular expression other than . and .* is not supported");
+        }
+        String pattern = literal.value().replace(".*", "%").replace('.', '_');
+        return literal(new Expression.Literal(literal.kind(), pattern));
+    }
+
+    String plusOne(Expression expression) {
+        if (expression instanceof Expression.Literal literal && literal.kind() == Expression.Literal.Kind.NUMBER
+                && literal.value().matches("\\d+")) {
+            return String.valueOf(Integer.parseInt(literal.value()) + 1);
+        }
+        return write(expression, ADDITIVE) + " + 1";
+    }
+
+    boolean isVariable(Expression expression) {
+        return expression instanceof Expression.Name name && query.variables().containsKey(name.first());
+    }
+
+    static boolean isNull(Expression expression) {
+        return expression instanceof Expression.Literal literal && literal.kind() == Expression.Literal.Kind.NULL;
+    }
+
+    static boolean isString(Expression expression) {
+        return expression instanceof Expression.Literal literal && literal.kind() == Expression.Literal.Kind.STRING;
+    }
+
+    static boolean isNumber(@Nullable String value) {
+        return value != null && value.matches("\\d+");
+    }
+
+    static String parenthesize(String text, int operatorPrecedence, int precedence) {
+        return operatorPrecedence < precedence ? "(" + text + ")" : text;
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * JSR-305 compliance.
+ */
+@ParametersAreNonnullByDefault
+package com.ecpnv.openrewrite.jdo2jpa.query;
+
+import javax.annotation.ParametersAreNonnullByDefault;
@@ -0,0 +1,41 @@
+package com.ecpnv.openrewrite.jdo2jpa.table;
+
+import org.openrewrite.Column;
+import org.openrewrite.DataTable;
+import org.openrewrite.Recipe;
+
+import lombok.Value;
+
+/**
+ * The indexes and unique constraints that are removed from a <code>@Table</code> because they are redundant.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+public class RedundantIndexes extends DataTable<RedundantIndexes.Row> {
+
+    public RedundantIndexes(Recipe recipe) {
+        super(recipe,
+                "Redundant indexes",
+                "The indexes and unique constraints that are removed, with the index or unique constraint that makes " +
+                        "them redundant.");
+    }
+
+    @Value
+    public static class Row {
+        @Column(displayName = "Entity",
+                description = "The fully qualified name of the class with the table.")
+        String entity;
+
+        @Column(displayName = "Removed",
+                description = "The removed index or unique constraint.")
+        String removed;
+
+        @Column(displayName = "Reason",
+                description = "Whether it is a duplicate or a prefix.")
+        String reason;
+
+        @Column(displayName = "Redundant by",
+                description = "The kept index or unique constraint that makes it redundant.")
+        String redundantBy;
+    }
+}
@@ -0,0 +1,167 @@
+package com.ecpnv.openrewrite.runner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jspecify.annotations.Nullable;
+
+import lombok.Value;
+
+/**
+ * Selects the files to migrate on a long-lived branch: the Java and layout files that changed since a base ref of the
+ * local git repository, together with the classes whose migration depends on a changed class through inheritance.
+ * <p>
+ * Annotations are copied from a subclass to all its superclasses ({@code CopyAnnotationToSuper}) and removed from a
+ * subclass when a superclass has them ({@code RemoveInheritedAnnotations}), so a changed class affects its ancestors
+ * and its descendants, but not the other subclasses of its ancestors. Those other subclasses are parsed nevertheless, as
+ * scanning recipes like {@code CopyDiscriminatorFromParent} summarise the whole hierarchy on its root, and so are the
+ * types the affected classes refer to, to attribute their types, but neither are migrated. The changes are read with
+ * the git command line, which includes the uncommitted changes and the untracked files of the work tree.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+@Value
+public class GitChanges {
+
+    static final String LAYOUT_SUFFIX = ".layout.xml";
+
+    /**
+     * A directory in the work tree of the repository.
+     */
+    Path directory;
+
+    /**
+     * The ref to compare the work tree with, like a branch, tag or commit.
+     */
+    String baseRef;
+
+    /**
+     * The files selected by the changes.
+     */
+    @Value
+    public static class Selection {
+        /**
+         * The files to migrate: the changed files and the files in the lineage of a changed class.
+         */
+        Set<Path> affected;
+
+        /**
+         * The files to parse: the affected files, the other files in the hierarchy of their roots, the files
+         * declaring the types those files refer to and the properties files.
+         */
+        Set<Path> toParse;
+    }
+
+    /**
+     * Select the files to migrate from the given files.
+     *
+     * @param files all files of the source roots
+     */
+    public Selection select(List<Path> files) {
+        Set<Path> changed = changedFiles();
+        SourceIndex index = new SourceIndex(SourceSummary.of(
+                files.stream().filter(ParallelSourceParser::isJava).toList(), List.of()));
+
+        Set<SourceSummary> lineage = new LinkedHashSet<>();
+        index.getSummaries().stream()
+                .filter(summary -> changed.contains(realPath(summary.getFile())))
+                .forEach(summary -> lineage.addAll(index.lineage(summary)));
+
+        Set<SourceSummary> hierarchy = new LinkedHashSet<>(lineage);
+        lineage.stream()
+                .filter(summary -> index.supertypes(summary).isEmpty())
+                .forEach(root -> hierarchy.addAll(index.descendants(root)));
+
+        Set<Path> affected = new LinkedHashSet<>();
+        lineage.forEach(summary -> affected.add(summary.getFile()));
+        Set<Path> toParse = new LinkedHashSet<>();
+        hierarchy.forEach(summary -> {
+            toParse.add(summary.getFile());
+            index.referenced(summary).forEach(referenced -> toParse.add(referenced.getFile()));
+        });
+        // the properties files hold the settings of the recipes, like the batch fetch policy
+        files.stream()
+                .filter(ParallelSourceParser::isProperties)
+                .forEach(toParse::add);
+        files.stream()
+                .filter(file -> file.getFileName().toString().endsWith(LAYOUT_SUFFIX))
+                .filter(file -> changed.contains(realPath(file)))
+                .forEach(file -> {
+                    affected.add(file);
+                    toParse.add(file);
+                });
+        return new Selection(affected, toParse);
+    }
+
+    /**
+     * @return the real paths of the files that were added or modified since the base ref, committed or not, and of
+     * the untracked files that are not ignored
+     */
+    Set<Path> changedFiles() {
+        Path workTree = Path.of(git("rev-parse", "--show-toplevel").trim());
+        List<String> paths = new ArrayList<>();
+        paths.addAll(split(git("diff", "--name-only", "-z", "--no-renames", "--diff-filter=d", baseRef, "--")));
+        paths.addAll(split(git("ls-files", "--others", "--exclude-standard", "-z")));
+        Set<Path> changed = new HashSet<>();
+        paths.forEach(path -> changed.add(realPath(workTree.resolve(path))));
+        return changed;
+    }
+
+    private String git(String... arguments) {
+        List<String> command = new ArrayList<>(List.of("git", "-C", directory.toString()));
+        command.addAll(Arrays.asList(arguments));
+        Path errorFile = null;
+        try {
+            // the errors go to a file, as a full error pipe would block git while the output is read
+            errorFile = Files.createTempFile("jdo2jpa-git", ".err");
+            Process process = new ProcessBuilder(command)
+                    .redirectError(errorFile.toFile())
+                    .start();
+            process.getOutputStream().close();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            if (process.waitFor() != 0) {
+                throw new IllegalStateException("Failed to run " + String.join(" ", command) + ": "
+                        + Files.readString(errorFile).trim());
+            }
+            return output;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to run " + String.join(" ", command), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running " + String.join(" ", command), e);
+        } finally {
+            deleteIfExists(errorFile);
+        }
+    }
+
+    private static void deleteIfExists(@Nullable Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // a left over temporary file does not affect the selection
+            }
+        }
+    }
+
+    private static List<String> split(String output) {
+        return Arrays.stream(output.split("\0")).filter(path -> !path.isEmpty()).toList();
+    }
+
+    private static Path realPath(Path file) {
+        try {
+            return file.toRealPath();
+        } catch (IOException e) {
+            return file.toAbsolutePath().normalize();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.ecpnv.openrewrite.runner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Command line entry point of the migration, see {@link #USAGE} for the arguments.
+ * <p>
+ * Running the migration from the command line parses every module once in a single process, instead of resolving the
+ * project model and re-parsing all sources for every module as the Maven plugin does.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+public class Jdo2JpaCli {
+
+    static final String USAGE = """
+            usage: jdo2jpa [options] <source root>...
+
+              --base-dir <dir>          directory the source paths are relative to (default: working directory)
+              --classpath-file <file>   file with the classpath entries, separated by newlines or the path separator
+              --recipe <name>           recipe to run (default: %s)
+              --in-place                write the changes to the source files
+              --diff <file>             write a unified diff to the file (default: a diff to standard out)
+              --parallelism <n>         number of workers (default: number of processors)
+              --prefilter               only parse the Java files with a JDO footprint and their hierarchy
+              --trigger <text>          text that selects a file for the prefilter, in addition to the packages
+                                        of the types the recipe refers to (repeatable)
+              --cache-dir <dir>         only migrate the files whose inputs changed since the last run with the
+                                        same cache directory
+              --since <ref>             only migrate the Java and layout files changed since the git ref and the
+                                        classes in their hierarchy
+            """.formatted(MigrationOptions.DEFAULT_RECIPE);
+
+    private static final Pattern CLASSPATH_SEPARATOR = Pattern.compile("[\\r\\n" + File.pathSeparator + "]+");
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.err));
+    }
+
+    static int run(String[] args, PrintStream console) {
+        MigrationOptions options;
+        try {
+            options = parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            console.println(e.getMessage());
+            console.print(USAGE);
+            return 2;
+        }
+        MigrationRunner.Outcome outcome = new MigrationRunner().run(options);
+        outcome.getErrors().forEach(error -> console.println("Recipe error: " + error));
+        console.printf("Parsed %d source files, skipped %d, unchanged %d, changed %d%n", outcome.getParsed(),
+                outcome.getSkipped(), outcome.getUnchanged(), outcome.getResults().size());
+        return outcome.getErrors().isEmpty() ? 0 : 1;
+    }
+
+    static MigrationOptions parseArguments(String[] args) {
+        MigrationOptions.MigrationOptionsBuilder options = MigrationOptions.builder()
+                .baseDir(Path.of("").toAbsolutePath());
+        boolean sourceRoots = false;
+        Iterator<String> arguments = Arrays.asList(args).iterator();
+        while (arguments.hasNext()) {
+            String argument = arguments.next();
+            switch (argument) {
+                case "--base-dir" -> options.baseDir(Path.of(value(argument, arguments)).toAbsolutePath());
+                case "--classpath-file" -> readClasspath(Path.of(value(argument, arguments)))
+                        .forEach(options::classpathEntry);
+                case "--recipe" -> options.recipe(value(argument, arguments));
+                case "--in-place" -> options.outputMode(MigrationOptions.OutputMode.IN_PLACE);
+                case "--diff" -> options.outputMode(MigrationOptions.OutputMode.DIFF)
+                        .diffFile(Path.of(value(argument, arguments)));
+                case "--parallelism" -> options.parallelism(parallelism(value(argument, arguments)));
+                case "--prefilter" -> options.prefilter(true);
+                case "--trigger" -> options.prefilter(true).trigger(value(argument, arguments));
+                case "--cache-dir" -> options.cacheDir(Path.of(value(argument, arguments)).toAbsolutePath());
+                case "--since" -> options.gitBaseRef(value(argument, arguments));
+                default -> {
+                    if (argument.startsWith("--")) {
+                        throw new IllegalArgumentException("Unknown option " + argument);
+                    }
+                    options.sourceRoot(Path.of(argument).toAbsolutePath());
+                    sourceRoots = true;
+                }
+            }
+        }
+        if (!sourceRoots) {
+            throw new IllegalArgumentException("At least one source root is required");
+        }
+        MigrationOptions migrationOptions = options.build();
+        if (migrationOptions.getCacheDir() != null && migrationOptions.getGitBaseRef() != null) {
+            throw new IllegalArgumentException("--cache-dir cannot be combined with --since");
+        }
+        return migrationOptions;
+    }
+
+    private static String value(String option, Iterator<String> arguments) {
+        if (!arguments.hasNext()) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return arguments.next();
+    }
+
+    private static int parallelism(String value) {
+        try {
+            int parallelism = Integer.parseInt(value);
+            if (parallelism > 0) {
+                return parallelism;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Parallelism must be a positive number, but was " + value);
+    }
+
+    private static Iterable<Path> readClasspath(Path classpathFile) {
+        try {
+            return CLASSPATH_SEPARATOR.splitAsStream(Files.readString(classpathFile))
+                    .filter(StringUtils::isNotBlank)
+                    .map(entry -> Path.of(entry.trim()))
+                    .toList();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read the classpath file " + classpathFile, e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.ecpnv.openrewrite.runner;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.jspecify.annotations.Nullable;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+/**
+ * Options of a {@link MigrationRunner} run.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+@Value
+@Builder(toBuilder = true)
+public class MigrationOptions {
+
+    public static final String DEFAULT_RECIPE = "com.ecpnv.openrewrite.jdo2jpa.v2x";
+
+    public enum OutputMode {
+        /**
+         * Write the changed source files back to disk.
+         */
+        IN_PLACE,
+        /**
+         * Write a unified diff of all changes.
+         */
+        DIFF
+    }
+
+    /**
+     * The directory the source paths are made relative to, usually the root of the repository.
+     */
+    Path baseDir;
+
+    /**
+     * The source roots to migrate, usually one per module. Each source root is parsed once.
+     */
+    @Singular
+    List<Path> sourceRoots;
+
+    /**
+     * The classpath entries used to attribute types of the migrated sources.
+     */
+    @Singular("classpathEntry")
+    List<Path> classpath;
+
+    /**
+     * The name of the recipe to run.
+     */
+    @Builder.Default
+    String recipe = DEFAULT_RECIPE;
+
+    @Builder.Default
+    OutputMode outputMode = OutputMode.DIFF;
+
+    /**
+     * The file to write the diff to, when not set the diff is written to standard out.
+     */
+    @Nullable
+    Path diffFile;
+
+    /**
+     * The number of source roots that are parsed and the number of partitions that are edited at the same time.
+     */
+    @Builder.Default
+    int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Skip parsing the Java files without a trigger text and outside the hierarchy of the files with one, see
+     * {@link SourcePrefilter}.
+     */
+    boolean prefilter;
+
+    /**
+     * The trigger texts of the prefilter in addition to the ones derived from the recipe.
+     */
+    @Singular
+    List<String> triggers;
+
+    /**
+     * The directory of the {@link ResultCache} of incremental runs, when not set every run migrates all files.
+     */
+    @Nullable
+    Path cacheDir;
+
+    /**
+     * When set only the files changed since this git ref and the files depending on them are migrated, see
+     * {@link GitChanges}. Cannot be combined with an incremental run.
+     */
+    @Nullable
+    String gitBaseRef;
+}
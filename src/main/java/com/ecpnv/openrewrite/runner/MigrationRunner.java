@@ -0,0 +1,297 @@
+package com.ecpnv.openrewrite.runner;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.Result;
+import org.openrewrite.SourceFile;
+import org.openrewrite.config.Environment;
+
+import com.ecpnv.openrewrite.util.JavaParserFactory;
+
+import lombok.Value;
+
+/**
+ * Runs a migration recipe on a set of source roots in one process: every source root is parsed once, the recipe is run
+ * with the {@link ParallelRecipeScheduler} and the changes are written in place or as a unified diff.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+public class MigrationRunner {
+
+    /**
+     * Only the recipes of this project are looked up as classes, the declarative recipes they refer to are loaded from
+     * the YAML resources on the classpath.
+     */
+    private static final String RECIPE_PACKAGE = "com.ecpnv.openrewrite";
+
+    private @Nullable Environment environment;
+
+    /**
+     * The outcome of a migration run.
+     */
+    @Value
+    public static class Outcome {
+        /**
+         * The number of source files that were parsed.
+         */
+        int parsed;
+        /**
+         * The number of files that were not parsed because the prefilter or the git changes did not select them.
+         */
+        int skipped;
+        /**
+         * The number of source files that were not migrated because their inputs did not change since the last
+         * incremental run.
+         */
+        int unchanged;
+        List<Result> results;
+        List<Throwable> errors;
+    }
+
+    public Outcome run(MigrationOptions options) {
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        ExecutionContext ctx = new InMemoryExecutionContext(errors::add);
+
+        Map<Path, List<Path>> sourcesByRoot = findSources(options);
+        int found = count(sourcesByRoot);
+        if (options.isPrefilter()) {
+            sourcesByRoot = prefilter(options, sourcesByRoot);
+        }
+        GitChanges.Selection selection = options.getGitBaseRef() == null ? null
+                : new GitChanges(options.getBaseDir(), options.getGitBaseRef()).select(allFiles(sourcesByRoot));
+        if (selection != null) {
+            sourcesByRoot = retain(sourcesByRoot, selection.getToParse()::contains);
+        }
+        int skipped = found - count(sourcesByRoot);
+
+        if (options.getCacheDir() != null) {
+            if (selection != null) {
+                throw new IllegalArgumentException("An incremental run cannot be limited to the changes since a git ref");
+            }
+            return runIncremental(options, sourcesByRoot, skipped, errors, ctx);
+        }
+        List<SourceFile> sourceFiles = parse(options, sourcesByRoot, ctx);
+        List<Result> results = migrate(options, sourceFiles, ctx);
+        if (selection != null) {
+            // the files that were only parsed to attribute the types of the changed files are not migrated, and the
+            // files generated from part of the files are incomplete
+            results = retainResults(results,
+                    sourcePath -> selection.getAffected().contains(options.getBaseDir().resolve(sourcePath)),
+                    sourceFiles.size() == found);
+        }
+        write(options, results);
+        return new Outcome(sourceFiles.size(), skipped, 0, results, errors);
+    }
+
+    /**
+     * Only migrate the files whose inputs changed since the last run, see {@link ResultCache}. After an in place run
+     * the input keys are computed again, as the changed files are the inputs of the next run. A diff run writes the
+     * cached diffs of the unchanged files together with the diffs of the dirty files.
+     * <p>
+     * The scanning recipes only see the parsed files, so when not all files are parsed the files they generate are
+     * incomplete. Those are dropped, and a diff run repeats the diffs of the files generated by the last run that
+     * parsed all files.
+     */
+    private Outcome runIncremental(MigrationOptions options, Map<Path, List<Path>> sourcesByRoot, int skipped,
+                                   List<Throwable> errors, ExecutionContext ctx) {
+        Path baseDir = options.getBaseDir();
+        ResultCache cache = ResultCache.load(options.getCacheDir());
+        String configuration = configuration(options);
+        ResultCache.Plan plan = cache.plan(baseDir, allFiles(sourcesByRoot), configuration);
+        boolean complete = plan.getToParse().size() == count(sourcesByRoot);
+
+        List<SourceFile> sourceFiles = parse(options, retain(sourcesByRoot, plan.getToParse()::contains), ctx);
+        // the files that were only parsed because a dirty file depends on them keep the results of their last run
+        List<Result> results = retainResults(migrate(options, sourceFiles, ctx), plan::isDirty, complete);
+        Set<Path> generated = complete ? new TreeSet<>() : cache.generated();
+        results.stream()
+                .filter(result -> result.getBefore() == null && result.getAfter() != null)
+                .forEach(result -> generated.add(result.getAfter().getSourcePath()));
+
+        Map<Path, String> diffs = new TreeMap<>();
+        plan.getDirty().forEach(sourcePath -> diffs.put(sourcePath, ""));
+        switch (options.getOutputMode()) {
+            case IN_PLACE -> {
+                results.forEach(result -> writeInPlace(baseDir, result));
+                List<Path> files = plan.getInputKeys().keySet().stream()
+                        .map(baseDir::resolve)
+                        .filter(Files::isRegularFile)
+                        .toList();
+                cache.save(withGenerated(ResultCache.inputKeys(baseDir, files, configuration), generated), diffs);
+            }
+            case DIFF -> {
+                for (Result result : results) {
+                    SourceFile sourceFile = result.getBefore() == null ? result.getAfter() : result.getBefore();
+                    diffs.merge(sourceFile.getSourcePath(), result.diff(), String::concat);
+                }
+                Map<Path, String> inputKeys = withGenerated(plan.getInputKeys(), generated);
+                Map<Path, String> output = new TreeMap<>(diffs);
+                inputKeys.keySet().stream()
+                        .filter(sourcePath -> !diffs.containsKey(sourcePath))
+                        .forEach(sourcePath -> cache.diff(sourcePath).ifPresent(diff -> output.put(sourcePath, diff)));
+                writeDiff(options, List.copyOf(output.values()));
+                cache.save(inputKeys, diffs);
+            }
+        }
+        return new Outcome(sourceFiles.size(), skipped, plan.getInputKeys().size() - plan.getDirty().size(),
+                results, errors);
+    }
+
+    private List<Result> migrate(MigrationOptions options, List<SourceFile> sourceFiles, ExecutionContext ctx) {
+        return sourceFiles.isEmpty() ? List.of() : new ParallelRecipeScheduler(options.getParallelism())
+                .scheduleRun(loadRecipe(options.getRecipe()), sourceFiles, ctx)
+                .getChangeset()
+                .getAllResults();
+    }
+
+    List<SourceFile> parse(MigrationOptions options, Map<Path, List<Path>> sourcesByRoot, ExecutionContext ctx) {
+        return new ParallelSourceParser(options.getParallelism(),
+                () -> JavaParserFactory.create(ctx, options.getClasspath()))
+                .parse(options.getBaseDir(), sourcesByRoot, ctx);
+    }
+
+    private static Map<Path, List<Path>> findSources(MigrationOptions options) {
+        Map<Path, List<Path>> sourcesByRoot = new LinkedHashMap<>();
+        options.getSourceRoots().forEach(root -> sourcesByRoot.put(root, ParallelSourceParser.findSources(root)));
+        return sourcesByRoot;
+    }
+
+    /**
+     * The Java files of all source roots are filtered together, as a subclass can be in another module than the
+     * entity it extends. XML files are never skipped.
+     */
+    private Map<Path, List<Path>> prefilter(MigrationOptions options, Map<Path, List<Path>> sourcesByRoot) {
+        List<Path> javaFiles = sourcesByRoot.values().stream()
+                .flatMap(List::stream)
+                .filter(ParallelSourceParser::isJava)
+                .toList();
+        Set<Path> selected = new HashSet<>(SourcePrefilter.forRecipe(loadRecipe(options.getRecipe()),
+                options.getTriggers()).select(javaFiles));
+        return retain(sourcesByRoot, file -> !ParallelSourceParser.isJava(file) || selected.contains(file));
+    }
+
+    /**
+     * Everything besides the sources that affects the outcome of a run. The output mode is part of it, as the files
+     * changed by an in place run are unchanged for the next run, while a diff run keeps the diffs for the next run.
+     */
+    private String configuration(MigrationOptions options) {
+        return String.join("\n",
+                String.valueOf(MigrationRunner.class.getPackage().getImplementationVersion()),
+                loadRecipe(options.getRecipe()).getDescriptor().toString(),
+                options.getClasspath().toString(),
+                options.getOutputMode().name());
+    }
+
+    /**
+     * @param keepGenerated whether the results of generated files are kept, which is only correct when all files were
+     *                      parsed
+     * @return the results of the source files with a matching source path and, when kept, the results of generated
+     * files
+     */
+    private static List<Result> retainResults(List<Result> results, Predicate<Path> sourcePath, boolean keepGenerated) {
+        return results.stream()
+                .filter(result -> result.getBefore() == null ? keepGenerated
+                        : sourcePath.test(result.getBefore().getSourcePath()))
+                .toList();
+    }
+
+    private static Map<Path, String> withGenerated(Map<Path, String> inputKeys, Set<Path> generated) {
+        Map<Path, String> withGenerated = new LinkedHashMap<>(inputKeys);
+        generated.forEach(sourcePath -> withGenerated.putIfAbsent(sourcePath, ResultCache.GENERATED));
+        return withGenerated;
+    }
+
+    private static Map<Path, List<Path>> retain(Map<Path, List<Path>> sourcesByRoot, Predicate<Path> filter) {
+        Map<Path, List<Path>> retained = new LinkedHashMap<>();
+        sourcesByRoot.forEach((root, files) -> retained.put(root, files.stream().filter(filter).toList()));
+        return retained;
+    }
+
+    private static List<Path> allFiles(Map<Path, List<Path>> sourcesByRoot) {
+        return sourcesByRoot.values().stream().flatMap(List::stream).toList();
+    }
+
+    private static int count(Map<Path, List<Path>> sourcesByRoot) {
+        return sourcesByRoot.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * The recipe environment is only built when there is something to migrate, as scanning the classpath for recipes
+     * is one of the slower parts of starting a run.
+     */
+    synchronized Recipe loadRecipe(String recipeName) {
+        if (environment == null) {
+            environment = Environment.builder().scanRuntimeClasspath(RECIPE_PACKAGE).build();
+        }
+        return environment.activateRecipes(recipeName);
+    }
+
+    private static void write(MigrationOptions options, List<Result> results) {
+        switch (options.getOutputMode()) {
+            case IN_PLACE -> results.forEach(result -> writeInPlace(options.getBaseDir(), result));
+            case DIFF -> writeDiff(options, results.stream().map(Result::diff).toList());
+        }
+    }
+
+    private static void writeInPlace(Path baseDir, Result result) {
+        try {
+            SourceFile before = result.getBefore();
+            SourceFile after = result.getAfter();
+            if (before != null && (after == null || !before.getSourcePath().equals(after.getSourcePath()))) {
+                Files.deleteIfExists(baseDir.resolve(before.getSourcePath()));
+            }
+            if (after != null) {
+                Path file = baseDir.resolve(after.getSourcePath());
+                Files.createDirectories(file.getParent());
+                Charset charset = after.getCharset() == null ? StandardCharsets.UTF_8 : after.getCharset();
+                Files.writeString(file, after.printAll(), charset);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the changes of " + result, e);
+        }
+    }
+
+    private static void writeDiff(MigrationOptions options, List<String> diffs) {
+        Path diffFile = options.getDiffFile();
+        try (OutputStream out = diffFile == null ? nonClosing(System.out) : Files.newOutputStream(diffFile);
+             Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            for (String diff : diffs) {
+                writer.write(diff);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the diff", e);
+        }
+    }
+
+    private static OutputStream nonClosing(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+}
@@ -0,0 +1,180 @@
+package com.ecpnv.openrewrite.runner;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Changeset;
+import org.openrewrite.LargeSourceSet;
+import org.openrewrite.Recipe;
+import org.openrewrite.Result;
+import org.openrewrite.SourceFile;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.marker.DeserializationError;
+import org.openrewrite.marker.Generated;
+import org.openrewrite.marker.RecipesThatMadeChanges;
+
+/**
+ * In memory {@link LargeSourceSet} that, unlike {@link org.openrewrite.internal.InMemoryLargeSourceSet}, exposes its
+ * source files and deletions so the {@link ParallelRecipeScheduler} can split it into partitions and join the edited
+ * partitions again in the original order. It also passes the recipe stack of the recipe that runs to a listener, so
+ * the {@link SharedRootCursor} knows which recipe asks for an accumulator.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class ParallelLargeSourceSet implements LargeSourceSet {
+
+    private final @Nullable ParallelLargeSourceSet initialState;
+    private final List<SourceFile> sourceFiles;
+    private final Map<SourceFile, List<Recipe>> deletions;
+    private List<Recipe> currentRecipeStack = Collections.emptyList();
+    private Consumer<List<Recipe>> recipeStackListener = recipeStack -> {
+    };
+
+    ParallelLargeSourceSet(List<SourceFile> sourceFiles) {
+        this(null, new LinkedHashMap<>(), sourceFiles);
+    }
+
+    private ParallelLargeSourceSet(@Nullable ParallelLargeSourceSet initialState,
+                                   Map<SourceFile, List<Recipe>> deletions,
+                                   List<SourceFile> sourceFiles) {
+        this.initialState = initialState;
+        this.deletions = deletions;
+        this.sourceFiles = sourceFiles;
+    }
+
+    private ParallelLargeSourceSet derive(Map<SourceFile, List<Recipe>> deletions, List<SourceFile> sourceFiles) {
+        ParallelLargeSourceSet derived = new ParallelLargeSourceSet(getInitialState(), deletions, sourceFiles);
+        derived.recipeStackListener = recipeStackListener;
+        return derived;
+    }
+
+    List<SourceFile> getSourceFiles() {
+        return sourceFiles;
+    }
+
+    Map<SourceFile, List<Recipe>> getDeletions() {
+        return deletions;
+    }
+
+    /**
+     * Set the listener that is told the recipe stack of every recipe that runs on this source set and on the source
+     * sets derived from it.
+     */
+    void setRecipeStackListener(Consumer<List<Recipe>> recipeStackListener) {
+        this.recipeStackListener = recipeStackListener;
+    }
+
+    /**
+     * Join the edited partitions of this source set back into one source set.
+     *
+     * @param partitions the edited partitions in the order in which they were split off
+     * @return a source set with the same initial state as this one
+     */
+    ParallelLargeSourceSet join(List<ParallelLargeSourceSet> partitions) {
+        List<SourceFile> joined = new ArrayList<>(sourceFiles.size());
+        Map<SourceFile, List<Recipe>> joinedDeletions = new LinkedHashMap<>(deletions);
+        boolean changed = false;
+        for (ParallelLargeSourceSet partition : partitions) {
+            joined.addAll(partition.sourceFiles);
+            joinedDeletions.putAll(partition.deletions);
+            changed |= partition.initialState != null;
+        }
+        return changed ? derive(joinedDeletions, joined) : this;
+    }
+
+    @Override
+    public void setRecipe(List<Recipe> recipeStack) {
+        this.currentRecipeStack = recipeStack;
+        recipeStackListener.accept(recipeStack);
+    }
+
+    @Override
+    public ParallelLargeSourceSet edit(UnaryOperator<@Nullable SourceFile> map) {
+        List<SourceFile> mapped = ListUtils.map(sourceFiles, before -> {
+            SourceFile after = map.apply(before);
+            if (after == null) {
+                deletions.put(before, currentRecipeStack);
+            }
+            return after;
+        });
+        return mapped != sourceFiles ? derive(deletions, mapped) : this;
+    }
+
+    @Override
+    public ParallelLargeSourceSet generate(@Nullable Collection<? extends SourceFile> generated) {
+        if (generated == null || generated.isEmpty()) {
+            return this;
+        }
+        List<SourceFile> withGenerated = new ArrayList<>(sourceFiles);
+        withGenerated.addAll(generated);
+        return derive(deletions, withGenerated);
+    }
+
+    @Override
+    public Changeset getChangeset() {
+        Map<UUID, SourceFile> originalsById = new HashMap<>();
+        for (SourceFile sourceFile : getInitialState().sourceFiles) {
+            originalsById.put(sourceFile.getId(), sourceFile);
+        }
+        List<Result> changes = new ArrayList<>();
+        for (SourceFile sourceFile : sourceFiles) {
+            SourceFile original = originalsById.get(sourceFile.getId());
+            if (original == sourceFile) {
+                continue;
+            }
+            if (original != null) {
+                if (original.getMarkers().findFirst(Generated.class).isEmpty() &&
+                        sourceFile.getMarkers().findFirst(DeserializationError.class).isEmpty()) {
+                    changes.add(new Result(original, sourceFile));
+                }
+            } else {
+                changes.add(new Result(null, sourceFile, sourceFile.getMarkers()
+                        .findFirst(RecipesThatMadeChanges.class)
+                        .map(RecipesThatMadeChanges::getRecipes)
+                        .orElse(Collections.emptyList())));
+            }
+        }
+        deletions.forEach((deleted, recipeStack) ->
+                changes.add(new Result(deleted, null, Collections.singleton(recipeStack))));
+        return new Changeset() {
+            @Override
+            public int size() {
+                return changes.size();
+            }
+
+            @Override
+            public List<Result> getPage(int start, int count) {
+                return changes.subList(start, Math.min(changes.size(), start + count));
+            }
+
+            @Override
+            public List<Result> getAllResults() {
+                return changes;
+            }
+        };
+    }
+
+    @Override
+    public @Nullable SourceFile getBefore(Path sourcePath) {
+        for (SourceFile sourceFile : getInitialState().sourceFiles) {
+            if (sourceFile.getSourcePath().equals(sourcePath)) {
+                return sourceFile;
+            }
+        }
+        return null;
+    }
+
+    private ParallelLargeSourceSet getInitialState() {
+        return initialState == null ? this : initialState;
+    }
+}
@@ -0,0 +1,210 @@
+package com.ecpnv.openrewrite.runner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.apache.commons.collections4.ListUtils;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.RecipeRun;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.scheduling.RecipeRunCycle;
+import org.openrewrite.scheduling.WatchableExecutionContext;
+import org.openrewrite.table.RecipeRunStats;
+import org.openrewrite.table.SourcesFileErrors;
+import org.openrewrite.table.SourcesFileResults;
+
+import lombok.Value;
+
+/**
+ * Runs a recipe like {@link org.openrewrite.RecipeScheduler} does, but edits the source files in parallel.
+ * <p>
+ * Each cycle first scans all source files and generates new ones on the calling thread, so the accumulators of the
+ * scanning recipes (which are plain hash maps in this project) are filled in one place and hold the complete class
+ * hierarchy before any file is edited. The edit phase, which is independent per source file once the accumulators are
+ * known, is then split into consecutive partitions that are edited on a {@link ForkJoinPool} with the configured
+ * parallelism. Every worker has its own recipe stack and execution context, the edited partitions are joined in their
+ * original order and the data table rows are merged in that same order, so the result is the same as that of a
+ * sequential run.
+ * <p>
+ * Leaf recipes are shared between the workers, so their visitors must not change the recipe or its accumulator while
+ * editing, which holds for the recipes in this project. The edit timings of the workers are not added to the
+ * {@link RecipeRunStats}.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+@Value
+public class ParallelRecipeScheduler {
+
+    private static final String PANIC = "__AHHH_PANIC!!!__";
+
+    /**
+     * The number of workers that edit source files at the same time.
+     */
+    int parallelism;
+
+    public ParallelRecipeScheduler(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, but was " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return a scheduler with a parallelism equal to the number of available processors
+     */
+    public static ParallelRecipeScheduler withAvailableProcessors() {
+        return new ParallelRecipeScheduler(Runtime.getRuntime().availableProcessors());
+    }
+
+    public RecipeRun scheduleRun(Recipe recipe, List<? extends SourceFile> sourceFiles, ExecutionContext ctx) {
+        return scheduleRun(recipe, sourceFiles, ctx, 3, 1);
+    }
+
+    public RecipeRun scheduleRun(Recipe recipe, List<? extends SourceFile> sourceFiles, ExecutionContext ctx,
+                                 int maxCycles, int minCycles) {
+        try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+            ParallelLargeSourceSet after = runRecipeCycles(pool, recipe, new ParallelLargeSourceSet(new ArrayList<>(sourceFiles)),
+                    ctx, maxCycles, minCycles);
+            return new RecipeRun(after.getChangeset(), ctx.getMessage(ExecutionContext.DATA_TABLES, Collections.emptyMap()));
+        }
+    }
+
+    private ParallelLargeSourceSet runRecipeCycles(ForkJoinPool pool, Recipe recipe, ParallelLargeSourceSet sourceSet,
+                                                   ExecutionContext ctx, int maxCycles, int minCycles) {
+        WatchableExecutionContext ctxWithWatch = new WatchableExecutionContext(ctx);
+        RecipeRunStats recipeRunStats = new RecipeRunStats(Recipe.noop());
+        SourcesFileErrors errorsTable = new SourcesFileErrors(Recipe.noop());
+        SourcesFileResults sourceFileResults = new SourcesFileResults(Recipe.noop());
+        ParallelLargeSourceSet after = sourceSet;
+        try {
+            for (int i = 1; i <= maxCycles; i++) {
+                if (ctx.getMessage(PANIC) != null) {
+                    break;
+                }
+                SharedRootCursor rootCursor = new SharedRootCursor();
+                try {
+                    RecipeRunCycle<ParallelLargeSourceSet> cycle = new RecipeRunCycle<>(recipe, i, rootCursor,
+                            ctxWithWatch, recipeRunStats, sourceFileResults, errorsTable, ParallelLargeSourceSet::edit);
+                    ctxWithWatch.putCycle(cycle);
+                    after.setRecipeStackListener(rootCursor::setRecipeStack);
+                    after.beforeCycle(i == maxCycles);
+                    if (hasScanningRecipe(recipe)) {
+                        after = cycle.scanSources(after);
+                    }
+                    after = cycle.generateSources(after);
+
+                    Set<Recipe> madeChanges = Collections.newSetFromMap(new IdentityHashMap<>());
+                    madeChanges.addAll(cycle.getMadeChangesInThisCycle());
+                    List<List<SourceFile>> partitions = partition(after.getSourceFiles());
+                    if (partitions.size() <= 1) {
+                        after = cycle.editSources(after);
+                        madeChanges.addAll(cycle.getMadeChangesInThisCycle());
+                    } else {
+                        after = editPartitions(pool, recipe, i, rootCursor, ctx, sourceFileResults, errorsTable,
+                                after, partitions, madeChanges);
+                        ctxWithWatch.putCycle(cycle);
+                    }
+
+                    boolean anyRecipeCausingAnotherCycle = madeChanges.stream().anyMatch(Recipe::causesAnotherCycle);
+                    if (i >= minCycles && (madeChanges.isEmpty() || !anyRecipeCausingAnotherCycle)) {
+                        after.afterCycle(true);
+                        break;
+                    }
+                    after.afterCycle(i == maxCycles);
+                    ctxWithWatch.resetHasNewMessages();
+                } finally {
+                    rootCursor.clearMessages();
+                }
+            }
+        } finally {
+            recipeRunStats.flush(ctx);
+            recursiveOnComplete(recipe, ctxWithWatch);
+        }
+        return after;
+    }
+
+    private ParallelLargeSourceSet editPartitions(ForkJoinPool pool, Recipe recipe, int cycle,
+                                                  SharedRootCursor rootCursor, ExecutionContext ctx,
+                                                  SourcesFileResults sourceFileResults, SourcesFileErrors errorsTable,
+                                                  ParallelLargeSourceSet sourceSet, List<List<SourceFile>> partitions,
+                                                  Set<Recipe> madeChanges) {
+        List<Callable<EditedPartition>> tasks = new ArrayList<>(partitions.size());
+        for (List<SourceFile> partition : partitions) {
+            PartitionExecutionContext partitionCtx = new PartitionExecutionContext(ctx);
+            tasks.add(() -> {
+                WatchableExecutionContext workerCtx = new WatchableExecutionContext(partitionCtx);
+                SharedRootCursor.WorkerRootCursor workerCursor = rootCursor.forWorker();
+                RecipeRunCycle<ParallelLargeSourceSet> workerCycle = new RecipeRunCycle<>(recipe, cycle,
+                        workerCursor, workerCtx, new RecipeRunStats(Recipe.noop()), sourceFileResults,
+                        errorsTable, ParallelLargeSourceSet::edit);
+                workerCtx.putCycle(workerCycle);
+                ParallelLargeSourceSet partitionSet = new ParallelLargeSourceSet(partition);
+                partitionSet.setRecipeStackListener(workerCursor::setRecipeStack);
+                ParallelLargeSourceSet edited = workerCycle.editSources(partitionSet);
+                return new EditedPartition(edited, workerCycle.getMadeChangesInThisCycle(), partitionCtx);
+            });
+        }
+        List<ParallelLargeSourceSet> edited = new ArrayList<>(partitions.size());
+        for (Future<EditedPartition> future : pool.invokeAll(tasks)) {
+            EditedPartition result = join(future);
+            edited.add(result.getSourceSet());
+            madeChanges.addAll(result.getMadeChanges());
+            result.getCtx().mergeInto(ctx);
+        }
+        return sourceSet.join(edited);
+    }
+
+    private List<List<SourceFile>> partition(List<SourceFile> sourceFiles) {
+        int size = Math.max(1, (sourceFiles.size() + parallelism - 1) / parallelism);
+        return ListUtils.partition(sourceFiles, size);
+    }
+
+    private static EditedPartition join(Future<EditedPartition> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while editing source files", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed to edit source files", e.getCause());
+        }
+    }
+
+    private static void recursiveOnComplete(Recipe recipe, ExecutionContext ctx) {
+        recipe.onComplete(ctx);
+        for (Recipe r : recipe.getRecipeList()) {
+            recursiveOnComplete(r, ctx);
+        }
+    }
+
+    private static boolean hasScanningRecipe(Recipe recipe) {
+        if (recipe instanceof ScanningRecipe) {
+            return true;
+        }
+        for (Recipe r : recipe.getRecipeList()) {
+            if (hasScanningRecipe(r)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Value
+    private static class EditedPartition {
+        ParallelLargeSourceSet sourceSet;
+        Set<Recipe> madeChanges;
+        PartitionExecutionContext ctx;
+    }
+}
@@ -0,0 +1,152 @@
+package com.ecpnv.openrewrite.runner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.properties.PropertiesParser;
+import org.openrewrite.xml.XmlParser;
+
+import lombok.Value;
+
+/**
+ * Parses the Java, XML and properties sources of several source roots, one source root per worker.
+ * <p>
+ * A source root is the unit of parallelism because the Java sources of one module need to be compiled together to
+ * attribute types that refer to each other. Every source root gets its own parser with its own type cache, so no parser
+ * state is shared between workers. The parsed source files are returned ordered by source root and then by path, so
+ * the order does not depend on which worker finished first.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+@Value
+public class ParallelSourceParser {
+
+    /**
+     * The number of source roots that are parsed at the same time.
+     */
+    int parallelism;
+
+    /**
+     * Creates the builder of the Java parser for each source root.
+     */
+    Supplier<JavaParser.Builder<? extends JavaParser, ?>> javaParserBuilder;
+
+    /**
+     * Parse all Java, XML and properties files found in the given source roots.
+     *
+     * @param baseDir     the directory the source paths are made relative to
+     * @param sourceRoots the source roots, usually one per module
+     * @param ctx         the execution context to parse with
+     * @return the parsed source files ordered by source root and path
+     */
+    public List<SourceFile> parse(Path baseDir, List<Path> sourceRoots, ExecutionContext ctx) {
+        Map<Path, List<Path>> sourcesByRoot = new LinkedHashMap<>();
+        sourceRoots.forEach(sourceRoot -> sourcesByRoot.put(sourceRoot, findSources(sourceRoot)));
+        return parse(baseDir, sourcesByRoot, ctx);
+    }
+
+    /**
+     * Parse the given Java, XML and properties files, the files of one source root are parsed together.
+     *
+     * @param baseDir       the directory the source paths are made relative to
+     * @param sourcesByRoot the files to parse by their source root
+     * @param ctx           the execution context to parse with
+     * @return the parsed source files ordered by source root and path
+     */
+    public List<SourceFile> parse(Path baseDir, Map<Path, List<Path>> sourcesByRoot, ExecutionContext ctx) {
+        List<Callable<List<SourceFile>>> tasks = new ArrayList<>(sourcesByRoot.size());
+        for (List<Path> sources : sourcesByRoot.values()) {
+            List<Path> javaFiles = sources.stream().filter(ParallelSourceParser::isJava).toList();
+            List<Path> xmlFiles = sources.stream().filter(ParallelSourceParser::isXml).toList();
+            List<Path> propertiesFiles = sources.stream().filter(ParallelSourceParser::isProperties).toList();
+            // builders are created on the calling thread as they may extract resources into a shared directory
+            JavaParser.Builder<? extends JavaParser, ?> builder = javaParserBuilder.get();
+            tasks.add(() -> {
+                List<SourceFile> parsed = new ArrayList<>();
+                builder.build().parse(javaFiles, baseDir, ctx).forEach(parsed::add);
+                new JdoMetadataXmlParser().parse(xmlFiles, baseDir, ctx).forEach(parsed::add);
+                new PropertiesParser().parse(propertiesFiles, baseDir, ctx).forEach(parsed::add);
+                parsed.sort(Comparator.comparing(SourceFile::getSourcePath));
+                return parsed;
+            });
+        }
+        try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+            List<SourceFile> sourceFiles = new ArrayList<>();
+            for (Future<List<SourceFile>> future : pool.invokeAll(tasks)) {
+                sourceFiles.addAll(join(future));
+            }
+            return sourceFiles;
+        }
+    }
+
+    /**
+     * @return the Java, XML and properties files in the source root, sorted by path
+     */
+    static List<Path> findSources(Path sourceRoot) {
+        try (Stream<Path> files = Files.walk(sourceRoot)) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .filter(file -> isJava(file) || isXml(file) || isProperties(file))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list the sources of " + sourceRoot, e);
+        }
+    }
+
+    static boolean isJava(Path file) {
+        return file.getFileName().toString().endsWith(".java");
+    }
+
+    static boolean isXml(Path file) {
+        String fileName = file.getFileName().toString();
+        // JDO metadata documents are XML too
+        return fileName.endsWith(".xml") || fileName.endsWith(".jdo") || fileName.endsWith(".orm");
+    }
+
+    static boolean isProperties(Path file) {
+        // settings of the recipes, like the batch fetch policy
+        return file.getFileName().toString().endsWith(".properties");
+    }
+
+    /**
+     * XML parser that also accepts the JDO metadata documents, which the standard XML parser skips.
+     */
+    private static class JdoMetadataXmlParser extends XmlParser {
+        @Override
+        public boolean accept(Path path) {
+            return isXml(path);
+        }
+    }
+
+    private static List<SourceFile> join(Future<List<SourceFile>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while parsing source files", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed to parse source files", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.ecpnv.openrewrite.runner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.DataTable;
+import org.openrewrite.ExecutionContext;
+
+/**
+ * Execution context of a worker that edits one partition of the source files. It starts with a copy of the messages of
+ * the run's context so the worker can write messages and data table rows without locking, and
+ * {@link #mergeInto(ExecutionContext) merges} them back once the partition is done.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class PartitionExecutionContext implements ExecutionContext {
+
+    private final ExecutionContext parent;
+    private final Map<String, Object> initialMessages;
+    private final Map<String, Object> messages;
+
+    PartitionExecutionContext(ExecutionContext parent) {
+        this.parent = parent;
+        Map<String, Object> parentMessages = parent.getMessages();
+        this.initialMessages = parentMessages == null ? Collections.emptyMap() : Map.copyOf(parentMessages);
+        this.messages = new ConcurrentHashMap<>(initialMessages);
+        this.messages.remove(DATA_TABLES);
+    }
+
+    @Override
+    public Map<String, Object> getMessages() {
+        return messages;
+    }
+
+    @Override
+    public void putMessage(String key, @Nullable Object value) {
+        if (value == null) {
+            messages.remove(key);
+        } else {
+            messages.put(key, value);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> @Nullable T getMessage(String key) {
+        return (T) messages.get(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> @Nullable T pollMessage(String key) {
+        return (T) messages.remove(key);
+    }
+
+    @Override
+    public Consumer<Throwable> getOnError() {
+        return t -> {
+            synchronized (parent) {
+                parent.getOnError().accept(t);
+            }
+        };
+    }
+
+    @Override
+    public BiConsumer<Throwable, ExecutionContext> getOnTimeout() {
+        return (t, ctx) -> {
+            synchronized (parent) {
+                parent.getOnTimeout().accept(t, parent);
+            }
+        };
+    }
+
+    /**
+     * Append the data table rows of this partition to the given context and copy the messages this partition added or
+     * replaced. Partitions are merged in source file order, so the rows end up in the same order as in a sequential run.
+     *
+     * @param target the context of the run
+     */
+    @SuppressWarnings("unchecked")
+    void mergeInto(ExecutionContext target) {
+        messages.forEach((key, value) -> {
+            if (DATA_TABLES.equals(key)) {
+                mergeDataTables(target, (Map<DataTable<?>, List<?>>) value);
+            } else if (!CURRENT_CYCLE.equals(key) && initialMessages.get(key) != value) {
+                target.putMessage(key, value);
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void mergeDataTables(ExecutionContext target, Map<DataTable<?>, List<?>> dataTables) {
+        dataTables.forEach((dataTable, rows) ->
+                target.<List<?>, Map<DataTable<?>, List<?>>>computeMessage(DATA_TABLES, rows, ConcurrentHashMap::new,
+                        (extract, allDataTables) -> {
+                            ((List<Object>) allDataTables.computeIfAbsent(dataTable, d -> new ArrayList<>()))
+                                    .addAll(rows);
+                            return allDataTables;
+                        }));
+    }
+}
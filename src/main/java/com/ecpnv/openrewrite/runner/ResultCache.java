@@ -0,0 +1,243 @@
+package com.ecpnv.openrewrite.runner;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import lombok.Value;
+
+/**
+ * The persistent state of incremental migration runs, kept in a cache directory: per source file the key of the inputs
+ * it was last migrated with and, for diff runs, the diff that migration produced.
+ * <p>
+ * The input key of a file hashes the configuration of the run, the content of the file and the content of the files
+ * its migration depends on: its ancestors and descendants, which the hierarchy recipes copy annotations between, and
+ * the files it refers to or is referred by, which the relation recipes accumulate mapped by attributes from. The
+ * packages of all Java files are an input of every file, as the entity scan is added for the packages of all entities,
+ * and so are the properties files, as they hold the settings of recipes like the batch fetch policy.
+ * A file whose key did not change since the last run is not migrated again, but when a file is migrated the files it
+ * depends on are parsed with it to attribute its types and fill the accumulators.
+ * <p>
+ * The files generated by the scanning recipes, like an <code>orm.xml</code> or a <code>persistence.xml</code>, depend
+ * on all files, so they are only generated by a run that migrates all files. Their source paths are kept in the index
+ * with the {@link #GENERATED} key, so the runs that migrate part of the files repeat their diffs.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class ResultCache {
+
+    static final String INDEX_FILE = "index.properties";
+    static final String DIFFS_DIRECTORY = "diffs";
+    static final String GENERATED = "generated";
+
+    private final Path directory;
+
+    /**
+     * The input keys of the last run by source path.
+     */
+    private final Map<String, String> inputKeys;
+
+    private ResultCache(Path directory, Map<String, String> inputKeys) {
+        this.directory = directory;
+        this.inputKeys = inputKeys;
+    }
+
+    /**
+     * What to migrate in an incremental run.
+     */
+    @Value
+    static class Plan {
+        /**
+         * The input keys of all files by their source path.
+         */
+        Map<Path, String> inputKeys;
+
+        /**
+         * The source paths of the files whose inputs changed since the last run.
+         */
+        Set<Path> dirty;
+
+        /**
+         * The files to parse: the dirty files, the files they depend on and the properties files.
+         */
+        Set<Path> toParse;
+
+        boolean isDirty(Path sourcePath) {
+            return dirty.contains(sourcePath);
+        }
+    }
+
+    static ResultCache load(Path directory) {
+        Path indexFile = directory.resolve(INDEX_FILE);
+        Map<String, String> inputKeys = new HashMap<>();
+        if (Files.isRegularFile(indexFile)) {
+            Properties index = new Properties();
+            try (Reader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+                index.load(reader);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read the cache index " + indexFile, e);
+            }
+            index.stringPropertyNames().forEach(path -> inputKeys.put(path, index.getProperty(path)));
+        }
+        return new ResultCache(directory, inputKeys);
+    }
+
+    /**
+     * Plan the migration of the given files.
+     *
+     * @param baseDir       the directory the source paths are relative to
+     * @param files         all files that are migrated
+     * @param configuration everything besides the sources that affects the outcome of the migration
+     */
+    Plan plan(Path baseDir, List<Path> files, String configuration) {
+        SourceIndex index = new SourceIndex(SourceSummary.of(files, List.of()));
+        Map<Path, String> keys = inputKeys(baseDir, index, configuration);
+        Set<Path> dirty = new LinkedHashSet<>();
+        Set<Path> toParse = new LinkedHashSet<>();
+        for (SourceSummary summary : index.getSummaries()) {
+            Path sourcePath = baseDir.relativize(summary.getFile());
+            if (!keys.get(sourcePath).equals(inputKeys.get(sourcePath.toString()))) {
+                dirty.add(sourcePath);
+                toParse.add(summary.getFile());
+                dependencies(index, summary).forEach(dependency -> toParse.add(dependency.getFile()));
+            }
+        }
+        if (!dirty.isEmpty()) {
+            // the settings of the recipes are needed to migrate any file
+            index.getSummaries().stream()
+                    .filter(summary -> ParallelSourceParser.isProperties(summary.getFile()))
+                    .forEach(summary -> toParse.add(summary.getFile()));
+        }
+        return new Plan(keys, dirty, toParse);
+    }
+
+    /**
+     * Compute the input keys of the given files.
+     *
+     * @return the input keys by source path
+     */
+    static Map<Path, String> inputKeys(Path baseDir, List<Path> files, String configuration) {
+        return inputKeys(baseDir, new SourceIndex(SourceSummary.of(files, List.of())), configuration);
+    }
+
+    private static Map<Path, String> inputKeys(Path baseDir, SourceIndex index, String configuration) {
+        String packages = index.getSummaries().stream()
+                .map(SourceSummary::getPackageName)
+                .collect(Collectors.toCollection(TreeSet::new))
+                .toString();
+        String settings = index.getSummaries().stream()
+                .filter(summary -> ParallelSourceParser.isProperties(summary.getFile()))
+                .map(summary -> baseDir.relativize(summary.getFile()) + ":" + summary.getContentHash())
+                .collect(Collectors.toCollection(TreeSet::new))
+                .toString();
+        Map<Path, String> keys = new LinkedHashMap<>();
+        for (SourceSummary summary : index.getSummaries()) {
+            Set<String> dependencies = new TreeSet<>();
+            dependencies(index, summary).forEach(dependency -> dependencies.add(
+                    baseDir.relativize(dependency.getFile()) + ":" + dependency.getContentHash()));
+            keys.put(baseDir.relativize(summary.getFile()),
+                    hash(configuration, packages, settings, summary.getContentHash(), dependencies.toString()));
+        }
+        return keys;
+    }
+
+    private static Set<SourceSummary> dependencies(SourceIndex index, SourceSummary summary) {
+        Set<SourceSummary> dependencies = new HashSet<>(index.lineage(summary));
+        dependencies.addAll(index.referenced(summary));
+        dependencies.addAll(index.referencing(summary));
+        dependencies.remove(summary);
+        return dependencies;
+    }
+
+    /**
+     * @return the source paths of the files generated by the last run that migrated all files
+     */
+    Set<Path> generated() {
+        return inputKeys.entrySet().stream()
+                .filter(entry -> GENERATED.equals(entry.getValue()))
+                .map(entry -> Path.of(entry.getKey()))
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * @return the diff of the last run of the file, or empty when that run did not change it
+     */
+    Optional<String> diff(Path sourcePath) {
+        Path diffFile = diffFile(sourcePath);
+        try {
+            return Files.isRegularFile(diffFile) ? Optional.of(Files.readString(diffFile)) : Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the cached diff " + diffFile, e);
+        }
+    }
+
+    /**
+     * Store the state of a run, replacing the state of the previous run.
+     *
+     * @param inputKeys the input keys of all files by source path
+     * @param diffs     the diffs of the files that were migrated in this run by source path, the diffs of the other
+     *                  files are kept
+     */
+    void save(Map<Path, String> inputKeys, Map<Path, String> diffs) {
+        try {
+            Path diffsDirectory = Files.createDirectories(directory.resolve(DIFFS_DIRECTORY));
+            Set<Path> keep = inputKeys.keySet().stream()
+                    .filter(sourcePath -> !diffs.containsKey(sourcePath))
+                    .map(this::diffFile)
+                    .collect(Collectors.toSet());
+            try (Stream<Path> diffFiles = Files.list(diffsDirectory)) {
+                for (Path diffFile : diffFiles.filter(file -> !keep.contains(file)).toList()) {
+                    Files.delete(diffFile);
+                }
+            }
+            for (Map.Entry<Path, String> diff : diffs.entrySet()) {
+                if (!diff.getValue().isEmpty()) {
+                    Files.writeString(diffFile(diff.getKey()), diff.getValue());
+                }
+            }
+            Properties index = new Properties();
+            inputKeys.forEach((sourcePath, key) -> index.setProperty(sourcePath.toString(), key));
+            try (Writer writer = Files.newBufferedWriter(directory.resolve(INDEX_FILE), StandardCharsets.UTF_8)) {
+                index.store(writer, "jdo2jpa incremental migration");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the cache " + directory, e);
+        }
+    }
+
+    private Path diffFile(Path sourcePath) {
+        return directory.resolve(DIFFS_DIRECTORY).resolve(hash(sourcePath.toString()) + ".diff");
+    }
+
+    private static String hash(String... values) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String value : values) {
+                digest.update(value.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
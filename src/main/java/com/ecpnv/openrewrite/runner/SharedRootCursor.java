@@ -0,0 +1,169 @@
+package com.ecpnv.openrewrite.runner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Cursor;
+import org.openrewrite.Recipe;
+
+/**
+ * Root cursor of a recipe run cycle that holds the accumulators of the scanning recipes and can be shared with the
+ * workers that edit the source files in parallel.
+ * <p>
+ * Accumulators are stored under a key that is unique per {@link org.openrewrite.ScanningRecipe} instance. Scanning
+ * recipes that are part of a declarative recipe with preconditions are wrapped per recipe stack, so a worker with its
+ * own recipe stack asks for its accumulators using other keys than the ones used while scanning. The wrapped recipes
+ * themselves are shared, so every accumulator is registered under the path of the recipe that created it, with the
+ * wrappers replaced by the recipes they delegate to, and a worker cursor resolves its accumulators by that same path.
+ * The source set tells the cursor which recipe runs through {@link #setRecipeStack(List)}. An accumulator that is
+ * first asked for by a worker is registered the same way, so the other workers share it.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class SharedRootCursor extends Cursor {
+
+    private static final String ACCUMULATOR_KEY_PREFIX = "org.openrewrite.recipe.acc.";
+
+    private final Map<RecipePath, String> accumulatorKeys = new HashMap<>();
+    private RecipePath currentRecipe = RecipePath.EMPTY;
+
+    SharedRootCursor() {
+        super(null, Cursor.ROOT_VALUE);
+    }
+
+    /**
+     * @return a new root cursor for a worker that resolves its accumulators from this cursor
+     */
+    WorkerRootCursor forWorker() {
+        return new WorkerRootCursor();
+    }
+
+    /**
+     * Sets the recipe stack of the recipe that runs on the calling thread, which is the thread that scans the
+     * source files.
+     */
+    synchronized void setRecipeStack(List<Recipe> recipeStack) {
+        currentRecipe = RecipePath.of(recipeStack);
+    }
+
+    @Override
+    public synchronized <T> T computeMessageIfAbsent(String key, Function<String, ? extends T> mappingFunction) {
+        if (key.startsWith(ACCUMULATOR_KEY_PREFIX) && super.getMessage(key) == null && !currentRecipe.isEmpty()) {
+            accumulatorKeys.putIfAbsent(currentRecipe, key);
+        }
+        return super.computeMessageIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public synchronized void putMessage(String key, Object value) {
+        super.putMessage(key, value);
+    }
+
+    @Override
+    public synchronized <T> @Nullable T getMessage(String key) {
+        return super.getMessage(key);
+    }
+
+    @Override
+    public synchronized <T> T getMessage(String key, T defaultValue) {
+        return super.getMessage(key, defaultValue);
+    }
+
+    @Override
+    public synchronized <T> @Nullable T pollMessage(String key) {
+        return super.pollMessage(key);
+    }
+
+    @Override
+    public synchronized void clearMessages() {
+        accumulatorKeys.clear();
+        currentRecipe = RecipePath.EMPTY;
+        super.clearMessages();
+    }
+
+    /**
+     * Root cursor of one worker. Messages other than accumulators stay local to the worker.
+     */
+    class WorkerRootCursor extends Cursor {
+
+        private final Map<String, String> sharedKeys = new HashMap<>();
+        private RecipePath currentRecipe = RecipePath.EMPTY;
+
+        WorkerRootCursor() {
+            super(null, Cursor.ROOT_VALUE);
+        }
+
+        /**
+         * Sets the recipe stack of the recipe that runs on the worker.
+         */
+        void setRecipeStack(List<Recipe> recipeStack) {
+            currentRecipe = RecipePath.of(recipeStack);
+        }
+
+        @Override
+        public <T> T computeMessageIfAbsent(String key, Function<String, ? extends T> mappingFunction) {
+            if (!key.startsWith(ACCUMULATOR_KEY_PREFIX)) {
+                return super.computeMessageIfAbsent(key, mappingFunction);
+            }
+            String sharedKey = sharedKeys.computeIfAbsent(key, this::resolveAccumulatorKey);
+            return SharedRootCursor.this.computeMessageIfAbsent(sharedKey, mappingFunction);
+        }
+
+        private String resolveAccumulatorKey(String key) {
+            synchronized (SharedRootCursor.this) {
+                return currentRecipe.isEmpty() ? key : accumulatorKeys.computeIfAbsent(currentRecipe, path -> key);
+            }
+        }
+    }
+
+    /**
+     * Path from the root recipe to a recipe, with the wrapping recipes replaced by the recipes they delegate to, that
+     * compares the recipes by identity.
+     */
+    private record RecipePath(List<Recipe> recipes) {
+
+        static final RecipePath EMPTY = new RecipePath(Collections.emptyList());
+
+        static RecipePath of(List<Recipe> recipeStack) {
+            List<Recipe> recipes = new ArrayList<>(recipeStack.size());
+            for (Recipe recipe : recipeStack) {
+                while (recipe instanceof Recipe.DelegatingRecipe delegating) {
+                    recipe = delegating.getDelegate();
+                }
+                recipes.add(recipe);
+            }
+            return new RecipePath(recipes);
+        }
+
+        boolean isEmpty() {
+            return recipes.isEmpty();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof RecipePath other) || other.recipes.size() != recipes.size()) {
+                return false;
+            }
+            for (int i = 0; i < recipes.size(); i++) {
+                if (recipes.get(i) != other.recipes.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 1;
+            for (Recipe recipe : recipes) {
+                hash = 31 * hash + System.identityHashCode(recipe);
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.ecpnv.openrewrite.runner;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import lombok.Getter;
+
+/**
+ * Relates the {@link SourceSummary summaries} of a set of source files by the simple names of their types: which files
+ * extend a type, which files declare a supertype and which files refer to a type. As only simple names are compared,
+ * files with the same name in different packages are all related, which relates too many files rather than too few.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class SourceIndex {
+
+    @Getter
+    private final List<SourceSummary> summaries;
+    private final Map<String, List<SourceSummary>> byName = new HashMap<>();
+    private final Map<String, List<SourceSummary>> bySupertype = new HashMap<>();
+    private final Map<String, List<SourceSummary>> byReferencedName = new HashMap<>();
+
+    SourceIndex(List<SourceSummary> summaries) {
+        this.summaries = summaries;
+        for (SourceSummary summary : summaries) {
+            byName.computeIfAbsent(summary.getName(), n -> new ArrayList<>()).add(summary);
+            summary.getSupertypes().forEach(supertype ->
+                    bySupertype.computeIfAbsent(supertype, n -> new ArrayList<>()).add(summary));
+            summary.getReferencedNames().forEach(name ->
+                    byReferencedName.computeIfAbsent(name, n -> new ArrayList<>()).add(summary));
+        }
+    }
+
+    /**
+     * @return the files declaring a supertype of the file
+     */
+    List<SourceSummary> supertypes(SourceSummary summary) {
+        return summary.getSupertypes().stream()
+                .flatMap(supertype -> byName.getOrDefault(supertype, List.of()).stream())
+                .toList();
+    }
+
+    /**
+     * @return the files declaring a direct subtype of the file
+     */
+    List<SourceSummary> subtypes(SourceSummary summary) {
+        return bySupertype.getOrDefault(summary.getName(), List.of());
+    }
+
+    /**
+     * @return the files declaring a type the file refers to
+     */
+    List<SourceSummary> referenced(SourceSummary summary) {
+        return summary.getReferencedNames().stream()
+                .flatMap(name -> byName.getOrDefault(name, List.of()).stream())
+                .toList();
+    }
+
+    /**
+     * @return the files referring to the type of the file
+     */
+    List<SourceSummary> referencing(SourceSummary summary) {
+        return byReferencedName.getOrDefault(summary.getName(), List.of());
+    }
+
+    /**
+     * @return the seeds with all their ancestors and descendants, following supertypes and subtypes alternately until
+     * nothing is added
+     */
+    Set<SourceSummary> hierarchy(Collection<SourceSummary> seeds) {
+        return closure(seeds, summary -> {
+            List<SourceSummary> related = new ArrayList<>(supertypes(summary));
+            related.addAll(subtypes(summary));
+            return related;
+        });
+    }
+
+    /**
+     * @return the file with its ancestors and its descendants, but without the other descendants of its ancestors
+     */
+    Set<SourceSummary> lineage(SourceSummary summary) {
+        Set<SourceSummary> lineage = closure(List.of(summary), this::supertypes);
+        lineage.addAll(descendants(summary));
+        return lineage;
+    }
+
+    /**
+     * @return the file with all its descendants
+     */
+    Set<SourceSummary> descendants(SourceSummary summary) {
+        return closure(List.of(summary), this::subtypes);
+    }
+
+    private static Set<SourceSummary> closure(Collection<SourceSummary> seeds,
+                                              Function<SourceSummary, List<SourceSummary>> related) {
+        Set<SourceSummary> closure = new LinkedHashSet<>();
+        Deque<SourceSummary> todo = new ArrayDeque<>(seeds);
+        while (!todo.isEmpty()) {
+            SourceSummary summary = todo.pop();
+            if (closure.add(summary)) {
+                todo.addAll(related.apply(summary));
+            }
+        }
+        return closure;
+    }
+}
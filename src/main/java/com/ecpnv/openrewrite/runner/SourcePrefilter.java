@@ -0,0 +1,104 @@
+package com.ecpnv.openrewrite.runner;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openrewrite.Recipe;
+import org.openrewrite.config.OptionDescriptor;
+import org.openrewrite.config.RecipeDescriptor;
+
+import lombok.Value;
+
+/**
+ * Selects the Java files worth parsing before anything is parsed, by searching the raw bytes of each (memory mapped)
+ * file for trigger texts. The triggers are the {@link #DEFAULT_TRIGGERS JDO footprints} and the packages of the types
+ * that the recipe and its sub recipes declare in their options, like {@code javax.jdo.annotations} or
+ * {@code org.springframework.context.annotation}, so a file that imports or fully qualifies one of those types is
+ * selected.
+ * <p>
+ * Migrating a selected file can depend on files without a trigger: the hierarchy recipes need the subclasses and
+ * superclasses of an entity, and type attribution needs the project classes an entity refers to. Therefore the
+ * selection is extended with the class hierarchy of the selected files and with the files declaring a type that a
+ * selected file refers to by its simple name. This is a text level approximation that errs on the side of selecting
+ * too much.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+@Value
+public class SourcePrefilter {
+
+    /**
+     * The texts that mark a JDO footprint, also when a file does not import the type, like an entity in the same
+     * package as a JDO annotation or a Causeway JDO persistence module.
+     */
+    public static final Set<String> DEFAULT_TRIGGERS = Set.of("javax.jdo", "PersistenceCapable", "@Persistent",
+            "PersistenceManager", "ComponentScan", "PersistenceJdo");
+
+    private static final Pattern TYPE_NAME = Pattern.compile("\\b(?:[a-z_][a-z0-9_]*\\.)+[A-Z][\\w$]*");
+
+    /**
+     * The texts of which at least one has to occur in a file to select it.
+     */
+    Set<String> triggers;
+
+    /**
+     * Create a prefilter with the default triggers, the triggers derived from the given recipe and the given
+     * additional triggers.
+     */
+    public static SourcePrefilter forRecipe(Recipe recipe, Collection<String> additionalTriggers) {
+        Set<String> triggers = new TreeSet<>(DEFAULT_TRIGGERS);
+        triggers.addAll(additionalTriggers);
+        collectTriggers(recipe.getDescriptor(), triggers);
+        return new SourcePrefilter(triggers);
+    }
+
+    private static void collectTriggers(RecipeDescriptor descriptor, Set<String> triggers) {
+        for (OptionDescriptor option : descriptor.getOptions()) {
+            Object value = option.getValue();
+            if (value == null) {
+                continue;
+            }
+            Matcher matcher = TYPE_NAME.matcher(value instanceof Object[] values ? String.join(",",
+                    Arrays.stream(values).map(String::valueOf).toList()) : value.toString());
+            while (matcher.find()) {
+                String type = matcher.group();
+                String packageName = type.substring(0, type.lastIndexOf('.'));
+                // every file uses java.lang and most use java.util, so those types do not tell anything
+                if (!packageName.startsWith("java.")) {
+                    triggers.add(packageName);
+                }
+            }
+        }
+        descriptor.getRecipeList().forEach(child -> collectTriggers(child, triggers));
+    }
+
+    /**
+     * Select the files to parse.
+     *
+     * @param javaFiles all Java files
+     * @return the selected files in the order in which they were given
+     */
+    public List<Path> select(List<Path> javaFiles) {
+        if (triggers.isEmpty()) {
+            return javaFiles;
+        }
+        SourceIndex index = new SourceIndex(SourceSummary.of(javaFiles, triggerBytes()));
+        Set<SourceSummary> selected = index.hierarchy(index.getSummaries().stream()
+                .filter(SourceSummary::isTriggered)
+                .toList());
+        new ArrayList<>(selected).forEach(summary -> selected.addAll(index.referenced(summary)));
+        return index.getSummaries().stream().filter(selected::contains).map(SourceSummary::getFile).toList();
+    }
+
+    private List<byte[]> triggerBytes() {
+        return triggers.stream().map(trigger -> trigger.getBytes(StandardCharsets.UTF_8)).toList();
+    }
+}
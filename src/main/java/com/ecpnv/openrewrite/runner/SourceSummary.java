@@ -0,0 +1,200 @@
+package com.ecpnv.openrewrite.runner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+/**
+ * What can be told about a source file from its text alone, without parsing it: a hash of its content, whether it
+ * contains a trigger text and, for a Java file, its package, the simple names of its supertypes and the capitalized
+ * identifiers it refers to. The file is memory mapped and searched byte by byte, so its content is never decoded into
+ * a string on the heap; only the package declaration and the supertype declarations are.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+@Value
+@EqualsAndHashCode(of = "file")
+class SourceSummary {
+
+    private static final Pattern PACKAGE = Pattern.compile("package\\s+([\\w.]+)\\s*;");
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_$][\\w$.]*");
+    private static final byte[] PACKAGE_KEYWORD = "package".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EXTENDS = "extends".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] IMPLEMENTS = "implements".getBytes(StandardCharsets.US_ASCII);
+
+    Path file;
+
+    /**
+     * The file name without extension, which for a Java file is the name of its top level type.
+     */
+    String name;
+
+    String packageName;
+
+    /**
+     * The hex encoded SHA-256 hash of the content.
+     */
+    String contentHash;
+
+    boolean triggered;
+
+    Set<String> supertypes;
+
+    Set<String> referencedNames;
+
+    /**
+     * Summarize the files in parallel.
+     *
+     * @return the summaries in the order of the files
+     */
+    static List<SourceSummary> of(List<Path> files, List<byte[]> triggers) {
+        return files.parallelStream().map(file -> of(file, triggers)).toList();
+    }
+
+    static SourceSummary of(Path file, List<byte[]> triggers) {
+        String fileName = file.getFileName().toString();
+        int extension = fileName.lastIndexOf('.');
+        String name = extension < 0 ? fileName : fileName.substring(0, extension);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.size() == 0 ? ByteBuffer.allocate(0)
+                    : channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            String contentHash = hash(buffer);
+            boolean triggered = triggers.stream().anyMatch(trigger -> indexOf(buffer, trigger, 0) >= 0);
+            if (!ParallelSourceParser.isJava(file) || buffer.limit() == 0) {
+                return new SourceSummary(file, name, "", contentHash, triggered, Set.of(), Set.of());
+            }
+            Set<String> supertypes = new LinkedHashSet<>();
+            addSupertypes(buffer, EXTENDS, supertypes);
+            addSupertypes(buffer, IMPLEMENTS, supertypes);
+            String packageName = packageName(buffer);
+            Set<String> referencedNames = capitalizedIdentifiers(buffer);
+            referencedNames.remove(name);
+            return new SourceSummary(file, name, packageName, contentHash, triggered, supertypes, referencedNames);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to scan " + file, e);
+        }
+    }
+
+    private static String hash(ByteBuffer buffer) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(buffer.duplicate());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the name in the first package declaration that starts a line, or an empty string without one
+     */
+    private static String packageName(ByteBuffer buffer) {
+        int index = indexOf(buffer, PACKAGE_KEYWORD, 0);
+        while (index >= 0) {
+            int lineStart = index;
+            while (lineStart > 0 && (buffer.get(lineStart - 1) == ' ' || buffer.get(lineStart - 1) == '\t')) {
+                lineStart--;
+            }
+            if (lineStart == 0 || buffer.get(lineStart - 1) == '\n' || buffer.get(lineStart - 1) == '\r') {
+                int end = index;
+                while (end < buffer.limit() && buffer.get(end) != ';') {
+                    end++;
+                }
+                byte[] declaration = new byte[Math.min(end + 1, buffer.limit()) - index];
+                buffer.get(index, declaration);
+                Matcher matcher = PACKAGE.matcher(new String(declaration, StandardCharsets.US_ASCII));
+                if (matcher.lookingAt()) {
+                    return matcher.group(1);
+                }
+            }
+            index = indexOf(buffer, PACKAGE_KEYWORD, index + PACKAGE_KEYWORD.length);
+        }
+        return "";
+    }
+
+    /**
+     * @return the identifiers that start with a capital, which is how Java code refers to types by their simple name
+     */
+    private static Set<String> capitalizedIdentifiers(ByteBuffer buffer) {
+        Set<String> identifiers = new HashSet<>();
+        int start = -1;
+        for (int i = 0; i <= buffer.limit(); i++) {
+            if (i < buffer.limit() && isIdentifierPart(buffer.get(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                byte first = buffer.get(start);
+                if (first >= 'A' && first <= 'Z') {
+                    byte[] identifier = new byte[i - start];
+                    buffer.get(start, identifier);
+                    identifiers.add(new String(identifier, StandardCharsets.UTF_8));
+                }
+                start = -1;
+            }
+        }
+        return identifiers;
+    }
+
+    /**
+     * @return whether the byte can be part of an identifier, where every byte of a multibyte character can
+     */
+    private static boolean isIdentifierPart(byte b) {
+        return b < 0 || b >= 'a' && b <= 'z' || b >= 'A' && b <= 'Z' || b >= '0' && b <= '9' || b == '_' || b == '$';
+    }
+
+    /**
+     * Add the simple names of the types listed after each occurrence of the keyword, up to the start of the body.
+     */
+    private static void addSupertypes(ByteBuffer buffer, byte[] keyword, Set<String> supertypes) {
+        int index = indexOf(buffer, keyword, 0);
+        while (index >= 0) {
+            int start = index + keyword.length;
+            int end = start;
+            while (end < buffer.limit() && buffer.get(end) != '{' && buffer.get(end) != ';') {
+                end++;
+            }
+            byte[] declaration = new byte[end - start];
+            buffer.get(start, declaration);
+            Matcher matcher = IDENTIFIER.matcher(new String(declaration, StandardCharsets.US_ASCII)
+                    .replaceAll("<[^{;]*>", " "));
+            while (matcher.find()) {
+                String identifier = matcher.group();
+                if (!"implements".equals(identifier) && !"extends".equals(identifier)) {
+                    supertypes.add(identifier.substring(identifier.lastIndexOf('.') + 1));
+                }
+            }
+            index = indexOf(buffer, keyword, end);
+        }
+    }
+
+    static int indexOf(ByteBuffer buffer, byte[] pattern, int from) {
+        int last = buffer.limit() - pattern.length;
+        outer:
+        for (int i = from; i <= last; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (buffer.get(i + j) != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
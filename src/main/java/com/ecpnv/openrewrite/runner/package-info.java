@@ -0,0 +1,7 @@
+/**
+ * JSR-305 compliance.
+ */
+@ParametersAreNonnullByDefault
+package com.ecpnv.openrewrite.runner;
+
+import javax.annotation.ParametersAreNonnullByDefault;
@@ -1,5 +1,11 @@
 package com.ecpnv.openrewrite.util;
 
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.openrewrite.ExecutionContext;
@@ -16,12 +22,17 @@ import lombok.experimental.UtilityClass;
  * <p>
  * For testing purposes an additional test library file is included when defined as a system property.
  * <p>
+ * The resource libraries are extracted once per set of library names and then reused by every parser created in the
+ * same process, so parsing several modules does not extract them again for each module.
+ * <p>
  *
  * @author Wouter Veltmaat @ Open Circle Solutions
  */
 @UtilityClass
 public class JavaParserFactory {
 
+    private static final Map<List<String>, List<Path>> RESOURCE_CLASSPATHS = new ConcurrentHashMap<>();
+
     public static JavaParser.Builder<? extends JavaParser, ?> create() {
         return create(new InMemoryExecutionContext());
     }
@@ -50,6 +61,19 @@ public class JavaParserFactory {
             }
         }
 
-        return JavaParser.fromJavaVersion().classpath(classPath).classpathFromResources(ctx, resourceClasspath);
+        final List<Path> resolvedResourceClasspath = RESOURCE_CLASSPATHS.computeIfAbsent(List.of(resourceClasspath),
+                names -> List.copyOf(JavaParser.dependenciesFromResources(ctx, names.toArray(String[]::new))));
+
+        return JavaParser.fromJavaVersion().classpath(classPath).classpath(resolvedResourceClasspath);
+    }
+
+    /**
+     * Create a parser builder that, next to the constant resource libraries, also uses the given classpath entries,
+     * for example the dependencies of the module that is being migrated.
+     */
+    public static JavaParser.Builder<? extends JavaParser, ?> create(ExecutionContext ctx, Collection<Path> additionalClasspath) {
+        final JavaParser.Builder<? extends JavaParser, ?> builder = create(ctx);
+        additionalClasspath.forEach(builder::addClasspathEntry);
+        return builder;
     }
 }
@@ -13,11 +13,17 @@ import java.util.stream.Stream;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.internal.ListUtils;
 import org.openrewrite.internal.StringUtils;
+import org.openrewrite.java.JavaTemplate;
 import org.openrewrite.java.search.FindAnnotations;
 import org.openrewrite.java.tree.Comment;
+import org.openrewrite.java.tree.Expression;
 import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JContainer;
 import org.openrewrite.java.tree.JLeftPadded;
+import org.openrewrite.java.tree.JRightPadded;
 import org.openrewrite.java.tree.JavaType;
 import org.openrewrite.java.tree.Space;
 import org.openrewrite.java.tree.TextComment;
@@ -42,6 +48,15 @@ import lombok.experimental.UtilityClass;
 @UtilityClass
 public class RewriteUtils {
 
+    /**
+     * The JPA annotations of the fields that are a relationship to another entity.
+     */
+    public static final String[] RELATIONSHIP_TYPES = {
+            Constants.Jpa.ONE_TO_MANY_ANNOTATION_FULL,
+            Constants.Jpa.MANY_TO_MANY_ANNOTATION_FULL,
+            Constants.Jpa.ONE_TO_ONE_ANNOTATION_FULL,
+            Constants.Jpa.MANY_TO_ONE_ANNOTATION_FULL};
+
     /**
      * Finds and returns the parent class declaration from the given cursor.
      * This method traverses up the cursor's tree until it finds a node representing
@@ -490,6 +505,21 @@ public class RewriteUtils {
                 null);
     }
 
+    /**
+     * Checks if the compilation unit of the cursor imports the specified type, which for example means that another
+     * type with the same simple name must be used fully qualified.
+     *
+     * @param cursor             the cursor within the compilation unit. Must not be null.
+     * @param fullyQualifiedName the fully qualified name of the imported type. Must not be null.
+     * @return true if the compilation unit imports the type, false otherwise.
+     */
+    public static boolean importsType(Cursor cursor, String fullyQualifiedName) {
+        return Optional.ofNullable(cursor.firstEnclosing(J.CompilationUnit.class))
+                .map(cu -> cu.getImports().stream()
+                        .anyMatch(i -> TypeUtils.isOfClassType(i.getQualid().getType(), fullyQualifiedName)))
+                .orElse(false);
+    }
+
     /**
      * Sanitizes the given string by replacing periods with underscores if the string contains a period.
      * If the input string is blank, it returns null.
@@ -552,4 +582,184 @@ public class RewriteUtils {
                 .allMatch(m -> multiVariable.getModifiers().stream()
                         .anyMatch(mm -> mm.getType() == m));
     }
+
+    /**
+     * Returns the elements of an array attribute of an annotation, like the <code>indexes</code> of a
+     * <code>@Table</code>.
+     *
+     * @param annotation    the annotation with the attribute
+     * @param attributeName the name of the attribute
+     * @return the elements of the array, the value when it is a single element, or an empty list when the attribute
+     * is absent
+     */
+    public static List<Expression> arrayElements(J.Annotation annotation, String attributeName) {
+        return findArgument(annotation, attributeName)
+                .filter(J.Assignment.class::isInstance)
+                .map(argument -> ((J.Assignment) argument).getAssignment())
+                .map(value -> value instanceof J.NewArray array && array.getInitializer() != null
+                        ? array.getInitializer()
+                        : List.of(value))
+                .map(elements -> elements.stream().filter(element -> !(element instanceof J.Empty)).toList())
+                .orElse(List.of());
+    }
+
+    /**
+     * Adds the indexes to the <code>indexes</code> of the <code>@Table</code> of the class, or adds a
+     * <code>@Table</code> with the indexes when the class has none. The existing arguments and indexes keep their
+     * layout. The caller adds the imports.
+     *
+     * @param cd      the class declaration as visited
+     * @param indexes the <code>@Index</code> annotations to add as source
+     * @param cursor  the cursor of the class declaration
+     * @param ctx     the execution context
+     * @return the class declaration with the indexes
+     */
+    public static J.ClassDeclaration addIndexes(J.ClassDeclaration cd, List<String> indexes, Cursor cursor, ExecutionContext ctx) {
+        Optional<J.Annotation> table = findLeadingAnnotations(cd, Constants.Jpa.TABLE_ANNOTATION_FULL).stream()
+                .findFirst();
+        String template = "@" + Constants.Jpa.TABLE_ANNOTATION_NAME + "(" + Constants.Jpa.TABLE_ARGUMENT_INDEXES +
+                " = {" + String.join(", ", indexes) + "})";
+        JavaTemplate javaTemplate = JavaTemplate.builder(template)
+                .javaParser(JavaParserFactory.create(ctx))
+                .imports(Constants.Jpa.TABLE_ANNOTATION_FULL, Constants.Jpa.INDEX_ANNOTATION_FULL)
+                .build();
+        if (table.isEmpty()) {
+            return javaTemplate.apply(cursor, cd.getCoordinates().addAnnotation(Comparator.comparing(J.Annotation::getSimpleName)));
+        }
+        // Build the typed indexes on a copy of the class and append them to the existing table annotation
+        J.ClassDeclaration templateClass = javaTemplate.apply(cursor, cd.getCoordinates().replaceAnnotations());
+        J.Annotation templateTable = templateClass.getLeadingAnnotations().get(0);
+        J.Assignment templateIndexes = (J.Assignment) templateTable.getArguments().get(0);
+        J.NewArray templateArray = (J.NewArray) templateIndexes.getAssignment();
+        List<Expression> added = templateArray.getInitializer() == null ? List.of() : templateArray.getInitializer();
+
+        J.Annotation newTable = table.get();
+        Optional<J.Assignment> existing = arrayArgument(newTable, Constants.Jpa.TABLE_ARGUMENT_INDEXES);
+        if (existing.isEmpty()) {
+            JContainer<Expression> arguments = newTable.getPadding().getArguments();
+            newTable = newTable.getPadding().withArguments(append(arguments == null ? JContainer.empty() : arguments,
+                    List.of(templateIndexes)));
+        } else if (existing.get().getAssignment() instanceof J.NewArray array && array.getInitializer() != null) {
+            J.Assignment assignment = existing.get().withAssignment(array.getPadding()
+                    .withInitializer(append(array.getPadding().getInitializer(), added)));
+            newTable = newTable.withArguments(ListUtils.map(newTable.getArguments(),
+                    argument -> argument == existing.get() ? assignment : argument));
+        } else {
+            // A single index becomes an array of indexes
+            Expression single = existing.get().getAssignment();
+            J.NewArray array = templateArray
+                    .withInitializer(List.of(single.withPrefix(Space.EMPTY)))
+                    .withPrefix(single.getPrefix());
+            J.Assignment assignment = existing.get().withAssignment(array.getPadding()
+                    .withInitializer(append(array.getPadding().getInitializer(), added)));
+            newTable = newTable.withArguments(ListUtils.map(newTable.getArguments(),
+                    argument -> argument == existing.get() ? assignment : argument));
+        }
+        J.Annotation replacement = newTable;
+        return cd.withLeadingAnnotations(ListUtils.map(cd.getLeadingAnnotations(),
+                a -> a.getId().equals(table.get().getId()) ? replacement : a));
+    }
+
+    private static Optional<J.Assignment> arrayArgument(J.Annotation annotation, String attributeName) {
+        return annotation.getArguments() == null ? Optional.empty() : annotation.getArguments().stream()
+                .filter(J.Assignment.class::isInstance)
+                .map(J.Assignment.class::cast)
+                .filter(assignment -> attributeName.equals(assignment.getVariable().toString()))
+                .findFirst();
+    }
+
+    /**
+     * @return the container with the elements appended after its last element, separated like the existing elements
+     * and followed by the whitespace and trailing comma that followed the last element
+     */
+    private static JContainer<Expression> append(JContainer<Expression> container, List<Expression> elements) {
+        List<JRightPadded<Expression>> padded = new ArrayList<>(container.getPadding().getElements());
+        padded.removeIf(element -> element.getElement() instanceof J.Empty);
+        Space prefix = Space.SINGLE_SPACE;
+        Space after = Space.EMPTY;
+        Markers markers = Markers.EMPTY;
+        if (!padded.isEmpty()) {
+            JRightPadded<Expression> last = padded.get(padded.size() - 1);
+            if (last.getElement().getPrefix().getWhitespace().contains("\n")) {
+                prefix = last.getElement().getPrefix();
+            }
+            after = last.getAfter();
+            markers = last.getMarkers();
+            padded.set(padded.size() - 1, last.withAfter(Space.EMPTY).withMarkers(Markers.EMPTY));
+        }
+        for (Expression element : elements) {
+            padded.add(JRightPadded.build(element.withPrefix(padded.isEmpty() ? Space.EMPTY : prefix)));
+        }
+        JRightPadded<Expression> last = padded.get(padded.size() - 1);
+        padded.set(padded.size() - 1, last.withAfter(after).withMarkers(markers));
+        return container.getPadding().withElements(padded);
+    }
+
+    /**
+     * Determines if the class is an entity, annotated with the JPA <code>@Entity</code> or the JDO
+     * <code>@PersistenceCapable</code>, but not with <code>@MappedSuperclass</code>.
+     *
+     * @param cd the class declaration to check
+     * @return true if the class is an entity, false otherwise
+     */
+    public static boolean isEntity(J.ClassDeclaration cd) {
+        return findLeadingAnnotations(cd, Constants.Jpa.MAPPED_SUPERCLASS_ANNOTATION_FULL).isEmpty()
+                && (!findLeadingAnnotations(cd, Constants.Jpa.ENTITY_ANNOTATION_FULL).isEmpty()
+                || !findLeadingAnnotations(cd, Constants.Jdo.PERSISTENCE_CAPABLE_ANNOTATION_FULL).isEmpty());
+    }
+
+    /**
+     * Finds the value of a DataNucleus extension of a JDO annotation, like
+     * <code>@Version(extensions = {@Extension(vendorName = "datanucleus", key = "field-name", value = "version")})</code>.
+     *
+     * @param annotation the JDO annotation with the extensions
+     * @param key        the key of the extension
+     * @return the value of the first extension of the annotation with the given key
+     */
+    public static Optional<String> findExtension(J.Annotation annotation, String key) {
+        return findArgument(annotation, Constants.Jdo.VERSION_ARGUMENT_EXTENSIONS)
+                .map(argument -> argument instanceof J.Assignment assignment ? assignment.getAssignment() : argument)
+                .map(argument -> argument instanceof J.NewArray array && array.getInitializer() != null
+                        ? array.getInitializer() : List.of((Expression) argument))
+                .flatMap(extensions -> extensions.stream()
+                        .filter(J.Annotation.class::isInstance)
+                        .map(J.Annotation.class::cast)
+                        .filter(extension -> findArgument(extension, Constants.Jdo.EXTENSION_ARGUMENT_KEY)
+                                .map(RewriteUtils::valueOf)
+                                .filter(key::equals)
+                                .isPresent())
+                        .findFirst()
+                        .flatMap(extension -> findArgument(extension, Constants.Jdo.EXTENSION_ARGUMENT_VALUE))
+                        .map(RewriteUtils::valueOf));
+    }
+
+    /**
+     * Returns the value of an annotation argument, or of the assignment of a named argument.
+     *
+     * @param argument the annotation argument
+     * @return the value of a literal, or else the source of the expression
+     */
+    public static String valueOf(J argument) {
+        J value = argument instanceof J.Assignment assignment ? assignment.getAssignment() : argument;
+        if (value instanceof J.Literal literal && literal.getValue() != null) {
+            return literal.getValue().toString();
+        }
+        return value.toString().trim();
+    }
+
+    /**
+     * Determines if the field is a relationship to another entity, annotated with one of the
+     * {@link #RELATIONSHIP_TYPES}.
+     *
+     * @param multiVariable the variable declarations to check
+     * @return true if the field is a relationship, false otherwise
+     */
+    public static boolean isRelationship(J.VariableDeclarations multiVariable) {
+        for (String type : RELATIONSHIP_TYPES) {
+            if (!findLeadingAnnotations(multiVariable, type).isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,855 @@
+package com.ecpnv.openrewrite.xml;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.StringUtils;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+import org.openrewrite.xml.XmlIsoVisitor;
+import org.openrewrite.xml.XmlParser;
+import org.openrewrite.xml.tree.Xml;
+
+import com.ecpnv.openrewrite.jdo2jpa.Constants;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+/**
+ * Converts the JDO metadata of <code>package.jdo</code> and <code>package-*.orm</code> files into a JPA
+ * <code>orm.xml</code>, so mappings that are not defined by annotations survive the migration.
+ * <p>
+ * The conversion adheres to the following rules:
+ * <ul>
+ * <li> Every <code>class</code> of the metadata becomes an <code>entity</code>, an <code>embeddable</code> when it is
+ * embedded only, or a <code>mapped-superclass</code> when its inheritance strategy is <code>subclass-table</code>.
+ * <li> Tables, columns, indexes and unique constraints are copied. Fields that are indexed, the indexed discriminator
+ * and the field indexes become indexes of the table.
+ * <li> The inheritance strategy of a hierarchy is defined on its root: <code>SINGLE_TABLE</code> when a subclass uses
+ * <code>superclass-table</code>, <code>TABLE_PER_CLASS</code> for <code>complete-table</code> and <code>JOINED</code>
+ * otherwise. The discriminator column and values are copied, for the <code>class-name</code> strategy the value is
+ * the class name.
+ * <li> Relations are derived from the metadata and, when available, the field types of the Java sources: a collection
+ * with a <code>mapped-by</code> becomes a <code>one-to-many</code>, or a <code>many-to-many</code> when the other side
+ * is a collection too, a collection with a <code>join</code> a <code>one-to-many</code> with a join table, a
+ * collection of non-entities an <code>element-collection</code> and a reference to an entity a
+ * <code>many-to-one</code>, or a <code>one-to-one</code> when it is unique or mapped by the other side.
+ * <li> <code>metadata-complete</code> is only set when it is safe, that is when the Java class is known, has no
+ * persistence annotations, all its fields are mapped by the metadata and nothing was left unconverted.
+ * <li> The metadata is read one document at a time and only the mapping model is kept, not the documents.
+ * <li> Every module gets its own <code>orm.xml</code> with the classes of its metadata files, where the module is the
+ * directory that contains the <code>src</code> directory of the metadata file. The <code>orm.xml</code> of a module is
+ * not generated when it already exists.
+ * </ul>
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class ConvertJdoMetadataToOrmXml extends ScanningRecipe<ConvertJdoMetadataToOrmXml.Accumulator> {
+
+    public static final String DEFAULT_ORM_XML_PATH = "src/main/resources/META-INF/orm.xml";
+    public static final List<String> METADATA_EXTENSIONS = List.of(".jdo", ".orm");
+    public static final List<String> METADATA_ROOTS = List.of("jdo", "orm");
+    public static final List<String> LOB_JDBC_TYPES = List.of("CLOB", "BLOB");
+    public static final List<String> DECIMAL_JDBC_TYPES = List.of("DECIMAL", "NUMERIC");
+    public static final String ENTITY = "entity";
+    public static final String EMBEDDABLE = "embeddable";
+    public static final String MAPPED_SUPERCLASS = "mapped-superclass";
+
+    @Option(displayName = "orm.xml path",
+            description = "The path of the generated JPA mapping file in each module. The default is `" +
+                    DEFAULT_ORM_XML_PATH + "`.",
+            required = false,
+            example = "src/main/resources/META-INF/orm.xml")
+    @Nullable
+    String ormXml;
+
+    @Option(displayName = "Metadata complete",
+            description = "Whether `metadata-complete` is set on the classes that are completely mapped by the JDO " +
+                    "metadata, so EclipseLink does not scan their annotations. The default is true.",
+            required = false)
+    @Nullable
+    Boolean metadataComplete;
+
+    @JsonCreator
+    public ConvertJdoMetadataToOrmXml(
+            @Nullable @JsonProperty("ormXml") String ormXml,
+            @Nullable @JsonProperty("metadataComplete") Boolean metadataComplete) {
+        this.ormXml = ormXml;
+        this.metadataComplete = metadataComplete;
+    }
+
+    @Override
+    public @NotNull String getDisplayName() {
+        return "Convert JDO metadata to JPA orm.xml";
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return "Converts the tables, columns, indexes, inheritance and relations of `package.jdo` and " +
+                "`package-*.orm` metadata files into a JPA `orm.xml`.";
+    }
+
+    @Override
+    public Accumulator getInitialValue(ExecutionContext ctx) {
+        return new Accumulator();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Accumulator acc) {
+        JavaIsoVisitor<ExecutionContext> javaScanner = new JavaIsoVisitor<>() {
+            @Override
+            public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+                J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
+                if (cd.getType() != null) {
+                    acc.javaClasses.put(cd.getType().getFullyQualifiedName(), JavaClass.of(cd));
+                }
+                return cd;
+            }
+        };
+        XmlIsoVisitor<ExecutionContext> metadataScanner = new XmlIsoVisitor<>() {
+            @Override
+            public Xml.Tag visitTag(Xml.Tag tag, ExecutionContext ctx) {
+                if (!"class".equals(localName(tag))) {
+                    return super.visitTag(tag, ctx);
+                }
+                String packageName = getCursor().getPathAsStream()
+                        .filter(Xml.Tag.class::isInstance)
+                        .map(Xml.Tag.class::cast)
+                        .filter(t -> "package".equals(localName(t)))
+                        .findFirst()
+                        .map(t -> attribute(t, "name"))
+                        .orElse("");
+                ClassMapping mapping = ClassMapping.of(packageName, tag);
+                mapping.module = module(getCursor().firstEnclosingOrThrow(Xml.Document.class).getSourcePath());
+                acc.classes.put(mapping.name, mapping);
+                // the fields of the class are read by the class mapping
+                return tag;
+            }
+        };
+        return new TreeVisitor<Tree, ExecutionContext>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                if (tree instanceof SourceFile sourceFile
+                        && sourceFile.getSourcePath().equals(ormXmlPath(module(sourceFile.getSourcePath())))) {
+                    acc.existingOrmXmls.add(sourceFile.getSourcePath());
+                } else if (tree instanceof Xml.Document document && isJdoMetadata(document)) {
+                    metadataScanner.visit(document, ctx);
+                } else if (tree instanceof J.CompilationUnit) {
+                    javaScanner.visit(tree, ctx);
+                }
+                return tree;
+            }
+        };
+    }
+
+    @Override
+    public Collection<? extends SourceFile> generate(Accumulator acc, ExecutionContext ctx) {
+        Map<Path, List<ClassMapping>> classesByModule = acc.classes.values().stream()
+                .collect(Collectors.groupingBy(mapping -> mapping.module, TreeMap::new, Collectors.toList()));
+        List<SourceFile> generated = new ArrayList<>();
+        classesByModule.forEach((module, classes) -> {
+            Path path = ormXmlPath(module);
+            if (!acc.existingOrmXmls.contains(path)) {
+                new XmlParser().parse(toOrmXml(acc, classes))
+                        .map(sourceFile -> sourceFile.<SourceFile>withSourcePath(path))
+                        .forEach(generated::add);
+            }
+        });
+        return generated;
+    }
+
+    Path ormXmlPath(Path module) {
+        return module.resolve(StringUtils.isBlank(ormXml) ? DEFAULT_ORM_XML_PATH : ormXml);
+    }
+
+    /**
+     * @return the directory that contains the <code>src</code> directory of the source path, or the empty path when it
+     * is not in a <code>src</code> directory
+     */
+    static Path module(Path sourcePath) {
+        for (int i = 0; i < sourcePath.getNameCount() - 1; i++) {
+            if ("src".equals(sourcePath.getName(i).toString())) {
+                return i == 0 ? Path.of("") : sourcePath.subpath(0, i);
+            }
+        }
+        return Path.of("");
+    }
+
+    static boolean isJdoMetadata(Xml.Document document) {
+        String fileName = document.getSourcePath().getFileName().toString().toLowerCase(Locale.ROOT);
+        return METADATA_EXTENSIONS.stream().anyMatch(fileName::endsWith)
+                && document.getRoot() != null
+                && METADATA_ROOTS.contains(localName(document.getRoot()));
+    }
+
+    static String localName(Xml.Tag tag) {
+        return tag.getName().substring(tag.getName().indexOf(':') + 1);
+    }
+
+    static List<Xml.Tag> children(Xml.Tag tag, String name) {
+        return tag.getChildren().stream().filter(child -> name.equals(localName(child))).toList();
+    }
+
+    static Optional<Xml.Tag> child(Xml.Tag tag, String name) {
+        return children(tag, name).stream().findFirst();
+    }
+
+    static @Nullable String attribute(Xml.Tag tag, String name) {
+        return tag.getAttributes().stream()
+                .filter(attribute -> name.equals(attribute.getKeyAsString()))
+                .map(attribute -> attribute.getValueAsString().trim())
+                .filter(value -> !value.isEmpty())
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * @return the column name of a column attribute or the first nested column element of the given tag
+     */
+    static @Nullable String columnName(Xml.Tag tag) {
+        String column = attribute(tag, "column");
+        return column != null ? column : child(tag, "column").map(c -> attribute(c, "name")).orElse(null);
+    }
+
+    String toOrmXml(Accumulator acc, Collection<ClassMapping> mappings) {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<entity-mappings xmlns=\"http://xmlns.jcp.org/xml/ns/persistence/orm\"\n")
+                .append("                 xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n")
+                .append("                 xsi:schemaLocation=\"http://xmlns.jcp.org/xml/ns/persistence/orm ")
+                .append("http://xmlns.jcp.org/xml/ns/persistence/orm_2_2.xsd\"\n")
+                .append("                 version=\"2.2\">\n");
+        List<ClassMapping> classes = mappings.stream()
+                .sorted(Comparator.comparing(ClassMapping::getName))
+                .toList();
+        // the schema orders the mapped superclasses before the entities and the embeddables
+        for (String kind : List.of(MAPPED_SUPERCLASS, ENTITY, EMBEDDABLE)) {
+            classes.stream()
+                    .filter(mapping -> kind.equals(mapping.kind()))
+                    .forEach(mapping -> appendClass(xml, acc, mapping));
+        }
+        return xml.append("</entity-mappings>\n").toString();
+    }
+
+    void appendClass(StringBuilder xml, Accumulator acc, ClassMapping mapping) {
+        String kind = mapping.kind();
+        xml.append("    <").append(kind).append(" class=\"").append(escape(mapping.name)).append('"');
+        if (isMetadataComplete(acc, mapping)) {
+            xml.append(" metadata-complete=\"true\"");
+        }
+        xml.append(">\n");
+        if (ENTITY.equals(kind)) {
+            ClassMapping root = acc.root(mapping);
+            String strategy = acc.strategy(root);
+            if (!"SINGLE_TABLE".equals(strategy) || root == mapping) {
+                appendTable(xml, acc, mapping, "SINGLE_TABLE".equals(strategy));
+            }
+            if (root == mapping && strategy != null) {
+                xml.append("        <inheritance strategy=\"").append(strategy).append("\"/>\n");
+            }
+            // the class-name strategy of the root applies to the whole hierarchy
+            String discriminatorValue = "class-name".equals(root.discriminatorStrategy)
+                    ? mapping.name : mapping.discriminatorValue;
+            if (discriminatorValue != null) {
+                xml.append("        <discriminator-value>").append(escape(discriminatorValue))
+                        .append("</discriminator-value>\n");
+            }
+            if (root == mapping && mapping.discriminatorColumn != null) {
+                xml.append("        <discriminator-column name=\"").append(escape(mapping.discriminatorColumn))
+                        .append("\"/>\n");
+            }
+        }
+        appendAttributes(xml, acc, mapping);
+        xml.append("    </").append(kind).append(">\n");
+    }
+
+    void appendTable(StringBuilder xml, Accumulator acc, ClassMapping mapping, boolean singleTable) {
+        // the indexes of the subclasses of a single table are defined on the table of the root
+        List<ClassMapping> owners = new ArrayList<>(List.of(mapping));
+        if (singleTable) {
+            acc.classes.values().stream()
+                    .filter(c -> c != mapping && acc.root(c) == mapping)
+                    .sorted(Comparator.comparing(ClassMapping::getName))
+                    .forEach(owners::add);
+        }
+        List<IndexMapping> uniques = owners.stream().flatMap(owner -> owner.uniques.stream()).toList();
+        List<IndexMapping> indexes = owners.stream().flatMap(owner -> owner.indexes.stream()).toList();
+        if (mapping.table == null && mapping.schema == null && mapping.catalog == null
+                && uniques.isEmpty() && indexes.isEmpty()) {
+            return;
+        }
+        xml.append("        <table");
+        appendAttribute(xml, "name", mapping.table);
+        appendAttribute(xml, "catalog", mapping.catalog);
+        appendAttribute(xml, "schema", mapping.schema);
+        if (uniques.isEmpty() && indexes.isEmpty()) {
+            xml.append("/>\n");
+            return;
+        }
+        xml.append(">\n");
+        for (IndexMapping unique : uniques) {
+            xml.append("            <unique-constraint");
+            appendAttribute(xml, "name", unique.name);
+            xml.append(">\n");
+            unique.columns.forEach(column -> xml.append("                <column-name>").append(escape(column))
+                    .append("</column-name>\n"));
+            xml.append("            </unique-constraint>\n");
+        }
+        for (IndexMapping index : indexes) {
+            xml.append("            <index");
+            appendAttribute(xml, "name", index.name);
+            appendAttribute(xml, "column-list", String.join(", ", index.columns));
+            appendAttribute(xml, "unique", index.unique ? "true" : null);
+            xml.append("/>\n");
+        }
+        xml.append("        </table>\n");
+    }
+
+    void appendAttributes(StringBuilder xml, Accumulator acc, ClassMapping mapping) {
+        Map<String, StringBuilder> attributes = new LinkedHashMap<>();
+        // the schema orders the attributes by their kind
+        for (String kind : List.of("id", "basic", "version", "many-to-one", "one-to-many", "one-to-one",
+                "many-to-many", "element-collection", "transient")) {
+            attributes.put(kind, new StringBuilder());
+        }
+        for (FieldMapping field : mapping.fields) {
+            String kind = field.kind(acc, mapping);
+            StringBuilder attribute = attributes.get(kind);
+            attribute.append("            <").append(kind).append(" name=\"").append(escape(field.name)).append('"');
+            if (field.elementType != null && List.of("one-to-many", "many-to-many").contains(kind)) {
+                appendAttribute(attribute, "target-entity", field.elementType);
+            }
+            appendAttribute(attribute, "mapped-by", field.mappedBy);
+            if ("basic".equals(kind) && field.lazy) {
+                appendAttribute(attribute, "fetch", "LAZY");
+            }
+            StringBuilder content = new StringBuilder();
+            switch (kind) {
+                case "id", "basic", "version" -> appendColumn(content, field);
+                case "element-collection" -> {
+                    appendOrderBy(content, field);
+                    appendColumn(content, field);
+                    if (field.table != null || field.joinColumn != null) {
+                        content.append("                <collection-table");
+                        appendAttribute(content, "name", field.table);
+                        if (field.joinColumn != null) {
+                            content.append(">\n                    <join-column name=\"")
+                                    .append(escape(field.joinColumn))
+                                    .append("\"/>\n                </collection-table>\n");
+                        } else {
+                            content.append("/>\n");
+                        }
+                    }
+                }
+                case "one-to-many", "many-to-many" -> {
+                    appendOrderBy(content, field);
+                    if (field.mappedBy == null && field.join) {
+                        appendJoinTable(content, field);
+                    } else if (field.mappedBy == null && field.elementColumn != null) {
+                        content.append("                <join-column name=\"").append(escape(field.elementColumn))
+                                .append("\"/>\n");
+                    }
+                }
+                case "many-to-one", "one-to-one" -> {
+                    if (field.mappedBy == null && field.column != null) {
+                        content.append("                <join-column name=\"").append(escape(field.column)).append('"');
+                        appendAttribute(content, "nullable", field.nullable() ? null : "false");
+                        content.append("/>\n");
+                    }
+                }
+                default -> {
+                }
+            }
+            if ("id".equals(kind)) {
+                appendGeneratedValue(content, field);
+            }
+            if ("basic".equals(kind) && field.jdbcType != null && LOB_JDBC_TYPES.contains(field.jdbcType)) {
+                content.append("                <lob/>\n");
+            }
+            if (content.isEmpty()) {
+                attribute.append("/>\n");
+            } else {
+                attribute.append(">\n").append(content).append("            </").append(kind).append(">\n");
+            }
+        }
+        if (mapping.versionField != null) {
+            StringBuilder version = attributes.get("version");
+            version.append("            <version name=\"").append(escape(mapping.versionField)).append('"');
+            if (mapping.versionColumn != null) {
+                version.append(">\n                <column name=\"").append(escape(mapping.versionColumn))
+                        .append("\"/>\n            </version>\n");
+            } else {
+                version.append("/>\n");
+            }
+        }
+        String content = attributes.values().stream().map(StringBuilder::toString).collect(Collectors.joining());
+        if (!content.isEmpty()) {
+            xml.append("        <attributes>\n").append(content).append("        </attributes>\n");
+        }
+    }
+
+    void appendColumn(StringBuilder xml, FieldMapping field) {
+        if (field.column == null && field.length == null && field.scale == null && field.nullable()) {
+            return;
+        }
+        boolean decimal = field.jdbcType != null && DECIMAL_JDBC_TYPES.contains(field.jdbcType);
+        xml.append("                <column");
+        appendAttribute(xml, "name", field.column);
+        appendAttribute(xml, "nullable", field.nullable() || field.primaryKey ? null : "false");
+        appendAttribute(xml, decimal ? "precision" : "length", field.length);
+        appendAttribute(xml, "scale", field.scale);
+        xml.append("/>\n");
+    }
+
+    void appendOrderBy(StringBuilder xml, FieldMapping field) {
+        if (field.orderBy != null) {
+            xml.append("                <order-by>").append(escape(field.orderBy)).append("</order-by>\n");
+        }
+    }
+
+    void appendJoinTable(StringBuilder xml, FieldMapping field) {
+        xml.append("                <join-table");
+        appendAttribute(xml, "name", field.table);
+        if (field.joinColumn == null && field.elementColumn == null) {
+            xml.append("/>\n");
+            return;
+        }
+        xml.append(">\n");
+        if (field.joinColumn != null) {
+            xml.append("                    <join-column name=\"").append(escape(field.joinColumn)).append("\"/>\n");
+        }
+        if (field.elementColumn != null) {
+            xml.append("                    <inverse-join-column name=\"").append(escape(field.elementColumn))
+                    .append("\"/>\n");
+        }
+        xml.append("                </join-table>\n");
+    }
+
+    void appendGeneratedValue(StringBuilder xml, FieldMapping field) {
+        if (field.valueStrategy == null) {
+            return;
+        }
+        String strategy = switch (field.valueStrategy.toLowerCase(Locale.ROOT)) {
+            case "identity" -> "IDENTITY";
+            case "sequence" -> "SEQUENCE";
+            case "increment" -> "TABLE";
+            case "native" -> "AUTO";
+            default -> null;
+        };
+        if (strategy == null) {
+            return;
+        }
+        xml.append("                <generated-value strategy=\"").append(strategy).append('"');
+        if ("SEQUENCE".equals(strategy) && field.sequence != null) {
+            appendAttribute(xml, "generator", field.sequence);
+            xml.append("/>\n                <sequence-generator name=\"").append(escape(field.sequence))
+                    .append("\" sequence-name=\"").append(escape(field.sequence)).append("\"/>\n");
+        } else {
+            xml.append("/>\n");
+        }
+    }
+
+    static void appendAttribute(StringBuilder xml, String name, @Nullable String value) {
+        if (value != null) {
+            xml.append(' ').append(name).append("=\"").append(escape(value)).append('"');
+        }
+    }
+
+    static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    /**
+     * @return true when the given class is completely defined by the metadata, so its annotations can be ignored
+     */
+    boolean isMetadataComplete(Accumulator acc, ClassMapping mapping) {
+        if (Boolean.FALSE.equals(metadataComplete) || mapping.unsupported) {
+            return false;
+        }
+        JavaClass javaClass = acc.javaClasses.get(mapping.name);
+        if (javaClass == null || javaClass.annotated) {
+            return false;
+        }
+        Set<String> mapped = mapping.fields.stream().map(FieldMapping::getName).collect(Collectors.toSet());
+        if (mapping.versionField != null) {
+            mapped.add(mapping.versionField);
+        }
+        return mapped.containsAll(javaClass.fields.keySet());
+    }
+
+    @Data
+    public static class Accumulator {
+        final Map<String, ClassMapping> classes = new LinkedHashMap<>();
+        final Map<String, JavaClass> javaClasses = new LinkedHashMap<>();
+        final Set<Path> existingOrmXmls = new HashSet<>();
+
+        /**
+         * @return the persistent superclass of the given class, from the metadata or else from the Java sources
+         */
+        @Nullable
+        ClassMapping superclass(ClassMapping mapping) {
+            String superclass = mapping.superclass;
+            if (superclass == null && javaClasses.containsKey(mapping.name)) {
+                superclass = javaClasses.get(mapping.name).superclass;
+            }
+            return superclass == null ? null : classes.get(superclass);
+        }
+
+        /**
+         * @return the root entity of the hierarchy of the given class, mapped superclasses are not part of it
+         */
+        ClassMapping root(ClassMapping mapping) {
+            ClassMapping root = mapping;
+            for (ClassMapping parent = superclass(mapping); parent != null && ENTITY.equals(parent.kind());
+                 parent = superclass(parent)) {
+                root = parent;
+            }
+            return root;
+        }
+
+        /**
+         * @return the JPA inheritance strategy of the given root, or null when it does not define one
+         */
+        @Nullable
+        String strategy(ClassMapping root) {
+            if ("complete-table".equals(root.inheritance)) {
+                return "TABLE_PER_CLASS";
+            }
+            List<ClassMapping> subclasses = classes.values().stream()
+                    .filter(c -> c != root && ENTITY.equals(c.kind()) && root(c) == root)
+                    .toList();
+            if (subclasses.stream().anyMatch(c -> "superclass-table".equals(c.inheritance))) {
+                return "SINGLE_TABLE";
+            }
+            return !subclasses.isEmpty() || root.inheritance != null ? "JOINED" : null;
+        }
+
+        @Nullable
+        FieldMapping field(@Nullable String className, @Nullable String fieldName) {
+            ClassMapping mapping = className == null ? null : classes.get(className);
+            return mapping == null ? null : mapping.fields.stream()
+                    .filter(field -> field.name.equals(fieldName))
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        boolean isPersistent(@Nullable String className) {
+            return className != null && (classes.containsKey(className)
+                    || (javaClasses.containsKey(className) && javaClasses.get(className).persistent));
+        }
+    }
+
+    @Data
+    public static class ClassMapping {
+        String name;
+        Path module = Path.of("");
+        @Nullable String superclass;
+        @Nullable String table;
+        @Nullable String schema;
+        @Nullable String catalog;
+        @Nullable String inheritance;
+        @Nullable String discriminatorStrategy;
+        @Nullable String discriminatorColumn;
+        @Nullable String discriminatorValue;
+        @Nullable String versionField;
+        @Nullable String versionColumn;
+        boolean embeddedOnly;
+        boolean unsupported;
+        final List<FieldMapping> fields = new ArrayList<>();
+        final List<IndexMapping> indexes = new ArrayList<>();
+        final List<IndexMapping> uniques = new ArrayList<>();
+
+        static ClassMapping of(String packageName, Xml.Tag tag) {
+            ClassMapping mapping = new ClassMapping();
+            String name = attribute(tag, "name");
+            mapping.name = name == null || name.contains(".") || packageName.isBlank() ? name : packageName + "." + name;
+            mapping.superclass = attribute(tag, "persistence-capable-superclass");
+            mapping.table = attribute(tag, "table");
+            mapping.schema = attribute(tag, "schema");
+            mapping.catalog = attribute(tag, "catalog");
+            mapping.embeddedOnly = "true".equalsIgnoreCase(attribute(tag, "embedded-only"));
+            // a datastore identity has no field to map the id to
+            mapping.unsupported = "datastore".equalsIgnoreCase(attribute(tag, "identity-type"))
+                    || child(tag, "datastore-identity").isPresent();
+            child(tag, "inheritance").ifPresent(inheritance -> {
+                mapping.inheritance = attribute(inheritance, "strategy");
+                child(inheritance, "discriminator").ifPresent(discriminator -> {
+                    mapping.discriminatorStrategy = attribute(discriminator, "strategy");
+                    mapping.discriminatorColumn = columnName(discriminator);
+                    mapping.discriminatorValue = attribute(discriminator, "value");
+                    if (mapping.discriminatorColumn != null
+                            && "true".equalsIgnoreCase(attribute(discriminator, "indexed"))) {
+                        mapping.indexes.add(new IndexMapping(null, false, List.of(mapping.discriminatorColumn)));
+                    }
+                });
+            });
+            child(tag, "version").ifPresent(version -> {
+                mapping.versionColumn = columnName(version);
+                mapping.versionField = children(version, "extension").stream()
+                        .filter(extension -> Constants.Jdo.EXTENSION_KEY_FIELD_NAME.equals(attribute(extension, "key")))
+                        .map(extension -> attribute(extension, "value"))
+                        .findFirst()
+                        .orElse(null);
+                // a surrogate version has no field to map the version to
+                mapping.unsupported |= mapping.versionField == null;
+            });
+            for (Xml.Tag child : tag.getChildren()) {
+                switch (localName(child)) {
+                    case "field", "property" -> mapping.fields.add(FieldMapping.of(child, mapping));
+                    case "index" -> mapping.indexes.add(IndexMapping.of(child, mapping,
+                            "true".equalsIgnoreCase(attribute(child, "unique"))));
+                    case "unique" -> mapping.uniques.add(IndexMapping.of(child, mapping, true));
+                    case "inheritance", "version", "datastore-identity", "primary-key", "extension" -> {
+                    }
+                    // fetch groups, queries, embedded and other metadata are not converted
+                    default -> mapping.unsupported = true;
+                }
+            }
+            return mapping;
+        }
+
+        String kind() {
+            if (embeddedOnly) {
+                return EMBEDDABLE;
+            }
+            return "subclass-table".equals(inheritance) ? MAPPED_SUPERCLASS : ENTITY;
+        }
+
+        String column(String fieldName) {
+            return fields.stream()
+                    .filter(field -> field.name.equals(fieldName) && field.column != null)
+                    .map(FieldMapping::getColumn)
+                    .findFirst()
+                    .orElse(fieldName.toUpperCase(Locale.ROOT));
+        }
+    }
+
+    @Data
+    public static class FieldMapping {
+        String name;
+        boolean persistent = true;
+        boolean primaryKey;
+        boolean collection;
+        boolean join;
+        boolean unique;
+        boolean lazy;
+        @Nullable Boolean allowsNull;
+        @Nullable String valueStrategy;
+        @Nullable String sequence;
+        @Nullable String column;
+        @Nullable String jdbcType;
+        @Nullable String length;
+        @Nullable String scale;
+        @Nullable String mappedBy;
+        @Nullable String table;
+        @Nullable String joinColumn;
+        @Nullable String elementColumn;
+        @Nullable String elementType;
+        @Nullable String orderBy;
+
+        static FieldMapping of(Xml.Tag tag, ClassMapping owner) {
+            FieldMapping field = new FieldMapping();
+            field.name = attribute(tag, "name");
+            String modifier = attribute(tag, "persistence-modifier");
+            field.persistent = modifier == null || "persistent".equalsIgnoreCase(modifier);
+            field.primaryKey = "true".equalsIgnoreCase(attribute(tag, "primary-key"));
+            field.valueStrategy = attribute(tag, "value-strategy");
+            field.sequence = attribute(tag, "sequence");
+            field.mappedBy = attribute(tag, "mapped-by");
+            field.table = attribute(tag, "table");
+            field.lazy = "false".equalsIgnoreCase(attribute(tag, "default-fetch-group"));
+            field.unique = "true".equalsIgnoreCase(attribute(tag, "unique")) || child(tag, "unique").isPresent();
+            if ("exception".equalsIgnoreCase(attribute(tag, "null-value"))) {
+                field.allowsNull = false;
+            }
+            field.column = attribute(tag, "column");
+            child(tag, "column").ifPresent(column -> {
+                field.column = field.column != null ? field.column : attribute(column, "name");
+                field.jdbcType = Optional.ofNullable(attribute(column, "jdbc-type"))
+                        .map(type -> type.toUpperCase(Locale.ROOT))
+                        .orElse(null);
+                field.length = attribute(column, "length");
+                field.scale = attribute(column, "scale");
+                if (attribute(column, "allows-null") != null) {
+                    field.allowsNull = "true".equalsIgnoreCase(attribute(column, "allows-null"));
+                }
+            });
+            for (String collection : List.of("collection", "array")) {
+                child(tag, collection).ifPresent(c -> {
+                    field.collection = true;
+                    field.elementType = attribute(c, "element-type");
+                    if (field.elementType != null && !field.elementType.contains(".") && owner.name.contains(".")) {
+                        field.elementType = owner.name.substring(0, owner.name.lastIndexOf('.') + 1) + field.elementType;
+                    }
+                });
+            }
+            child(tag, "join").ifPresent(join -> {
+                field.join = true;
+                field.joinColumn = columnName(join);
+            });
+            child(tag, "element").ifPresent(element -> field.elementColumn = columnName(element));
+            child(tag, "order").flatMap(order -> children(order, "extension").stream()
+                            .filter(e -> Constants.Jdo.EXTENSION_KEY_LIST_ORDERING.equals(attribute(e, "key")))
+                            .map(e -> attribute(e, "value"))
+                            .findFirst())
+                    .ifPresent(ordering -> field.orderBy = ordering);
+            String indexed = attribute(tag, "indexed");
+            Optional<Xml.Tag> index = child(tag, "index");
+            if (index.isPresent() || "true".equalsIgnoreCase(indexed) || "unique".equalsIgnoreCase(indexed)) {
+                owner.indexes.add(new IndexMapping(index.map(i -> attribute(i, "name")).orElse(null),
+                        "unique".equalsIgnoreCase(indexed) || index.map(i -> "true".equalsIgnoreCase(attribute(i, "unique"))).orElse(false),
+                        List.of(field.column != null ? field.column : field.name.toUpperCase(Locale.ROOT))));
+            }
+            if (field.unique) {
+                owner.uniques.add(new IndexMapping(child(tag, "unique").map(u -> attribute(u, "name")).orElse(null),
+                        true, List.of(field.column != null ? field.column : field.name.toUpperCase(Locale.ROOT))));
+            }
+            // maps and embedded fields are not converted
+            owner.unsupported |= child(tag, "map").isPresent() || child(tag, "embedded").isPresent()
+                    || "true".equalsIgnoreCase(attribute(tag, "embedded"));
+            return field;
+        }
+
+        boolean nullable() {
+            return allowsNull == null || allowsNull;
+        }
+
+        /**
+         * @return the orm.xml element of the field
+         */
+        String kind(Accumulator acc, ClassMapping owner) {
+            if (!persistent) {
+                return "transient";
+            }
+            if (primaryKey) {
+                return "id";
+            }
+            JavaField javaField = Optional.ofNullable(acc.javaClasses.get(owner.name))
+                    .map(javaClass -> javaClass.fields.get(name))
+                    .orElse(null);
+            String type = javaField == null ? null : javaField.type;
+            String element = elementType != null ? elementType : javaField == null ? null : javaField.elementType;
+            if (collection || (javaField != null && javaField.collection)) {
+                if (mappedBy != null) {
+                    FieldMapping other = acc.field(element, mappedBy);
+                    return other != null && other.collection ? "many-to-many" : "one-to-many";
+                }
+                // a join table without a known element type is a collection of entities
+                return acc.isPersistent(element) || (element == null && join) ? "one-to-many" : "element-collection";
+            }
+            if (acc.isPersistent(type) || (javaField == null && mappedBy != null)) {
+                if (mappedBy != null || unique) {
+                    return "one-to-one";
+                }
+                FieldMapping other = acc.classes.getOrDefault(type, new ClassMapping()).fields.stream()
+                        .filter(field -> name.equals(field.mappedBy))
+                        .findFirst()
+                        .orElse(null);
+                return other != null && !other.collection ? "one-to-one" : "many-to-one";
+            }
+            return "basic";
+        }
+    }
+
+    public record IndexMapping(@Nullable String name, boolean unique, List<String> columns) {
+
+        static IndexMapping of(Xml.Tag tag, ClassMapping owner, boolean unique) {
+            List<String> columns = new ArrayList<>();
+            for (Xml.Tag child : tag.getChildren()) {
+                if ("column".equals(localName(child)) && attribute(child, "name") != null) {
+                    columns.add(attribute(child, "name"));
+                } else if ("field".equals(localName(child)) && attribute(child, "name") != null) {
+                    columns.add(owner.column(attribute(child, "name")));
+                }
+            }
+            String members = attribute(tag, "members");
+            if (members != null) {
+                for (String member : members.split(",")) {
+                    columns.add(owner.column(member.trim()));
+                }
+            }
+            return new IndexMapping(attribute(tag, "name"), unique, columns);
+        }
+    }
+
+    @Data
+    public static class JavaClass {
+        @Nullable String superclass;
+        boolean persistent;
+        boolean annotated;
+        final Map<String, JavaField> fields = new LinkedHashMap<>();
+
+        static JavaClass of(J.ClassDeclaration classDecl) {
+            JavaClass javaClass = new JavaClass();
+            JavaType.FullyQualified supertype = classDecl.getType() == null ? null : classDecl.getType().getSupertype();
+            if (supertype != null && !"java.lang.Object".equals(supertype.getFullyQualifiedName())) {
+                javaClass.superclass = supertype.getFullyQualifiedName();
+            }
+            javaClass.persistent = classDecl.getLeadingAnnotations().stream()
+                    .anyMatch(annotation -> TypeUtils.isOfClassType(annotation.getType(), Constants.Jdo.PERSISTENCE_CAPABLE_ANNOTATION_FULL)
+                            || TypeUtils.isOfClassType(annotation.getType(), Constants.Jpa.ENTITY_ANNOTATION_FULL));
+            javaClass.annotated = classDecl.getLeadingAnnotations().stream().anyMatch(JavaClass::isPersistenceAnnotation);
+            for (var statement : classDecl.getBody().getStatements()) {
+                if (!(statement instanceof J.VariableDeclarations mv)
+                        || mv.hasModifier(J.Modifier.Type.Static) || mv.hasModifier(J.Modifier.Type.Transient)) {
+                    continue;
+                }
+                javaClass.annotated |= mv.getLeadingAnnotations().stream().anyMatch(JavaClass::isPersistenceAnnotation);
+                JavaField field = JavaField.of(mv.getType());
+                mv.getVariables().forEach(variable -> javaClass.fields.put(variable.getSimpleName(), field));
+            }
+            return javaClass;
+        }
+
+        static boolean isPersistenceAnnotation(J.Annotation annotation) {
+            JavaType.FullyQualified type = TypeUtils.asFullyQualified(annotation.getType());
+            return type != null && (type.getFullyQualifiedName().startsWith(Constants.Jdo.BASE_PACKAGE)
+                    || type.getFullyQualifiedName().startsWith(Constants.Jpa.BASE_PACKAGE));
+        }
+    }
+
+    public record JavaField(@Nullable String type, boolean collection, @Nullable String elementType) {
+
+        static JavaField of(@Nullable JavaType javaType) {
+            JavaType.FullyQualified type = TypeUtils.asFullyQualified(javaType);
+            if (type == null) {
+                return new JavaField(null, false, null);
+            }
+            boolean collection = TypeUtils.isAssignableTo("java.util.Collection", type);
+            String elementType = null;
+            if (collection && javaType instanceof JavaType.Parameterized parameterized
+                    && !parameterized.getTypeParameters().isEmpty()) {
+                JavaType.FullyQualified element = TypeUtils.asFullyQualified(parameterized.getTypeParameters().get(0));
+                elementType = element == null ? null : element.getFullyQualifiedName();
+            }
+            return new JavaField(type.getFullyQualifiedName(), collection, elementType);
+        }
+    }
+}
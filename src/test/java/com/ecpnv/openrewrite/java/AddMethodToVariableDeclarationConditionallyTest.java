@@ -20,6 +20,7 @@ import org.openrewrite.DocumentExample;
 import org.openrewrite.test.RecipeSpec;
 import org.openrewrite.test.TypeValidation;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.openrewrite.java.Assertions.java;
 
 import com.ecpnv.openrewrite.jdo2jpa.BaseRewriteTest;
@@ -70,8 +71,6 @@ class AddMethodToVariableDeclarationConditionallyTest extends BaseRewriteTest {
                                 }
                                 """,
                         """
-                                import java.util.ArrayList;
-                                import java.util.Collection;
                                 import java.util.Collections;
                                 import java.util.List;
                                 import java.util.stream.Stream;
@@ -87,13 +86,80 @@ class AddMethodToVariableDeclarationConditionallyTest extends BaseRewriteTest {
                                     private List<Person> persons;
                                 
                                     @Programmatic
-                                    public Collection<Person> getPersons() {
-                                        return Collections.unmodifiableCollection(persons);
+                                    public List<Person> getPersons() {
+                                        return Collections.unmodifiableList(persons);
                                     }
                                 
                                     @Programmatic
                                     public Stream<Person> streamPersons() {
-                                        return new ArrayList<>(persons).stream();
+                                        return Collections.unmodifiableCollection(persons).stream();
+                                    }
+                                
+                                    @Programmatic
+                                    public void addToPersons(Person element) {
+                                        element.setSomeEntity(this);
+                                        persons.add(element);
+                                    }
+                                
+                                    @Programmatic
+                                    public void removeFromPersons(Person element) {
+                                        persons.remove(element);
+                                        element.setSomeEntity(null);
+                                    }
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * The getter of a sorted set uses the template variant of the sorted set, the stream does not copy the set.
+     */
+    @Test
+    void addMethodVariantToVariableDeclaration() {
+        rewriteRun(
+                spec -> spec.typeValidationOptions(
+                        TypeValidation.builder().allowMissingType(o -> true).build()),
+                //language=java
+                java(
+                        """
+                                import java.util.SortedSet;
+                                import java.util.TreeSet;
+                                import javax.persistence.OneToMany;
+                                
+                                public class Person implements Comparable<Person> {
+                                    public void setSomeEntity(SomeEntity someEntity) {}
+                                    public int compareTo(Person other) { return 0; }
+                                }
+                                public class SomeEntity {
+                                    @OneToMany(mappedBy = "someEntity")
+                                    private SortedSet<Person> persons = new TreeSet<>();
+                                }
+                                """,
+                        """
+                                import java.util.Collections;
+                                import java.util.SortedSet;
+                                import java.util.TreeSet;
+                                import java.util.stream.Stream;
+                                
+                                import javax.persistence.OneToMany;
+                                
+                                public class Person implements Comparable<Person> {
+                                    public void setSomeEntity(SomeEntity someEntity) {}
+                                    public int compareTo(Person other) { return 0; }
+                                }
+                                public class SomeEntity {
+                                    @OneToMany(mappedBy = "someEntity")
+                                    private SortedSet<Person> persons = new TreeSet<>();
+                                
+                                    @Programmatic
+                                    public SortedSet<Person> getPersons() {
+                                        return Collections.unmodifiableSortedSet(persons);
+                                    }
+                                
+                                    @Programmatic
+                                    public Stream<Person> streamPersons() {
+                                        return Collections.unmodifiableCollection(persons).stream();
                                     }
                                 
                                     @Programmatic
@@ -172,4 +238,15 @@ class AddMethodToVariableDeclarationConditionallyTest extends BaseRewriteTest {
                 )
         );
     }
+
+    /**
+     * A template variant without a type is reported by the validation instead of failing the visit.
+     */
+    @Test
+    void invalidTemplateVariant() {
+        assertThat(new AddMethodToVariableDeclarationConditionally(".*", "public void m() {}", null,
+                new String[]{"java.util.List=public void n() {}", "public void o() {}"}).validate().failures())
+                .singleElement()
+                .satisfies(failure -> assertThat(failure.getProperty()).isEqualTo("templateVariants"));
+    }
 }
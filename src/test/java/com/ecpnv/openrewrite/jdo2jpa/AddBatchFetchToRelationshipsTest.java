@@ -0,0 +1,193 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.test.RecipeSpec;
+
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.properties.Assertions.properties;
+
+/**
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class AddBatchFetchToRelationshipsTest extends BaseRewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.parser(PARSER).recipe(new AddBatchFetchToRelationships(null, null));
+    }
+
+    /**
+     * Without a policy file all relationships of all entities are batch fetched.
+     */
+    @DocumentExample
+    @Test
+    void addBatchFetchWithoutPolicy() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                import java.util.Set;
+                                import javax.persistence.Entity;
+                                import javax.persistence.FetchType;
+                                import javax.persistence.ManyToOne;
+                                import javax.persistence.OneToMany;
+
+                                @Entity
+                                public class Person {}
+                                @Entity
+                                public class Invoice {
+                                    private int id;
+                                    @ManyToOne(fetch = FetchType.LAZY)
+                                    private Person customer;
+                                    @OneToMany(mappedBy = "invoice", fetch = FetchType.LAZY)
+                                    private Set<Person> contacts;
+                                }
+                                """,
+                        """
+                                import java.util.Set;
+
+                                import javax.persistence.Entity;
+
+                                import org.eclipse.persistence.annotations.BatchFetch;
+                                import org.eclipse.persistence.annotations.BatchFetchType;
+
+                                import javax.persistence.FetchType;
+                                import javax.persistence.ManyToOne;
+                                import javax.persistence.OneToMany;
+
+                                @Entity
+                                public class Person {}
+                                @Entity
+                                public class Invoice {
+                                    private int id;
+                                    @BatchFetch(BatchFetchType.IN)
+                                    @ManyToOne(fetch = FetchType.LAZY)
+                                    private Person customer;
+                                    @BatchFetch(BatchFetchType.IN)
+                                    @OneToMany(mappedBy = "invoice", fetch = FetchType.LAZY)
+                                    private Set<Person> contacts;
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * The most specific entry of the policy decides whether and with which size an entity is batch fetched.
+     */
+    @Test
+    void addBatchFetchWithPolicy() {
+        rewriteRun(
+                spec -> spec.recipe(new AddBatchFetchToRelationships("batch-fetch.properties", 50)),
+                properties(
+                        """
+                                org.example=true
+                                org.example.Invoice=100
+                                org.example.Order=false
+                                """,
+                        spec -> spec.path("config/batch-fetch.properties")
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+                                import javax.persistence.ManyToOne;
+
+                                @Entity
+                                public class Invoice {
+                                    @ManyToOne
+                                    private Customer customer;
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import org.eclipse.persistence.annotations.BatchFetch;
+                                import org.eclipse.persistence.annotations.BatchFetchType;
+
+                                import javax.persistence.Entity;
+                                import javax.persistence.ManyToOne;
+
+                                @Entity
+                                public class Invoice {
+                                    @BatchFetch(value = BatchFetchType.IN, size = 100)
+                                    @ManyToOne
+                                    private Customer customer;
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+                                import javax.persistence.ManyToOne;
+
+                                @Entity
+                                public class Order {
+                                    @ManyToOne
+                                    private Customer customer;
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+                                import javax.persistence.OneToOne;
+
+                                @Entity
+                                public class Customer {
+                                    @OneToOne
+                                    private Customer parent;
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import org.eclipse.persistence.annotations.BatchFetch;
+                                import org.eclipse.persistence.annotations.BatchFetchType;
+
+                                import javax.persistence.Entity;
+                                import javax.persistence.OneToOne;
+
+                                @Entity
+                                public class Customer {
+                                    @BatchFetch(value = BatchFetchType.IN, size = 50)
+                                    @OneToOne
+                                    private Customer parent;
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * A policy file that is not among the source files disables batch fetching.
+     */
+    @Test
+    void noBatchFetchWithoutPolicyFile() {
+        rewriteRun(
+                spec -> spec.recipe(new AddBatchFetchToRelationships("missing.properties", null)),
+                //language=java
+                java(
+                        """
+                                import javax.persistence.Entity;
+                                import javax.persistence.ManyToOne;
+
+                                @Entity
+                                public class Invoice {
+                                    @ManyToOne
+                                    private Invoice previous;
+                                }
+                                """
+                )
+        );
+    }
+}
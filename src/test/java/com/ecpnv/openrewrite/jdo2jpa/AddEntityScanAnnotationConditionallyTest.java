@@ -5,6 +5,7 @@ import org.openrewrite.DocumentExample;
 import org.openrewrite.java.ShortenFullyQualifiedTypeReferences;
 
 import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.xml.Assertions.xml;
 
 class AddEntityScanAnnotationConditionallyTest extends BaseRewriteTest {
 
@@ -198,4 +199,219 @@ class AddEntityScanAnnotationConditionallyTest extends BaseRewriteTest {
                 )
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void generatePersistenceXml() {
+        rewriteRun(
+                spec -> spec.parser(PARSER)
+                        .recipe(new AddEntityScanAnnotationConditionally(
+                                "src/main/resources/META-INF/persistence.xml", "app", true, null)),
+                java("""
+                                package com.ecpnv.openrewrite.jdo2jpa.entities;
+                        
+                                import javax.persistence.MappedSuperclass;
+                        
+                                @MappedSuperclass
+                                public abstract class AbstractEntity {
+                                }
+                        """),
+                java("""
+                                package com.ecpnv.openrewrite.jdo2jpa.dom;
+                        
+                                import javax.jdo.annotations.PersistenceCapable;
+                        
+                                @PersistenceCapable
+                                public class SomeEntity {
+                                }
+                        """),
+                java("""
+                                package com.ecpnv.openrewrite.jdo2jpa.dom;
+                        
+                                import javax.persistence.Entity;
+                        
+                                @Entity
+                                public class SomeOtherEntity {
+                                }
+                        """),
+                java(
+                        """
+                                package com.ecpnv.openrewrite.jdo2jpa.config;
+                                
+                                import org.springframework.context.annotation.ComponentScan;
+                                import org.springframework.context.annotation.Configuration;
+                                
+                                @Configuration
+                                @ComponentScan
+                                public class SomeConfiguration {
+                                }
+                                """
+                ),
+                xml(
+                        null,
+                        """
+                                <?xml version="1.0" encoding="UTF-8"?>
+                                <persistence xmlns="http://xmlns.jcp.org/xml/ns/persistence"
+                                             xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+                                             xsi:schemaLocation="http://xmlns.jcp.org/xml/ns/persistence http://xmlns.jcp.org/xml/ns/persistence/persistence_2_2.xsd"
+                                             version="2.2">
+                                    <persistence-unit name="app">
+                                        <provider>org.eclipse.persistence.jpa.PersistenceProvider</provider>
+                                        <class>com.ecpnv.openrewrite.jdo2jpa.dom.SomeEntity</class>
+                                        <class>com.ecpnv.openrewrite.jdo2jpa.dom.SomeOtherEntity</class>
+                                        <class>com.ecpnv.openrewrite.jdo2jpa.entities.AbstractEntity</class>
+                                        <exclude-unlisted-classes>true</exclude-unlisted-classes>
+                                        <properties>
+                                            <property name="eclipselink.weaving" value="static"/>
+                                        </properties>
+                                    </persistence-unit>
+                                </persistence>
+                                """,
+                        spec -> spec.path("src/main/resources/META-INF/persistence.xml")
+                )
+        );
+    }
+
+    @Test
+    void keepExistingPersistenceXml() {
+        rewriteRun(
+                spec -> spec.parser(PARSER)
+                        .recipe(new AddEntityScanAnnotationConditionally(
+                                "src/main/resources/META-INF/persistence.xml", null, null, null)),
+                java("""
+                                package com.ecpnv.openrewrite.jdo2jpa.dom;
+                        
+                                import javax.persistence.Entity;
+                        
+                                @Entity
+                                public class SomeEntity {
+                                }
+                        """),
+                xml(
+                        """
+                                <persistence version="2.2"/>
+                                """,
+                        spec -> spec.path("src/main/resources/META-INF/persistence.xml")
+                )
+        );
+    }
+
+    @Test
+    void compactPackages() {
+        rewriteRun(
+                spec -> spec.parser(PARSER)
+                        .recipes(new AddEntityScanAnnotationConditionally(),
+                                new ShortenFullyQualifiedTypeReferences()),
+                java("""
+                                package com.ecpnv.openrewrite.jdo2jpa.dom.party;
+                        
+                                import javax.persistence.Entity;
+                        
+                                @Entity
+                                public class Party {
+                                }
+                        """),
+                java("""
+                                package com.ecpnv.openrewrite.jdo2jpa.dom.asset;
+                        
+                                import javax.persistence.Entity;
+                        
+                                @Entity
+                                public class Asset {
+                                }
+                        """),
+                java("""
+                                package com.ecpnv.openrewrite.jdo2jpa.dom.asset.part;
+                        
+                                import javax.persistence.Entity;
+                        
+                                @Entity
+                                public class Part {
+                                }
+                        """),
+                java(
+                        """
+                                package com.ecpnv.openrewrite.jdo2jpa.config;
+                                
+                                import org.springframework.context.annotation.ComponentScan;
+                                import org.springframework.context.annotation.Configuration;
+                                
+                                @Configuration
+                                @ComponentScan
+                                public class SomeConfiguration {
+                                }
+                                """
+                ,
+                        """
+                                package com.ecpnv.openrewrite.jdo2jpa.config;
+                                
+                                import org.springframework.boot.autoconfigure.domain.EntityScan;
+                                import org.springframework.context.annotation.ComponentScan;
+                                import org.springframework.context.annotation.Configuration;
+                                
+                                @Configuration
+                                @EntityScan({"com.ecpnv.openrewrite.jdo2jpa.dom"})
+                                @ComponentScan
+                                public class SomeConfiguration {
+                                }
+                                """
+                )
+        );
+    }
+
+    @Test
+    void compactPackagesOfExistingEntityScanWithThreshold() {
+        rewriteRun(
+                spec -> spec.parser(PARSER)
+                        .recipes(new AddEntityScanAnnotationConditionally(null, null, null, 0.6),
+                                new ShortenFullyQualifiedTypeReferences()),
+                java("""
+                                package com.ecpnv.openrewrite.jdo2jpa.entities;
+                        
+                                import javax.persistence.Entity;
+                        
+                                @Entity
+                                public class SomeEntity {
+                                }
+                        """),
+                java("""
+                                package com.ecpnv.openrewrite.jdo2jpa.dom;
+                        
+                                import javax.persistence.Entity;
+                        
+                                @Entity
+                                public class SomeOtherEntity {
+                                }
+                        """),
+                java(
+                        """
+                                package com.ecpnv.openrewrite.jdo2jpa.config;
+                                
+                                import org.springframework.boot.autoconfigure.domain.EntityScan;
+                                import org.springframework.context.annotation.ComponentScan;
+                                import org.springframework.context.annotation.Configuration;
+                                
+                                @Configuration
+                                @EntityScan({"com.ecpnv.openrewrite.jdo2jpa.dom", "com.ecpnv.openrewrite.jdo2jpa.dom.sub"})
+                                @ComponentScan
+                                public class SomeConfiguration {
+                                }
+                                """
+                ,
+                        """
+                                package com.ecpnv.openrewrite.jdo2jpa.config;
+                                
+                                import org.springframework.boot.autoconfigure.domain.EntityScan;
+                                import org.springframework.context.annotation.ComponentScan;
+                                import org.springframework.context.annotation.Configuration;
+                                
+                                @Configuration
+                                @EntityScan({
+                                        "com.ecpnv.openrewrite.jdo2jpa"})
+                                @ComponentScan
+                                public class SomeConfiguration {
+                                }
+                                """
+                )
+        );
+    }
+}
@@ -0,0 +1,241 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.test.RecipeSpec;
+
+import static org.openrewrite.java.Assertions.java;
+
+/**
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class AddIndexForIndexedDiscriminatorTest extends BaseRewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.parser(PARSER).recipe(new AddIndexForIndexedDiscriminator(null));
+    }
+
+    /**
+     * An indexed discriminator of a subclass adds an index to the indexes of the table of the root.
+     */
+    @DocumentExample
+    @Test
+    void addIndexToRootTable() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Discriminator;
+                                import javax.persistence.Entity;
+                                import javax.persistence.Index;
+                                import javax.persistence.Table;
+
+                                @Entity
+                                @Table(name = "Party", indexes = {@Index(name = "Party_name_IDX", columnList = "name")})
+                                @Discriminator("org.example.Party")
+                                public abstract class Party {
+                                    private String name;
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Discriminator;
+                                import javax.persistence.Entity;
+                                import javax.persistence.Index;
+                                import javax.persistence.Table;
+
+                                @Entity
+                                @Table(name = "Party", indexes = {@Index(name = "Party_name_IDX", columnList = "name"), @Index(name = "Party_discriminator_IDX", columnList = "discriminator")})
+                                @Discriminator("org.example.Party")
+                                public abstract class Party {
+                                    private String name;
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Discriminator;
+                                import javax.persistence.Entity;
+
+                                @Entity
+                                @Discriminator(value = "org.example.Person", indexed = "true")
+                                public class Person extends Party {
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * A root without a table gets one, a root that already has an index on the discriminator is left alone.
+     */
+    @Test
+    void addTableWithoutDuplicates() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Discriminator;
+                                import javax.persistence.Entity;
+
+                                @Entity
+                                @Discriminator(value = "Invoice", indexed = "true")
+                                public class Invoice {
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Discriminator;
+                                import javax.persistence.Entity;
+                                import javax.persistence.Index;
+                                import javax.persistence.Table;
+
+                                @Entity
+                                @Table(indexes = {@Index(name = "Invoice_discriminator_IDX", columnList = "discriminator")})
+                                @Discriminator(value = "Invoice", indexed = "true")
+                                public class Invoice {
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Discriminator;
+                                import javax.persistence.Entity;
+                                import javax.persistence.Index;
+                                import javax.persistence.Table;
+
+                                @Entity
+                                @Table(indexes = @Index(name = "Order_discriminator_IDX", columnList = "discriminator"))
+                                @Discriminator(value = "Order", indexed = "true")
+                                public class Order {
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * The index is appended to indexes that are laid out on separate lines, and a single index becomes an array.
+     */
+    @Test
+    void keepLayoutOfTable() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Discriminator;
+                                import javax.persistence.Entity;
+                                import javax.persistence.Index;
+                                import javax.persistence.Table;
+
+                                @Entity
+                                @Table(
+                                        name = "Lease",
+                                        indexes = {
+                                                @Index(name = "Lease_reference_IDX", columnList = "reference"),
+                                                @Index(name = "Lease_tenant_IDX", columnList = "tenantId")
+                                        })
+                                @Discriminator(value = "Lease", indexed = "true")
+                                public class Lease {
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Discriminator;
+                                import javax.persistence.Entity;
+                                import javax.persistence.Index;
+                                import javax.persistence.Table;
+
+                                @Entity
+                                @Table(
+                                        name = "Lease",
+                                        indexes = {
+                                                @Index(name = "Lease_reference_IDX", columnList = "reference"),
+                                                @Index(name = "Lease_tenant_IDX", columnList = "tenantId"),
+                                                @Index(name = "Lease_discriminator_IDX", columnList = "discriminator")
+                                        })
+                                @Discriminator(value = "Lease", indexed = "true")
+                                public class Lease {
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Discriminator;
+                                import javax.persistence.Entity;
+                                import javax.persistence.Index;
+                                import javax.persistence.Table;
+
+                                @Entity
+                                @Table(name = "Unit", indexes = @Index(name = "Unit_code_IDX", columnList = "code"))
+                                @Discriminator(value = "Unit", indexed = "true")
+                                public class Unit {
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Discriminator;
+                                import javax.persistence.Entity;
+                                import javax.persistence.Index;
+                                import javax.persistence.Table;
+
+                                @Entity
+                                @Table(name = "Unit", indexes = {@Index(name = "Unit_code_IDX", columnList = "code"), @Index(name = "Unit_discriminator_IDX", columnList = "discriminator")})
+                                @Discriminator(value = "Unit", indexed = "true")
+                                public class Unit {
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Discriminator;
+                                import javax.persistence.Entity;
+                                import javax.persistence.Table;
+
+                                @Entity
+                                @Table(name = "Agreement")
+                                @Discriminator(value = "Agreement", indexed = "true")
+                                public class Agreement {
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Discriminator;
+                                import javax.persistence.Entity;
+                                import javax.persistence.Index;
+                                import javax.persistence.Table;
+
+                                @Entity
+                                @Table(name = "Agreement", indexes = {@Index(name = "Agreement_discriminator_IDX", columnList = "discriminator")})
+                                @Discriminator(value = "Agreement", indexed = "true")
+                                public class Agreement {
+                                }
+                                """
+                )
+        );
+    }
+}
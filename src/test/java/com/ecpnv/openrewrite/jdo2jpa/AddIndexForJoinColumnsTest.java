@@ -0,0 +1,153 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.test.RecipeSpec;
+
+import static org.openrewrite.java.Assertions.java;
+
+/**
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class AddIndexForJoinColumnsTest extends BaseRewriteTest {
+
+    //language=java
+    private static final String PARTY = """
+            package org.example;
+
+            import javax.persistence.Entity;
+
+            @Entity
+            public class Party {
+            }
+            """;
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.parser(PARSER).recipe(new AddIndexForJoinColumns());
+    }
+
+    /**
+     * Join columns that are not the leading column of an index or unique constraint get an index.
+     */
+    @DocumentExample
+    @Test
+    void addIndexForUncoveredJoinColumns() {
+        rewriteRun(
+                java(PARTY),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+                                import javax.persistence.Index;
+                                import javax.persistence.JoinColumn;
+                                import javax.persistence.ManyToOne;
+                                import javax.persistence.OneToOne;
+                                import javax.persistence.Table;
+                                import javax.persistence.UniqueConstraint;
+
+                                @Entity
+                                @Table(name = "Lease", indexes = @Index(columnList = "tenantId, startDate"),
+                                        uniqueConstraints = {@UniqueConstraint(columnNames = {"landlordId", "reference"})})
+                                public class Lease {
+                                    private String reference;
+                                    @ManyToOne
+                                    @JoinColumn(name = "tenantId")
+                                    private Party tenant;
+                                    @ManyToOne
+                                    @JoinColumn(name = "landlordId")
+                                    private Party landlord;
+                                    @ManyToOne
+                                    @JoinColumn(name = "brokerId", nullable = true)
+                                    private Party broker;
+                                    @OneToOne
+                                    @JoinColumn(name = "guarantorId")
+                                    private Party guarantor;
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+                                import javax.persistence.Index;
+                                import javax.persistence.JoinColumn;
+                                import javax.persistence.ManyToOne;
+                                import javax.persistence.OneToOne;
+                                import javax.persistence.Table;
+                                import javax.persistence.UniqueConstraint;
+
+                                @Entity
+                                @Table(name = "Lease", indexes = {@Index(columnList = "tenantId, startDate"), @Index(columnList = "brokerId"), @Index(columnList = "guarantorId")},
+                                        uniqueConstraints = {@UniqueConstraint(columnNames = {"landlordId", "reference"})})
+                                public class Lease {
+                                    private String reference;
+                                    @ManyToOne
+                                    @JoinColumn(name = "tenantId")
+                                    private Party tenant;
+                                    @ManyToOne
+                                    @JoinColumn(name = "landlordId")
+                                    private Party landlord;
+                                    @ManyToOne
+                                    @JoinColumn(name = "brokerId", nullable = true)
+                                    private Party broker;
+                                    @OneToOne
+                                    @JoinColumn(name = "guarantorId")
+                                    private Party guarantor;
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * An entity without a table gets one, the join columns of inverse relationships and of the primary key are
+     * skipped.
+     */
+    @Test
+    void addTableWithIndex() {
+        rewriteRun(
+                java(PARTY),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+                                import javax.persistence.Id;
+                                import javax.persistence.JoinColumn;
+                                import javax.persistence.ManyToOne;
+
+                                @Entity
+                                public class Occupancy {
+                                    @Id
+                                    @ManyToOne
+                                    @JoinColumn(name = "leaseId")
+                                    private Party lease;
+                                    @ManyToOne
+                                    @JoinColumn(name = "unitId")
+                                    private Party unit;
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import javax.persistence.*;
+
+                                @Entity
+                                @Table(indexes = {@Index(columnList = "unitId")})
+                                public class Occupancy {
+                                    @Id
+                                    @ManyToOne
+                                    @JoinColumn(name = "leaseId")
+                                    private Party lease;
+                                    @ManyToOne
+                                    @JoinColumn(name = "unitId")
+                                    private Party unit;
+                                }
+                                """
+                )
+        );
+    }
+}
@@ -0,0 +1,186 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.test.RecipeSpec;
+
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.properties.Assertions.properties;
+
+/**
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class AddLazyBasicFetchTest extends BaseRewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.parser(PARSER).recipe(new AddLazyBasicFetch(null));
+    }
+
+    /**
+     * CLOB, BLOB and fields outside of the default fetch group become lazy, relationships and other fields do not.
+     */
+    @DocumentExample
+    @Test
+    void addLazyBasicFetch() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import java.util.List;
+                                import javax.jdo.annotations.Column;
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.jdo.annotations.Persistent;
+
+                                @PersistenceCapable
+                                public class Document {
+                                    @Column(allowsNull = "true", jdbcType = "CLOB")
+                                    private String description;
+                                    @Column(jdbcType = "BLOB")
+                                    private byte[] attachment;
+                                    @Persistent(defaultFetchGroup = "false")
+                                    private String notes;
+                                    @Persistent(defaultFetchGroup = "false")
+                                    private List<Document> related;
+                                    @Column(length = 30)
+                                    private String name;
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import java.util.List;
+                                import javax.jdo.annotations.Column;
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.jdo.annotations.Persistent;
+                                import javax.persistence.Basic;
+                                import javax.persistence.FetchType;
+
+                                @PersistenceCapable
+                                public class Document {
+                                    @Basic(fetch = FetchType.LAZY)
+                                    @Column(allowsNull = "true", jdbcType = "CLOB")
+                                    private String description;
+                                    @Basic(fetch = FetchType.LAZY)
+                                    @Column(jdbcType = "BLOB")
+                                    private byte[] attachment;
+                                    @Basic(fetch = FetchType.LAZY)
+                                    @Persistent(defaultFetchGroup = "false")
+                                    private String notes;
+                                    @Persistent(defaultFetchGroup = "false")
+                                    private List<Document> related;
+                                    @Column(length = 30)
+                                    private String name;
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * A field with an explicit basic fetch is left alone, the weaving properties are added to an existing file.
+     */
+    @Test
+    void addWeavingProperties() {
+        rewriteRun(
+                spec -> spec.recipe(new AddLazyBasicFetch("application.properties")),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.persistence.Basic;
+                                import javax.persistence.Entity;
+                                import javax.persistence.Lob;
+
+                                @Entity
+                                public class Document {
+                                    @Lob
+                                    private String description;
+                                    @Basic
+                                    @Lob
+                                    private String summary;
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import javax.persistence.Basic;
+                                import javax.persistence.Entity;
+                                import javax.persistence.FetchType;
+                                import javax.persistence.Lob;
+
+                                @Entity
+                                public class Document {
+                                    @Basic(fetch = FetchType.LAZY)
+                                    @Lob
+                                    private String description;
+                                    @Basic
+                                    @Lob
+                                    private String summary;
+                                }
+                                """
+                ),
+                properties(
+                        """
+                                eclipselink.weaving=static
+                                """,
+                        """
+                                eclipselink.weaving=static
+                                eclipselink.weaving.fetchgroups=true
+                                """,
+                        spec -> spec.path("application.properties")
+                )
+        );
+    }
+
+    /**
+     * The weaving properties file is generated when it does not exist.
+     */
+    @Test
+    void generateWeavingProperties() {
+        rewriteRun(
+                spec -> spec.recipe(new AddLazyBasicFetch("application.properties")),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Column;
+                                import javax.jdo.annotations.PersistenceCapable;
+
+                                @PersistenceCapable
+                                public class Document {
+                                    @Column(jdbcType = "CLOB")
+                                    private String description;
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Column;
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.persistence.Basic;
+                                import javax.persistence.FetchType;
+
+                                @PersistenceCapable
+                                public class Document {
+                                    @Basic(fetch = FetchType.LAZY)
+                                    @Column(jdbcType = "CLOB")
+                                    private String description;
+                                }
+                                """
+                ),
+                properties(
+                        null,
+                        """
+                                eclipselink.weaving=true
+                                eclipselink.weaving.fetchgroups=true
+                                """,
+                        spec -> spec.path("application.properties")
+                )
+        );
+    }
+}
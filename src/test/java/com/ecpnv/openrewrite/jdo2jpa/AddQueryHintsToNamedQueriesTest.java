@@ -0,0 +1,82 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.java.ChangeType;
+import org.openrewrite.test.RecipeSpec;
+
+import static org.openrewrite.java.Assertions.java;
+
+/**
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class AddQueryHintsToNamedQueriesTest extends BaseRewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.parser(PARSER).recipes(
+                new ChangeType("javax.jdo.annotations.Query", Constants.Jpa.NAMED_QUERY_ANNOTATION_FULL, null),
+                new AddQueryHintsToNamedQueries(null));
+    }
+
+    /**
+     * Verifies that unmodifiable, the fetch plan and the result cache extension become query hints.
+     */
+    @DocumentExample
+    @Test
+    void replaceAttributesWithHints() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                import javax.jdo.annotations.Extension;
+                                import javax.jdo.annotations.Query;
+
+                                @Query(name = "findActive", value = "SELECT FROM Person WHERE active", unmodifiable = "true",
+                                        fetchPlan = "list", extensions = {
+                                        @Extension(vendorName = "datanucleus", key = "datanucleus.query.resultCacheType", value = "soft")})
+                                public class Person {
+                                    private boolean active;
+                                }
+                                """,
+                        """
+                                import javax.persistence.NamedQuery;
+                                import javax.persistence.QueryHint;
+
+                                @NamedQuery(name = "findActive", value = "SELECT FROM Person WHERE active", hints = {@QueryHint(name = "eclipselink.read-only", value = "true"), @QueryHint(name = "javax.persistence.fetchgraph", value = "Person.list"), @QueryHint(name = "eclipselink.query-results-cache", value = "true"), @QueryHint(name = "eclipselink.query-results-cache.type", value = "Soft")})
+                                public class Person {
+                                    private boolean active;
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * Verifies that extensions without equivalent are tagged and that a modifiable query gets no hints.
+     */
+    @Test
+    void tagUnsupportedExtensions() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                import javax.jdo.annotations.Extension;
+                                import javax.jdo.annotations.Query;
+
+                                @Query(name = "findAll", value = "SELECT FROM Person", unmodifiable = "false",
+                                        extensions = @Extension(vendorName = "datanucleus", key = "datanucleus.query.evaluateInMemory", value = "true"))
+                                public class Person {
+                                }
+                                """,
+                        """
+                                import javax.persistence.NamedQuery;
+
+                                /* TODO: manually migrate to JPA: query extensions datanucleus.query.evaluateInMemory=true */ @NamedQuery(name = "findAll", value = "SELECT FROM Person")
+                                public class Person {
+                                }
+                                """
+                )
+        );
+    }
+}
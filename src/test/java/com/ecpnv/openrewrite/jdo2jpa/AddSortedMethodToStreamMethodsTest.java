@@ -134,4 +134,151 @@ class AddSortedMethodToStreamMethodsTest extends BaseRewriteTest {
                                 """)
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * A list field gets an order by from its list ordering or from the natural order of its elements, a set keeps
+     * the sorted stream.
+     */
+    @Test
+    void useOrderBy() {
+        rewriteRun(spec -> spec.parser(PARSER).recipes(new AddSortedMethodToStreamMethods("com.ecpnv.openrewrite.Programmatic", true)),
+                java("""
+                            package com.ecpnv.openrewrite;
+                        
+                            import java.lang.annotation.ElementType;
+                            import java.lang.annotation.Retention;
+                            import java.lang.annotation.RetentionPolicy;
+                            import java.lang.annotation.Target;
+                        
+                            @Target({ElementType.METHOD, ElementType.TYPE, ElementType.FIELD})
+                            @Retention(RetentionPolicy.RUNTIME)
+                            public @interface Programmatic {}
+                        """, SourceSpec::skip),
+                //language=java
+                java(
+                        """
+                                package a;
+
+                                import java.time.LocalDate;
+                                import java.util.Comparator;
+                                import javax.persistence.Entity;
+                                import javax.persistence.ManyToOne;
+
+                                @Entity
+                                public class Occupancy implements Comparable<Occupancy> {
+                                    @ManyToOne
+                                    private Lease lease;
+                                    private String name;
+                                    private LocalDate startDate;
+
+                                    public String getName() {
+                                        return name;
+                                    }
+
+                                    public LocalDate getStartDate() {
+                                        return startDate;
+                                    }
+
+                                    @Override
+                                    public int compareTo(Occupancy other) {
+                                        return Comparator.comparing(Occupancy::getName).thenComparing(Occupancy::getStartDate).compare(this, other);
+                                    }
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package a;
+
+                                import java.util.ArrayList;
+                                import java.util.HashSet;
+                                import java.util.List;
+                                import java.util.Set;
+                                import java.util.stream.Stream;
+                                import javax.jdo.annotations.Extension;
+                                import javax.jdo.annotations.Order;
+                                import javax.persistence.Entity;
+                                import javax.persistence.OneToMany;
+
+                                import com.ecpnv.openrewrite.Programmatic;
+
+                                @Entity
+                                public class Lease {
+                                    @OneToMany(mappedBy = "lease")
+                                    private List<Occupancy> occupancies = new ArrayList<>();
+                                    @OneToMany(mappedBy = "lease")
+                                    @Order(extensions = @Extension(vendorName = "datanucleus", key = "list-ordering", value = "startDate descending"))
+                                    private List<Occupancy> history = new ArrayList<>();
+                                    @OneToMany(mappedBy = "lease")
+                                    private Set<Occupancy> terms = new HashSet<>();
+
+                                    public List<Occupancy> getOccupancies() {
+                                        return occupancies;
+                                    }
+
+                                    @Programmatic
+                                    public Stream<Occupancy> streamOccupancies() {
+                                        return getOccupancies().stream();
+                                    }
+
+                                    @Programmatic
+                                    public Stream<Occupancy> streamHistory() {
+                                        return history.stream();
+                                    }
+
+                                    @Programmatic
+                                    public Stream<Occupancy> streamTerms() {
+                                        return terms.stream();
+                                    }
+                                }
+                                """,
+                        """
+                                package a;
+
+                                import java.util.ArrayList;
+                                import java.util.HashSet;
+                                import java.util.List;
+                                import java.util.Set;
+                                import java.util.stream.Stream;
+                                import javax.persistence.Entity;
+                                import javax.persistence.OneToMany;
+                                import javax.persistence.OrderBy;
+
+                                import com.ecpnv.openrewrite.Programmatic;
+
+                                @Entity
+                                public class Lease {
+                                    @OneToMany(mappedBy = "lease")
+                                    @OrderBy("name, startDate")
+                                    private List<Occupancy> occupancies = new ArrayList<>();
+                                    @OneToMany(mappedBy = "lease")
+                                    @OrderBy("startDate DESC")
+                                    private List<Occupancy> history = new ArrayList<>();
+                                    @OneToMany(mappedBy = "lease")
+                                    private Set<Occupancy> terms = new HashSet<>();
+
+                                    public List<Occupancy> getOccupancies() {
+                                        return occupancies;
+                                    }
+
+                                    @Programmatic
+                                    public Stream<Occupancy> streamOccupancies() {
+                                        return getOccupancies().stream();
+                                    }
+
+                                    @Programmatic
+                                    public Stream<Occupancy> streamHistory() {
+                                        return history.stream();
+                                    }
+
+                                    @Programmatic
+                                    public Stream<Occupancy> streamTerms() {
+                                        return terms.stream().sorted();
+                                    }
+                                }
+                                """
+                )
+        );
+    }
+}
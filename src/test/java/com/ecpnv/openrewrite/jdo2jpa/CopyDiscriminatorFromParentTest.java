@@ -228,4 +228,158 @@ class CopyDiscriminatorFromParentTest extends BaseRewriteTest {
                 )
         );
     }
+
+    /**
+     * The root of a hierarchy gets a discriminator column with the length of the longest discriminator value of its
+     * concrete classes, which includes the copied class names.
+     */
+    @Test
+    void addCompactDiscriminatorColumn() {
+        rewriteRun(
+                spec -> spec.recipe(new CopyDiscriminatorFromParent(null, true, null)),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Discriminator;
+                                import javax.jdo.annotations.PersistenceCapable;
+
+                                @PersistenceCapable
+                                @Discriminator("P")
+                                public class Party {
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Discriminator;
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.persistence.DiscriminatorColumn;
+
+                                @PersistenceCapable
+                                @Discriminator("P")
+                                @DiscriminatorColumn(name = "discriminator", length = 24)
+                                public class Party {
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.PersistenceCapable;
+
+                                @PersistenceCapable
+                                public class Organisation extends Party {
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Discriminator;
+                                import javax.jdo.annotations.PersistenceCapable;
+
+                                @PersistenceCapable
+                                @Discriminator("org.example.Organisation")
+                                public class Organisation extends Party {
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * With integer values the discriminator values are numbered in the order of the class names and the root gets an
+     * integer discriminator column with the map of the former values.
+     */
+    @Test
+    void addIntegerDiscriminatorColumn() {
+        rewriteRun(
+                spec -> spec.recipe(new CopyDiscriminatorFromParent(null, null, true)),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Discriminator;
+                                import javax.jdo.annotations.PersistenceCapable;
+
+                                @PersistenceCapable
+                                @Discriminator("Party")
+                                public abstract class Party {
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Discriminator;
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.persistence.DiscriminatorColumn;
+                                import javax.persistence.DiscriminatorType;
+
+                                /* Discriminator values, the former value is the value in existing rows:
+                                 * 1 = Organisation
+                                 * 2 = Person
+                                 */
+                                @PersistenceCapable
+                                @Discriminator("Party")
+                                @DiscriminatorColumn(name = "discriminator", discriminatorType = DiscriminatorType.INTEGER)
+                                public abstract class Party {
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Discriminator;
+                                import javax.jdo.annotations.PersistenceCapable;
+
+                                @PersistenceCapable
+                                @Discriminator("Person")
+                                public class Person extends Party {
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Discriminator;
+                                import javax.jdo.annotations.PersistenceCapable;
+
+                                @PersistenceCapable
+                                @Discriminator("2")
+                                public class Person extends Party {
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Discriminator;
+                                import javax.jdo.annotations.PersistenceCapable;
+
+                                @PersistenceCapable
+                                @Discriminator("Organisation")
+                                public class Organisation extends Party {
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.Discriminator;
+                                import javax.jdo.annotations.PersistenceCapable;
+
+                                @PersistenceCapable
+                                @Discriminator("1")
+                                public class Organisation extends Party {
+                                }
+                                """
+                )
+        );
+    }
 }
@@ -76,7 +76,7 @@ class DiscriminatorTest extends BaseRewriteTest {
                                 
                                 @Inheritance(strategy = InheritanceStrategy.NEW_TABLE)
                                 @DiscriminatorValue(value = "Person")
-                                @DiscriminatorColumn(name = "discriminator", length = 255)
+                                @DiscriminatorColumn(name = "discriminator", length = 7)
                                 public class Person {
                                         private int id;
                                         private String name;
@@ -137,7 +137,7 @@ class DiscriminatorTest extends BaseRewriteTest {
                                 
                                 @Inheritance(strategy = InheritanceStrategy.NEW_TABLE)
                                 @DiscriminatorValue("person_discriminator")
-                                @DiscriminatorColumn(name = "discriminator", length = 255)
+                                @DiscriminatorColumn(name = "discriminator", length = 21)
                                 public class Person {
                                         private int id;
                                         private String name;
@@ -0,0 +1,269 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.test.RecipeSpec;
+
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.test.SourceSpecs.text;
+
+/**
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class ExportEntityRelationshipGraphTest extends BaseRewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.parser(PARSER).recipe(new ExportEntityRelationshipGraph(null, null, 1));
+    }
+
+    /**
+     * The eager cycle of customer and account and the eager chain from order to address are reported.
+     */
+    @DocumentExample
+    @Test
+    void exportEagerCycleAndChain() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import java.util.List;
+                                import javax.persistence.CascadeType;
+                                import javax.persistence.Entity;
+                                import javax.persistence.ManyToOne;
+                                import javax.persistence.OneToMany;
+                                import javax.persistence.OneToOne;
+
+                                @Entity
+                                public class Customer {
+                                    @OneToOne(cascade = CascadeType.ALL)
+                                    private Address address;
+                                    @OneToOne(cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+                                    private Account account;
+                                    @OneToMany(mappedBy = "customer")
+                                    private List<Order> orders;
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+                                import javax.persistence.OneToOne;
+
+                                @Entity
+                                public class Account {
+                                    @OneToOne(mappedBy = "account")
+                                    private Customer owner;
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+
+                                @Entity
+                                public class Address {
+                                    private String street;
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+                                import javax.persistence.FetchType;
+                                import javax.persistence.ManyToOne;
+
+                                @Entity
+                                public class Order {
+                                    @ManyToOne
+                                    private Customer customer;
+                                    @ManyToOne(fetch = FetchType.LAZY)
+                                    private Customer approver;
+                                }
+                                """
+                ),
+                text(
+                        null,
+                        """
+                                digraph entities {
+                                    node [shape=box];
+                                    "org.example.Account" [label="Account"];
+                                    "org.example.Address" [label="Address"];
+                                    "org.example.Customer" [label="Customer"];
+                                    "org.example.Order" [label="Order"];
+                                    "org.example.Account" -> "org.example.Customer" [label="owner\\nOneToOne EAGER", color=red, style=bold];
+                                    "org.example.Customer" -> "org.example.Account" [label="account\\nOneToOne EAGER\\ncascade PERSIST, MERGE", color=red, style=bold];
+                                    "org.example.Customer" -> "org.example.Address" [label="address\\nOneToOne EAGER\\ncascade ALL", color=red];
+                                    "org.example.Customer" -> "org.example.Order" [label="orders\\nOneToMany LAZY"];
+                                    "org.example.Order" -> "org.example.Customer" [label="approver\\nManyToOne LAZY"];
+                                    "org.example.Order" -> "org.example.Customer" [label="customer\\nManyToOne EAGER", color=red];
+                                }
+                                """,
+                        spec -> spec.path(ExportEntityRelationshipGraph.DEFAULT_DOT_PATH)
+                ),
+                text(
+                        null,
+                        """
+                                {
+                                  "entities" : [ "org.example.Account", "org.example.Address", "org.example.Customer", "org.example.Order" ],
+                                  "relationships" : [ {
+                                    "source" : "org.example.Account",
+                                    "field" : "owner",
+                                    "target" : "org.example.Customer",
+                                    "type" : "OneToOne",
+                                    "fetch" : "EAGER",
+                                    "cascade" : [ ],
+                                    "mappedBy" : "account"
+                                  }, {
+                                    "source" : "org.example.Customer",
+                                    "field" : "account",
+                                    "target" : "org.example.Account",
+                                    "type" : "OneToOne",
+                                    "fetch" : "EAGER",
+                                    "cascade" : [ "PERSIST", "MERGE" ],
+                                    "mappedBy" : null
+                                  }, {
+                                    "source" : "org.example.Customer",
+                                    "field" : "address",
+                                    "target" : "org.example.Address",
+                                    "type" : "OneToOne",
+                                    "fetch" : "EAGER",
+                                    "cascade" : [ "ALL" ],
+                                    "mappedBy" : null
+                                  }, {
+                                    "source" : "org.example.Customer",
+                                    "field" : "orders",
+                                    "target" : "org.example.Order",
+                                    "type" : "OneToMany",
+                                    "fetch" : "LAZY",
+                                    "cascade" : [ ],
+                                    "mappedBy" : "customer"
+                                  }, {
+                                    "source" : "org.example.Order",
+                                    "field" : "approver",
+                                    "target" : "org.example.Customer",
+                                    "type" : "ManyToOne",
+                                    "fetch" : "LAZY",
+                                    "cascade" : [ ],
+                                    "mappedBy" : null
+                                  }, {
+                                    "source" : "org.example.Order",
+                                    "field" : "customer",
+                                    "target" : "org.example.Customer",
+                                    "type" : "ManyToOne",
+                                    "fetch" : "EAGER",
+                                    "cascade" : [ ],
+                                    "mappedBy" : null
+                                  } ],
+                                  "eagerCycles" : [ {
+                                    "entities" : [ "org.example.Account", "org.example.Customer" ],
+                                    "relationships" : [ "org.example.Account.owner", "org.example.Customer.account" ]
+                                  } ],
+                                  "eagerChains" : [ {
+                                    "entity" : "org.example.Order",
+                                    "depth" : 2,
+                                    "relationships" : [ "org.example.Order.customer", "org.example.Customer.address" ]
+                                  } ]
+                                }
+                                """,
+                        spec -> spec.path(ExportEntityRelationshipGraph.DEFAULT_JSON_PATH)
+                )
+        );
+    }
+
+    /**
+     * The relationships of a mapped superclass are edges of its entities, the target of a map is its value type and
+     * an existing export is updated.
+     */
+    @Test
+    void exportInheritedAndMappedRelationships() {
+        rewriteRun(
+                spec -> spec.recipe(new ExportEntityRelationshipGraph("entities.dot", "entities.json", null)),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.persistence.ManyToOne;
+                                import javax.persistence.MappedSuperclass;
+
+                                @MappedSuperclass
+                                public abstract class Audited {
+                                    @ManyToOne
+                                    private User createdBy;
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import java.util.Map;
+                                import javax.persistence.Entity;
+                                import javax.persistence.OneToMany;
+
+                                @Entity
+                                public class User extends Audited {
+                                    @OneToMany
+                                    private Map<String, User> delegates;
+                                }
+                                """
+                ),
+                text(
+                        "digraph entities {\n}\n",
+                        """
+                                digraph entities {
+                                    node [shape=box];
+                                    "org.example.User" [label="User"];
+                                    "org.example.User" -> "org.example.User" [label="createdBy\\nManyToOne EAGER", color=red, style=bold];
+                                    "org.example.User" -> "org.example.User" [label="delegates\\nOneToMany LAZY"];
+                                }
+                                """,
+                        spec -> spec.path("entities.dot").noTrim()
+                ),
+                text(
+                        null,
+                        """
+                                {
+                                  "entities" : [ "org.example.User" ],
+                                  "relationships" : [ {
+                                    "source" : "org.example.User",
+                                    "field" : "createdBy",
+                                    "target" : "org.example.User",
+                                    "type" : "ManyToOne",
+                                    "fetch" : "EAGER",
+                                    "cascade" : [ ],
+                                    "mappedBy" : null
+                                  }, {
+                                    "source" : "org.example.User",
+                                    "field" : "delegates",
+                                    "target" : "org.example.User",
+                                    "type" : "OneToMany",
+                                    "fetch" : "LAZY",
+                                    "cascade" : [ ],
+                                    "mappedBy" : null
+                                  } ],
+                                  "eagerCycles" : [ {
+                                    "entities" : [ "org.example.User" ],
+                                    "relationships" : [ "org.example.User.createdBy" ]
+                                  } ],
+                                  "eagerChains" : [ ]
+                                }
+                                """,
+                        spec -> spec.path("entities.json")
+                )
+        );
+    }
+}
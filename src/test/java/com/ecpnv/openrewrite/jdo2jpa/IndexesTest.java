@@ -558,6 +558,7 @@ class IndexesTest extends BaseRewriteTest {
      * - Consolidates individual field-level indexes into a single {@code @Table} annotation defining all indexes
      * at the class level with the appropriate {@code columnList}.
      * - Retains schema, unique constraints, and any applicable column or index-specific properties.
+     * - Keeps the named indexes that duplicate or are a prefix of another index.
      * <p>
      * This transformation ensures compatibility with JPA while preserving the intent and structure
      * of the original JDO-based definitions.
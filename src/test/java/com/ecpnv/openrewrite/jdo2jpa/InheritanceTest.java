@@ -381,9 +381,9 @@ class InheritanceTest {
                                     import org.estatio.base.prod.dom.EntityAbstract;
                                     import javax.persistence.*;
                                     
-                                    @Table(schema = "schemaname", name = "person")
+                                    @Table(schema = "schemaname", name = "person", indexes = {@Index(name = "Person_discriminator_IDX", columnList = "discriminator")})
                                     @DiscriminatorValue("Person")
-                                    @DiscriminatorColumn(name = "discriminator", length = 255)
+                                    @DiscriminatorColumn(name = "discriminator", length = 7)
                                     @Entity
                                     @javax.persistence.Inheritance(strategy = javax.persistence.InheritanceType.JOINED)
                                     public class Person extends EntityAbstract {
@@ -458,7 +458,7 @@ class InheritanceTest {
                                     import org.estatio.base.prod.dom.EntityAbstract;
                                     import javax.persistence.*;
                                     
-                                    @Table(schema = "schemaname", name = "person")
+                                    @Table(schema = "schemaname", name = "person", indexes = {@Index(name = "Person_discriminator_IDX", columnList = "discriminator")})
                                     @DiscriminatorValue("Person")
                                     @DiscriminatorColumn(name = "discriminator", length = 255)
                                     @Entity
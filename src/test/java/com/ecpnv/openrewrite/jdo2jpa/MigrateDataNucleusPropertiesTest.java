@@ -0,0 +1,140 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.test.RecipeSpec;
+
+import static org.openrewrite.properties.Assertions.properties;
+import static org.openrewrite.yaml.Assertions.yaml;
+
+/**
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class MigrateDataNucleusPropertiesTest extends BaseRewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.recipe(new MigrateDataNucleusProperties(null));
+    }
+
+    /**
+     * Known keys are replaced in place, unknown keys are commented out.
+     */
+    @DocumentExample
+    @Test
+    void migrateProperties() {
+        rewriteRun(
+                properties(
+                        """
+                                isis.persistence.jdo-datanucleus.impl.datanucleus.rdbms.statementBatchLimit=50
+                                isis.persistence.jdo-datanucleus.impl.datanucleus.cache.level2.type=none
+                                datanucleus.query.fetchSize=200
+                                datanucleus.identifier.case=MixedCase
+                                server.port=8080
+                                """,
+                        """
+                                eclipselink.jdbc.batch-writing=JDBC
+                                eclipselink.jdbc.batch-writing.size=50
+                                eclipselink.cache.shared.default=false
+                                eclipselink.jdbc.fetch-size=200
+                                # TODO: manually migrate to JPA
+                                # datanucleus.identifier.case=MixedCase
+                                server.port=8080
+                                """
+                )
+        );
+    }
+
+    /**
+     * Known keys of a YAML file are replaced by root keys with the property prefix.
+     */
+    @Test
+    void migrateYaml() {
+        rewriteRun(
+                spec -> spec.recipe(new MigrateDataNucleusProperties("spring.jpa.properties.")),
+                yaml(
+                        """
+                                server:
+                                  port: 8080
+                                datanucleus:
+                                  connectionPool:
+                                    maxPoolSize: 30
+                                  cache:
+                                    level2:
+                                      type: soft
+                                  Multithreaded: true
+                                """,
+                        """
+                                server:
+                                  port: 8080
+                                # TODO: manually migrate to JPA
+                                # datanucleus.Multithreaded: true
+                                spring.jpa.properties.eclipselink.connection-pool.default.max: 30
+                                spring.jpa.properties.eclipselink.cache.shared.default: true
+                                """
+                )
+        );
+    }
+
+    /**
+     * A YAML key without equivalent is commented out where it was, while its parents with other keys are kept.
+     */
+    @Test
+    void commentOutNestedYamlKey() {
+        rewriteRun(
+                yaml(
+                        """
+                                isis:
+                                  persistence:
+                                    schema:
+                                      auto-create-schemas: dbo
+                                    jdo-datanucleus:
+                                      impl:
+                                        datanucleus:
+                                          Multithreaded: true
+                                          identifier:
+                                            case: MixedCase
+                                  applib:
+                                    title: Estatio
+                                """,
+                        """
+                                isis:
+                                  persistence:
+                                    schema:
+                                      auto-create-schemas: dbo
+                                    # TODO: manually migrate to JPA
+                                    # isis.persistence.jdo-datanucleus.impl.datanucleus.Multithreaded: true
+                                    # isis.persistence.jdo-datanucleus.impl.datanucleus.identifier.case: MixedCase
+                                  applib:
+                                    title: Estatio
+                                """
+                )
+        );
+    }
+
+    /**
+     * The keys of a Spring Boot configuration file get the Spring JPA prefix and the connection keys become the Spring
+     * data source, while logger names are kept.
+     */
+    @Test
+    void migrateSpringConfiguration() {
+        rewriteRun(
+                properties(
+                        """
+                                isis.persistence.jdo-datanucleus.impl.datanucleus.rdbms.statementBatchLimit=50
+                                isis.persistence.jdo-datanucleus.impl.datanucleus.ConnectionUserName=sa
+                                logging.level.org.datanucleus.store.rdbms=WARN
+                                log4j.category.DataNucleus.JDO=WARN
+                                """,
+                        """
+                                spring.jpa.properties.eclipselink.jdbc.batch-writing=JDBC
+                                spring.jpa.properties.eclipselink.jdbc.batch-writing.size=50
+                                spring.datasource.username=sa
+                                logging.level.org.datanucleus.store.rdbms=WARN
+                                log4j.category.DataNucleus.JDO=WARN
+                                """,
+                        spec -> spec.path("src/main/resources/application.properties")
+                )
+        );
+    }
+}
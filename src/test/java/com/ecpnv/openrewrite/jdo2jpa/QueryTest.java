@@ -70,7 +70,7 @@ class QueryTest extends BaseRewriteTest {
                                 import javax.persistence.NamedNativeQuery;
                                 import javax.persistence.NamedQuery;
                                 
-                                @NamedQuery(name = "findByEmail", query = "SELECT FROM Person WHERE email == :email")
+                                @NamedQuery(name = "findByEmail", query = "SELECT p FROM Person p WHERE p.email = :email")
                                 @NamedNativeQuery(name = "findByName", query = "SELECT * FROM Person WHERE name = :name")
                                 public class Person {
                                         private String name, email;
@@ -124,7 +124,7 @@ class QueryTest extends BaseRewriteTest {
                                 import javax.persistence.NamedQuery;
                                 
                                 @NamedQueries({
-                                    @NamedQuery(name = "findByEmail", query = "SELECT FROM Person WHERE email == :email")})
+                                    @NamedQuery(name = "findByEmail", query = "SELECT p FROM Person p WHERE p.email = :email")})
                                 @NamedNativeQueries({
                                         @NamedNativeQuery(name = "findByName", query = "SELECT * FROM Person WHERE name = :name")})
                                 public class Person {
@@ -134,4 +134,33 @@ class QueryTest extends BaseRewriteTest {
                 )
         );
     }
+
+    /**
+     * Tests that the query hints of the JDO attributes and of the range of the JDOQL query are merged.
+     */
+    @Test
+    void migrateQueryHints() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                import javax.jdo.annotations.Query;
+                                
+                                @Query(name = "findFirst", language = "JDOQL", value = "SELECT FROM Person ORDER BY name RANGE 0, 10", unmodifiable = "true")
+                                public class Person {
+                                        private String name;
+                                }
+                                """,
+                        """
+                                import javax.persistence.NamedQuery;
+                                import javax.persistence.QueryHint;
+                                
+                                @NamedQuery(name = "findFirst", query = "SELECT p FROM Person p ORDER BY p.name ASC", hints = {@QueryHint(name = "eclipselink.read-only", value = "true"), @QueryHint(name = "eclipselink.jdbc.first-result", value = "0"), @QueryHint(name = "eclipselink.jdbc.max-rows", value = "10")})
+                                public class Person {
+                                        private String name;
+                                }
+                                """
+                )
+        );
+    }
 }
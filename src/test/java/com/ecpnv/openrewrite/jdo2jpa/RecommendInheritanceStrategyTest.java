@@ -0,0 +1,224 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.test.RecipeSpec;
+
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.test.SourceSpecs.text;
+
+/**
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class RecommendInheritanceStrategyTest extends BaseRewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.parser(PARSER).recipe(new RecommendInheritanceStrategy(null, 1, null, null, true));
+    }
+
+    /**
+     * A JOINED hierarchy deeper than the maximum joined depth is reported and changed to a single table.
+     */
+    @DocumentExample
+    @Test
+    void applySingleTableToDeepHierarchy() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+
+                                @Entity
+                                @javax.persistence.Inheritance(strategy = javax.persistence.InheritanceType.JOINED)
+                                public abstract class Party {
+                                    private String reference;
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+
+                                @Entity
+                                @javax.persistence.Inheritance(strategy = javax.persistence.InheritanceType.SINGLE_TABLE)
+                                public abstract class Party {
+                                    private String reference;
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+                                import javax.persistence.Transient;
+
+                                @Entity
+                                public class Person extends Party {
+                                    private static final long serialVersionUID = 1L;
+                                    private String firstName, lastName;
+                                    @Transient
+                                    private String fullName;
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+
+                                @Entity
+                                public class Employee extends Person {
+                                    private String number;
+                                }
+                                """
+                ),
+                text(
+                        null,
+                        """
+                                # Inheritance strategy report
+
+                                | Root | Strategy | Depth | Subclasses | Subclass fields | Recommendation | Reason |
+                                |---|---|---|---|---|---|---|
+                                | org.example.Party | SINGLE_TABLE | 2 | 2 | 3 | SINGLE_TABLE | a polymorphic load would join up to 3 tables, while the 3 fields of the subclasses fit in a single table |
+
+                                ## org.example.Party
+
+                                | Subclass | Depth | Fields |
+                                |---|---|---|
+                                | org.example.Employee | 2 | 1 |
+                                | org.example.Person | 1 | 2 |
+                                """,
+                        spec -> spec.path(RecommendInheritanceStrategy.DEFAULT_REPORT_PATH)
+                )
+        );
+    }
+
+    /**
+     * A shallow hierarchy keeps JOINED and is reported as JSON.
+     */
+    @Test
+    void reportShallowHierarchyAsJson() {
+        rewriteRun(
+                spec -> spec.recipe(new RecommendInheritanceStrategy("inheritance.json", null, null, null, null)),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+
+                                @Entity
+                                @javax.persistence.Inheritance(strategy = javax.persistence.InheritanceType.JOINED)
+                                public abstract class Party {
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+
+                                @Entity
+                                public class Person extends Party {
+                                    private String name;
+                                }
+                                """
+                ),
+                text(
+                        null,
+                        """
+                                [ {
+                                  "root" : "org.example.Party",
+                                  "strategy" : "JOINED",
+                                  "depth" : 1,
+                                  "subclassCount" : 1,
+                                  "subclassFields" : 1,
+                                  "recommendation" : "JOINED",
+                                  "reason" : "a polymorphic load joins at most 2 tables",
+                                  "subclasses" : [ {
+                                    "name" : "org.example.Person",
+                                    "depth" : 1,
+                                    "fields" : 1
+                                  } ]
+                                } ]
+                                """,
+                        spec -> spec.path("inheritance.json")
+                )
+        );
+    }
+
+    /**
+     * Only JOINED hierarchies are changed, so another strategy is reported as it is.
+     */
+    @Test
+    void keepTablePerClassStrategy() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+
+                                @Entity
+                                @javax.persistence.Inheritance(strategy = javax.persistence.InheritanceType.TABLE_PER_CLASS)
+                                public abstract class Party {
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+
+                                @Entity
+                                public class Person extends Party {
+                                    private String name;
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+
+                                @Entity
+                                public class Employee extends Person {
+                                    private String number;
+                                }
+                                """
+                ),
+                text(
+                        null,
+                        """
+                                # Inheritance strategy report
+
+                                | Root | Strategy | Depth | Subclasses | Subclass fields | Recommendation | Reason |
+                                |---|---|---|---|---|---|---|
+                                | org.example.Party | TABLE_PER_CLASS | 2 | 2 | 2 | SINGLE_TABLE | a polymorphic load would join up to 3 tables, while the 2 fields of the subclasses fit in a single table |
+
+                                ## org.example.Party
+
+                                | Subclass | Depth | Fields |
+                                |---|---|---|
+                                | org.example.Employee | 2 | 1 |
+                                | org.example.Person | 1 | 1 |
+                                """,
+                        spec -> spec.path(RecommendInheritanceStrategy.DEFAULT_REPORT_PATH)
+                )
+        );
+    }
+}
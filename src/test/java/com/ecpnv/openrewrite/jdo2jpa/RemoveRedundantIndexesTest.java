@@ -0,0 +1,188 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.test.RecipeSpec;
+
+import com.ecpnv.openrewrite.jdo2jpa.table.RedundantIndexes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+
+/**
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class RemoveRedundantIndexesTest extends BaseRewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.parser(PARSER).recipe(new RemoveRedundantIndexes(null, null));
+    }
+
+    /**
+     * Duplicate unique constraints, indexes that duplicate a unique constraint or another index, and prefix indexes
+     * are removed and reported.
+     */
+    @DocumentExample
+    @Test
+    void removeDuplicatesAndPrefixes() {
+        rewriteRun(
+                spec -> spec.recipe(new RemoveRedundantIndexes(true, true)).dataTable(RedundantIndexes.Row.class, rows -> assertThat(rows).containsExactly(
+                        new RedundantIndexes.Row("org.example.Lease", "@UniqueConstraint(columnNames = \"REFERENCE\")",
+                                "duplicate of", "@UniqueConstraint(columnNames = {\"reference\"})"),
+                        new RedundantIndexes.Row("org.example.Lease", "@Index(name = \"Lease_reference_IDX\", columnList = \"reference\")",
+                                "duplicate of", "@UniqueConstraint(columnNames = {\"reference\"})"),
+                        new RedundantIndexes.Row("org.example.Lease", "@Index(columnList = \"startDate\")",
+                                "duplicate of", "@Index(columnList = \"startDate ASC\")"),
+                        new RedundantIndexes.Row("org.example.Lease", "@Index(columnList = \"tenantId\")",
+                                "prefix of", "@Index(columnList = \"tenantId, startDate\")"))),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+                                import javax.persistence.Index;
+                                import javax.persistence.Table;
+                                import javax.persistence.UniqueConstraint;
+
+                                @Entity
+                                @Table(name = "Lease",
+                                        uniqueConstraints = {@UniqueConstraint(columnNames = {"reference"}), @UniqueConstraint(columnNames = "REFERENCE")},
+                                        indexes = {@Index(name = "Lease_reference_IDX", columnList = "reference"), @Index(columnList = "tenantId"),
+                                                @Index(columnList = "tenantId, startDate"), @Index(columnList = "startDate ASC"), @Index(columnList = "startDate")})
+                                public class Lease {
+                                    private String reference;
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+                                import javax.persistence.Index;
+                                import javax.persistence.Table;
+                                import javax.persistence.UniqueConstraint;
+
+                                @Entity
+                                @Table(name = "Lease",
+                                        uniqueConstraints = {@UniqueConstraint(columnNames = {"reference"})},
+                                        indexes = {@Index(columnList = "tenantId, startDate"), @Index(columnList = "startDate ASC")})
+                                public class Lease {
+                                    private String reference;
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * By default only the duplicates are removed, and the indexes attribute is removed when no index is left.
+     */
+    @Test
+    void keepPrefixes() {
+        rewriteRun(
+                spec -> spec.dataTable(RedundantIndexes.Row.class, rows -> assertThat(rows).containsExactly(
+                                new RedundantIndexes.Row("org.example.Category", "@Index(columnList = \"name\")",
+                                        "duplicate of", "@UniqueConstraint(columnNames = \"name\")"))),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+                                import javax.persistence.Index;
+                                import javax.persistence.Table;
+                                import javax.persistence.UniqueConstraint;
+
+                                @Entity
+                                @Table(indexes = @Index(columnList = "code", unique = true),
+                                        uniqueConstraints = @UniqueConstraint(columnNames = {"code", "version"}))
+                                public class Product {
+                                    private String code;
+                                    private int version;
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+                                import javax.persistence.Index;
+                                import javax.persistence.Table;
+                                import javax.persistence.UniqueConstraint;
+
+                                @Entity
+                                @Table(indexes = @Index(columnList = "name"), uniqueConstraints = @UniqueConstraint(columnNames = "name"))
+                                public class Category {
+                                    private String name;
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+                                import javax.persistence.Table;
+                                import javax.persistence.UniqueConstraint;
+
+                                @Entity
+                                @Table(uniqueConstraints = @UniqueConstraint(columnNames = "name"))
+                                public class Category {
+                                    private String name;
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * By default a named non unique index is kept, even when it duplicates another index or unique constraint.
+     */
+    @Test
+    void keepNamedIndexes() {
+        rewriteRun(
+                spec -> spec.recipe(new RemoveRedundantIndexes(true, null))
+                        .dataTable(RedundantIndexes.Row.class, rows -> assertThat(rows).containsExactly(
+                                new RedundantIndexes.Row("org.example.Unit", "@Index(columnList = \"code\")",
+                                        "duplicate of", "@UniqueConstraint(columnNames = \"code\")"))),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+                                import javax.persistence.Index;
+                                import javax.persistence.Table;
+                                import javax.persistence.UniqueConstraint;
+
+                                @Entity
+                                @Table(uniqueConstraints = @UniqueConstraint(columnNames = "code"),
+                                        indexes = {@Index(name = "Unit_code_IDX", columnList = "code"), @Index(columnList = "code"),
+                                                @Index(name = "Unit_name_IDX", columnList = "name"), @Index(columnList = "name, code")})
+                                public class Unit {
+                                    private String code;
+                                    private String name;
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import javax.persistence.Entity;
+                                import javax.persistence.Index;
+                                import javax.persistence.Table;
+                                import javax.persistence.UniqueConstraint;
+
+                                @Entity
+                                @Table(uniqueConstraints = @UniqueConstraint(columnNames = "code"),
+                                        indexes = {@Index(name = "Unit_code_IDX", columnList = "code"),
+                                                @Index(name = "Unit_name_IDX", columnList = "name"), @Index(columnList = "name, code")})
+                                public class Unit {
+                                    private String code;
+                                    private String name;
+                                }
+                                """
+                )
+        );
+    }
+}
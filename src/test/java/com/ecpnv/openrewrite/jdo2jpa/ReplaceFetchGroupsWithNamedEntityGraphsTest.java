@@ -0,0 +1,212 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.test.RecipeSpec;
+
+import static org.openrewrite.java.Assertions.java;
+
+/**
+ * Tests the replacement of JDO fetch groups and fetch plans with JPA named entity graphs by
+ * {@link ReplaceFetchGroupsWithNamedEntityGraphs}.
+ *
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class ReplaceFetchGroupsWithNamedEntityGraphsTest extends BaseRewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.parser(PARSER).recipe(new ReplaceFetchGroupsWithNamedEntityGraphs(null));
+    }
+
+    /**
+     * A single fetch group becomes a single named entity graph.
+     */
+    @DocumentExample
+    @Test
+    void replaceFetchGroup() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                import java.util.List;
+                                import javax.jdo.annotations.FetchGroup;
+                                import javax.jdo.annotations.Persistent;
+                                import javax.jdo.annotations.PersistenceCapable;
+
+                                @PersistenceCapable
+                                @FetchGroup(name = "detail", members = {@Persistent(name = "lines"), @Persistent(name = "customer")})
+                                public class Invoice {
+                                        private List<String> lines;
+                                        private String customer;
+                                }
+                                """,
+                        """
+                                import java.util.List;
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.persistence.NamedAttributeNode;
+                                import javax.persistence.NamedEntityGraph;
+
+                                @PersistenceCapable
+                                @NamedEntityGraph(name = "Invoice.detail", attributeNodes = {@NamedAttributeNode("lines"), @NamedAttributeNode("customer")})
+                                public class Invoice {
+                                        private List<String> lines;
+                                        private String customer;
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * Fetch groups with included fetch groups, a fetch plan and nested members, where the fetch group with the same
+     * name of the type of a member becomes a subgraph. A member referring back to a type in the path has no subgraph.
+     */
+    @Test
+    void replaceFetchGroupsWithSubgraphs() {
+        rewriteRun(
+                spec -> spec.recipe(new ReplaceFetchGroupsWithNamedEntityGraphs(false)),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import java.util.SortedSet;
+                                import javax.jdo.annotations.FetchGroup;
+                                import javax.jdo.annotations.FetchGroups;
+                                import javax.jdo.annotations.FetchPlan;
+                                import javax.jdo.annotations.Persistent;
+                                import javax.jdo.annotations.PersistenceCapable;
+
+                                @PersistenceCapable
+                                @FetchGroups({
+                                        @FetchGroup(name = "detail", members = {@Persistent(name = "items")}, fetchGroups = {"owner"}),
+                                        @FetchGroup(name = "owner", members = @Persistent(name = "owner.address"))
+                                })
+                                @FetchPlan(name = "list", fetchGroups = {"owner"})
+                                public class Order {
+                                        private SortedSet<OrderItem> items;
+                                        private Customer owner;
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import java.util.SortedSet;
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.persistence.NamedAttributeNode;
+                                import javax.persistence.NamedEntityGraph;
+                                import javax.persistence.NamedEntityGraphs;
+                                import javax.persistence.NamedSubgraph;
+
+                                @PersistenceCapable
+                                @NamedEntityGraphs({
+                                        @NamedEntityGraph(name = "detail", attributeNodes = {@NamedAttributeNode(value = "items", subgraph = "items"), @NamedAttributeNode(value = "owner", subgraph = "owner")}, subgraphs = {@NamedSubgraph(name = "items", attributeNodes = {@NamedAttributeNode("product"), @NamedAttributeNode("order")}), @NamedSubgraph(name = "owner", attributeNodes = {@NamedAttributeNode("address")})}),
+                                        @NamedEntityGraph(name = "owner", attributeNodes = {@NamedAttributeNode(value = "owner", subgraph = "owner")}, subgraphs = {@NamedSubgraph(name = "owner", attributeNodes = {@NamedAttributeNode("address")})}),
+                                        @NamedEntityGraph(name = "list", attributeNodes = {@NamedAttributeNode(value = "owner", subgraph = "owner")}, subgraphs = {@NamedSubgraph(name = "owner", attributeNodes = {@NamedAttributeNode("address")})})})
+                                public class Order {
+                                        private SortedSet<OrderItem> items;
+                                        private Customer owner;
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.FetchGroup;
+                                import javax.jdo.annotations.Persistent;
+                                import javax.jdo.annotations.PersistenceCapable;
+
+                                @PersistenceCapable
+                                @FetchGroup(name = "detail", members = {@Persistent(name = "product"), @Persistent(name = "order")})
+                                public class OrderItem implements Comparable<OrderItem> {
+                                        private Order order;
+                                        private String product;
+
+                                        public int compareTo(OrderItem other) {
+                                                return 0;
+                                        }
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.persistence.NamedAttributeNode;
+                                import javax.persistence.NamedEntityGraph;
+                                import javax.persistence.NamedSubgraph;
+
+                                @PersistenceCapable
+                                @NamedEntityGraph(name = "detail", attributeNodes = {@NamedAttributeNode("product"), @NamedAttributeNode(value = "order", subgraph = "order")}, subgraphs = {@NamedSubgraph(name = "order", attributeNodes = {@NamedAttributeNode("items"), @NamedAttributeNode(value = "owner", subgraph = "order.owner")}), @NamedSubgraph(name = "order.owner", attributeNodes = {@NamedAttributeNode("address")})})
+                                public class OrderItem implements Comparable<OrderItem> {
+                                        private Order order;
+                                        private String product;
+
+                                        public int compareTo(OrderItem other) {
+                                                return 0;
+                                        }
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                public class Customer {
+                                        private String address;
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * A class with a fetch group that is named by a constant is kept and tagged for manual migration.
+     */
+    @Test
+    void keepFetchGroupNamedByConstant() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                import javax.jdo.annotations.FetchGroup;
+                                import javax.jdo.annotations.FetchGroups;
+                                import javax.jdo.annotations.Persistent;
+                                import javax.jdo.annotations.PersistenceCapable;
+
+                                @PersistenceCapable
+                                @FetchGroups({
+                                        @FetchGroup(name = Invoice.DETAIL, members = {@Persistent(name = "lines")}),
+                                        @FetchGroup(name = "customer", members = {@Persistent(name = "customer")})
+                                })
+                                public class Invoice {
+                                        public static final String DETAIL = "detail";
+                                        private String lines;
+                                        private String customer;
+                                }
+                                """,
+                        """
+                                import javax.jdo.annotations.FetchGroup;
+                                import javax.jdo.annotations.FetchGroups;
+                                import javax.jdo.annotations.Persistent;
+                                import javax.jdo.annotations.PersistenceCapable;
+
+                                // TODO: manually migrate to JPA: fetch group names that are not literals
+                                @PersistenceCapable
+                                @FetchGroups({
+                                        @FetchGroup(name = Invoice.DETAIL, members = {@Persistent(name = "lines")}),
+                                        @FetchGroup(name = "customer", members = {@Persistent(name = "customer")})
+                                })
+                                public class Invoice {
+                                        public static final String DETAIL = "detail";
+                                        private String lines;
+                                        private String customer;
+                                }
+                                """
+                )
+        );
+    }
+}
@@ -0,0 +1,285 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.test.RecipeSpec;
+
+import static org.openrewrite.java.Assertions.java;
+
+/**
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class ReplaceJdoQueryApiWithEntityManagerTest extends BaseRewriteTest {
+
+    //language=java
+    private static final String PERSON = """
+            package org.example;
+
+            public class Person {
+                private String name;
+                private int age;
+            }
+            """;
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.parser(PARSER).recipe(new ReplaceJdoQueryApiWithEntityManager("em"));
+    }
+
+    /**
+     * Verifies that a fluent query chain becomes a typed JPA query with its parameters and range.
+     */
+    @DocumentExample
+    @Test
+    void replaceFluentQuery() {
+        rewriteRun(
+                java(PERSON),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import java.util.List;
+                                import javax.jdo.PersistenceManager;
+                                import javax.persistence.EntityManager;
+
+                                public class PersonRepository {
+                                    private PersistenceManager pm;
+                                    private EntityManager em;
+
+                                    List<Person> findAdults(int min) {
+                                        return pm.newQuery(Person.class).filter("age >= :min").orderBy("name ascending")
+                                                .range(0, 10).setParameters(min).executeList();
+                                    }
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import java.util.List;
+                                import javax.jdo.PersistenceManager;
+                                import javax.persistence.EntityManager;
+
+                                public class PersonRepository {
+                                    private PersistenceManager pm;
+                                    private EntityManager em;
+
+                                    List<Person> findAdults(int min) {
+                                        return em.createQuery("SELECT p FROM Person p WHERE p.age >= :min ORDER BY p.name ASC", Person.class)
+                                                .setParameter("min", min)
+                                                .setMaxResults(10)
+                                                .getResultList();
+                                    }
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * Verifies that a query variable, configured by statements, is replaced by the JPA query, with the fetch size as
+     * hint and ignoring the cache as flush mode.
+     */
+    @Test
+    void replaceQueryVariable() {
+        rewriteRun(
+                java(PERSON),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import java.util.List;
+                                import javax.jdo.PersistenceManager;
+                                import javax.jdo.Query;
+                                import javax.persistence.EntityManager;
+
+                                public class PersonRepository {
+                                    private PersistenceManager pm;
+                                    private EntityManager em;
+
+                                    List<Person> findByName(String name, long from, long to) {
+                                        Query<Person> query = pm.newQuery(Person.class);
+                                        query.setFilter("name == value");
+                                        query.declareParameters("String value");
+                                        query.setRange(from, to);
+                                        query.setIgnoreCache(true);
+                                        query.getFetchPlan().setFetchSize(100);
+                                        return (List<Person>) query.execute(name);
+                                    }
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import java.util.List;
+                                import javax.jdo.PersistenceManager;
+                                import javax.persistence.EntityManager;
+                                import javax.persistence.FlushModeType;
+
+                                public class PersonRepository {
+                                    private PersistenceManager pm;
+                                    private EntityManager em;
+
+                                    List<Person> findByName(String name, long from, long to) {
+                                        return (List<Person>) em.createQuery("SELECT p FROM Person p WHERE p.name = :value", Person.class)
+                                                .setParameter("value", name)
+                                                .setFirstResult((int) from)
+                                                .setMaxResults((int) (to - from))
+                                                .setHint("eclipselink.jdbc.fetch-size", 100)
+                                                .setFlushMode(FlushModeType.COMMIT)
+                                                .getResultList();
+                                    }
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * Verifies that a named query with a unique result is replaced and that a query without JPA equivalent is tagged.
+     */
+    @Test
+    void replaceNamedQueryAndTagUnsupported() {
+        rewriteRun(
+                java(PERSON),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import java.util.List;
+                                import java.util.Map;
+                                import javax.jdo.PersistenceManager;
+                                import javax.persistence.EntityManager;
+
+                                public class PersonRepository {
+                                    private PersistenceManager pm;
+                                    private EntityManager em;
+
+                                    Person findFirst() {
+                                        return pm.newNamedQuery(Person.class, "findFirst").executeUnique();
+                                    }
+
+                                    List<Person> findByMap(Map<String, Object> parameters) {
+                                        return (List<Person>) pm.newQuery(Person.class, "name == :name").executeWithMap(parameters);
+                                    }
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import java.util.List;
+                                import java.util.Map;
+                                import javax.jdo.PersistenceManager;
+                                import javax.persistence.EntityManager;
+
+                                public class PersonRepository {
+                                    private PersistenceManager pm;
+                                    private EntityManager em;
+
+                                    Person findFirst() {
+                                        return em.createNamedQuery("findFirst", Person.class)
+                                                .getResultStream().findFirst().orElse(null);
+                                    }
+
+                                    List<Person> findByMap(Map<String, Object> parameters) {
+                                        return (List<Person>) /* TODO: manually migrate to JPA: JDO query method 'executeWithMap' is not supported */ pm.newQuery(Person.class, "name == :name").executeWithMap(parameters);
+                                    }
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * Verifies that without an EntityManager expression the JDO query is kept and tagged.
+     */
+    @Test
+    void tagWithoutEntityManager() {
+        rewriteRun(
+                spec -> spec.recipe(new ReplaceJdoQueryApiWithEntityManager(null)),
+                java(PERSON),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import java.util.List;
+                                import javax.jdo.PersistenceManager;
+
+                                public class PersonRepository {
+                                    private PersistenceManager pm;
+
+                                    List<Person> findAdults(int min) {
+                                        return pm.newQuery(Person.class).filter("age >= :min").setParameters(min).executeList();
+                                    }
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import java.util.List;
+                                import javax.jdo.PersistenceManager;
+
+                                public class PersonRepository {
+                                    private PersistenceManager pm;
+
+                                    List<Person> findAdults(int min) {
+                                        return /* TODO: manually migrate to JPA: JDO query, replace it with a JPA query of the EntityManager */ pm.newQuery(Person.class).filter("age >= :min").setParameters(min).executeList();
+                                    }
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * Verifies that the EntityManager expression can be an accessor.
+     */
+    @Test
+    void replaceWithEntityManagerAccessor() {
+        rewriteRun(
+                spec -> spec.recipe(new ReplaceJdoQueryApiWithEntityManager("getEntityManager()")),
+                java(PERSON),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import java.util.List;
+                                import javax.jdo.PersistenceManager;
+                                import javax.persistence.EntityManager;
+
+                                public abstract class PersonRepository {
+                                    abstract PersistenceManager getPersistenceManager();
+
+                                    abstract EntityManager getEntityManager();
+
+                                    List<Person> findAll() {
+                                        return getPersistenceManager().newQuery(Person.class).executeList();
+                                    }
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import java.util.List;
+                                import javax.jdo.PersistenceManager;
+                                import javax.persistence.EntityManager;
+
+                                public abstract class PersonRepository {
+                                    abstract PersistenceManager getPersistenceManager();
+
+                                    abstract EntityManager getEntityManager();
+
+                                    List<Person> findAll() {
+                                        return getEntityManager().createQuery("SELECT p FROM Person p", Person.class)
+                                                .getResultList();
+                                    }
+                                }
+                                """
+                )
+        );
+    }
+}
@@ -0,0 +1,134 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.test.RecipeSpec;
+
+import static org.openrewrite.java.Assertions.java;
+
+/**
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class ReplaceJdoqlWithJpqlTest extends BaseRewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.parser(PARSER).recipe(new ReplaceJdoqlWithJpql());
+    }
+
+    /**
+     * Verifies that the JDOQL of named queries is translated, with the class as candidate, and that JPQL is kept.
+     */
+    @DocumentExample
+    @Test
+    void translateNamedQueries() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                import javax.persistence.NamedQueries;
+                                import javax.persistence.NamedQuery;
+
+                                @NamedQueries({
+                                    @NamedQuery(name = "findByName", query = "SELECT FROM Person " +
+                                            "WHERE name.startsWith(:prefix) ORDER BY name"),
+                                    @NamedQuery(name = "findAdults", query = "SELECT WHERE age >= 18"),
+                                    @NamedQuery(name = "findByEmail", query = "SELECT p FROM Person p WHERE p.email = :email")
+                                })
+                                public class Person {
+                                    private String name, email;
+                                    private int age;
+                                }
+                                """,
+                        """
+                                import javax.persistence.NamedQueries;
+                                import javax.persistence.NamedQuery;
+
+                                @NamedQueries({
+                                    @NamedQuery(name = "findByName", query = "SELECT p FROM Person p WHERE p.name LIKE CONCAT(:prefix, '%') ORDER BY p.name ASC"),
+                                    @NamedQuery(name = "findAdults", query = "SELECT p FROM Person p WHERE p.age >= 18"),
+                                    @NamedQuery(name = "findByEmail", query = "SELECT p FROM Person p WHERE p.email = :email")
+                                })
+                                public class Person {
+                                    private String name, email;
+                                    private int age;
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * Verifies that the range of a named query becomes the EclipseLink JDBC query hints.
+     */
+    @Test
+    void translateRangeToHints() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                import javax.persistence.NamedQuery;
+
+                                @NamedQuery(name = "findFirst", query = "SELECT FROM Person ORDER BY name RANGE 0, 10")
+                                public class Person {
+                                    private String name;
+                                }
+                                """,
+                        """
+                                import javax.persistence.NamedQuery;
+                                import javax.persistence.QueryHint;
+
+                                @NamedQuery(name = "findFirst", query = "SELECT p FROM Person p ORDER BY p.name ASC", hints = {@QueryHint(name = "eclipselink.jdbc.first-result", value = "0"), @QueryHint(name = "eclipselink.jdbc.max-rows", value = "10")})
+                                public class Person {
+                                    private String name;
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * Verifies that string queries are translated with the result class as candidate and that untranslatable
+     * queries are tagged.
+     */
+    @Test
+    void translateStringQueries() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                import java.util.List;
+                                import javax.persistence.EntityManager;
+                                import javax.persistence.NamedQuery;
+
+                                @NamedQuery(name = "findByKey", query = "SELECT FROM Person WHERE key.get('a') == 1")
+                                public class Person {
+                                    private String name;
+
+                                    List<Person> findByName(EntityManager em, String name) {
+                                        return em.createQuery("SELECT WHERE name == :name", Person.class)
+                                                .setParameter("name", name)
+                                                .getResultList();
+                                    }
+                                }
+                                """,
+                        """
+                                import java.util.List;
+                                import javax.persistence.EntityManager;
+                                import javax.persistence.NamedQuery;
+
+                                @NamedQuery(name = "findByKey", query = /* TODO: manually migrate to JPA: JDOQL method 'get' is not supported */ "SELECT FROM Person WHERE key.get('a') == 1")
+                                public class Person {
+                                    private String name;
+
+                                    List<Person> findByName(EntityManager em, String name) {
+                                        return em.createQuery("SELECT p FROM Person p WHERE p.name = :name", Person.class)
+                                                .setParameter("name", name)
+                                                .getResultList();
+                                    }
+                                }
+                                """
+                )
+        );
+    }
+}
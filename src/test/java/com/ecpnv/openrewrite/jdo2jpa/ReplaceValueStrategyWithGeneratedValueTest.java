@@ -0,0 +1,199 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.test.RecipeSpec;
+
+import static org.openrewrite.java.Assertions.java;
+
+/**
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class ReplaceValueStrategyWithGeneratedValueTest extends BaseRewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.parser(PARSER).recipe(new ReplaceValueStrategyWithGeneratedValue(
+                null, null, "org.estatio.base.prod.dom.EntityAbstract"));
+    }
+
+    /**
+     * A sequence value strategy becomes a sequence generator with the settings of the JDO sequence.
+     */
+    @DocumentExample
+    @Test
+    void replaceSequence() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                import javax.jdo.annotations.IdGeneratorStrategy;
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.jdo.annotations.Persistent;
+                                import javax.jdo.annotations.PrimaryKey;
+                                import javax.jdo.annotations.Sequence;
+                                import javax.jdo.annotations.SequenceStrategy;
+
+                                @PersistenceCapable
+                                @Sequence(name = "invoiceSeq", strategy = SequenceStrategy.CONTIGUOUS, datastoreSequence = "INVOICE_SEQ", allocationSize = 20)
+                                public class Invoice {
+                                    @PrimaryKey
+                                    @Persistent(valueStrategy = IdGeneratorStrategy.SEQUENCE, sequence = "invoiceSeq")
+                                    private Long id;
+                                }
+                                """,
+                        """
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.jdo.annotations.PrimaryKey;
+                                import javax.persistence.GeneratedValue;
+                                import javax.persistence.GenerationType;
+                                import javax.persistence.SequenceGenerator;
+
+                                @PersistenceCapable
+                                public class Invoice {
+                                    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "invoiceSeq")
+                                    @PrimaryKey
+                                    @SequenceGenerator(name = "invoiceSeq", sequenceName = "INVOICE_SEQ", allocationSize = 20)
+                                    private Long id;
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * Identity columns become sequences when preferred, other attributes of the persistent annotation are kept.
+     */
+    @Test
+    void preferSequenceOverIdentity() {
+        rewriteRun(
+                spec -> spec.recipe(new ReplaceValueStrategyWithGeneratedValue(100, true, null)),
+                //language=java
+                java(
+                        """
+                                import javax.jdo.annotations.IdGeneratorStrategy;
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.jdo.annotations.Persistent;
+                                import javax.jdo.annotations.PrimaryKey;
+
+                                @PersistenceCapable
+                                public class Invoice {
+                                    @PrimaryKey
+                                    @Persistent(valueStrategy = IdGeneratorStrategy.IDENTITY, column = "ID")
+                                    private Long id;
+                                }
+                                """,
+                        """
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.jdo.annotations.Persistent;
+                                import javax.jdo.annotations.PrimaryKey;
+                                import javax.persistence.GeneratedValue;
+                                import javax.persistence.GenerationType;
+                                import javax.persistence.SequenceGenerator;
+
+                                @PersistenceCapable
+                                public class Invoice {
+                                    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "Invoice_SEQ")
+                                    @PrimaryKey
+                                    @SequenceGenerator(name = "Invoice_SEQ", sequenceName = "Invoice_SEQ", allocationSize = 100)
+                                    @Persistent(column = "ID")
+                                    private Long id;
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * A datastore identity becomes an identity field, except for entities that inherit one.
+     */
+    @Test
+    void replaceDatastoreIdentity() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.DatastoreIdentity;
+                                import javax.jdo.annotations.IdGeneratorStrategy;
+                                import javax.jdo.annotations.PersistenceCapable;
+
+                                @PersistenceCapable(table = "Invoice")
+                                @DatastoreIdentity(strategy = IdGeneratorStrategy.INCREMENT)
+                                public class Invoice {
+                                    private String number;
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.persistence.*;
+
+                                @PersistenceCapable(table = "Invoice")
+                                public class Invoice {
+                                    @Id
+                                    @GeneratedValue(strategy = GenerationType.TABLE, generator = "Invoice_GEN")
+                                    @TableGenerator(name = "Invoice_GEN", table = "SEQUENCE_TABLE", pkColumnName = "SEQUENCE_NAME", valueColumnName = "NEXT_VAL", pkColumnValue = "org.example.Invoice")
+                                    @Column(name = "INVOICE_ID")
+                                    private Long id;
+                                    private String number;
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.DatastoreIdentity;
+                                import javax.jdo.annotations.IdGeneratorStrategy;
+                                import javax.jdo.annotations.PersistenceCapable;
+
+                                import org.estatio.base.prod.dom.EntityAbstract;
+
+                                @PersistenceCapable
+                                @DatastoreIdentity(strategy = IdGeneratorStrategy.IDENTITY, column = "id")
+                                public class Person extends EntityAbstract {
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * A value strategy of a field that is not a primary key is kept and tagged for manual migration.
+     */
+    @Test
+    void tagValueStrategyOfOtherField() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                import javax.jdo.annotations.IdGeneratorStrategy;
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.jdo.annotations.Persistent;
+
+                                @PersistenceCapable
+                                public class Invoice {
+                                    @Persistent(valueStrategy = IdGeneratorStrategy.INCREMENT)
+                                    private Long number;
+                                }
+                                """,
+                        """
+                                import javax.jdo.annotations.IdGeneratorStrategy;
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.jdo.annotations.Persistent;
+
+                                @PersistenceCapable
+                                public class Invoice {
+                                    // TODO: manually migrate to JPA: value strategy INCREMENT of a field that is not a primary key
+                                    @Persistent(valueStrategy = IdGeneratorStrategy.INCREMENT)
+                                    private Long number;
+                                }
+                                """
+                )
+        );
+    }
+}
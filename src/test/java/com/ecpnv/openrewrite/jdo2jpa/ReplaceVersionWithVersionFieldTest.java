@@ -0,0 +1,224 @@
+package com.ecpnv.openrewrite.jdo2jpa;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.test.RecipeSpec;
+
+import static org.openrewrite.java.Assertions.java;
+
+/**
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class ReplaceVersionWithVersionFieldTest extends BaseRewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.parser(PARSER).recipe(new ReplaceVersionWithVersionField("org.estatio.base.prod.dom.EntityAbstract"));
+    }
+
+    /**
+     * A version number becomes a long field mapped to the version column, with a fully qualified JPA column as long
+     * as the JDO column is imported.
+     */
+    @DocumentExample
+    @Test
+    void replaceVersionNumber() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                import javax.jdo.annotations.Column;
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.jdo.annotations.Version;
+                                import javax.jdo.annotations.VersionStrategy;
+
+                                @PersistenceCapable
+                                @Version(strategy = VersionStrategy.VERSION_NUMBER, column = "version")
+                                public class Invoice {
+                                    @Column(length = 20)
+                                    private String number;
+                                }
+                                """,
+                        """
+                                import javax.jdo.annotations.Column;
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.persistence.Version;
+
+                                @PersistenceCapable
+                                public class Invoice {
+                                    @Version
+                                    @javax.persistence.Column(name = "version")
+                                    private long version;
+                                    @Column(length = 20)
+                                    private String number;
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * A date time version becomes a timestamp field, and the subclass of a versioned class does not get a field.
+     */
+    @Test
+    void replaceDateTimeAndSkipSubclass() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.jdo.annotations.Version;
+                                import javax.jdo.annotations.VersionStrategy;
+
+                                @PersistenceCapable
+                                @Version(strategy = VersionStrategy.DATE_TIME)
+                                public abstract class Party {
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.persistence.Version;
+
+                                import java.sql.Timestamp;
+
+                                @PersistenceCapable
+                                public abstract class Party {
+                                    @Version
+                                    private Timestamp version;
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.jdo.annotations.Version;
+                                import javax.jdo.annotations.VersionStrategy;
+
+                                @PersistenceCapable
+                                @Version(strategy = VersionStrategy.DATE_TIME)
+                                public class Person extends Party {
+                                }
+                                """,
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.PersistenceCapable;
+
+                                @PersistenceCapable
+                                public class Person extends Party {
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * Entities that extend EntityAbstract inherit its version field.
+     */
+    @Test
+    void skipEntityAbstract() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.jdo.annotations.Version;
+                                import javax.jdo.annotations.VersionStrategy;
+
+                                import org.estatio.base.prod.dom.EntityAbstract;
+
+                                @PersistenceCapable
+                                @Version(strategy = VersionStrategy.VERSION_NUMBER, column = "version")
+                                public class Invoice extends EntityAbstract {
+                                }
+                                """,
+                        """
+                                import javax.jdo.annotations.PersistenceCapable;
+
+                                import org.estatio.base.prod.dom.EntityAbstract;
+
+                                @PersistenceCapable
+                                public class Invoice extends EntityAbstract {
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * The field the DataNucleus extension refers to becomes the version field.
+     */
+    @Test
+    void annotateFieldOfExtension() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                import javax.jdo.annotations.Extension;
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.jdo.annotations.Version;
+                                import javax.jdo.annotations.VersionStrategy;
+
+                                @PersistenceCapable
+                                @Version(strategy = VersionStrategy.VERSION_NUMBER,
+                                        extensions = {@Extension(vendorName = "datanucleus", key = "field-name", value = "revision")})
+                                public class Invoice {
+                                    private long revision;
+                                }
+                                """,
+                        """
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.persistence.Version;
+
+                                @PersistenceCapable
+                                public class Invoice {
+                                    @Version
+                                    private long revision;
+                                }
+                                """
+                )
+        );
+    }
+
+    /**
+     * An existing field named version becomes the version field, instead of declaring a second one.
+     */
+    @Test
+    void annotateExistingVersionField() {
+        rewriteRun(
+                //language=java
+                java(
+                        """
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.jdo.annotations.Version;
+                                import javax.jdo.annotations.VersionStrategy;
+
+                                @PersistenceCapable
+                                @Version(strategy = VersionStrategy.VERSION_NUMBER)
+                                public class Invoice {
+                                    private String number;
+                                    private long version;
+                                }
+                                """,
+                        """
+                                import javax.jdo.annotations.PersistenceCapable;
+                                import javax.persistence.Version;
+
+                                @PersistenceCapable
+                                public class Invoice {
+                                    private String number;
+                                    @Version
+                                    private long version;
+                                }
+                                """
+                )
+        );
+    }
+}
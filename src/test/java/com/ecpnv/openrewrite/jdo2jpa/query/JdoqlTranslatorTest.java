@@ -0,0 +1,106 @@
+package com.ecpnv.openrewrite.jdo2jpa.query;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class JdoqlTranslatorTest {
+
+    /**
+     * Verifies that JPQL queries, native queries and other strings are not taken for JDOQL.
+     */
+    @Test
+    void detectJdoql() {
+        assertThat(JdoqlTranslator.isJdoql("SELECT FROM Person WHERE email == :email")).isTrue();
+        assertThat(JdoqlTranslator.isJdoql("SELECT UNIQUE this FROM org.example.Person")).isTrue();
+        assertThat(JdoqlTranslator.isJdoql("DELETE FROM Person WHERE age < 18")).isTrue();
+        assertThat(JdoqlTranslator.isJdoql("SELECT p FROM Person p WHERE p.email = :email")).isFalse();
+        assertThat(JdoqlTranslator.isJdoql("SELECT * FROM person WHERE name = :name")).isFalse();
+        assertThat(JdoqlTranslator.isJdoql("UPDATE Person p SET p.age = 1")).isFalse();
+    }
+
+    /**
+     * Verifies the translation of the fields, parameters, operators, null checks and ordering.
+     */
+    @Test
+    void translateFilter() {
+        JpqlQuery jpql = JdoqlTranslator.translate("SELECT FROM org.example.Person " +
+                "WHERE (lastName == :name || this.firstName == :name) && age >= 18 && address != null && !retired " +
+                "PARAMETERS String name ORDER BY lastName ascending, age DESC", null);
+        assertThat(jpql.query()).isEqualTo("SELECT p FROM Person p " +
+                "WHERE (p.lastName = :name OR p.firstName = :name) AND p.age >= 18 AND p.address IS NOT NULL " +
+                "AND p.retired = FALSE ORDER BY p.lastName ASC, p.age DESC");
+        assertThat(jpql.firstResult()).isNull();
+        assertThat(jpql.maxRows()).isNull();
+    }
+
+    /**
+     * Verifies that a variable bound by contains becomes a join and the string methods become LIKE and functions.
+     */
+    @Test
+    void translateVariablesAndMethods() {
+        JpqlQuery jpql = JdoqlTranslator.translate("SELECT DISTINCT this FROM Order " +
+                "WHERE lines.contains(line) && line.product.name.startsWith(:prefix) " +
+                "&& customer.name.toLowerCase().endsWith('bv') && !tags.isEmpty() " +
+                "VARIABLES org.example.OrderLine line", null);
+        assertThat(jpql.query()).isEqualTo("SELECT DISTINCT o FROM Order o JOIN o.lines line " +
+                "WHERE line.product.name LIKE CONCAT(:prefix, '%') AND LOWER(o.customer.name) LIKE '%bv' " +
+                "AND o.tags IS NOT EMPTY");
+    }
+
+    /**
+     * Verifies that the candidate of a query without FROM is the given class and that the range is returned
+     * separately.
+     */
+    @Test
+    void translateRange() {
+        JpqlQuery jpql = JdoqlTranslator.translate("SELECT WHERE name.matches('A.*') RANGE 10, 20", "Asset");
+        assertThat(jpql.query()).isEqualTo("SELECT a FROM Asset a WHERE a.name LIKE 'A%'");
+        assertThat(jpql.firstResult()).isEqualTo("10");
+        assertThat(jpql.maxRows()).isEqualTo("20");
+    }
+
+    /**
+     * Verifies that queries without JPQL equivalent are rejected with the reason, also when the query is cached.
+     */
+    @Test
+    void rejectUntranslatable() {
+        String query = "SELECT FROM Person WHERE (Object) name instanceof String";
+        assertThatThrownBy(() -> JdoqlTranslator.translate(query, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("casts are not supported");
+        assertThatThrownBy(() -> JdoqlTranslator.translate(query, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("casts are not supported");
+        assertThatThrownBy(() -> JdoqlTranslator.translate("SELECT FROM Person WHERE age > 1 RANGE :start, :end", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("a RANGE with parameters is not supported");
+    }
+
+    /**
+     * Verifies that positional values bind to the declared parameters, or else to the implicit parameters in order
+     * of appearance.
+     */
+    @Test
+    void orderParameterNames() {
+        assertThat(JdoqlTranslator.parameterNames(JdoqlTranslator.parse(
+                "SELECT FROM Person WHERE name == b && age > a PARAMETERS int a, String b"))).containsExactly("a", "b");
+        assertThat(JdoqlTranslator.parameterNames(JdoqlTranslator.parse(
+                "SELECT FROM Person WHERE name == :b && age > :a || name == :b"))).containsExactly("b", "a");
+    }
+
+    /**
+     * Verifies that a query is parsed once.
+     */
+    @Test
+    void cacheParsedQueries() {
+        String query = "SELECT FROM Person WHERE email == :email";
+        JdoqlQuery parsed = JdoqlTranslator.parse(query);
+        assertThat(JdoqlTranslator.parse(query)).isSameAs(parsed);
+        assertThat(JdoqlTranslator.CACHE).containsKey(query);
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecpnv.openrewrite.runner;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class GitChangesTest {
+
+    @TempDir
+    Path workTree;
+
+    private Path base;
+    private Path asset;
+    private Path building;
+    private Path land;
+    private Path owner;
+    private Path service;
+    private Path assetLayout;
+    private Path ownerLayout;
+
+    @BeforeEach
+    void commitSources() throws IOException, InterruptedException {
+        base = write("Base.java", "public abstract class Base {}");
+        asset = write("Asset.java", "public class Asset extends Base { private Owner owner; }");
+        building = write("Building.java", "public class Building extends Asset {}");
+        land = write("Land.java", "public class Land extends Base {}");
+        owner = write("Owner.java", "public class Owner {}");
+        service = write("AssetService.java", "public class AssetService {}");
+        assetLayout = write("Asset.layout.xml", "<grid/>");
+        ownerLayout = write("Owner.layout.xml", "<grid/>");
+        git("init", "-q");
+        git("add", ".");
+        git("commit", "-q", "-m", "initial");
+        git("tag", "base");
+    }
+
+    /**
+     * Verifies that a changed class selects its ancestors and descendants, but not its siblings, and that the
+     * siblings and the types it refers to are only parsed.
+     */
+    @Test
+    void selectLineageOfChangedClass() throws IOException, InterruptedException {
+        write("Asset.java", "public class Asset extends Base { private Owner owner; private String code; }");
+        git("commit", "-q", "-am", "change asset");
+
+        GitChanges.Selection selection = new GitChanges(workTree, "base").select(files());
+
+        assertThat(selection.getAffected()).containsExactlyInAnyOrder(asset, base, building);
+        assertThat(selection.getToParse()).containsExactlyInAnyOrder(asset, base, building, land, owner);
+    }
+
+    /**
+     * Verifies that uncommitted and untracked changes are selected, including layout files.
+     */
+    @Test
+    void selectWorkTreeChanges() throws IOException {
+        write("Owner.layout.xml", "<grid><row/></grid>");
+        Path tenant = write("Tenant.java", "public class Tenant {}");
+
+        GitChanges.Selection selection = new GitChanges(workTree, "base").select(files());
+
+        assertThat(selection.getAffected()).containsExactlyInAnyOrder(tenant, ownerLayout);
+        assertThat(selection.getToParse()).doesNotContain(assetLayout, land, service);
+    }
+
+    /**
+     * Verifies that an unknown ref is reported.
+     */
+    @Test
+    void unknownRef() {
+        assertThatThrownBy(() -> new GitChanges(workTree, "unknown").select(files()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("unknown");
+    }
+
+    private List<Path> files() {
+        return ParallelSourceParser.findSources(workTree.resolve("src"));
+    }
+
+    private Path write(String fileName, String source) throws IOException {
+        Path file = workTree.resolve("src").resolve(fileName);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, source);
+    }
+
+    private void git(String... arguments) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of("git", "-c", "user.name=test",
+                "-c", "user.email=test@example.org", "-c", "commit.gpgsign=false"));
+        command.addAll(List.of(arguments));
+        Process process = new ProcessBuilder(command).directory(workTree.toFile()).inheritIO().start();
+        assertThat(process.waitFor()).isZero();
+    }
+}
@@ -0,0 +1,214 @@
+package com.ecpnv.openrewrite.runner;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class MigrationRunnerTest {
+
+    static {
+        System.setProperty("libraryOfAbstractClassName", "jdo2jpa-abstract");//hack to include test jar in rewrite recipe
+    }
+
+    @TempDir
+    Path baseDir;
+
+    private Path sourceRoot;
+
+    @BeforeEach
+    void writeSources() throws IOException {
+        sourceRoot = baseDir.resolve("module/src/main/java");
+        Path packageDir = Files.createDirectories(sourceRoot.resolve("org/example"));
+        //language=java
+        Files.writeString(packageDir.resolve("Asset.java"), """
+                package org.example;
+
+                import javax.jdo.annotations.PersistenceCapable;
+
+                @PersistenceCapable(table = "ASSET")
+                public class Asset {
+                    private String code;
+                }
+                """);
+        //language=java
+        Files.writeString(packageDir.resolve("AssetService.java"), """
+                package org.example;
+
+                public class AssetService {
+                }
+                """);
+    }
+
+    /**
+     * Verifies that a diff run writes a unified diff of the migrated entity and leaves the sources untouched.
+     */
+    @Test
+    void writeDiff() throws IOException {
+        Path diffFile = baseDir.resolve("migration.diff");
+        MigrationRunner.Outcome outcome = new MigrationRunner().run(options()
+                .diffFile(diffFile)
+                .build());
+
+        assertThat(outcome.getParsed()).isEqualTo(2);
+        assertThat(outcome.getResults()).hasSize(1);
+        assertThat(Files.readString(diffFile))
+                .contains("--- a/module/src/main/java/org/example/Asset.java")
+                .contains("+@Entity");
+        assertThat(Files.readString(sourceRoot.resolve("org/example/Asset.java"))).contains("@PersistenceCapable");
+    }
+
+    /**
+     * Verifies that an in place run writes the migrated entity back to its source file.
+     */
+    @Test
+    void writeInPlace() throws IOException {
+        new MigrationRunner().run(options()
+                .outputMode(MigrationOptions.OutputMode.IN_PLACE)
+                .build());
+
+        assertThat(Files.readString(sourceRoot.resolve("org/example/Asset.java")))
+                .contains("@Entity")
+                .doesNotContain("@PersistenceCapable");
+    }
+
+    /**
+     * Verifies that the prefilter skips parsing the class without a JDO footprint.
+     */
+    @Test
+    void prefilter() throws IOException {
+        Path diffFile = baseDir.resolve("migration.diff");
+        MigrationRunner.Outcome outcome = new MigrationRunner().run(options()
+                .diffFile(diffFile)
+                .prefilter(true)
+                .build());
+
+        assertThat(outcome.getParsed()).isEqualTo(1);
+        assertThat(outcome.getSkipped()).isEqualTo(1);
+        assertThat(Files.readString(diffFile)).contains("+@Entity");
+    }
+
+    /**
+     * Verifies that an incremental run only migrates the changed files and repeats the diffs of the other files.
+     */
+    @Test
+    void incremental() throws IOException {
+        Path diffFile = baseDir.resolve("migration.diff");
+        MigrationOptions options = options()
+                .diffFile(diffFile)
+                .cacheDir(baseDir.resolve("cache"))
+                .build();
+        MigrationRunner runner = new MigrationRunner();
+
+        MigrationRunner.Outcome first = runner.run(options);
+        String firstDiff = Files.readString(diffFile);
+        MigrationRunner.Outcome second = runner.run(options);
+
+        assertThat(first.getParsed()).isEqualTo(2);
+        assertThat(first.getUnchanged()).isZero();
+        assertThat(second.getParsed()).isZero();
+        assertThat(second.getUnchanged()).isEqualTo(2);
+        assertThat(Files.readString(diffFile)).isEqualTo(firstDiff).contains("+@Entity");
+
+        //language=java
+        Files.writeString(sourceRoot.resolve("org/example/AssetService.java"), """
+                package org.example;
+
+                public class AssetService {
+                    public void dispose() {
+                    }
+                }
+                """);
+        MigrationRunner.Outcome third = runner.run(options);
+
+        assertThat(third.getParsed()).isEqualTo(1);
+        assertThat(third.getUnchanged()).isEqualTo(1);
+        assertThat(Files.readString(diffFile)).isEqualTo(firstDiff);
+    }
+
+    /**
+     * Verifies that an incremental run that does not parse all files drops the incomplete orm.xml it generates and
+     * repeats the diff of the orm.xml generated by the last run that parsed all files.
+     */
+    @Test
+    void incrementalRepeatsGeneratedFiles() throws IOException {
+        //language=xml
+        Files.writeString(sourceRoot.resolve("org/example/package.jdo"), """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <jdo xmlns="http://xmlns.jcp.org/xml/ns/jdo/jdo">
+                    <package name="org.example">
+                        <class name="Asset" table="ASSET"/>
+                    </package>
+                </jdo>
+                """);
+        Path diffFile = baseDir.resolve("migration.diff");
+        MigrationOptions options = options()
+                .recipe("com.ecpnv.openrewrite.jdo2jpa.v2x.configuration")
+                .diffFile(diffFile)
+                .cacheDir(baseDir.resolve("cache"))
+                .build();
+        MigrationRunner runner = new MigrationRunner();
+
+        runner.run(options);
+        String firstDiff = Files.readString(diffFile);
+        //language=java
+        Files.writeString(sourceRoot.resolve("org/example/AssetService.java"), """
+                package org.example;
+
+                public class AssetService {
+                    public void dispose() {
+                    }
+                }
+                """);
+        MigrationRunner.Outcome second = runner.run(options);
+
+        assertThat(second.getParsed()).isEqualTo(1);
+        assertThat(second.getResults()).isEmpty();
+        assertThat(firstDiff).contains("+++ b/module/src/main/resources/META-INF/orm.xml");
+        assertThat(Files.readString(diffFile)).isEqualTo(firstDiff);
+    }
+
+    /**
+     * Verifies the parsing of the command line arguments.
+     */
+    @Test
+    void parseArguments() throws IOException {
+        Path classpathFile = Files.writeString(baseDir.resolve("cp.txt"), "/libs/a.jar\n/libs/b.jar\n");
+
+        MigrationOptions options = Jdo2JpaCli.parseArguments(new String[]{
+                "--base-dir", baseDir.toString(), "--classpath-file", classpathFile.toString(),
+                "--in-place", "--parallelism", "2", "--trigger", "@PersistenceCapable", "--cache-dir", baseDir.resolve("cache").toString(),
+                sourceRoot.toString()});
+
+        assertThat(options.getBaseDir()).isEqualTo(baseDir);
+        assertThat(options.getClasspath()).containsExactly(Path.of("/libs/a.jar"), Path.of("/libs/b.jar"));
+        assertThat(options.getRecipe()).isEqualTo(MigrationOptions.DEFAULT_RECIPE);
+        assertThat(options.getOutputMode()).isEqualTo(MigrationOptions.OutputMode.IN_PLACE);
+        assertThat(options.getParallelism()).isEqualTo(2);
+        assertThat(options.getSourceRoots()).containsExactly(sourceRoot);
+        assertThat(options.isPrefilter()).isTrue();
+        assertThat(options.getTriggers()).containsExactly("@PersistenceCapable");
+        assertThat(options.getCacheDir()).isEqualTo(baseDir.resolve("cache"));
+        assertThatThrownBy(() -> Jdo2JpaCli.parseArguments(new String[]{"--in-place"}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Jdo2JpaCli.parseArguments(new String[]{
+                "--since", "main", "--cache-dir", "cache", sourceRoot.toString()}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private MigrationOptions.MigrationOptionsBuilder options() {
+        return MigrationOptions.builder()
+                .baseDir(baseDir)
+                .sourceRoot(sourceRoot)
+                .parallelism(2);
+    }
+}
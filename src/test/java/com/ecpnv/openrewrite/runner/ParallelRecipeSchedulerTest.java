@@ -0,0 +1,158 @@
+package com.ecpnv.openrewrite.runner;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.RecipeRun;
+import org.openrewrite.Result;
+import org.openrewrite.SourceFile;
+import org.openrewrite.config.Environment;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
+
+import com.ecpnv.openrewrite.util.JavaParserFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class ParallelRecipeSchedulerTest {
+
+    private static final String RECIPE = "com.ecpnv.openrewrite.jdo2jpa.v2x";
+
+    private static final String SOURCES_FILE_RESULTS = "org.openrewrite.table.SourcesFileResults";
+
+    private static final Environment ENVIRONMENT = Environment.builder().scanRuntimeClasspath("com.ecpnv.openrewrite").build();
+
+    private static List<SourceFile> sourceFiles;
+
+    @BeforeAll
+    static void parse() {
+        sourceFiles = JavaParserFactory.create().build().parse(new InMemoryExecutionContext(),
+                //language=java
+                """
+                        package org.example.hr;
+
+                        import java.util.List;
+                        import javax.jdo.annotations.Discriminator;
+
+                        @Discriminator("manager")
+                        public class Manager extends Person {
+                            private List<Person> managedPersons;
+                        }
+                        """,
+                //language=java
+                """
+                        package org.example.hr;
+
+                        import javax.jdo.annotations.Column;
+                        import javax.jdo.annotations.Discriminator;
+                        import javax.jdo.annotations.Index;
+                        import javax.jdo.annotations.Indices;
+                        import javax.jdo.annotations.Inheritance;
+                        import javax.jdo.annotations.InheritanceStrategy;
+                        import javax.jdo.annotations.PersistenceCapable;
+
+                        @PersistenceCapable
+                        @Inheritance(strategy = InheritanceStrategy.NEW_TABLE)
+                        @Discriminator("person")
+                        @Indices({
+                          @Index(name = "Person_name_IDX", members = {"name"})
+                        })
+                        public class Person {
+                            @Column(name = "department_id")
+                            private Department department;
+                            @Column(name = "name")
+                            private String name;
+                        }
+                        """,
+                //language=java
+                """
+                        package org.example.hr;
+
+                        import java.util.List;
+                        import javax.jdo.annotations.PersistenceCapable;
+                        import javax.jdo.annotations.Persistent;
+
+                        @PersistenceCapable
+                        public class Department {
+                            private int id;
+                            @Persistent(mappedBy = "department")
+                            private List<Person> persons;
+                        }
+                        """,
+                //language=java
+                """
+                        package org.example.hr;
+
+                        import javax.jdo.annotations.Discriminator;
+
+                        @Discriminator("contractor")
+                        public class Contractor extends Person {
+                            private String company;
+                        }
+                        """,
+                //language=java
+                """
+                        package org.example.assets;
+
+                        import javax.jdo.annotations.Column;
+                        import javax.jdo.annotations.PersistenceCapable;
+
+                        @PersistenceCapable(table = "ASSET")
+                        public class Asset {
+                            @Column(allowsNull = "false", length = 50)
+                            private String code;
+                        }
+                        """,
+                //language=java
+                """
+                        package org.example.assets;
+
+                        public class AssetService {
+                            public String describe(Asset asset) {
+                                return String.valueOf(asset);
+                            }
+                        }
+                        """
+        ).toList();
+    }
+
+    /**
+     * Runs the complete migration recipe sequentially and in parallel and verifies that both runs produce the same
+     * changes in the same order, byte for byte, and the same data table rows. The subclasses are placed in other
+     * partitions than their parent, so the edits depend on accumulators filled from other partitions.
+     */
+    @Test
+    void parallelRunMatchesSequentialRun() {
+        RecipeRun sequential = ENVIRONMENT.activateRecipes(RECIPE)
+                .run(new InMemoryLargeSourceSet(sourceFiles), new InMemoryExecutionContext());
+        assertThat(print(sequential)).isNotEmpty();
+
+        for (int parallelism : new int[]{3, sourceFiles.size()}) {
+            RecipeRun parallel = new ParallelRecipeScheduler(parallelism)
+                    .scheduleRun(ENVIRONMENT.activateRecipes(RECIPE), sourceFiles, new InMemoryExecutionContext());
+            assertThat(print(parallel)).as("parallelism %d", parallelism)
+                    .containsExactlyEntriesOf(print(sequential));
+            assertThat(parallel.getDataTableRows(SOURCES_FILE_RESULTS).stream().map(Object::toString))
+                    .as("parallelism %d", parallelism)
+                    .containsExactlyElementsOf(sequential.getDataTableRows(SOURCES_FILE_RESULTS).stream()
+                            .map(Object::toString).toList());
+        }
+    }
+
+    private static Map<String, String> print(RecipeRun run) {
+        Map<String, String> printed = new LinkedHashMap<>();
+        for (Result result : run.getChangeset().getAllResults()) {
+            SourceFile after = result.getAfter();
+            SourceFile before = result.getBefore();
+            printed.put(String.valueOf(before == null ? null : before.getSourcePath()),
+                    after == null ? "" : after.printAll());
+        }
+        return printed;
+    }
+}
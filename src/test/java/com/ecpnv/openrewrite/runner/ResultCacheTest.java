@@ -0,0 +1,124 @@
+package com.ecpnv.openrewrite.runner;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class ResultCacheTest {
+
+    @TempDir
+    Path baseDir;
+
+    private Path cacheDir;
+    private Path base;
+    private Path asset;
+    private Path building;
+    private Path owner;
+    private Path service;
+
+    @BeforeEach
+    void writeSources() throws IOException {
+        cacheDir = baseDir.resolve("cache");
+        base = write("Base.java", "public abstract class Base {}");
+        asset = write("Asset.java", "@PersistenceCapable public class Asset extends Base { private Owner owner; }");
+        building = write("Building.java", "public class Building extends Asset {}");
+        owner = write("Owner.java", "@PersistenceCapable public class Owner {}");
+        service = write("AssetService.java", "public class AssetService {}");
+    }
+
+    /**
+     * Verifies that a first run migrates everything and that a run without changes migrates nothing.
+     */
+    @Test
+    void unchangedFilesAreNotDirty() {
+        ResultCache.Plan first = ResultCache.load(cacheDir).plan(baseDir, files(), "v1");
+        assertThat(first.getDirty()).hasSize(5);
+
+        ResultCache.load(cacheDir).save(first.getInputKeys(), Map.of());
+        ResultCache.Plan second = ResultCache.load(cacheDir).plan(baseDir, files(), "v1");
+
+        assertThat(second.getInputKeys()).isEqualTo(first.getInputKeys());
+        assertThat(second.getDirty()).isEmpty();
+        assertThat(second.getToParse()).isEmpty();
+    }
+
+    /**
+     * Verifies that a changed file makes its lineage and the files it is related to dirty, but not its siblings and
+     * unrelated files, and that a changed configuration makes everything dirty.
+     */
+    @Test
+    void changedFileMakesDependentsDirty() throws IOException {
+        ResultCache.load(cacheDir).save(ResultCache.load(cacheDir).plan(baseDir, files(), "v1").getInputKeys(),
+                Map.of());
+        Path land = write("Land.java", "public class Land extends Base {}");
+        ResultCache.load(cacheDir).save(ResultCache.load(cacheDir).plan(baseDir, files(), "v1").getInputKeys(),
+                Map.of());
+        write("Owner.java", "@PersistenceCapable public class Owner { private String name; }");
+
+        ResultCache.Plan plan = ResultCache.load(cacheDir).plan(baseDir, files(), "v1");
+
+        assertThat(plan.getDirty()).containsExactlyInAnyOrder(sourcePath(owner), sourcePath(asset));
+        assertThat(plan.getToParse()).contains(owner, asset, base, building).doesNotContain(land, service);
+        assertThat(ResultCache.load(cacheDir).plan(baseDir, files(), "v2").getDirty()).hasSize(6);
+    }
+
+    /**
+     * Verifies that a changed properties file, which holds the settings of the recipes, makes everything dirty and that
+     * the properties files are parsed with any dirty file.
+     */
+    @Test
+    void changedSettingsMakeEverythingDirty() throws IOException {
+        Path policy = write("batch-fetch.properties", "org.example=true");
+        ResultCache.load(cacheDir).save(ResultCache.load(cacheDir).plan(baseDir, files(), "v1").getInputKeys(),
+                Map.of());
+        write("batch-fetch.properties", "org.example=false");
+
+        assertThat(ResultCache.load(cacheDir).plan(baseDir, files(), "v1").getDirty()).hasSize(6);
+
+        ResultCache.load(cacheDir).save(ResultCache.load(cacheDir).plan(baseDir, files(), "v1").getInputKeys(),
+                Map.of());
+        write("AssetService.java", "public class AssetService { private String name; }");
+
+        assertThat(ResultCache.load(cacheDir).plan(baseDir, files(), "v1").getToParse()).contains(service, policy);
+    }
+
+    /**
+     * Verifies that the diffs of the files that were not migrated again are kept.
+     */
+    @Test
+    void keepDiffsOfUnchangedFiles() {
+        ResultCache.Plan plan = ResultCache.load(cacheDir).plan(baseDir, files(), "v1");
+        ResultCache.load(cacheDir).save(plan.getInputKeys(), Map.of(sourcePath(asset), "asset diff",
+                sourcePath(owner), "owner diff"));
+        ResultCache.load(cacheDir).save(plan.getInputKeys(), Map.of(sourcePath(owner), ""));
+
+        ResultCache cache = ResultCache.load(cacheDir);
+        assertThat(cache.diff(sourcePath(asset))).contains("asset diff");
+        assertThat(cache.diff(sourcePath(owner))).isEmpty();
+    }
+
+    private List<Path> files() {
+        return ParallelSourceParser.findSources(baseDir.resolve("src"));
+    }
+
+    private Path sourcePath(Path file) {
+        return baseDir.relativize(file);
+    }
+
+    private Path write(String fileName, String source) throws IOException {
+        Path file = baseDir.resolve("src").resolve(fileName);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, source);
+    }
+}
@@ -0,0 +1,127 @@
+package com.ecpnv.openrewrite.runner;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.TreeVisitor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class SharedRootCursorTest {
+
+    private final ExecutionContext ctx = new InMemoryExecutionContext();
+    private final Recipe root = Recipe.noop();
+    private final Counter first = new Counter();
+    private final Counter second = new Counter();
+
+    /**
+     * A worker wraps the scanning recipes in other instances than the scan did and asks for the accumulators in
+     * another order, yet gets the accumulator of the wrapped recipe.
+     */
+    @Test
+    void resolveAccumulatorsByRecipe() {
+        SharedRootCursor cursor = new SharedRootCursor();
+        scan(cursor, new Wrapped(first), 1);
+        scan(cursor, new Wrapped(second), 2);
+
+        SharedRootCursor.WorkerRootCursor worker = cursor.forWorker();
+        Wrapped workerSecond = new Wrapped(second);
+        worker.setRecipeStack(List.of(root, workerSecond));
+        assertThat(workerSecond.getAccumulator(worker, ctx)).hasValue(2);
+        Wrapped workerFirst = new Wrapped(first);
+        worker.setRecipeStack(List.of(root, workerFirst));
+        assertThat(workerFirst.getAccumulator(worker, ctx)).hasValue(1);
+    }
+
+    /**
+     * An accumulator that was not created while scanning is created once and shared by the workers.
+     */
+    @Test
+    void createAccumulatorNotScanned() {
+        SharedRootCursor cursor = new SharedRootCursor();
+        scan(cursor, new Wrapped(first), 1);
+
+        SharedRootCursor.WorkerRootCursor worker = cursor.forWorker();
+        Wrapped workerSecond = new Wrapped(second);
+        worker.setRecipeStack(List.of(root, workerSecond));
+        workerSecond.getAccumulator(worker, ctx).incrementAndGet();
+
+        SharedRootCursor.WorkerRootCursor otherWorker = cursor.forWorker();
+        Wrapped otherWorkerSecond = new Wrapped(second);
+        otherWorker.setRecipeStack(List.of(root, otherWorkerSecond));
+        assertThat(otherWorkerSecond.getAccumulator(otherWorker, ctx)).hasValue(1);
+    }
+
+    private void scan(SharedRootCursor cursor, Wrapped recipe, int count) {
+        cursor.setRecipeStack(List.of(root, recipe));
+        recipe.getAccumulator(cursor, ctx).set(count);
+    }
+
+    private static class Counter extends ScanningRecipe<AtomicInteger> {
+
+        @Override
+        public String getDisplayName() {
+            return "Counter";
+        }
+
+        @Override
+        public String getDescription() {
+            return "Counts.";
+        }
+
+        @Override
+        public AtomicInteger getInitialValue(ExecutionContext ctx) {
+            return new AtomicInteger();
+        }
+
+        @Override
+        public TreeVisitor<?, ExecutionContext> getScanner(AtomicInteger acc) {
+            return TreeVisitor.noop();
+        }
+    }
+
+    /**
+     * Wraps a scanning recipe like a declarative recipe with preconditions does for every recipe stack.
+     */
+    private static class Wrapped extends ScanningRecipe<AtomicInteger> implements Recipe.DelegatingRecipe {
+
+        private final Counter delegate;
+
+        Wrapped(Counter delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return delegate.getDisplayName();
+        }
+
+        @Override
+        public String getDescription() {
+            return delegate.getDescription();
+        }
+
+        @Override
+        public AtomicInteger getInitialValue(ExecutionContext ctx) {
+            return delegate.getInitialValue(ctx);
+        }
+
+        @Override
+        public TreeVisitor<?, ExecutionContext> getScanner(AtomicInteger acc) {
+            return delegate.getScanner(acc);
+        }
+
+        @Override
+        public Recipe getDelegate() {
+            return delegate;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.ecpnv.openrewrite.runner;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openrewrite.java.ChangeType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class SourcePrefilterTest {
+
+    @TempDir
+    Path sourceRoot;
+
+    /**
+     * Verifies that the triggers are the default triggers and the packages of the types the recipe refers to, without
+     * the java packages.
+     */
+    @Test
+    void triggersFromRecipe() {
+        SourcePrefilter prefilter = SourcePrefilter.forRecipe(
+                new ChangeType("javax.jdo.annotations.PersistenceCapable", "java.lang.Deprecated", null),
+                List.of("@PersistenceCapable"));
+
+        assertThat(prefilter.getTriggers())
+                .containsAll(SourcePrefilter.DEFAULT_TRIGGERS)
+                .contains("javax.jdo.annotations", "@PersistenceCapable")
+                .hasSize(SourcePrefilter.DEFAULT_TRIGGERS.size() + 2);
+    }
+
+    /**
+     * Verifies that an entity, its hierarchy and the project types it refers to are selected and that the unrelated
+     * classes are skipped.
+     */
+    @Test
+    void selectEntitiesWithHierarchyAndReferences() throws IOException {
+        //language=java
+        Path base = write("Base.java", """
+                package org.example;
+
+                public abstract class Base implements Comparable<Base> {
+                }
+                """);
+        //language=java
+        Path asset = write("Asset.java", """
+                package org.example;
+
+                import javax.jdo.annotations.PersistenceCapable;
+
+                @PersistenceCapable
+                public class Asset extends Base {
+                    private AssetType type;
+                }
+                """);
+        //language=java
+        Path building = write("Building.java", """
+                package org.example;
+
+                public class Building extends Asset {
+                }
+                """);
+        //language=java
+        Path assetType = write("AssetType.java", """
+                package org.example;
+
+                public enum AssetType {
+                    BUILDING, LAND
+                }
+                """);
+        //language=java
+        Path service = write("AssetService.java", """
+                package org.example;
+
+                public class AssetService {
+                    public void print(String text) {
+                    }
+                }
+                """);
+        Path empty = write("Empty.java", "");
+
+        List<Path> selected = new SourcePrefilter(Set.of("javax.jdo.annotations"))
+                .select(List.of(assetType, asset, service, base, building, empty));
+
+        assertThat(selected).containsExactly(assetType, asset, base, building);
+    }
+
+    /**
+     * Verifies that without triggers nothing is skipped.
+     */
+    @Test
+    void selectAllWithoutTriggers() throws IOException {
+        Path service = write("AssetService.java", "class AssetService {}");
+
+        assertThat(new SourcePrefilter(Set.of()).select(List.of(service))).containsExactly(service);
+    }
+
+    private Path write(String fileName, String source) throws IOException {
+        return Files.writeString(sourceRoot.resolve(fileName), source);
+    }
+}
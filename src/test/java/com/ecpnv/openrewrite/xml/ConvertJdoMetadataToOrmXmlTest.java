@@ -0,0 +1,385 @@
+package com.ecpnv.openrewrite.xml;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.DocumentExample;
+import org.openrewrite.test.RecipeSpec;
+
+import static org.openrewrite.java.Assertions.java;
+import static org.openrewrite.xml.Assertions.xml;
+
+import com.ecpnv.openrewrite.jdo2jpa.BaseRewriteTest;
+
+/**
+ * @author Patrick Deenen @ Open Circle Solutions
+ */
+class ConvertJdoMetadataToOrmXmlTest extends BaseRewriteTest {
+
+    @Override
+    public void defaults(RecipeSpec spec) {
+        spec.parser(PARSER).recipe(new ConvertJdoMetadataToOrmXml(null, null));
+    }
+
+    /**
+     * Converts the tables, columns, indexes, single table inheritance and relations of a package.jdo, all classes are
+     * completely mapped by the metadata.
+     */
+    @DocumentExample
+    @Test
+    void convertPackageJdo() {
+        rewriteRun(
+                //language=xml
+                xml(
+                        """
+                                <?xml version="1.0" encoding="UTF-8"?>
+                                <jdo xmlns="http://xmlns.jcp.org/xml/ns/jdo/jdo">
+                                    <package name="org.example">
+                                        <class name="Party" table="PARTY">
+                                            <inheritance strategy="new-table">
+                                                <discriminator strategy="value-map" column="TYPE" value="PARTY" indexed="true"/>
+                                            </inheritance>
+                                            <field name="id" primary-key="true" value-strategy="identity" column="ID"/>
+                                            <field name="name">
+                                                <column name="NAME" length="100" allows-null="false"/>
+                                            </field>
+                                            <field name="reference" indexed="unique" column="REF"/>
+                                            <field name="addresses" mapped-by="party">
+                                                <collection element-type="Address"/>
+                                            </field>
+                                        </class>
+                                        <class name="Person">
+                                            <inheritance strategy="superclass-table">
+                                                <discriminator value="PERSON"/>
+                                            </inheritance>
+                                            <field name="notes" default-fetch-group="false">
+                                                <column jdbc-type="CLOB"/>
+                                            </field>
+                                        </class>
+                                        <class name="Address" table="ADDRESS">
+                                            <field name="id" primary-key="true" value-strategy="sequence" sequence="ADDRESS_SEQ"/>
+                                            <field name="party" column="PARTY_ID"/>
+                                            <field name="tags" table="ADDRESS_TAG">
+                                                <collection element-type="java.lang.String"/>
+                                                <join column="ADDRESS_ID"/>
+                                            </field>
+                                            <field name="cache" persistence-modifier="none"/>
+                                            <index name="ADDRESS_PARTY_IDX">
+                                                <field name="party"/>
+                                            </index>
+                                        </class>
+                                    </package>
+                                </jdo>
+                                """,
+                        spec -> spec.path("src/main/resources/org/example/package.jdo")
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import java.util.List;
+
+                                public class Party {
+                                    private Long id;
+                                    private String name;
+                                    private String reference;
+                                    private List<Address> addresses;
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                public class Person extends Party {
+                                    private static final long serialVersionUID = 1L;
+                                    private String notes;
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import java.util.List;
+
+                                public class Address {
+                                    private Long id;
+                                    private Party party;
+                                    private List<String> tags;
+                                    private transient String cache;
+                                }
+                                """
+                ),
+                //language=xml
+                xml(
+                        null,
+                        """
+                                <?xml version="1.0" encoding="UTF-8"?>
+                                <entity-mappings xmlns="http://xmlns.jcp.org/xml/ns/persistence/orm"
+                                                 xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+                                                 xsi:schemaLocation="http://xmlns.jcp.org/xml/ns/persistence/orm http://xmlns.jcp.org/xml/ns/persistence/orm_2_2.xsd"
+                                                 version="2.2">
+                                    <entity class="org.example.Address" metadata-complete="true">
+                                        <table name="ADDRESS">
+                                            <index name="ADDRESS_PARTY_IDX" column-list="PARTY_ID"/>
+                                        </table>
+                                        <attributes>
+                                            <id name="id">
+                                                <generated-value strategy="SEQUENCE" generator="ADDRESS_SEQ"/>
+                                                <sequence-generator name="ADDRESS_SEQ" sequence-name="ADDRESS_SEQ"/>
+                                            </id>
+                                            <many-to-one name="party">
+                                                <join-column name="PARTY_ID"/>
+                                            </many-to-one>
+                                            <element-collection name="tags">
+                                                <collection-table name="ADDRESS_TAG">
+                                                    <join-column name="ADDRESS_ID"/>
+                                                </collection-table>
+                                            </element-collection>
+                                            <transient name="cache"/>
+                                        </attributes>
+                                    </entity>
+                                    <entity class="org.example.Party" metadata-complete="true">
+                                        <table name="PARTY">
+                                            <index column-list="TYPE"/>
+                                            <index column-list="REF" unique="true"/>
+                                        </table>
+                                        <inheritance strategy="SINGLE_TABLE"/>
+                                        <discriminator-value>PARTY</discriminator-value>
+                                        <discriminator-column name="TYPE"/>
+                                        <attributes>
+                                            <id name="id">
+                                                <column name="ID"/>
+                                                <generated-value strategy="IDENTITY"/>
+                                            </id>
+                                            <basic name="name">
+                                                <column name="NAME" nullable="false" length="100"/>
+                                            </basic>
+                                            <basic name="reference">
+                                                <column name="REF"/>
+                                            </basic>
+                                            <one-to-many name="addresses" target-entity="org.example.Address" mapped-by="party"/>
+                                        </attributes>
+                                    </entity>
+                                    <entity class="org.example.Person" metadata-complete="true">
+                                        <discriminator-value>PERSON</discriminator-value>
+                                        <attributes>
+                                            <basic name="notes" fetch="LAZY">
+                                                <lob/>
+                                            </basic>
+                                        </attributes>
+                                    </entity>
+                                </entity-mappings>
+                                """,
+                        spec -> spec.path(ConvertJdoMetadataToOrmXml.DEFAULT_ORM_XML_PATH)
+                )
+        );
+    }
+
+    /**
+     * A joined hierarchy of a package-*.orm file, the annotated class and the class with a datastore identity are not
+     * completely mapped by the metadata.
+     */
+    @Test
+    void convertOrmFileWithoutMetadataComplete() {
+        rewriteRun(
+                spec -> spec.recipe(new ConvertJdoMetadataToOrmXml("META-INF/orm.xml", null)),
+                //language=xml
+                xml(
+                        """
+                                <?xml version="1.0" encoding="UTF-8"?>
+                                <orm xmlns="http://xmlns.jcp.org/xml/ns/jdo/orm">
+                                    <package name="org.example">
+                                        <class name="Party" table="PARTY" identity-type="datastore">
+                                            <datastore-identity strategy="identity" column="ID"/>
+                                            <inheritance strategy="new-table">
+                                                <discriminator strategy="class-name">
+                                                    <column name="CLASS_NAME"/>
+                                                </discriminator>
+                                            </inheritance>
+                                            <unique name="PARTY_CODE_UQ">
+                                                <column name="CODE"/>
+                                            </unique>
+                                        </class>
+                                        <class name="Person" table="PERSON">
+                                            <inheritance strategy="new-table"/>
+                                            <field name="spouse" unique="true" column="SPOUSE_ID"/>
+                                        </class>
+                                    </package>
+                                </orm>
+                                """,
+                        spec -> spec.path("src/main/resources/org/example/package-postgresql.orm")
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                import javax.jdo.annotations.PersistenceCapable;
+
+                                @PersistenceCapable
+                                public class Party {
+                                    private String code;
+                                }
+                                """
+                ),
+                //language=java
+                java(
+                        """
+                                package org.example;
+
+                                public class Person extends Party {
+                                    private Person spouse;
+                                    private String nickname;
+                                }
+                                """
+                ),
+                //language=xml
+                xml(
+                        null,
+                        """
+                                <?xml version="1.0" encoding="UTF-8"?>
+                                <entity-mappings xmlns="http://xmlns.jcp.org/xml/ns/persistence/orm"
+                                                 xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+                                                 xsi:schemaLocation="http://xmlns.jcp.org/xml/ns/persistence/orm http://xmlns.jcp.org/xml/ns/persistence/orm_2_2.xsd"
+                                                 version="2.2">
+                                    <entity class="org.example.Party">
+                                        <table name="PARTY">
+                                            <unique-constraint name="PARTY_CODE_UQ">
+                                                <column-name>CODE</column-name>
+                                            </unique-constraint>
+                                        </table>
+                                        <inheritance strategy="JOINED"/>
+                                        <discriminator-value>org.example.Party</discriminator-value>
+                                        <discriminator-column name="CLASS_NAME"/>
+                                    </entity>
+                                    <entity class="org.example.Person">
+                                        <table name="PERSON">
+                                            <unique-constraint>
+                                                <column-name>SPOUSE_ID</column-name>
+                                            </unique-constraint>
+                                        </table>
+                                        <discriminator-value>org.example.Person</discriminator-value>
+                                        <attributes>
+                                            <one-to-one name="spouse">
+                                                <join-column name="SPOUSE_ID"/>
+                                            </one-to-one>
+                                        </attributes>
+                                    </entity>
+                                </entity-mappings>
+                                """,
+                        spec -> spec.path("META-INF/orm.xml")
+                )
+        );
+    }
+
+    /**
+     * An existing orm.xml is not overwritten.
+     */
+    @Test
+    void keepExistingOrmXml() {
+        rewriteRun(
+                //language=xml
+                xml(
+                        """
+                                <jdo>
+                                    <package name="org.example">
+                                        <class name="Party" table="PARTY"/>
+                                    </package>
+                                </jdo>
+                                """,
+                        spec -> spec.path("src/main/resources/org/example/package.jdo")
+                ),
+                //language=xml
+                xml(
+                        """
+                                <entity-mappings version="2.2"/>
+                                """,
+                        spec -> spec.path(ConvertJdoMetadataToOrmXml.DEFAULT_ORM_XML_PATH)
+                )
+        );
+    }
+
+    /**
+     * Every module gets an orm.xml with the classes of its own metadata, unless it already has one.
+     */
+    @Test
+    void generateOrmXmlPerModule() {
+        rewriteRun(
+                //language=xml
+                xml(
+                        """
+                                <jdo>
+                                    <package name="org.example.party">
+                                        <class name="Party" table="PARTY"/>
+                                    </package>
+                                </jdo>
+                                """,
+                        spec -> spec.path("party/src/main/resources/org/example/party/package.jdo")
+                ),
+                //language=xml
+                xml(
+                        """
+                                <jdo>
+                                    <package name="org.example.asset">
+                                        <class name="Asset" table="ASSET"/>
+                                    </package>
+                                </jdo>
+                                """,
+                        spec -> spec.path("asset/src/main/resources/org/example/asset/package.jdo")
+                ),
+                //language=xml
+                xml(
+                        """
+                                <jdo>
+                                    <package name="org.example.lease">
+                                        <class name="Lease" table="LEASE"/>
+                                    </package>
+                                </jdo>
+                                """,
+                        spec -> spec.path("lease/src/main/resources/org/example/lease/package.jdo")
+                ),
+                //language=xml
+                xml(
+                        """
+                                <entity-mappings version="2.2"/>
+                                """,
+                        spec -> spec.path("lease/" + ConvertJdoMetadataToOrmXml.DEFAULT_ORM_XML_PATH)
+                ),
+                //language=xml
+                xml(
+                        null,
+                        """
+                                <?xml version="1.0" encoding="UTF-8"?>
+                                <entity-mappings xmlns="http://xmlns.jcp.org/xml/ns/persistence/orm"
+                                                 xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+                                                 xsi:schemaLocation="http://xmlns.jcp.org/xml/ns/persistence/orm http://xmlns.jcp.org/xml/ns/persistence/orm_2_2.xsd"
+                                                 version="2.2">
+                                    <entity class="org.example.asset.Asset">
+                                        <table name="ASSET"/>
+                                    </entity>
+                                </entity-mappings>
+                                """,
+                        spec -> spec.path("asset/" + ConvertJdoMetadataToOrmXml.DEFAULT_ORM_XML_PATH)
+                ),
+                //language=xml
+                xml(
+                        null,
+                        """
+                                <?xml version="1.0" encoding="UTF-8"?>
+                                <entity-mappings xmlns="http://xmlns.jcp.org/xml/ns/persistence/orm"
+                                                 xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+                                                 xsi:schemaLocation="http://xmlns.jcp.org/xml/ns/persistence/orm http://xmlns.jcp.org/xml/ns/persistence/orm_2_2.xsd"
+                                                 version="2.2">
+                                    <entity class="org.example.party.Party">
+                                        <table name="PARTY"/>
+                                    </entity>
+                                </entity-mappings>
+                                """,
+                        spec -> spec.path("party/" + ConvertJdoMetadataToOrmXml.DEFAULT_ORM_XML_PATH)
+                )
+        );
+    }
+}